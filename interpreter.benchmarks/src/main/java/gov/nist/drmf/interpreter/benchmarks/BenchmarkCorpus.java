@@ -0,0 +1,88 @@
+package gov.nist.drmf.interpreter.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Loads the DLMF corpora that are shipped with the tests of the other modules. The corpora are copied
+ * into the benchmark jar, see the resources of this module.
+ *
+ * @author Andre Greiner-Petter
+ */
+public final class BenchmarkCorpus {
+    private static final String DLMF_CORPUS = "/corpus/DLMFFormulaCorpus.tsv";
+
+    private static final String[] SEMANTIC_CORPORA = new String[] {
+            "/corpus/translations/Sums.json",
+            "/corpus/translations/Products.json",
+            "/corpus/translations/Limits.json",
+            "/corpus/translations/Integrals.json",
+            "/corpus/translations/SpecialFunctions.json"
+    };
+
+    /**
+     * Limit expressions of sums, products, and integrals (limited expressions) as they appear in the DLMF.
+     */
+    public static final String[] LIMITED_EXPRESSIONS = new String[] {
+            "a = 1", "\\ell = 1", "n = -\\infty", "a, b, c = 1", "1 \\leq n \\leq 10", "1 \\le n, k \\leq 10",
+            "1 \\le j < k \\le n", "-\\infty < n < \\infty", "m-1 \\leq n, k \\leq m+1", "n_k = 1", "p^m \\leq x",
+            "x \\in \\Omega_n", "n \\hiderel{=} 1", "\\ell = 0", "q"
+    };
+
+    /**
+     * Limit expressions of limits as they appear in the DLMF.
+     */
+    public static final String[] LIM_EXPRESSIONS = new String[] {
+            "x \\to 0", "x \\to 1-", "x \\to 1^{-}", "x \\to 2+", "x \\to -m-l", "n \\to \\infty", "z \\to \\infty"
+    };
+
+    private BenchmarkCorpus() {}
+
+    /**
+     * @return pairs of DLMF labels and the generic LaTeX of the formula
+     */
+    public static List<String[]> loadDLMFFormulae() {
+        List<String[]> corpus = new ArrayList<>();
+        try ( BufferedReader br = new BufferedReader(new InputStreamReader(open(DLMF_CORPUS), StandardCharsets.UTF_8)) ) {
+            br.lines().filter( l -> !l.isBlank() ).forEach( l -> corpus.add(l.split("\t", 2)) );
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return corpus;
+    }
+
+    /**
+     * @return the semantic LaTeX expressions of the translation tests
+     */
+    public static List<String> loadSemanticLaTeX() {
+        ObjectMapper mapper = new ObjectMapper();
+        List<String> corpus = new ArrayList<>();
+        for ( String file : SEMANTIC_CORPORA ) {
+            try ( InputStream in = open(file) ) {
+                for ( JsonNode test : mapper.readTree(in) ) {
+                    if ( test.hasNonNull("LaTeX") ) corpus.add(test.get("LaTeX").asText());
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return corpus;
+    }
+
+    private static InputStream open(String resource) {
+        return Objects.requireNonNull(
+                BenchmarkCorpus.class.getResourceAsStream(resource),
+                "Missing benchmark corpus " + resource
+        );
+    }
+}
@@ -0,0 +1,73 @@
+package gov.nist.drmf.interpreter.benchmarks;
+
+import gov.nist.drmf.interpreter.cas.blueprints.BlueprintMaster;
+import gov.nist.drmf.interpreter.cas.blueprints.MathematicalEssentialOperatorMetadata;
+import gov.nist.drmf.interpreter.cas.translation.SemanticLatexTranslator;
+import gov.nist.drmf.interpreter.common.constants.Keys;
+import gov.nist.drmf.interpreter.common.exceptions.InitTranslatorException;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Looks up the blueprints of limit expressions (of sums, products, integrals, and limits) via
+ * {@link BlueprintMaster#findMatchingLimit(boolean, String)}. The secondary results {@code lookups},
+ * {@code candidates}, and {@code blueprints} count the lookups, the prefiltered blueprints that were
+ * considered, and the blueprints a linear scan would have considered.
+ *
+ * @author Andre Greiner-Petter
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class BlueprintBenchmark {
+    private BlueprintMaster blueprints;
+    private int nextLimited = 0;
+    private int nextLim = 0;
+
+    @Setup
+    public void setup() throws InitTranslatorException {
+        blueprints = new SemanticLatexTranslator(Keys.KEY_MAPLE).getBlueprintMaster();
+    }
+
+    @Benchmark
+    public MathematicalEssentialOperatorMetadata findMatchingLimited(CandidateCounters counters) {
+        String limit = BenchmarkCorpus.LIMITED_EXPRESSIONS[nextLimited];
+        nextLimited = (nextLimited + 1) % BenchmarkCorpus.LIMITED_EXPRESSIONS.length;
+        return lookup(BlueprintMaster.LIMITED, limit, counters);
+    }
+
+    @Benchmark
+    public MathematicalEssentialOperatorMetadata findMatchingLim(CandidateCounters counters) {
+        String limit = BenchmarkCorpus.LIM_EXPRESSIONS[nextLim];
+        nextLim = (nextLim + 1) % BenchmarkCorpus.LIM_EXPRESSIONS.length;
+        return lookup(BlueprintMaster.LIM, limit, counters);
+    }
+
+    private MathematicalEssentialOperatorMetadata lookup(boolean lim, String limit, CandidateCounters counters) {
+        long before = blueprints.getNumberOfCandidates();
+        MathematicalEssentialOperatorMetadata meom = blueprints.findMatchingLimit(lim, limit);
+        counters.lookups++;
+        counters.candidates += blueprints.getNumberOfCandidates() - before;
+        counters.blueprints += blueprints.getNumberOfBlueprints(lim);
+        return meom;
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class CandidateCounters {
+        public long lookups;
+        public long candidates;
+        public long blueprints;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            lookups = 0;
+            candidates = 0;
+            blueprints = 0;
+        }
+    }
+}
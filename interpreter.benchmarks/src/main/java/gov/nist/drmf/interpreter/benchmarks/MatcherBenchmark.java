@@ -0,0 +1,81 @@
+package gov.nist.drmf.interpreter.benchmarks;
+
+import gov.nist.drmf.interpreter.pom.SemanticMLPWrapper;
+import gov.nist.drmf.interpreter.pom.extensions.MatchablePomTaggedExpression;
+import gov.nist.drmf.interpreter.pom.extensions.PomMatcher;
+import gov.nist.drmf.interpreter.pom.extensions.PomMatcherBuilder;
+import gov.nist.drmf.interpreter.pom.extensions.PrintablePomTaggedExpression;
+import mlp.ParseException;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Searches and replaces patterns in the parsed DLMF formulae via {@link PomMatcher#find()} and
+ * {@link PomMatcher#replacePattern(String)}.
+ *
+ * @author Andre Greiner-Petter
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MatcherBenchmark {
+    private static final String WILDCARD = "var\\d+";
+
+    private static final String[][] PATTERNS = new String[][] {
+            {"\\frac{var1}{var2}", "(var1)/(var2)"},
+            {"var1^{var2}", "\\exp(var2 \\ln(var1))"},
+            {"\\sin var1", "\\sin(var1)"},
+    };
+
+    private List<MatchablePomTaggedExpression> patterns;
+    private List<PrintablePomTaggedExpression> formulae;
+    private int next = 0;
+
+    @Setup
+    public void setup() throws ParseException {
+        SemanticMLPWrapper mlp = SemanticMLPWrapper.getStandardInstance();
+        patterns = new ArrayList<>();
+        for ( String[] pattern : PATTERNS ) patterns.add(PomMatcherBuilder.compile(mlp, pattern[0], WILDCARD));
+
+        formulae = new ArrayList<>();
+        for ( String[] formula : BenchmarkCorpus.loadDLMFFormulae() ) {
+            try {
+                formulae.add(mlp.parse(formula[1]));
+            } catch (ParseException pe) {
+                // not parsable formulae are not part of the benchmark
+            }
+        }
+    }
+
+    private PrintablePomTaggedExpression next() {
+        PrintablePomTaggedExpression formula = formulae.get(next);
+        next = (next + 1) % formulae.size();
+        return formula;
+    }
+
+    @Benchmark
+    public int find() {
+        PrintablePomTaggedExpression formula = next();
+        int hits = 0;
+        for ( MatchablePomTaggedExpression pattern : patterns ) {
+            PomMatcher matcher = pattern.matcher(formula);
+            while ( matcher.find() ) hits++;
+        }
+        return hits;
+    }
+
+    @Benchmark
+    public PrintablePomTaggedExpression replacePattern() throws ParseException {
+        PrintablePomTaggedExpression formula = next();
+        for ( int i = 0; i < PATTERNS.length; i++ ) {
+            formula = patterns.get(i).matcher(formula).replacePattern(PATTERNS[i][1]);
+        }
+        return formula;
+    }
+}
@@ -0,0 +1,66 @@
+package gov.nist.drmf.interpreter.benchmarks;
+
+import gov.nist.drmf.interpreter.pom.MLPWrapper;
+import gov.nist.drmf.interpreter.pom.SemanticMLPWrapper;
+import gov.nist.drmf.interpreter.pom.extensions.PrintablePomTaggedExpression;
+import mlp.ParseException;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses the DLMF formulae with the {@link MLPWrapper}. The parallel benchmark shows how well
+ * the pool of parsers scales with multiple threads, i.e., compare the throughput of a single parser
+ * with the throughput of a pool of parsers (see the parameter {@code parsers}).
+ *
+ * @author Andre Greiner-Petter
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParserBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Corpus {
+        /**
+         * The number of pooled parsers, 0 uses the standard instance
+         */
+        @Param({"0", "1", "4"})
+        int parsers;
+
+        MLPWrapper mlp;
+        List<String[]> formulae;
+
+        @Setup
+        public void setup() throws IOException {
+            mlp = parsers == 0 ? SemanticMLPWrapper.getStandardInstance() : new SemanticMLPWrapper(parsers);
+            formulae = BenchmarkCorpus.loadDLMFFormulae();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next = 0;
+
+        String[] next(Corpus corpus) {
+            String[] formula = corpus.formulae.get(next);
+            next = (next + 1) % corpus.formulae.size();
+            return formula;
+        }
+    }
+
+    @Benchmark
+    public PrintablePomTaggedExpression parse(Corpus corpus, Cursor cursor) throws ParseException {
+        return corpus.mlp.parse(cursor.next(corpus)[1]);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public PrintablePomTaggedExpression parseParallel(Corpus corpus, Cursor cursor) throws ParseException {
+        return corpus.mlp.parse(cursor.next(corpus)[1]);
+    }
+}
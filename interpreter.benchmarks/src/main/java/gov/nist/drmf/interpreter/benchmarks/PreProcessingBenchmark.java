@@ -0,0 +1,74 @@
+package gov.nist.drmf.interpreter.benchmarks;
+
+import gov.nist.drmf.interpreter.common.latex.TeXPreProcessor;
+import gov.nist.drmf.interpreter.common.replacements.ReplacementConfig;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pre-processes the DLMF formulae with {@link TeXPreProcessor#preProcessingTeX(String, String)}, i.e.,
+ * applies the general and the DLMF specific replacement rules. The token benchmarks pre-process the single tokens
+ * of the formulae (split at whitespaces) once with the fast path for clean input and once with the full pipeline.
+ *
+ * @author Andre Greiner-Petter
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PreProcessingBenchmark {
+    private List<String[]> formulae;
+    private List<String> tokens;
+    private int next = 0;
+    private int nextToken = 0;
+
+    private ReplacementConfig config;
+
+    @Setup
+    public void setup() {
+        formulae = BenchmarkCorpus.loadDLMFFormulae();
+        tokens = new ArrayList<>();
+        for ( String[] formula : formulae ) tokens.addAll(List.of(formula[1].split("\\s+")));
+        config = ReplacementConfig.getInstance();
+    }
+
+    private String nextToken() {
+        String token = tokens.get(nextToken);
+        nextToken = (nextToken + 1) % tokens.size();
+        return token;
+    }
+
+    private String[] next() {
+        String[] formula = formulae.get(next);
+        next = (next + 1) % formulae.size();
+        return formula;
+    }
+
+    @Benchmark
+    public String preProcess() {
+        String[] formula = next();
+        return TeXPreProcessor.preProcessingTeX(formula[1], formula[0]);
+    }
+
+    @Benchmark
+    public String preProcessWithoutLabel() {
+        return TeXPreProcessor.preProcessingTeX(next()[1]);
+    }
+
+    @Benchmark
+    public String preProcessTokens() {
+        return TeXPreProcessor.preProcessingTeX(nextToken());
+    }
+
+    @Benchmark
+    public String preProcessTokensFullPipeline() {
+        String tex = TeXPreProcessor.trimIfWrappedInCurlyBrackets(nextToken());
+        tex = config.replace(tex, null);
+        return TeXPreProcessor.clearEndOfFormulaPunctuation(tex);
+    }
+}
@@ -0,0 +1,50 @@
+package gov.nist.drmf.interpreter.benchmarks;
+
+import gov.nist.drmf.interpreter.cas.translation.SemanticLatexTranslator;
+import gov.nist.drmf.interpreter.common.constants.Keys;
+import gov.nist.drmf.interpreter.common.exceptions.InitTranslatorException;
+import gov.nist.drmf.interpreter.common.exceptions.TranslationException;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Translates the semantic LaTeX expressions of the translation tests to Maple. The translation
+ * does not require an installed CAS. Only expressions that can be translated are part of the benchmark.
+ *
+ * @author Andre Greiner-Petter
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TranslatorBenchmark {
+    private SemanticLatexTranslator translator;
+    private List<String> expressions;
+    private int next = 0;
+
+    @Setup
+    public void setup() throws InitTranslatorException {
+        translator = new SemanticLatexTranslator(Keys.KEY_MAPLE);
+        expressions = new ArrayList<>();
+        for ( String expression : BenchmarkCorpus.loadSemanticLaTeX() ) {
+            try {
+                translator.translate(expression);
+                expressions.add(expression);
+            } catch (TranslationException te) {
+                // some tests expect errors, we only measure successful translations
+            }
+        }
+    }
+
+    @Benchmark
+    public String translate() {
+        String expression = expressions.get(next);
+        next = (next + 1) % expressions.size();
+        return translator.translate(expression);
+    }
+}
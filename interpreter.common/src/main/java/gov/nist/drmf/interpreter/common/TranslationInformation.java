@@ -40,6 +40,23 @@ public class TranslationInformation {
         this.translatedExpression = translatedExpression;
     }
 
+    /**
+     * Deep copy constructor
+     * @param orig the original translation information
+     */
+    public TranslationInformation(TranslationInformation orig) {
+        this.expression = orig.expression;
+        this.translatedExpression = orig.translatedExpression;
+        this.information = new InformationLogger(orig.information);
+        this.requiredPackages = new HashSet<>(orig.requiredPackages);
+        this.translatedConstraints = new LinkedList<>(orig.translatedConstraints);
+        this.freeVariables = new FreeVariables(orig.freeVariables);
+        this.relationalComponents = new RelationalComponents(orig.relationalComponents);
+        this.partialTranslations = new LinkedList<>();
+        for ( TranslationInformation partial : orig.partialTranslations )
+            this.partialTranslations.add(new TranslationInformation(partial));
+    }
+
     public void setExpression(String expression) {
         this.expression = expression;
     }
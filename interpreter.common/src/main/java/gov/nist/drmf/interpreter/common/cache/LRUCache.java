@@ -0,0 +1,155 @@
+package gov.nist.drmf.interpreter.common.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * A bounded, thread-safe least-recently-used cache. If the cache is full, the least recently
+ * accessed entry is evicted. The cache keeps track of hits, misses and evictions.
+ *
+ * Note that {@link #computeIfAbsent(Object, Function)} computes missing values outside the lock,
+ * i.e., two threads requesting the same missing key at the same time may both compute the value.
+ * This is intended, since the values are usually expensive to compute (e.g., translations) and
+ * a global lock would serialize all of them.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ * @author Andre Greiner-Petter
+ */
+public class LRUCache<K, V> {
+    private final int maximumSize;
+
+    private final LinkedHashMap<K, V> cache;
+
+    private final AtomicLong hits = new AtomicLong(0);
+    private final AtomicLong misses = new AtomicLong(0);
+    private final AtomicLong evictions = new AtomicLong(0);
+
+    /**
+     * @param maximumSize the maximum number of entries in the cache (must be positive)
+     */
+    public LRUCache(int maximumSize) {
+        if ( maximumSize < 1 ) throw new IllegalArgumentException("The maximum cache size must be positive.");
+        this.maximumSize = maximumSize;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                if ( size() > LRUCache.this.maximumSize ) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @param key the key
+     * @return the cached value or null if there is no value cached for the given key
+     */
+    public V get(K key) {
+        V value;
+        synchronized (cache) {
+            value = cache.get(key);
+        }
+        if ( value == null ) misses.incrementAndGet();
+        else hits.incrementAndGet();
+        return value;
+    }
+
+    public void put(K key, V value) {
+        if ( value == null ) return;
+        synchronized (cache) {
+            cache.put(key, value);
+        }
+    }
+
+    /**
+     * Returns the cached value of the given key or computes (and caches) it if it is not cached yet.
+     * If the compute function returns null, nothing is cached.
+     * @param key the key
+     * @param compute the function to compute the value of a missing key
+     * @return the cached or computed value
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> compute) {
+        V value = get(key);
+        if ( value != null ) return value;
+        value = compute.apply(key);
+        put(key, value);
+        return value;
+    }
+
+    public boolean containsKey(K key) {
+        synchronized (cache) {
+            return cache.containsKey(key);
+        }
+    }
+
+    public void remove(K key) {
+        synchronized (cache) {
+            cache.remove(key);
+        }
+    }
+
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * @return a copy of the current entries ordered from the least to the most recently used entry
+     */
+    public Map<K, V> snapshot() {
+        synchronized (cache) {
+            return new LinkedHashMap<>(cache);
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * @return the ratio of hits to all requests or 0 if there were no requests yet
+     */
+    public double getHitRate() {
+        long h = hits.get();
+        long total = h + misses.get();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    public void resetStatistics() {
+        hits.set(0);
+        misses.set(0);
+        evictions.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "Cache [size: %d/%d; hits: %d; misses: %d; evictions: %d; hit rate: %.2f]",
+                size(), maximumSize, getHits(), getMisses(), getEvictions(), getHitRate()
+        );
+    }
+}
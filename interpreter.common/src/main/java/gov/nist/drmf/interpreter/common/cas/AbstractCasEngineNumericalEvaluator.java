@@ -2,8 +2,15 @@ package gov.nist.drmf.interpreter.common.cas;
 
 import gov.nist.drmf.interpreter.common.eval.*;
 import gov.nist.drmf.interpreter.common.exceptions.ComputerAlgebraSystemEngineException;
+import gov.nist.drmf.interpreter.common.numeric.NumericDialect;
+import gov.nist.drmf.interpreter.common.numeric.TestValueCombinations;
+import gov.nist.drmf.interpreter.common.numeric.TestValueGenerator;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
 
@@ -11,6 +18,12 @@ import java.util.Set;
  * @author Andre Greiner-Petter
  */
 public abstract class AbstractCasEngineNumericalEvaluator<T> implements ICASEngineNumericalEvaluator {
+    private static final Logger LOG = LogManager.getLogger(AbstractCasEngineNumericalEvaluator.class.getName());
+
+    private TestValueGenerator testValueGenerator;
+
+    private List<String> globalNumericAssumptions = new LinkedList<>();
+
     /**
      * Stores the variables of the given expression and returns the
      * name of the variable that stores the information.
@@ -61,6 +74,47 @@ public abstract class AbstractCasEngineNumericalEvaluator<T> implements ICASEngi
      */
     public abstract String buildTestCases(String nameOfConstraints, int maxCombis) throws ComputerAlgebraSystemEngineException, IllegalArgumentException;
 
+    /**
+     * Stores the given combinations of test values (generated in the JVM) in the CAS and returns the name of
+     * the variable. If the combinations {@link TestValueCombinations#requiresFiltering()}, the CAS must filter them
+     * by the constraints (see {@link #setConstraints(List)}) and take at most {@code maxCombis} of them.
+     * It returns null if this engine does not support predefined test values. In this case,
+     * the CAS builds the test cases via {@link #buildTestCases(String, int)}.
+     *
+     * @param nameOfConstraints name of the constraints variable or null
+     * @param combinations the combinations of test values
+     * @param maxCombis maximum number of combinations
+     * @return name of test cases variable or null
+     * @throws ComputerAlgebraSystemEngineException if the CAS is unable to store the test cases
+     * @throws IllegalArgumentException if the values are invalid
+     */
+    public String storeTestCases(String nameOfConstraints, TestValueCombinations combinations, int maxCombis)
+            throws ComputerAlgebraSystemEngineException, IllegalArgumentException {
+        return null;
+    }
+
+    /**
+     * @return the dialect of the translated expressions to generate the test values in the JVM, or null
+     * if the test values should be generated by the CAS
+     */
+    protected NumericDialect getNumericDialect() {
+        return null;
+    }
+
+    @Override
+    public void setGlobalNumericAssumptions(List<String> assumptions) {
+        this.globalNumericAssumptions = assumptions == null ? new LinkedList<>() : new LinkedList<>(assumptions);
+        if ( testValueGenerator != null ) testValueGenerator.setGlobalConstraints(globalNumericAssumptions);
+    }
+
+    private TestValueGenerator getTestValueGenerator() {
+        if ( testValueGenerator == null && getNumericDialect() != null ) {
+            testValueGenerator = new TestValueGenerator(getNumericDialect());
+            testValueGenerator.setGlobalConstraints(globalNumericAssumptions);
+        }
+        return testValueGenerator;
+    }
+
     /**
      * Returns true if this engine requires to register packages. If this is true
      * you should implement and use {@link #addRequiredPackages(Set)}.
@@ -132,7 +186,8 @@ public abstract class AbstractCasEngineNumericalEvaluator<T> implements ICASEngi
      * 2) sets up constraint variables {@link #storeConstraintVariables(List, List)}
      * 3) sets up extra variables {@link #storeExtraVariables(List, List)}
      * 4) sets the constraints {@link #setConstraints(List)}
-     * 5) builds the test cases {@link #buildTestCases(String, int)}
+     * 5) stores the test cases generated in the JVM {@link #storeTestCases(String, TestValueCombinations, int)}
+     *    or builds the test cases in the CAS {@link #buildTestCases(String, int)}
      * 6) and performs the test finally {@link #performGeneratedTestOnExpression(String, String, String, int)}.
      *
      * @param test the test case
@@ -143,6 +198,11 @@ public abstract class AbstractCasEngineNumericalEvaluator<T> implements ICASEngi
             throws ComputerAlgebraSystemEngineException {
         addRequiredPackages(test.getRequiredPackages());
 
+        // the combinations must be generated before the CAS extends the constraints by the global constraints
+        TestValueCombinations combinations = null;
+        TestValueGenerator generator = getTestValueGenerator();
+        if ( generator != null ) combinations = generator.generate(test);
+
         // store variables first
         storeVariables(
                 test.getVariables(),
@@ -165,10 +225,18 @@ public abstract class AbstractCasEngineNumericalEvaluator<T> implements ICASEngi
         String constraintN = setConstraints(test.getConstraints());
 
         // finally, generate all test cases that fit the constraints
-        String testValuesN = buildTestCases(
-                constraintN,
-                test.getMaxCombis()
-        );
+        String testValuesN = null;
+        if ( combinations != null ) {
+            testValuesN = storeTestCases(constraintN, combinations, test.getMaxCombis());
+        }
+
+        if ( testValuesN == null ) {
+            LOG.debug("Build test cases in the CAS.");
+            testValuesN = buildTestCases(
+                    constraintN,
+                    test.getMaxCombis()
+            );
+        }
 
         setCurrentTestCase(test.getLhs(), test.getRhs());
 
@@ -235,4 +303,73 @@ public abstract class AbstractCasEngineNumericalEvaluator<T> implements ICASEngi
         T result = performNumericalTest( test );
         return getNumericResult(result);
     }
+
+    /**
+     * Performs the given tests with the given test values (generated in the JVM) in a single call to the CAS.
+     * The results must be identical to performing the tests one after another via
+     * {@link #performNumericTest(NumericalTest)}, including the exceptions of single tests.
+     *
+     * @param tests the tests
+     * @param combinations the combinations of test values of each test
+     * @return the results in the same order as the tests or null if this engine does not support batches
+     * @throws ComputerAlgebraSystemEngineException if the CAS was unable to perform the batch
+     */
+    protected NumericBatchResult performTestBatch(List<NumericalTest> tests, List<TestValueCombinations> combinations)
+            throws ComputerAlgebraSystemEngineException {
+        return null;
+    }
+
+    /**
+     * Performs all tests in a single call to the CAS if this engine supports batches
+     * (see {@link #performTestBatch(List, List)}). Tests that cannot be part of the batch, e.g., because
+     * the test values cannot be generated in the JVM, are performed one after another.
+     * If the entire batch fails, all tests are performed one after another.
+     *
+     * @param tests the test cases
+     * @return the results in the same order as the given tests
+     */
+    @Override
+    synchronized public NumericBatchResult performNumericTests(List<NumericalTest> tests) {
+        NumericBatchResult results = new NumericBatchResult(tests.size());
+        boolean[] done = new boolean[tests.size()];
+
+        List<Integer> batchIndices = new ArrayList<>();
+        List<NumericalTest> batch = new ArrayList<>();
+        List<TestValueCombinations> batchCombinations = new ArrayList<>();
+        TestValueGenerator generator = getTestValueGenerator();
+        for ( int i = 0; generator != null && i < tests.size(); i++ ) {
+            TestValueCombinations combinations = generator.generate(tests.get(i));
+            if ( combinations == null ) continue;
+            batchIndices.add(i);
+            batch.add(tests.get(i));
+            batchCombinations.add(combinations);
+        }
+
+        if ( batch.size() > 1 ) {
+            try {
+                NumericBatchResult batchResults = performTestBatch(batch, batchCombinations);
+                for ( int j = 0; batchResults != null && j < batchResults.size(); j++ ) {
+                    int i = batchIndices.get(j);
+                    Exception error = batchResults.getError(j);
+                    if ( error != null ) results.setError(i, error);
+                    else results.setResult(i, batchResults.getResult(j));
+                    done[i] = true;
+                }
+                if ( batchResults != null ) LOG.debug("Performed " + batch.size() + " numerical tests in a single batch.");
+            } catch (ComputerAlgebraSystemEngineException | RuntimeException e) {
+                LOG.warn("Unable to perform the batch of numerical tests. Perform them one after another instead.", e);
+                done = new boolean[tests.size()];
+            }
+        }
+
+        for ( int i = 0; i < tests.size(); i++ ) {
+            if ( done[i] ) continue;
+            try {
+                results.setResult(i, performNumericTest(tests.get(i)));
+            } catch (ComputerAlgebraSystemEngineException | RuntimeException e) {
+                results.setError(i, e);
+            }
+        }
+        return results;
+    }
 }
@@ -35,6 +35,27 @@ public class Constraints {
         return allConstraints;
     }
 
+    /**
+     * @return all tex constraints including duplicates
+     */
+    public List<String> getTexConstraintList() {
+        return texConstraints;
+    }
+
+    /**
+     * @return all special constraint variables including duplicates
+     */
+    public List<String> getSpecialConstraintVariableList() {
+        return specialConstraintVariables;
+    }
+
+    /**
+     * @return all special constraint values including duplicates
+     */
+    public List<String> getSpecialConstraintValueList() {
+        return specialConstraintValues;
+    }
+
     public String[] getTexConstraints() {
         return texConstraints.stream().distinct().toArray(String[]::new);
     }
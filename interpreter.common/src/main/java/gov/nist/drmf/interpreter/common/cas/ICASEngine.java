@@ -27,6 +27,12 @@ public interface ICASEngine {
      */
     void forceGC() throws ComputerAlgebraSystemEngineException;
 
+    /**
+     * Stops the session of the CAS (e.g., a subprocess or a kernel connection) and frees its resources.
+     * By default, there is nothing to stop.
+     */
+    default void stop() {}
+
     /**
      * Builds up a string representation of the given list (e.g. [..] vs {..}).
      * @param list the list
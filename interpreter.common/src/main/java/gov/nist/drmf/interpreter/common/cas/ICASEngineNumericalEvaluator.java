@@ -1,6 +1,7 @@
 package gov.nist.drmf.interpreter.common.cas;
 
 import gov.nist.drmf.interpreter.common.eval.EvaluatorType;
+import gov.nist.drmf.interpreter.common.eval.NumericBatchResult;
 import gov.nist.drmf.interpreter.common.eval.NumericalTest;
 import gov.nist.drmf.interpreter.common.exceptions.ComputerAlgebraSystemEngineException;
 import gov.nist.drmf.interpreter.common.eval.NumericResult;
@@ -18,6 +19,26 @@ public interface ICASEngineNumericalEvaluator extends IAbortEvaluator {
      */
     NumericResult performNumericTest(NumericalTest test) throws ComputerAlgebraSystemEngineException;
 
+    /**
+     * Performs multiple tests, e.g., the tests of all relations of a single formula. Engines that support
+     * batches submit all tests to the CAS at once. By default, the tests are performed one after another.
+     * @param tests the test cases
+     * @return the results in the same order as the given tests
+     */
+    default NumericBatchResult performNumericTests(List<NumericalTest> tests) {
+        NumericBatchResult results = new NumericBatchResult(tests.size());
+        int i = 0;
+        for ( NumericalTest test : tests ) {
+            try {
+                results.setResult(i, performNumericTest(test));
+            } catch (ComputerAlgebraSystemEngineException | RuntimeException e) {
+                results.setError(i, e);
+            }
+            i++;
+        }
+        return results;
+    }
+
     /**
      * In Maple its evalf( input );
      * @param expression input
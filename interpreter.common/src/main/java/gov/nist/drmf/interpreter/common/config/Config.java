@@ -32,6 +32,15 @@ public final class Config {
     @JsonProperty("lacast.generic")
     private GenericLacastConfig genericLacastConfig = new GenericLacastConfig();
 
+    @JsonProperty("lacast.pom.parsers")
+    private int numberOfPomParsers = 0;
+
+    @JsonProperty("lacast.translation.cache.size")
+    private int translationCacheSize = 0;
+
+    @JsonProperty("lacast.translation.cache.file")
+    private String translationCacheFile;
+
     private Config() {}
 
     public Path getLibsPath() {
@@ -60,6 +69,33 @@ public final class Config {
         return genericLacastConfig;
     }
 
+    /**
+     * The number of PoM-tagger instances that are allowed to parse in parallel. All instances are created
+     * right away. A value smaller than 1 (the default) means one parser per available processor.
+     * @return the number of parallel PoM-tagger instances (always at least 1)
+     */
+    public int getNumberOfPomParsers() {
+        if ( numberOfPomParsers < 1 ) return Runtime.getRuntime().availableProcessors();
+        return numberOfPomParsers;
+    }
+
+    /**
+     * The maximum number of cached translations. A value smaller than 1 (the default) disables the cache.
+     * @return the maximum number of cached translations
+     */
+    public int getTranslationCacheSize() {
+        return translationCacheSize;
+    }
+
+    /**
+     * The optional file to warm-start the translation cache from.
+     * @return the path to the warm-start file of the translation cache or null if not specified
+     */
+    public Path getTranslationCacheFile() {
+        if ( translationCacheFile == null || translationCacheFile.isBlank() ) return null;
+        return Paths.get(translationCacheFile);
+    }
+
     /**
      * Checks the validity of this config file. It checks if all necessary information are available.
      * @return check if the current configuration is valid or not.
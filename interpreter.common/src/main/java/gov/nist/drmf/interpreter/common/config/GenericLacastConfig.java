@@ -4,6 +4,8 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import gov.nist.drmf.interpreter.common.process.RmiSubprocessInfo;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -11,6 +13,14 @@ import java.util.List;
  * @author Andre Greiner-Petter
  */
 public class GenericLacastConfig {
+    /**
+     * The value of {@code macros.search.engine} to retrieve macros from an in-process index rather than elasticsearch
+     */
+    public static final String LOCAL_MACRO_SEARCH_ENGINE = "local";
+
+    @JsonProperty("macros.search.engine")
+    private String macroSearchEngine = "elasticsearch";
+
     @JsonProperty("elasticsearch.host")
     private String esHost = "localhost";
 
@@ -34,6 +44,7 @@ public class GenericLacastConfig {
     }
 
     public GenericLacastConfig(GenericLacastConfig copy) {
+        this.macroSearchEngine = copy.macroSearchEngine;
         this.esHost = copy.esHost;
         this.esPort = copy.esPort;
         this.macroIndex = copy.macroIndex;
@@ -42,6 +53,22 @@ public class GenericLacastConfig {
         this.mapleSubprocessInfo = copy.mapleSubprocessInfo;
     }
 
+    public String getMacroSearchEngine() {
+        return macroSearchEngine;
+    }
+
+    public void setMacroSearchEngine(String macroSearchEngine) {
+        this.macroSearchEngine = macroSearchEngine;
+    }
+
+    /**
+     * @return true if macros are retrieved from a local in-process index instead of elasticsearch
+     */
+    @JsonIgnore
+    public boolean useLocalMacroSearchEngine() {
+        return LOCAL_MACRO_SEARCH_ENGINE.equalsIgnoreCase(macroSearchEngine);
+    }
+
     public String getEsHost() {
         return esHost;
     }
@@ -70,6 +97,78 @@ public class GenericLacastConfig {
         return settings.maxDepth;
     }
 
+    /**
+     * @return the number of descriptions that are searched in a single elasticsearch request
+     * (1 or less means one request per description)
+     */
+    public int getSearchBatchSize() {
+        return settings.searchBatchSize;
+    }
+
+    public void setSearchBatchSize(int searchBatchSize) {
+        settings.searchBatchSize = searchBatchSize;
+    }
+
+    /**
+     * @return the maximum number of cached macro search results (0 or less disables the cache)
+     */
+    public int getSearchCacheSize() {
+        return settings.searchCacheSize;
+    }
+
+    public void setSearchCacheSize(int searchCacheSize) {
+        settings.searchCacheSize = searchCacheSize;
+    }
+
+    /**
+     * @return the number of seconds a cached macro search result is valid (0 or less means forever)
+     */
+    public long getSearchCacheTTL() {
+        return settings.searchCacheTTL;
+    }
+
+    public void setSearchCacheTTL(long searchCacheTTL) {
+        settings.searchCacheTTL = searchCacheTTL;
+    }
+
+    /**
+     * The optional file to warm-start the cache of macro search results from.
+     * @return the path to the warm-start file or null if not specified
+     */
+    @JsonIgnore
+    public Path getSearchCacheFile() {
+        if ( settings.searchCacheFile == null || settings.searchCacheFile.isBlank() ) return null;
+        return Paths.get(settings.searchCacheFile);
+    }
+
+    public void setSearchCacheFile(String searchCacheFile) {
+        settings.searchCacheFile = searchCacheFile;
+    }
+
+    /**
+     * @return the number of threads that translate the formulae of a single document (1 or less means
+     * the formulae are translated one after another)
+     */
+    public int getTranslationThreads() {
+        return settings.translationThreads;
+    }
+
+    public void setTranslationThreads(int translationThreads) {
+        settings.translationThreads = translationThreads;
+    }
+
+    /**
+     * @return the maximum number of seconds the numeric and symbolic computations of a single formula
+     * in one CAS may take (0 or less means there is no limit besides the timeouts of the single tests)
+     */
+    public double getComputationTimeout() {
+        return settings.computationTimeout;
+    }
+
+    public void setComputationTimeout(double computationTimeout) {
+        settings.computationTimeout = computationTimeout;
+    }
+
     public void setMaxRelations(int maxRelations) {
         settings.maxRelations = maxRelations;
     }
@@ -144,6 +243,24 @@ public class GenericLacastConfig {
         @JsonProperty("max.depth")
         private int maxDepth = -1;
 
+        @JsonProperty("search.batch.size")
+        private int searchBatchSize = 50;
+
+        @JsonProperty("search.cache.size")
+        private int searchCacheSize = 10_000;
+
+        @JsonProperty("search.cache.ttl")
+        private long searchCacheTTL = 86_400;
+
+        @JsonProperty("search.cache.file")
+        private String searchCacheFile;
+
+        @JsonProperty("translation.threads")
+        private int translationThreads = 1;
+
+        @JsonProperty("computation.timeout")
+        private double computationTimeout = 0;
+
         @JsonProperty("suppressMacros")
         private List<String> suppressedMacros = new LinkedList<>();
 
@@ -156,6 +273,12 @@ public class GenericLacastConfig {
             maxRelations = copy.maxRelations;
             maxMacros = copy.maxMacros;
             maxDepth = copy.maxDepth;
+            searchBatchSize = copy.searchBatchSize;
+            searchCacheSize = copy.searchCacheSize;
+            searchCacheTTL = copy.searchCacheTTL;
+            searchCacheFile = copy.searchCacheFile;
+            translationThreads = copy.translationThreads;
+            computationTimeout = copy.computationTimeout;
             suppressedMacros = new LinkedList<>(copy.suppressedMacros);
             supportDescriptions = new LinkedList<>(copy.supportDescriptions);
         }
@@ -37,6 +37,20 @@ public class TranslationProcessConfig {
         constantsTranslator     = new Constants(from_language, to_language);
     }
 
+    /**
+     * Creates a copy of the given config that shares all translators of the original config.
+     * @param orig the original config
+     */
+    protected TranslationProcessConfig(TranslationProcessConfig orig) {
+        this.FROM_LANGUAGE              = orig.FROM_LANGUAGE;
+        this.TO_LANGUAGE                = orig.TO_LANGUAGE;
+        this.greekLettersTranslator     = orig.greekLettersTranslator;
+        this.constantsTranslator        = orig.constantsTranslator;
+        this.basicFunctionsTranslator   = orig.basicFunctionsTranslator;
+        this.symbolTranslator           = orig.symbolTranslator;
+        this.isInit                     = orig.isInit;
+    }
+
     public void init() throws InitTranslatorException {
         if ( isInit ) return;
 
@@ -51,6 +65,10 @@ public class TranslationProcessConfig {
         }
     }
 
+    protected boolean isInit() {
+        return isInit;
+    }
+
     public GreekLetters getGreekLettersTranslator() {
         return greekLettersTranslator;
     }
@@ -15,4 +15,10 @@ public interface EvaluationConfig {
     Path getOutputPath();
 
     Path getMissingMacrosOutputPath();
+
+    /**
+     * @return the number of records that are written to the result journal before it is synced to the disk,
+     * 0 means the journal is never explicitly synced (it is still written immediately)
+     */
+    int getJournalSyncInterval();
 }
@@ -0,0 +1,60 @@
+package gov.nist.drmf.interpreter.common.eval;
+
+import gov.nist.drmf.interpreter.common.cas.ICASEngineNumericalEvaluator;
+import gov.nist.drmf.interpreter.common.exceptions.ComputerAlgebraSystemEngineException;
+
+import java.io.Serializable;
+
+/**
+ * The results of a batch of numerical tests as performed by
+ * {@link ICASEngineNumericalEvaluator#performNumericTests(java.util.List)}. Every test of the batch either
+ * has a result or the exception it threw.
+ *
+ * @author Andre Greiner-Petter
+ */
+public class NumericBatchResult implements Serializable {
+    private final NumericResult[] results;
+    private final Exception[] errors;
+
+    public NumericBatchResult(int size) {
+        this.results = new NumericResult[size];
+        this.errors = new Exception[size];
+    }
+
+    public void setResult(int index, NumericResult result) {
+        this.results[index] = result;
+        this.errors[index] = null;
+    }
+
+    public void setError(int index, Exception error) {
+        this.results[index] = null;
+        this.errors[index] = error;
+    }
+
+    public int size() {
+        return results.length;
+    }
+
+    /**
+     * @param index the index of the test in the batch
+     * @return the exception the test threw or null if the test has a result
+     */
+    public Exception getError(int index) {
+        return errors[index];
+    }
+
+    /**
+     * Returns the result of the test as if the test was performed alone, i.e., it throws the same exception
+     * {@link ICASEngineNumericalEvaluator#performNumericTest(NumericalTest)} would have thrown.
+     * @param index the index of the test in the batch
+     * @return the result of the test
+     * @throws ComputerAlgebraSystemEngineException if the CAS was unable to perform the test
+     */
+    public NumericResult getResult(int index) throws ComputerAlgebraSystemEngineException {
+        Exception error = errors[index];
+        if ( error == null ) return results[index];
+        if ( error instanceof ComputerAlgebraSystemEngineException ) throw (ComputerAlgebraSystemEngineException) error;
+        if ( error instanceof RuntimeException ) throw (RuntimeException) error;
+        throw new ComputerAlgebraSystemEngineException(error);
+    }
+}
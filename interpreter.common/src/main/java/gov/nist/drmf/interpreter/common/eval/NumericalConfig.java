@@ -181,6 +181,42 @@ public class NumericalConfig implements EvaluationConfig {
         return Double.parseDouble(val == null ? "0" : val);
     }
 
+    /**
+     * @return the number of CAS worker processes that perform the tests in parallel (at least 1)
+     */
+    public int getNumberOfWorkers() {
+        String val = settings.get(NumericalProperties.KEY_WORKERS);
+        try {
+            return Math.max(1, Integer.parseInt(val.trim()));
+        } catch (NumberFormatException | NullPointerException e) {
+            LOG.warn("Invalid number of workers '" + val + "'. Fallback to a single worker.");
+            return 1;
+        }
+    }
+
+    @Override
+    public int getJournalSyncInterval() {
+        String val = settings.get(NumericalProperties.KEY_JOURNAL_SYNC);
+        try {
+            return Math.max(0, Integer.parseInt(val.trim()));
+        } catch (NumberFormatException | NullPointerException e) {
+            LOG.warn("Invalid journal sync interval '" + val + "'. Fallback to sync every record.");
+            return 1;
+        }
+    }
+
+    /**
+     * @return true if numerical tests are computed in the JVM first and only forwarded to the CAS
+     * if the JVM cannot decide them
+     */
+    public boolean isJavaPreScreeningEnabled() {
+        return Boolean.parseBoolean(settings.get(NumericalProperties.KEY_JAVA_PRESCREENING));
+    }
+
+    public boolean isBatchTestsEnabled() {
+        return Boolean.parseBoolean(settings.get(NumericalProperties.KEY_BATCH_TESTS));
+    }
+
     public String getEntireTestSuiteAssumptions() {
         return settings.get(NumericalProperties.KEY_ASSUMPTION);
     }
@@ -220,7 +256,11 @@ public class NumericalConfig implements EvaluationConfig {
         KEY_SPECIAL_VARS_VALUES("special_variables_values", null),
         KEY_PREV_RESULTS("symbolic_results_data", null),
         KEY_ASSUMPTION("entire_test_set_assumptions", null),
-        KEY_TIMEOUT("timeout", null);
+        KEY_TIMEOUT("timeout", null),
+        KEY_WORKERS("number_of_workers", "1"),
+        KEY_JOURNAL_SYNC("journal_sync_interval", "1"),
+        KEY_JAVA_PRESCREENING("java_prescreening", "false"),
+        KEY_BATCH_TESTS("batch_tests", "false");
 
         private final String key, value;
 
@@ -38,6 +38,9 @@ public class SymbolicResult implements Serializable, ITestResultCounter {
     @JsonProperty("testCalculationsGroup")
     private List<SymbolicCalculationGroup> testCalculationsGroups = new LinkedList<>();
 
+    @JsonProperty("wasAborted")
+    private boolean wasAborted = false;
+
     @JsonProperty("crashed")
     private boolean crashed = false;
 
@@ -45,9 +48,14 @@ public class SymbolicResult implements Serializable, ITestResultCounter {
         overallResult = TestResultType.SKIPPED;
     }
 
-    @JsonIgnore
+    @JsonGetter("wasAborted")
     public boolean wasAborted() {
-        return false;
+        return wasAborted;
+    }
+
+    @JsonSetter("wasAborted")
+    public void wasAborted(boolean wasAborted) {
+        this.wasAborted = wasAborted;
     }
 
     @JsonSetter("overallResult")
@@ -138,6 +138,30 @@ public class SymbolicalConfig implements EvaluationConfig {
         return Double.parseDouble(settings.get(SymbolicProperties.KEY_TIMEOUT));
     }
 
+    /**
+     * @return the number of CAS worker processes that perform the tests in parallel (at least 1)
+     */
+    public int getNumberOfWorkers() {
+        String val = settings.get(SymbolicProperties.KEY_WORKERS);
+        try {
+            return Math.max(1, Integer.parseInt(val.trim()));
+        } catch (NumberFormatException | NullPointerException e) {
+            LOG.warn("Invalid number of workers '" + val + "'. Fallback to a single worker.");
+            return 1;
+        }
+    }
+
+    @Override
+    public int getJournalSyncInterval() {
+        String val = settings.get(SymbolicProperties.KEY_JOURNAL_SYNC);
+        try {
+            return Math.max(0, Integer.parseInt(val.trim()));
+        } catch (NumberFormatException | NullPointerException e) {
+            LOG.warn("Invalid journal sync interval '" + val + "'. Fallback to sync every record.");
+            return 1;
+        }
+    }
+
     private enum SymbolicProperties{
         KEY_DATASET("dlmf_dataset", null),
         KEY_SUBSET("subset_tests", null),
@@ -152,7 +176,9 @@ public class SymbolicalConfig implements EvaluationConfig {
         KEY_ENABLE_EXPAND_EXP("enable_pre_expansion_with_exp", "true"),
         KEY_ENABLE_EXPAND_HYP("enable_pre_expansion_with_hypergeom", "true"),
         KEY_ASSUMPTION("entire_test_set_assumptions", null),
-        KEY_TIMEOUT("timeout", "10");
+        KEY_TIMEOUT("timeout", "10"),
+        KEY_WORKERS("number_of_workers", "1"),
+        KEY_JOURNAL_SYNC("journal_sync_interval", "1");
 
         private final String key, value;
 
@@ -1,14 +1,48 @@
 package gov.nist.drmf.interpreter.common.interfaces;
 
+import java.util.StringJoiner;
+
 public interface TranslationFeature<T> {
     T preProcess(T obj);
 
+    /**
+     * A key that identifies the configuration of this feature, i.e., two features with the same key
+     * must pre-process every expression in the same way. Translations are only cached for features with a key.
+     * By default, a feature has no key and translations with this feature are never cached.
+     * @return the configuration key of this feature or null if the feature must not be cached
+     */
+    default String getConfigurationKey() {
+        return null;
+    }
+
+    /**
+     * Combines the given features to one feature that applies them in the given order. The combined feature
+     * has a configuration key if all given features have one.
+     * @param features the features
+     * @param <T> the type of the pre-processed objects
+     * @return the combined feature
+     */
+    @SafeVarargs
     static <T> TranslationFeature<T> combine(TranslationFeature<T>... features) {
-        return obj -> {
-            for ( TranslationFeature<T> feature : features ) {
-                obj = feature.preProcess(obj);
+        return new TranslationFeature<>() {
+            @Override
+            public T preProcess(T obj) {
+                for ( TranslationFeature<T> feature : features ) {
+                    obj = feature.preProcess(obj);
+                }
+                return obj;
+            }
+
+            @Override
+            public String getConfigurationKey() {
+                StringJoiner keys = new StringJoiner(",", "combine(", ")");
+                for ( TranslationFeature<T> feature : features ) {
+                    String key = feature.getConfigurationKey();
+                    if ( key == null ) return null;
+                    keys.add(key);
+                }
+                return keys.toString();
             }
-            return obj;
         };
     }
 }
@@ -41,6 +41,7 @@ public class TeXPreProcessor {
     }
 
     public static String preProcessingTeX( String tex, String label ) {
+        if ( requiresNoPreProcessing(tex, label) ) return tex;
         tex = TeXPreProcessor.trimIfWrappedInCurlyBrackets(tex);
         if ( replacementConfig == null ) {
             LOG.warn("No replacement rules loaded, fallback to standard replacements.");
@@ -49,6 +50,27 @@ public class TeXPreProcessor {
         return clearEndOfFormulaPunctuation(tex);
     }
 
+    /**
+     * A single scan over the given expression to check if any step of {@link #preProcessingTeX(String, String)}
+     * may change it. The expression requires pre-processing if it is wrapped in whitespaces or curly brackets,
+     * ends with punctuation or contains a character that triggers one of the replacement rules
+     * (e.g., a backslash or whitespaces between digits).
+     * @param tex the expression
+     * @param label the label of the expression (DLMF labels trigger conditional replacements)
+     * @return true if the pre-processing returns the given expression unchanged
+     */
+    public static boolean requiresNoPreProcessing( String tex, String label ) {
+        if ( tex == null || label != null || replacementConfig == null ) return false;
+        if ( !tex.isEmpty() ) {
+            char first = tex.charAt(0);
+            char last = tex.charAt(tex.length()-1);
+            if ( first <= ' ' || last <= ' ' ) return false;
+            if ( first == '{' || last == '}' ) return false;
+            if ( last == ',' || last == ';' || last == '.' || last == '\\' ) return false;
+        }
+        return !replacementConfig.mayReplace(tex, null);
+    }
+
     private static String fallbackReplacements( String tex ){
         StringBuffer buffer = new StringBuffer();
         Matcher matcher = IGNORE_FONTS.matcher(tex);
@@ -0,0 +1,301 @@
+package gov.nist.drmf.interpreter.common.numeric;
+
+import java.util.Locale;
+
+/**
+ * An immutable complex number in double precision. All multivalued functions return the principal value
+ * with the same branch cuts as Maple and Mathematica. A signed zero is normalized to zero since both
+ * CAS compute with exact numbers that do not distinguish between -0 and 0.
+ *
+ * @author Andre Greiner-Petter
+ */
+public final class Complex {
+    public static final Complex ZERO = new Complex(0, 0);
+    public static final Complex ONE = new Complex(1, 0);
+    public static final Complex I = new Complex(0, 1);
+    public static final Complex PI = new Complex(Math.PI, 0);
+    public static final Complex E = new Complex(Math.E, 0);
+
+    private final double re;
+    private final double im;
+
+    public Complex(double re, double im) {
+        // adding zero turns -0.0 into 0.0
+        this.re = re + 0.0;
+        this.im = im + 0.0;
+    }
+
+    public static Complex real(double re) {
+        return new Complex(re, 0);
+    }
+
+    public double getRe() {
+        return re;
+    }
+
+    public double getIm() {
+        return im;
+    }
+
+    public boolean isReal() {
+        return im == 0;
+    }
+
+    public boolean isFinite() {
+        return Double.isFinite(re) && Double.isFinite(im);
+    }
+
+    /**
+     * @return true if this number is a non-positive integer, i.e., a pole of the Gamma function
+     */
+    public boolean isNonPositiveInteger() {
+        return im == 0 && re <= 0 && re == Math.rint(re);
+    }
+
+    public double abs() {
+        return Math.hypot(re, im);
+    }
+
+    /**
+     * @return the principal argument in (-pi, pi]
+     */
+    public double arg() {
+        if ( im == 0 ) return re < 0 ? Math.PI : 0;
+        return Math.atan2(im, re);
+    }
+
+    public Complex negate() {
+        return new Complex(-re, -im);
+    }
+
+    public Complex conjugate() {
+        return new Complex(re, -im);
+    }
+
+    public Complex add(Complex c) {
+        return new Complex(re + c.re, im + c.im);
+    }
+
+    public Complex subtract(Complex c) {
+        return new Complex(re - c.re, im - c.im);
+    }
+
+    public Complex multiply(Complex c) {
+        if ( im == 0 && c.im == 0 ) return real(re * c.re);
+        return new Complex(re * c.re - im * c.im, re * c.im + im * c.re);
+    }
+
+    public Complex multiply(double d) {
+        return new Complex(re * d, im * d);
+    }
+
+    public Complex divide(Complex c) {
+        if ( c.re == 0 && c.im == 0 ) throw new UndecidableException("Division by zero");
+        if ( im == 0 && c.im == 0 ) return real(re / c.re);
+        // Smith's algorithm avoids unnecessary overflows
+        if ( Math.abs(c.re) >= Math.abs(c.im) ) {
+            double r = c.im / c.re;
+            double d = c.re + c.im * r;
+            return new Complex((re + im * r) / d, (im - re * r) / d);
+        } else {
+            double r = c.re / c.im;
+            double d = c.re * r + c.im;
+            return new Complex((re * r + im) / d, (im * r - re) / d);
+        }
+    }
+
+    public Complex reciprocal() {
+        return ONE.divide(this);
+    }
+
+    public Complex exp() {
+        double e = Math.exp(re);
+        if ( im == 0 ) return real(e);
+        return new Complex(e * Math.cos(im), e * Math.sin(im));
+    }
+
+    /**
+     * @return the principal logarithm, the branch cut is the negative real axis
+     */
+    public Complex log() {
+        if ( re == 0 && im == 0 ) throw new UndecidableException("Logarithm of zero");
+        requireAwayFromCut(re < 0, im);
+        return new Complex(Math.log(abs()), arg());
+    }
+
+    /**
+     * @return the principal square root, the branch cut is the negative real axis
+     */
+    public Complex sqrt() {
+        if ( re == 0 && im == 0 ) return ZERO;
+        if ( im == 0 ) return re > 0 ? real(Math.sqrt(re)) : new Complex(0, Math.sqrt(-re));
+        requireAwayFromCut(re < 0, im);
+        double t = Math.sqrt((Math.abs(re) + abs()) / 2);
+        if ( re >= 0 ) return new Complex(t, im / (2 * t));
+        return new Complex(Math.abs(im) / (2 * t), Math.copySign(t, im));
+    }
+
+    /**
+     * @param w the exponent
+     * @return the principal value of this number to the power of w
+     */
+    public Complex pow(Complex w) {
+        if ( w.im == 0 && w.re == Math.rint(w.re) && Math.abs(w.re) <= 1024 ) {
+            return pow((int) w.re);
+        }
+        if ( re == 0 && im == 0 ) {
+            if ( w.re > 0 ) return ZERO;
+            throw new UndecidableException("Zero to the power of " + w);
+        }
+        if ( im == 0 && re > 0 && w.im == 0 ) return real(Math.pow(re, w.re));
+        return log().multiply(w).exp();
+    }
+
+    public Complex pow(int n) {
+        if ( n < 0 ) return pow(-n).reciprocal();
+        Complex result = ONE;
+        Complex base = this;
+        while ( n > 0 ) {
+            if ( (n & 1) == 1 ) result = result.multiply(base);
+            base = base.multiply(base);
+            n >>= 1;
+        }
+        return result;
+    }
+
+    public Complex sin() {
+        if ( im == 0 ) return real(Math.sin(re));
+        return new Complex(Math.sin(re) * Math.cosh(im), Math.cos(re) * Math.sinh(im));
+    }
+
+    public Complex cos() {
+        if ( im == 0 ) return real(Math.cos(re));
+        return new Complex(Math.cos(re) * Math.cosh(im), -Math.sin(re) * Math.sinh(im));
+    }
+
+    public Complex tan() {
+        return sin().divide(cos());
+    }
+
+    public Complex sinh() {
+        if ( im == 0 ) return real(Math.sinh(re));
+        return new Complex(Math.sinh(re) * Math.cos(im), Math.cosh(re) * Math.sin(im));
+    }
+
+    public Complex cosh() {
+        if ( im == 0 ) return real(Math.cosh(re));
+        return new Complex(Math.cosh(re) * Math.cos(im), Math.sinh(re) * Math.sin(im));
+    }
+
+    public Complex tanh() {
+        return sinh().divide(cosh());
+    }
+
+    /**
+     * @return the principal inverse sine, the branch cuts are the real axis outside of [-1, 1]
+     */
+    public Complex asin() {
+        if ( im == 0 && Math.abs(re) <= 1 ) return real(Math.asin(re));
+        requireOffCut(Math.abs(re) > 1, im);
+        // -i log(iz + sqrt(1-z^2))
+        Complex iz = I.multiply(this);
+        return iz.add(ONE.subtract(multiply(this)).sqrt()).log().multiply(I).negate();
+    }
+
+    /**
+     * @return the principal inverse cosine, the branch cuts are the real axis outside of [-1, 1]
+     */
+    public Complex acos() {
+        if ( im == 0 && Math.abs(re) <= 1 ) return real(Math.acos(re));
+        return PI.multiply(0.5).subtract(asin());
+    }
+
+    /**
+     * @return the principal inverse tangent, the branch cuts are the imaginary axis outside of [-i, i]
+     */
+    public Complex atan() {
+        if ( im == 0 ) return real(Math.atan(re));
+        requireOffCut(Math.abs(im) > 1, re);
+        if ( re == 0 && Math.abs(im) == 1 ) throw new UndecidableException("Singularity of arctan");
+        // i/2 (log(1-iz) - log(1+iz))
+        Complex iz = I.multiply(this);
+        return ONE.subtract(iz).log().subtract(ONE.add(iz).log()).multiply(new Complex(0, 0.5));
+    }
+
+    /**
+     * @return the principal inverse hyperbolic sine, the branch cuts are the imaginary axis outside of [-i, i]
+     */
+    public Complex asinh() {
+        if ( im == 0 ) return real(Math.copySign(Math.log(Math.abs(re) + Math.sqrt(re * re + 1)), re));
+        // asinh(z) = -i asin(iz)
+        return I.multiply(this).asin().multiply(I).negate();
+    }
+
+    /**
+     * @return the principal inverse hyperbolic cosine, the branch cut is the real axis left of 1
+     */
+    public Complex acosh() {
+        if ( im == 0 && re >= 1 ) return real(Math.log(re + Math.sqrt(re * re - 1)));
+        requireOffCut(re < 1, im);
+        // log(z + sqrt(z+1) sqrt(z-1))
+        return add(add(ONE).sqrt().multiply(subtract(ONE).sqrt())).log();
+    }
+
+    /**
+     * @return the principal inverse hyperbolic tangent, the branch cuts are the real axis outside of [-1, 1]
+     */
+    public Complex atanh() {
+        if ( im == 0 && Math.abs(re) < 1 ) return real(0.5 * Math.log((1 + re) / (1 - re)));
+        requireOffCut(Math.abs(re) >= 1, im);
+        // (log(1+z) - log(1-z))/2
+        return ONE.add(this).log().subtract(ONE.subtract(this).log()).multiply(0.5);
+    }
+
+    /**
+     * Multivalued functions cannot be decided close to their branch cuts because the CAS
+     * may end up on the other side of the cut.
+     */
+    private static void requireAwayFromCut(boolean onCutLine, double distance) {
+        if ( onCutLine && distance != 0 && Math.abs(distance) < 1e-12 )
+            throw new UndecidableException("Too close to a branch cut");
+    }
+
+    /**
+     * The CAS do not agree on the values on the branch cuts of the inverse trigonometric functions.
+     */
+    private static void requireOffCut(boolean onCutLine, double distance) {
+        if ( onCutLine && Math.abs(distance) < 1e-12 )
+            throw new UndecidableException("Too close to a branch cut");
+    }
+
+    /**
+     * @param digits the number of significant digits
+     * @return the string representation of this number, e.g., {@code 1.5+0.25*I}
+     */
+    public String toString(int digits) {
+        String format = "%." + Math.max(1, digits) + "g";
+        String r = String.format(Locale.ENGLISH, format, re);
+        if ( im == 0 ) return r;
+        String i = String.format(Locale.ENGLISH, format, Math.abs(im));
+        if ( re == 0 ) return (im < 0 ? "-" : "") + i + "*I";
+        return r + (im < 0 ? "-" : "+") + i + "*I";
+    }
+
+    @Override
+    public String toString() {
+        return toString(16);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if ( this == o ) return true;
+        if ( !(o instanceof Complex) ) return false;
+        Complex c = (Complex) o;
+        return Double.compare(re, c.re) == 0 && Double.compare(im, c.im) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Double.hashCode(re) + Double.hashCode(im);
+    }
+}
@@ -0,0 +1,116 @@
+package gov.nist.drmf.interpreter.common.numeric;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The values of the variables of a single evaluation and the tolerance of its comparisons. The context
+ * observes the largest magnitude of all intermediate values. Since the CAS computes with a fixed number of
+ * significant digits, the absolute error of a result grows with the largest intermediate value and not
+ * with the result itself. A comparison closer than the tolerance relative to this scale is undecidable.
+ *
+ * @author Andre Greiner-Petter
+ */
+final class EvaluationContext {
+    private final Map<String, Complex> values;
+    private final double tolerance;
+
+    /**
+     * If true, comparisons of non-real numbers are false (as in constraints). Otherwise, they are undecidable
+     * because the CAS would raise an error.
+     */
+    private final boolean nonRealComparisonIsFalse;
+
+    private double scale = 0;
+
+    EvaluationContext(Map<String, Complex> values, double tolerance, boolean nonRealComparisonIsFalse) {
+        this.values = values;
+        this.tolerance = tolerance;
+        this.nonRealComparisonIsFalse = nonRealComparisonIsFalse;
+    }
+
+    /**
+     * @param variable the name of a variable
+     * @param value its value
+     * @return a new context with the additional variable that continues with the scale of this context
+     */
+    EvaluationContext with(String variable, Complex value) {
+        Map<String, Complex> extended = new HashMap<>(values);
+        extended.put(variable, value);
+        EvaluationContext ctx = new EvaluationContext(extended, tolerance, nonRealComparisonIsFalse);
+        ctx.scale = scale;
+        return ctx;
+    }
+
+    Complex get(String variable) {
+        return values.get(variable);
+    }
+
+    Complex observe(Complex value) {
+        if ( !value.isFinite() ) throw new UndecidableException("Overflow or undefined value");
+        scale = Math.max(scale, value.abs());
+        return value;
+    }
+
+    double getScale() {
+        return scale;
+    }
+
+    private double margin(Complex a, Complex b) {
+        return tolerance * Math.max(scale, Math.max(a.abs(), b.abs()));
+    }
+
+    /**
+     * @return true if the value is real, false if it is clearly not real
+     * @throws UndecidableException if the imaginary part is within the tolerance but not zero
+     */
+    boolean isReal(Complex value) {
+        if ( value.isReal() ) return true;
+        if ( Math.abs(value.getIm()) <= tolerance * Math.max(scale, value.abs()) )
+            throw new UndecidableException("Unable to decide if " + value + " is real");
+        return false;
+    }
+
+    /**
+     * @return true if both values are equal
+     * @throws UndecidableException if the values differ but the difference is within the tolerance
+     */
+    boolean isEqual(Complex a, Complex b) {
+        double diff = a.subtract(b).abs();
+        if ( diff == 0 ) return true;
+        if ( diff <= margin(a, b) ) throw new UndecidableException("Unable to decide if " + a + " = " + b);
+        return false;
+    }
+
+    /**
+     * Compares two real values.
+     * @return the sign of a - b or {@link Integer#MIN_VALUE} if the values are not comparable
+     *          (at least one is not real) and {@link #nonRealComparisonIsFalse} is set
+     * @throws UndecidableException if the values differ but the difference is within the tolerance
+     */
+    int compare(Complex a, Complex b) {
+        if ( !isReal(a) || !isReal(b) ) {
+            if ( nonRealComparisonIsFalse ) return Integer.MIN_VALUE;
+            throw new UndecidableException("Comparison of non-real numbers " + a + " and " + b);
+        }
+        double diff = a.getRe() - b.getRe();
+        if ( diff == 0 ) return 0;
+        if ( Math.abs(diff) <= margin(a, b) )
+            throw new UndecidableException("Unable to compare " + a + " and " + b);
+        return diff < 0 ? -1 : 1;
+    }
+
+    /**
+     * @return true if the value is an integer
+     * @throws UndecidableException if the value is close to but not exactly an integer
+     */
+    boolean isInteger(Complex value) {
+        if ( !isReal(value) ) return false;
+        double re = value.getRe();
+        double diff = Math.abs(re - Math.rint(re));
+        if ( diff == 0 ) return true;
+        if ( diff <= tolerance * Math.max(1, Math.max(scale, Math.abs(re))) )
+            throw new UndecidableException("Unable to decide if " + value + " is an integer");
+        return false;
+    }
+}
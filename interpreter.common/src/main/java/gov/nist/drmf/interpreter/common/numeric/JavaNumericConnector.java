@@ -0,0 +1,86 @@
+package gov.nist.drmf.interpreter.common.numeric;
+
+import gov.nist.drmf.interpreter.common.cas.ICASEngine;
+import gov.nist.drmf.interpreter.common.cas.ICASEngineNumericalEvaluator;
+import gov.nist.drmf.interpreter.common.cas.ICASEngineSymbolicEvaluator;
+import gov.nist.drmf.interpreter.common.constants.Keys;
+import gov.nist.drmf.interpreter.common.eval.ISymbolicTestCases;
+import gov.nist.drmf.interpreter.common.eval.NativeComputerAlgebraInterfaceBuilder;
+import gov.nist.drmf.interpreter.common.eval.NumericalConfig;
+import gov.nist.drmf.interpreter.common.exceptions.CASUnavailableException;
+
+import java.util.List;
+
+/**
+ * Numerical tests without a CAS. The tests are translated to Maple and computed by the {@link JavaNumericalEvaluator}.
+ * Tests that cannot be decided in the JVM end up as errors. Symbolic tests are not supported.
+ *
+ * @author Andre Greiner-Petter
+ */
+public class JavaNumericConnector implements NativeComputerAlgebraInterfaceBuilder {
+    private final JavaNumericalEvaluator numericalEvaluator;
+
+    public JavaNumericConnector() {
+        this(new NumericalConfig());
+    }
+
+    public JavaNumericConnector(NumericalConfig config) {
+        this.numericalEvaluator = new JavaNumericalEvaluator(NumericDialect.MAPLE, config);
+    }
+
+    /**
+     * The Java engine is always available.
+     */
+    @Override
+    public boolean isCASAvailable() {
+        return true;
+    }
+
+    @Override
+    public String getLanguageKey() {
+        return Keys.KEY_MAPLE;
+    }
+
+    /**
+     * @return an engine that ignores all commands since there is no CAS
+     */
+    @Override
+    public ICASEngine getCASEngine() {
+        return new ICASEngine() {
+            @Override
+            public String enterCommand(String command) {
+                return "";
+            }
+
+            @Override
+            public void forceGC() {
+                // nothing to clean
+            }
+
+            @Override
+            public String buildList(List<String> list) {
+                return "[" + String.join(", ", list) + "]";
+            }
+        };
+    }
+
+    @Override
+    public ICASEngineNumericalEvaluator getNumericEvaluator() {
+        return numericalEvaluator;
+    }
+
+    @Override
+    public ICASEngineSymbolicEvaluator getSymbolicEvaluator() throws CASUnavailableException {
+        throw new CASUnavailableException("Symbolic tests require a CAS");
+    }
+
+    @Override
+    public ISymbolicTestCases[] getDefaultSymbolicTestCases() {
+        return new ISymbolicTestCases[0];
+    }
+
+    @Override
+    public String[] getNumericProcedures() {
+        return new String[0];
+    }
+}
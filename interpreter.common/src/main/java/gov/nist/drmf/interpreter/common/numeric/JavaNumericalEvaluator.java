@@ -0,0 +1,204 @@
+package gov.nist.drmf.interpreter.common.numeric;
+
+import gov.nist.drmf.interpreter.common.cas.ICASEngineNumericalEvaluator;
+import gov.nist.drmf.interpreter.common.eval.*;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.*;
+
+/**
+ * <p>
+ * Performs numerical tests of translated expressions in the JVM. The evaluator follows the same rules as the
+ * numerical tests in the CAS, i.e., it builds the same combinations of test values, filters them by the constraints
+ * and sieves the results with the same expectation. Hence, the results are identical to the results of the CAS.
+ * </p>
+ *
+ * <p>
+ * The evaluator computes in double precision. Whenever it cannot decide a test reliably, e.g., because the test
+ * contains an unsupported function, a result is too close to the threshold, a value is close to a branch cut,
+ * or the test requires more digits than a double provides, the entire test is undecidable.
+ * In this case, {@link #prescreen(NumericalTest)} returns null and the test should be forwarded to the CAS.
+ * </p>
+ *
+ * @author Andre Greiner-Petter
+ */
+public class JavaNumericalEvaluator implements ICASEngineNumericalEvaluator {
+    private static final Logger LOG = LogManager.getLogger(JavaNumericalEvaluator.class.getName());
+
+    /**
+     * The maximum precision (significant digits) that can be decided with doubles.
+     */
+    private static final int MAX_PRECISION = 15;
+
+    private static final String SIEVE_VARIABLE = NumericalTestConstants.PATTERN_SIEVE_METHOD_RESULT;
+
+    private final NumericDialect dialect;
+
+    /**
+     * The expectation of a single result (Maple only), e.g., {@code abs(result) < 0.001}
+     */
+    private final NumericExpression expectation;
+
+    private final TestValueGenerator generator;
+
+    public JavaNumericalEvaluator(NumericDialect dialect, NumericalConfig config) {
+        this(dialect, config.getExpectationTemplate());
+    }
+
+    /**
+     * @param dialect the dialect of the translated expressions
+     * @param expectationTemplate the expectation of a single result (see {@link NumericalConfig#getExpectationTemplate()}),
+     *                            it is ignored for Mathematica which always checks against 1/precision
+     */
+    public JavaNumericalEvaluator(NumericDialect dialect, String expectationTemplate) {
+        this.dialect = dialect;
+        this.generator = new TestValueGenerator(dialect);
+        NumericExpression expect = null;
+        if ( NumericDialect.MAPLE.equals(dialect) ) {
+            try {
+                expect = NumericExpression.parse(expectationTemplate, dialect);
+            } catch (UndecidableException | NullPointerException e) {
+                LOG.warn("Unsupported test expectation '" + expectationTemplate + "'. All tests are forwarded to the CAS.");
+            }
+        }
+        this.expectation = expect;
+    }
+
+    @Override
+    public void setGlobalNumericAssumptions(List<String> assumptions) {
+        generator.setGlobalConstraints(assumptions);
+    }
+
+    /**
+     * Performs the given test in the JVM.
+     * @param test the numerical test
+     * @return the results of the test or null if the test cannot be decided reliably and should be
+     *          forwarded to the CAS
+     * @throws IllegalArgumentException if there are no valid test values (same as the CAS)
+     */
+    public NumericResult prescreen(NumericalTest test) {
+        try {
+            return performTest(test);
+        } catch (UndecidableException ue) {
+            LOG.debug("Forward numerical test to the CAS: " + ue.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public NumericResult performNumericTest(NumericalTest test) {
+        try {
+            return performTest(test);
+        } catch (UndecidableException ue) {
+            throw new IllegalArgumentException("Unable to decide the test numerically without a CAS: " + ue.getMessage());
+        }
+    }
+
+    /**
+     * The JVM computes the same expression as the CAS, hence no wrapper is necessary.
+     */
+    @Override
+    public String generateNumericTestExpression(String expression) {
+        return expression;
+    }
+
+    /**
+     * Computations in the JVM are fast and do not need a timeout.
+     */
+    @Override
+    public void setTimeout(EvaluatorType type, double timeoutInSeconds) {
+        // ignore
+    }
+
+    private NumericResult performTest(NumericalTest test) {
+        if ( NumericDialect.MAPLE.equals(dialect) && expectation == null )
+            throw new UndecidableException("Unsupported test expectation");
+        if ( test.getPrecision() > MAX_PRECISION )
+            throw new UndecidableException("Precision of " + test.getPrecision() + " digits exceeds doubles");
+
+        // e.g., \gamma is translated to the variable gamma in Maple, which is Euler's constant in the dialect
+        Set<String> variables = test.getVariables() == null ? Collections.emptySet() : test.getVariables();
+        for ( String variable : variables ) {
+            if ( dialect.getConstant(variable) != null )
+                throw new UndecidableException("The variable " + variable + " is a constant in " + dialect);
+        }
+
+        NumericExpression expression = NumericExpression.parse(test.getTestExpression(), dialect);
+
+        NumericCalculationGroup group = new NumericCalculationGroup();
+        group.setTestExpression(test.getTestExpression());
+        group.setLhs(test.getLhs());
+        group.setRhs(test.getRhs());
+
+        if ( variables.isEmpty() ) {
+            // a numeric expression is computed once without test values
+            group.addTestCalculation(calculate(expression, test.getPrecision(), new HashMap<>(), new HashMap<>()));
+        } else {
+            TestValueCombinations combinations = buildTestValues(test, group);
+            for ( int i = 0; i < combinations.size(); i++ ) {
+                group.addTestCalculation(calculate(
+                        expression, test.getPrecision(), combinations.getValues(i), combinations.getCombination(i)
+                ));
+            }
+        }
+
+        NumericResult result = new NumericResult();
+        result.addTestCalculationsGroup(group);
+        return result;
+    }
+
+    private NumericCalculation calculate(
+            NumericExpression expression,
+            int precision,
+            Map<String, Complex> values,
+            Map<String, String> strings
+    ) {
+        // the CAS computes with the given precision, deviations of the last digits are expected
+        double tolerance = Math.max(Math.pow(10, 2 - precision), 1e-13);
+        EvaluationContext ctx = new EvaluationContext(values, tolerance, false);
+
+        boolean success;
+        String resultExpression;
+        if ( expression.isCondition() ) {
+            success = expression.holds(ctx);
+            resultExpression = Boolean.toString(success);
+        } else {
+            Complex result = expression.evaluate(ctx);
+            success = sieve(result, ctx, precision);
+            resultExpression = result.toString(precision);
+        }
+
+        NumericCalculation calculation = new NumericCalculation(success ? TestResultType.SUCCESS : TestResultType.FAILURE);
+        calculation.setResultExpression(resultExpression);
+        calculation.setTestValues(strings);
+        return calculation;
+    }
+
+    private boolean sieve(Complex result, EvaluationContext ctx, int precision) {
+        if ( NumericDialect.MAPLE.equals(dialect) ) {
+            return expectation.holds(ctx.with(SIEVE_VARIABLE, result));
+        } else {
+            // Mathematica checks abs(result) < 1/precision
+            return ctx.compare(Complex.real(result.abs()), Complex.real(1.0 / precision)) < 0;
+        }
+    }
+
+    /**
+     * Generates the same test values as the CAS. Only constraints that can be decided in the JVM are supported,
+     * and the CAS tests the same deterministic sample if there are too many valid combinations.
+     */
+    private TestValueCombinations buildTestValues(NumericalTest test, NumericCalculationGroup group) {
+        TestValueCombinations combinations = generator.generate(test);
+        if ( combinations == null ) throw new UndecidableException("Unable to generate the test values");
+        if ( combinations.requiresFiltering() ) throw new UndecidableException("Unsupported constraints or test values");
+        group.getConstraints().addAll(combinations.getConstraints());
+
+        if ( combinations.isEmpty() ) {
+            // Mathematica computes the expression without values instead
+            if ( NumericDialect.MATHEMATICA.equals(dialect) ) throw new UndecidableException("No valid test values");
+            throw new IllegalArgumentException("There are no valid test values.");
+        }
+        return combinations;
+    }
+}
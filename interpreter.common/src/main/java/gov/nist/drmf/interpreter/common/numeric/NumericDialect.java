@@ -0,0 +1,241 @@
+package gov.nist.drmf.interpreter.common.numeric;
+
+import gov.nist.drmf.interpreter.common.constants.Keys;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The syntax of the translated expressions of a CAS, i.e., the names of the functions, constants and domains
+ * and the brackets of function calls. Only the functions that the Java engine computes reliably are
+ * supported. Every other function makes an expression undecidable for the Java engine.
+ *
+ * @author Andre Greiner-Petter
+ */
+public enum NumericDialect {
+    MAPLE('(', ')', false, mapleFunctions(), mapleConstants(), mapleDomains()),
+    MATHEMATICA('[', ']', true, mathematicaFunctions(), mathematicaConstants(), mathematicaDomains());
+
+    private static final double EULER_GAMMA = 0.57721566490153286;
+    private static final double CATALAN = 0.91596559417721901;
+
+    private final char open, close;
+    private final boolean implicitMultiplication;
+    private final Map<String, NumericFunction> functions;
+    private final Map<String, Complex> constants;
+    private final Map<String, Domain> domains;
+
+    NumericDialect(
+            char open, char close,
+            boolean implicitMultiplication,
+            Map<String, NumericFunction> functions,
+            Map<String, Complex> constants,
+            Map<String, Domain> domains
+    ) {
+        this.open = open;
+        this.close = close;
+        this.implicitMultiplication = implicitMultiplication;
+        this.functions = functions;
+        this.constants = constants;
+        this.domains = domains;
+    }
+
+    /**
+     * @param languageKey the language key of a CAS, e.g., {@link Keys#KEY_MAPLE}
+     * @return the dialect of the given CAS or null if the CAS is not supported
+     */
+    public static NumericDialect fromLanguageKey(String languageKey) {
+        if ( Keys.KEY_MAPLE.equals(languageKey) ) return MAPLE;
+        else if ( Keys.KEY_MATHEMATICA.equals(languageKey) ) return MATHEMATICA;
+        else return null;
+    }
+
+    char getOpenCall() {
+        return open;
+    }
+
+    char getCloseCall() {
+        return close;
+    }
+
+    /**
+     * @return true if two juxtaposed factors are multiplied (e.g., {@code 2 x} in Mathematica)
+     */
+    boolean supportsImplicitMultiplication() {
+        return implicitMultiplication;
+    }
+
+    NumericFunction getFunction(String name) {
+        return functions.get(name);
+    }
+
+    Complex getConstant(String name) {
+        return constants.get(name);
+    }
+
+    Domain getDomain(String name) {
+        return domains.get(name);
+    }
+
+    /**
+     * The domains of the type checks in constraints, e.g., {@code n::integer} or {@code n \[Element] Integers}.
+     */
+    enum Domain {
+        COMPLEX, REAL, INTEGER, POSITIVE_INTEGER, NON_NEGATIVE_INTEGER, NEGATIVE_INTEGER,
+        POSITIVE, NEGATIVE, NON_NEGATIVE
+    }
+
+    private static Map<String, NumericFunction> mapleFunctions() {
+        Map<String, NumericFunction> map = new HashMap<>();
+        map.put("evalf", NumericFunction.IDENTITY);
+        map.put("abs", NumericFunction.ABS);
+        map.put("Re", NumericFunction.RE);
+        map.put("Im", NumericFunction.IM);
+        map.put("argument", NumericFunction.ARG);
+        map.put("conjugate", NumericFunction.CONJUGATE);
+        map.put("exp", NumericFunction.EXP);
+        map.put("ln", NumericFunction.LOG);
+        map.put("log", NumericFunction.LOG);
+        map.put("sqrt", NumericFunction.SQRT);
+        map.put("sin", NumericFunction.SIN);
+        map.put("cos", NumericFunction.COS);
+        map.put("tan", NumericFunction.TAN);
+        map.put("cot", NumericFunction.COT);
+        map.put("sec", NumericFunction.SEC);
+        map.put("csc", NumericFunction.CSC);
+        map.put("sinh", NumericFunction.SINH);
+        map.put("cosh", NumericFunction.COSH);
+        map.put("tanh", NumericFunction.TANH);
+        map.put("coth", NumericFunction.COTH);
+        map.put("sech", NumericFunction.SECH);
+        map.put("csch", NumericFunction.CSCH);
+        map.put("arcsin", NumericFunction.ASIN);
+        map.put("arccos", NumericFunction.ACOS);
+        map.put("arctan", NumericFunction.ATAN);
+        map.put("arccot", NumericFunction.ACOT);
+        map.put("arcsec", NumericFunction.ASEC);
+        map.put("arccsc", NumericFunction.ACSC);
+        map.put("arcsinh", NumericFunction.ASINH);
+        map.put("arccosh", NumericFunction.ACOSH);
+        map.put("arctanh", NumericFunction.ATANH);
+        map.put("arccoth", NumericFunction.ACOTH);
+        map.put("arcsech", NumericFunction.ASECH);
+        map.put("arccsch", NumericFunction.ACSCH);
+        map.put("GAMMA", NumericFunction.GAMMA);
+        map.put("Beta", NumericFunction.BETA);
+        map.put("factorial", NumericFunction.FACTORIAL);
+        map.put("binomial", NumericFunction.BINOMIAL);
+        map.put("BesselJ", NumericFunction.BESSEL_J);
+        map.put("BesselI", NumericFunction.BESSEL_I);
+        return map;
+    }
+
+    private static Map<String, NumericFunction> mathematicaFunctions() {
+        Map<String, NumericFunction> map = new HashMap<>();
+        // N[expr] and N[expr, precision]
+        map.put("N", NumericFunction.variadic(1, 2, args -> args[0]));
+        map.put("Abs", NumericFunction.ABS);
+        map.put("Re", NumericFunction.RE);
+        map.put("Im", NumericFunction.IM);
+        map.put("Arg", NumericFunction.ARG);
+        map.put("Conjugate", NumericFunction.CONJUGATE);
+        map.put("Exp", NumericFunction.EXP);
+        // Log[z] and Log[b, z]
+        map.put("Log", NumericFunction.variadic(1, 2, args ->
+                args.length == 1 ? args[0].log() : args[1].log().divide(args[0].log())
+        ));
+        map.put("Sqrt", NumericFunction.SQRT);
+        map.put("Sin", NumericFunction.SIN);
+        map.put("Cos", NumericFunction.COS);
+        map.put("Tan", NumericFunction.TAN);
+        map.put("Cot", NumericFunction.COT);
+        map.put("Sec", NumericFunction.SEC);
+        map.put("Csc", NumericFunction.CSC);
+        map.put("Sinh", NumericFunction.SINH);
+        map.put("Cosh", NumericFunction.COSH);
+        map.put("Tanh", NumericFunction.TANH);
+        map.put("Coth", NumericFunction.COTH);
+        map.put("Sech", NumericFunction.SECH);
+        map.put("Csch", NumericFunction.CSCH);
+        map.put("ArcSin", NumericFunction.ASIN);
+        map.put("ArcCos", NumericFunction.ACOS);
+        map.put("ArcTan", NumericFunction.ATAN);
+        map.put("ArcCot", NumericFunction.ACOT);
+        map.put("ArcSec", NumericFunction.ASEC);
+        map.put("ArcCsc", NumericFunction.ACSC);
+        map.put("ArcSinh", NumericFunction.ASINH);
+        map.put("ArcCosh", NumericFunction.ACOSH);
+        map.put("ArcTanh", NumericFunction.ATANH);
+        map.put("ArcCoth", NumericFunction.ACOTH);
+        map.put("ArcSech", NumericFunction.ASECH);
+        map.put("ArcCsch", NumericFunction.ACSCH);
+        map.put("Gamma", NumericFunction.GAMMA);
+        map.put("Beta", NumericFunction.BETA);
+        map.put("Factorial", NumericFunction.FACTORIAL);
+        map.put("Binomial", NumericFunction.BINOMIAL);
+        map.put("BesselJ", NumericFunction.BESSEL_J);
+        map.put("BesselI", NumericFunction.BESSEL_I);
+        map.put("Divide", NumericFunction.binary(Complex::divide));
+        map.put("Power", NumericFunction.binary(Complex::pow));
+        map.put("Subtract", NumericFunction.binary(Complex::subtract));
+        map.put("Times", NumericFunction.variadic(0, -1, args -> {
+            Complex result = Complex.ONE;
+            for ( Complex arg : args ) result = result.multiply(arg);
+            return result;
+        }));
+        map.put("Plus", NumericFunction.variadic(0, -1, args -> {
+            Complex result = Complex.ZERO;
+            for ( Complex arg : args ) result = result.add(arg);
+            return result;
+        }));
+        return map;
+    }
+
+    private static Map<String, Complex> mapleConstants() {
+        Map<String, Complex> map = new HashMap<>();
+        map.put("Pi", Complex.PI);
+        map.put("I", Complex.I);
+        map.put("gamma", Complex.real(EULER_GAMMA));
+        map.put("Catalan", Complex.real(CATALAN));
+        return map;
+    }
+
+    private static Map<String, Complex> mathematicaConstants() {
+        Map<String, Complex> map = new HashMap<>();
+        map.put("Pi", Complex.PI);
+        map.put("I", Complex.I);
+        map.put("E", Complex.E);
+        map.put("EulerGamma", Complex.real(EULER_GAMMA));
+        map.put("Catalan", Complex.real(CATALAN));
+        map.put("Degree", Complex.real(Math.PI / 180));
+        return map;
+    }
+
+    private static Map<String, Domain> mapleDomains() {
+        Map<String, Domain> map = new HashMap<>();
+        map.put("complex", Domain.COMPLEX);
+        map.put("real", Domain.REAL);
+        map.put("integer", Domain.INTEGER);
+        map.put("posint", Domain.POSITIVE_INTEGER);
+        map.put("nonnegint", Domain.NON_NEGATIVE_INTEGER);
+        map.put("negint", Domain.NEGATIVE_INTEGER);
+        map.put("positive", Domain.POSITIVE);
+        map.put("negative", Domain.NEGATIVE);
+        map.put("nonnegative", Domain.NON_NEGATIVE);
+        return map;
+    }
+
+    private static Map<String, Domain> mathematicaDomains() {
+        Map<String, Domain> map = new HashMap<>();
+        map.put("Complexes", Domain.COMPLEX);
+        map.put("Reals", Domain.REAL);
+        map.put("Integers", Domain.INTEGER);
+        map.put("PositiveIntegers", Domain.POSITIVE_INTEGER);
+        map.put("NonNegativeIntegers", Domain.NON_NEGATIVE_INTEGER);
+        map.put("NegativeIntegers", Domain.NEGATIVE_INTEGER);
+        map.put("PositiveReals", Domain.POSITIVE);
+        map.put("NegativeReals", Domain.NEGATIVE);
+        map.put("NonNegativeReals", Domain.NON_NEGATIVE);
+        return map;
+    }
+}
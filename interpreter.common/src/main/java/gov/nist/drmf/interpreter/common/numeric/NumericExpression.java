@@ -0,0 +1,119 @@
+package gov.nist.drmf.interpreter.common.numeric;
+
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A parsed expression of a CAS dialect. An expression is either a value (e.g., the test expression of an equation)
+ * or a condition (e.g., a relation or a constraint). Evaluations throw an {@link UndecidableException} if
+ * the result cannot be decided reliably in double precision.
+ *
+ * @author Andre Greiner-Petter
+ */
+final class NumericExpression {
+    private final String expression;
+    private final Node root;
+    private final Set<String> variables;
+
+    NumericExpression(String expression, Node root, Set<String> variables) {
+        this.expression = expression;
+        this.root = root;
+        this.variables = Collections.unmodifiableSet(variables);
+    }
+
+    /**
+     * @param expression the expression in the syntax of the given dialect
+     * @param dialect the dialect of the CAS
+     * @return the parsed expression
+     * @throws UndecidableException if the expression contains unsupported syntax or functions
+     */
+    static NumericExpression parse(String expression, NumericDialect dialect) {
+        return new NumericExpressionParser(expression, dialect).parse();
+    }
+
+    /**
+     * Parses a comma separated sequence of conditions, e.g., {@code 0 < x ,  x < 1}.
+     * @param expression the sequence of expressions in the syntax of the given dialect
+     * @param dialect the dialect of the CAS
+     * @return the parsed expressions
+     * @throws UndecidableException if an expression contains unsupported syntax or functions
+     */
+    static List<NumericExpression> parseSequence(String expression, NumericDialect dialect) {
+        List<NumericExpression> list = new LinkedList<>();
+        for ( String element : NumericExpressionParser.splitSequence(expression) ) {
+            list.add(parse(element, dialect));
+        }
+        return list;
+    }
+
+    /**
+     * @return the free variables of this expression (without constants and function names)
+     */
+    Set<String> getVariables() {
+        return variables;
+    }
+
+    boolean isCondition() {
+        return root.isCondition();
+    }
+
+    Complex evaluate(EvaluationContext ctx) {
+        return root.evaluate(ctx);
+    }
+
+    boolean holds(EvaluationContext ctx) {
+        return root.holds(ctx);
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    abstract static class Node {
+        boolean isCondition() {
+            return false;
+        }
+
+        Complex evaluate(EvaluationContext ctx) {
+            throw new UndecidableException("Expected a value but found a condition");
+        }
+
+        boolean holds(EvaluationContext ctx) {
+            throw new UndecidableException("Expected a condition but found a value");
+        }
+    }
+
+    interface ValueFunction {
+        Complex apply(EvaluationContext ctx);
+    }
+
+    interface ConditionFunction {
+        boolean test(EvaluationContext ctx);
+    }
+
+    static Node value(ValueFunction f) {
+        return new Node() {
+            @Override
+            Complex evaluate(EvaluationContext ctx) {
+                return ctx.observe(f.apply(ctx));
+            }
+        };
+    }
+
+    static Node condition(ConditionFunction f) {
+        return new Node() {
+            @Override
+            boolean isCondition() {
+                return true;
+            }
+
+            @Override
+            boolean holds(EvaluationContext ctx) {
+                return f.test(ctx);
+            }
+        };
+    }
+}
@@ -0,0 +1,402 @@
+package gov.nist.drmf.interpreter.common.numeric;
+
+import gov.nist.drmf.interpreter.common.numeric.NumericDialect.Domain;
+import gov.nist.drmf.interpreter.common.numeric.NumericExpression.Node;
+
+import java.util.*;
+
+import static gov.nist.drmf.interpreter.common.numeric.NumericExpression.condition;
+import static gov.nist.drmf.interpreter.common.numeric.NumericExpression.value;
+
+/**
+ * A recursive descent parser for the translated expressions of Maple and Mathematica. The precedence of the
+ * operators (from lowest to highest) is: {@code or}, {@code and}, {@code not}, relations and domain checks,
+ * {@code + -}, {@code * /} (and juxtaposition in Mathematica), unary minus, {@code ^} and the postfix factorial.
+ *
+ * @author Andre Greiner-Petter
+ */
+final class NumericExpressionParser {
+    private static final Map<String, String> MATHEMATICA_OPERATORS = new HashMap<>();
+
+    static {
+        MATHEMATICA_OPERATORS.put("Element", "in");
+        MATHEMATICA_OPERATORS.put("NotEqual", "<>");
+        MATHEMATICA_OPERATORS.put("Equal", "=");
+        MATHEMATICA_OPERATORS.put("LessEqual", "<=");
+        MATHEMATICA_OPERATORS.put("GreaterEqual", ">=");
+        MATHEMATICA_OPERATORS.put("And", "and");
+        MATHEMATICA_OPERATORS.put("Or", "or");
+    }
+
+    private static final Set<String> RELATIONS = Set.of("<", ">", "<=", ">=", "=", "==", "<>", "!=");
+
+    private static final Set<String> KEYWORDS = Set.of("and", "or", "not", "in");
+
+    private enum TokenType {NUMBER, NAME, OPERATOR, END}
+
+    private static final class Token {
+        private final TokenType type;
+        private final String text;
+
+        private Token(TokenType type, String text) {
+            this.type = type;
+            this.text = text;
+        }
+
+        private boolean is(String op) {
+            return type == TokenType.OPERATOR && text.equals(op);
+        }
+
+        private boolean isKeyword(String keyword) {
+            return type == TokenType.NAME && text.equals(keyword);
+        }
+    }
+
+    private final String expression;
+    private final NumericDialect dialect;
+    private final List<Token> tokens;
+    private final Set<String> variables = new HashSet<>();
+    private int pos = 0;
+
+    NumericExpressionParser(String expression, NumericDialect dialect) {
+        this.expression = expression;
+        this.dialect = dialect;
+        this.tokens = tokenize(expression);
+    }
+
+    /**
+     * Splits a sequence at the commas on the top level.
+     */
+    static List<String> splitSequence(String expression) {
+        List<String> elements = new LinkedList<>();
+        int depth = 0;
+        int start = 0;
+        for ( int i = 0; i < expression.length(); i++ ) {
+            char c = expression.charAt(i);
+            if ( c == '(' || c == '[' ) depth++;
+            else if ( c == ')' || c == ']' ) depth--;
+            else if ( c == ',' && depth == 0 ) {
+                elements.add(expression.substring(start, i).trim());
+                start = i + 1;
+            }
+        }
+        elements.add(expression.substring(start).trim());
+        return elements;
+    }
+
+    NumericExpression parse() {
+        Node root = or();
+        if ( peek().type != TokenType.END )
+            throw new UndecidableException("Unexpected '" + peek().text + "' in " + expression);
+        return new NumericExpression(expression, root, variables);
+    }
+
+    private Token peek() {
+        return tokens.get(pos);
+    }
+
+    private Token next() {
+        return tokens.get(pos++);
+    }
+
+    private boolean accept(String op) {
+        if ( peek().is(op) || peek().isKeyword(op) ) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(String op) {
+        if ( !accept(op) )
+            throw new UndecidableException("Expected '" + op + "' but found '" + peek().text + "' in " + expression);
+    }
+
+    private Node or() {
+        Node left = and();
+        while ( accept("or") || accept("||") ) {
+            Node l = left, r = and();
+            left = condition(ctx -> l.holds(ctx) || r.holds(ctx));
+        }
+        return left;
+    }
+
+    private Node and() {
+        Node left = not();
+        while ( accept("and") || accept("&&") ) {
+            Node l = left, r = not();
+            left = condition(ctx -> l.holds(ctx) && r.holds(ctx));
+        }
+        return left;
+    }
+
+    private Node not() {
+        if ( accept("not") ) {
+            Node n = not();
+            return condition(ctx -> !n.holds(ctx));
+        }
+        return relation();
+    }
+
+    private Node relation() {
+        Node left = sum();
+        if ( accept("::") || accept("in") ) {
+            Token name = next();
+            Domain domain = dialect.getDomain(name.text);
+            if ( domain == null ) throw new UndecidableException("Unsupported domain " + name.text);
+            return condition(ctx -> isMember(left.evaluate(ctx), domain, ctx));
+        }
+
+        List<Node> operands = new LinkedList<>();
+        List<String> relations = new LinkedList<>();
+        operands.add(left);
+        while ( peek().type == TokenType.OPERATOR && RELATIONS.contains(peek().text) ) {
+            relations.add(next().text);
+            operands.add(sum());
+        }
+        if ( relations.isEmpty() ) return left;
+
+        Node[] ops = operands.toArray(new Node[0]);
+        String[] rels = relations.toArray(new String[0]);
+        return condition(ctx -> {
+            Complex a = ops[0].evaluate(ctx);
+            for ( int i = 0; i < rels.length; i++ ) {
+                Complex b = ops[i+1].evaluate(ctx);
+                if ( !holds(a, rels[i], b, ctx) ) return false;
+                a = b;
+            }
+            return true;
+        });
+    }
+
+    private static boolean holds(Complex a, String relation, Complex b, EvaluationContext ctx) {
+        switch ( relation ) {
+            case "=":
+            case "==":
+                return ctx.isEqual(a, b);
+            case "<>":
+            case "!=":
+                return !ctx.isEqual(a, b);
+            default:
+                int cmp = ctx.compare(a, b);
+                if ( cmp == Integer.MIN_VALUE ) return false;
+                switch ( relation ) {
+                    case "<": return cmp < 0;
+                    case ">": return cmp > 0;
+                    case "<=": return cmp <= 0;
+                    default: return cmp >= 0;
+                }
+        }
+    }
+
+    private static boolean isMember(Complex v, Domain domain, EvaluationContext ctx) {
+        switch ( domain ) {
+            case COMPLEX: return true;
+            case REAL: return ctx.isReal(v);
+            case INTEGER: return ctx.isInteger(v);
+            case POSITIVE_INTEGER: return ctx.isInteger(v) && v.getRe() > 0;
+            case NON_NEGATIVE_INTEGER: return ctx.isInteger(v) && v.getRe() >= 0;
+            case NEGATIVE_INTEGER: return ctx.isInteger(v) && v.getRe() < 0;
+            case POSITIVE: return ctx.isReal(v) && ctx.compare(v, Complex.ZERO) > 0;
+            case NEGATIVE: return ctx.isReal(v) && ctx.compare(v, Complex.ZERO) < 0;
+            default: return ctx.isReal(v) && ctx.compare(v, Complex.ZERO) >= 0;
+        }
+    }
+
+    private Node sum() {
+        Node left = term();
+        while ( true ) {
+            Node l = left;
+            if ( accept("+") ) {
+                Node r = term();
+                left = value(ctx -> l.evaluate(ctx).add(r.evaluate(ctx)));
+            } else if ( accept("-") ) {
+                Node r = term();
+                left = value(ctx -> l.evaluate(ctx).subtract(r.evaluate(ctx)));
+            } else return left;
+        }
+    }
+
+    private Node term() {
+        Node left = unary();
+        while ( true ) {
+            Node l = left;
+            if ( accept("*") ) {
+                Node r = unary();
+                left = value(ctx -> l.evaluate(ctx).multiply(r.evaluate(ctx)));
+            } else if ( accept("/") ) {
+                Node r = unary();
+                left = value(ctx -> l.evaluate(ctx).divide(r.evaluate(ctx)));
+            } else if ( startsImplicitFactor() ) {
+                Node r = power();
+                left = value(ctx -> l.evaluate(ctx).multiply(r.evaluate(ctx)));
+            } else return left;
+        }
+    }
+
+    private boolean startsImplicitFactor() {
+        if ( !dialect.supportsImplicitMultiplication() ) return false;
+        Token t = peek();
+        return t.type == TokenType.NUMBER
+                || (t.type == TokenType.NAME && !KEYWORDS.contains(t.text))
+                || t.is("(");
+    }
+
+    private Node unary() {
+        if ( accept("-") ) {
+            Node n = unary();
+            return value(ctx -> n.evaluate(ctx).negate());
+        } else if ( accept("+") ) {
+            return unary();
+        }
+        return power();
+    }
+
+    private Node power() {
+        Node base = postfix();
+        if ( accept("^") || accept("**") ) {
+            // right associative and the exponent may have a sign, e.g., x^-2
+            Node exponent = unary();
+            return value(ctx -> base.evaluate(ctx).pow(exponent.evaluate(ctx)));
+        }
+        return base;
+    }
+
+    private Node postfix() {
+        Node node = primary();
+        while ( accept("!") ) {
+            Node n = node;
+            node = value(ctx -> SpecialFunctions.factorial(n.evaluate(ctx)));
+        }
+        return node;
+    }
+
+    private Node primary() {
+        Token t = next();
+        switch ( t.type ) {
+            case NUMBER:
+                Complex number = Complex.real(Double.parseDouble(t.text));
+                return value(ctx -> number);
+            case NAME:
+                return name(t.text);
+            case OPERATOR:
+                if ( t.is("(") ) {
+                    Node node = or();
+                    expect(")");
+                    return node;
+                }
+            default:
+                throw new UndecidableException("Unexpected '" + t.text + "' in " + expression);
+        }
+    }
+
+    private Node name(String name) {
+        if ( KEYWORDS.contains(name) ) throw new UndecidableException("Unexpected keyword " + name);
+        if ( name.equals("true") || name.equals("True") ) return condition(ctx -> true);
+        if ( name.equals("false") || name.equals("False") ) return condition(ctx -> false);
+
+        if ( peek().is(String.valueOf(dialect.getOpenCall())) ) {
+            pos++;
+            return call(name);
+        }
+
+        Complex constant = dialect.getConstant(name);
+        if ( constant == null ) variables.add(name);
+        return value(ctx -> {
+            Complex v = ctx.get(name);
+            if ( v != null ) return v;
+            if ( constant != null ) return constant;
+            throw new UndecidableException("No value for " + name);
+        });
+    }
+
+    private Node call(String name) {
+        NumericFunction function = dialect.getFunction(name);
+        if ( function == null ) throw new UndecidableException("Unsupported function " + name);
+
+        String close = String.valueOf(dialect.getCloseCall());
+        List<Node> arguments = new LinkedList<>();
+        if ( !accept(close) ) {
+            do {
+                arguments.add(or());
+            } while ( accept(",") );
+            expect(close);
+        }
+
+        if ( !function.acceptsArguments(arguments.size()) )
+            throw new UndecidableException("Unsupported number of arguments of " + name);
+
+        Node[] args = arguments.toArray(new Node[0]);
+        return value(ctx -> {
+            Complex[] values = new Complex[args.length];
+            for ( int i = 0; i < args.length; i++ ) values[i] = args[i].evaluate(ctx);
+            return function.apply(values);
+        });
+    }
+
+    private static List<Token> tokenize(String in) {
+        List<Token> tokens = new ArrayList<>();
+        int i = 0;
+        while ( i < in.length() ) {
+            char c = in.charAt(i);
+            if ( Character.isWhitespace(c) ) {
+                i++;
+            } else if ( Character.isDigit(c) || (c == '.' && i+1 < in.length() && Character.isDigit(in.charAt(i+1))) ) {
+                int start = i;
+                while ( i < in.length() && (Character.isDigit(in.charAt(i)) || in.charAt(i) == '.') ) i++;
+                if ( i+1 < in.length() && (in.charAt(i) == 'e' || in.charAt(i) == 'E') ) {
+                    int exp = i+1;
+                    if ( in.charAt(exp) == '-' || in.charAt(exp) == '+' ) exp++;
+                    if ( exp < in.length() && Character.isDigit(in.charAt(exp)) ) {
+                        i = exp;
+                        while ( i < in.length() && Character.isDigit(in.charAt(i)) ) i++;
+                    }
+                }
+                tokens.add(new Token(TokenType.NUMBER, in.substring(start, i)));
+            } else if ( Character.isLetter(c) || c == '_' || in.startsWith("\\[", i) ) {
+                int start = i;
+                String operator = null;
+                while ( i < in.length() ) {
+                    char n = in.charAt(i);
+                    if ( Character.isLetterOrDigit(n) || n == '_' ) i++;
+                    else if ( in.startsWith("\\[", i) ) {
+                        int end = in.indexOf(']', i);
+                        if ( end < 0 ) throw new UndecidableException("Unclosed special character in " + in);
+                        String special = in.substring(i+2, end);
+                        if ( MATHEMATICA_OPERATORS.containsKey(special) ) {
+                            if ( i == start ) {
+                                operator = MATHEMATICA_OPERATORS.get(special);
+                                i = end + 1;
+                            }
+                            break;
+                        }
+                        i = end + 1;
+                    } else break;
+                }
+                if ( operator != null ) {
+                    TokenType type = KEYWORDS.contains(operator) ? TokenType.NAME : TokenType.OPERATOR;
+                    tokens.add(new Token(type, operator));
+                } else tokens.add(new Token(TokenType.NAME, in.substring(start, i)));
+            } else {
+                String op = matchOperator(in, i);
+                if ( op == null ) throw new UndecidableException("Unsupported character '" + c + "' in " + in);
+                tokens.add(new Token(TokenType.OPERATOR, op));
+                i += op.length();
+            }
+        }
+        tokens.add(new Token(TokenType.END, "<end>"));
+        return tokens;
+    }
+
+    private static final String[] OPERATORS = {
+            "**", "<=", ">=", "<>", "!=", "==", "&&", "||", "::",
+            "+", "-", "*", "/", "^", "(", ")", "[", "]", ",", "<", ">", "=", "!"
+    };
+
+    private static String matchOperator(String in, int i) {
+        for ( String op : OPERATORS ) {
+            if ( in.startsWith(op, i) ) return op;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,92 @@
+package gov.nist.drmf.interpreter.common.numeric;
+
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+
+/**
+ * A function with a fixed range of arguments and the implementations of the supported functions.
+ *
+ * @author Andre Greiner-Petter
+ */
+final class NumericFunction {
+    private final int minArgs, maxArgs;
+    private final Function<Complex[], Complex> function;
+
+    private NumericFunction(int minArgs, int maxArgs, Function<Complex[], Complex> function) {
+        this.minArgs = minArgs;
+        this.maxArgs = maxArgs;
+        this.function = function;
+    }
+
+    boolean acceptsArguments(int numberOfArgs) {
+        return minArgs <= numberOfArgs && (maxArgs < 0 || numberOfArgs <= maxArgs);
+    }
+
+    Complex apply(Complex[] args) {
+        return function.apply(args);
+    }
+
+    /**
+     * @param minArgs the minimum number of arguments
+     * @param maxArgs the maximum number of arguments, negative for an arbitrary number of arguments
+     * @param f the implementation
+     * @return the function
+     */
+    static NumericFunction variadic(int minArgs, int maxArgs, Function<Complex[], Complex> f) {
+        return new NumericFunction(minArgs, maxArgs, f);
+    }
+
+    static NumericFunction unary(Function<Complex, Complex> f) {
+        return new NumericFunction(1, 1, args -> f.apply(args[0]));
+    }
+
+    static NumericFunction binary(BinaryOperator<Complex> f) {
+        return new NumericFunction(2, 2, args -> f.apply(args[0], args[1]));
+    }
+
+    static final NumericFunction IDENTITY = unary(z -> z);
+    static final NumericFunction ABS = unary(z -> Complex.real(z.abs()));
+    static final NumericFunction RE = unary(z -> Complex.real(z.getRe()));
+    static final NumericFunction IM = unary(z -> Complex.real(z.getIm()));
+    static final NumericFunction ARG = unary(z -> {
+        if ( z.getRe() == 0 && z.getIm() == 0 ) return Complex.ZERO;
+        return Complex.real(z.arg());
+    });
+    static final NumericFunction EXP = unary(Complex::exp);
+    static final NumericFunction LOG = unary(Complex::log);
+    static final NumericFunction SQRT = unary(Complex::sqrt);
+    static final NumericFunction CONJUGATE = unary(Complex::conjugate);
+    static final NumericFunction SIN = unary(Complex::sin);
+    static final NumericFunction COS = unary(Complex::cos);
+    static final NumericFunction TAN = unary(Complex::tan);
+    static final NumericFunction COT = unary(z -> z.cos().divide(z.sin()));
+    static final NumericFunction SEC = unary(z -> z.cos().reciprocal());
+    static final NumericFunction CSC = unary(z -> z.sin().reciprocal());
+    static final NumericFunction SINH = unary(Complex::sinh);
+    static final NumericFunction COSH = unary(Complex::cosh);
+    static final NumericFunction TANH = unary(Complex::tanh);
+    static final NumericFunction COTH = unary(z -> z.cosh().divide(z.sinh()));
+    static final NumericFunction SECH = unary(z -> z.cosh().reciprocal());
+    static final NumericFunction CSCH = unary(z -> z.sinh().reciprocal());
+    static final NumericFunction ASIN = unary(Complex::asin);
+    static final NumericFunction ACOS = unary(Complex::acos);
+    static final NumericFunction ATAN = unary(Complex::atan);
+    // both CAS define arccot(z) = arctan(1/z) with arccot(0) = pi/2
+    static final NumericFunction ACOT = unary(z ->
+            z.getRe() == 0 && z.getIm() == 0 ? Complex.PI.multiply(0.5) : z.reciprocal().atan()
+    );
+    static final NumericFunction ASEC = unary(z -> z.reciprocal().acos());
+    static final NumericFunction ACSC = unary(z -> z.reciprocal().asin());
+    static final NumericFunction ASINH = unary(Complex::asinh);
+    static final NumericFunction ACOSH = unary(Complex::acosh);
+    static final NumericFunction ATANH = unary(Complex::atanh);
+    static final NumericFunction ACOTH = unary(z -> z.reciprocal().atanh());
+    static final NumericFunction ASECH = unary(z -> z.reciprocal().acosh());
+    static final NumericFunction ACSCH = unary(z -> z.reciprocal().asinh());
+    static final NumericFunction GAMMA = unary(SpecialFunctions::gamma);
+    static final NumericFunction BETA = binary(SpecialFunctions::beta);
+    static final NumericFunction FACTORIAL = unary(SpecialFunctions::factorial);
+    static final NumericFunction BINOMIAL = binary(SpecialFunctions::binomial);
+    static final NumericFunction BESSEL_J = binary(SpecialFunctions::besselJ);
+    static final NumericFunction BESSEL_I = binary(SpecialFunctions::besselI);
+}
@@ -0,0 +1,131 @@
+package gov.nist.drmf.interpreter.common.numeric;
+
+/**
+ * Special functions of complex arguments in double precision. The functions throw an
+ * {@link UndecidableException} if the result cannot be computed reliably (e.g., at poles or
+ * if the series of a Bessel function loses too many digits due to cancellation).
+ *
+ * @author Andre Greiner-Petter
+ */
+final class SpecialFunctions {
+    private static final double LANCZOS_G = 7;
+
+    private static final double[] LANCZOS = {
+            0.99999999999980993,
+            676.5203681218851,
+            -1259.1392167224028,
+            771.32342877765313,
+            -176.61502916214059,
+            12.507343278686905,
+            -0.13857109526572012,
+            9.9843695780195716e-6,
+            1.5056327351493116e-7
+    };
+
+    private static final double SQRT_TWO_PI = Math.sqrt(2 * Math.PI);
+
+    /**
+     * The maximum ratio between the largest term of a series and its sum.
+     * Larger ratios lose too many digits compared to the precision of a CAS.
+     */
+    private static final double MAX_CANCELLATION = 1e5;
+
+    private static final int MAX_ITERATIONS = 500;
+
+    private SpecialFunctions() {}
+
+    /**
+     * @param z the argument
+     * @return the Gamma function (Lanczos approximation with the reflection formula)
+     */
+    static Complex gamma(Complex z) {
+        if ( z.isNonPositiveInteger() ) throw new UndecidableException("Pole of the Gamma function at " + z);
+        if ( z.getRe() < 0.5 ) {
+            // reflection: pi / (sin(pi z) Gamma(1-z))
+            Complex sin = Complex.PI.multiply(z).sin();
+            return Complex.PI.divide(sin.multiply(gamma(Complex.ONE.subtract(z))));
+        }
+
+        Complex zm = z.subtract(Complex.ONE);
+        Complex x = Complex.real(LANCZOS[0]);
+        for ( int i = 1; i < LANCZOS.length; i++ ) {
+            x = x.add(Complex.real(LANCZOS[i]).divide(zm.add(Complex.real(i))));
+        }
+        Complex t = zm.add(Complex.real(LANCZOS_G + 0.5));
+        return t.pow(zm.add(Complex.real(0.5)))
+                .multiply(t.negate().exp())
+                .multiply(x)
+                .multiply(SQRT_TWO_PI);
+    }
+
+    /**
+     * @param z the argument
+     * @return the reciprocal Gamma function, which is zero at the poles of the Gamma function
+     */
+    static Complex reciprocalGamma(Complex z) {
+        if ( z.isNonPositiveInteger() ) return Complex.ZERO;
+        return gamma(z).reciprocal();
+    }
+
+    static Complex beta(Complex a, Complex b) {
+        return gamma(a).multiply(gamma(b)).multiply(reciprocalGamma(a.add(b)));
+    }
+
+    static Complex factorial(Complex n) {
+        return gamma(n.add(Complex.ONE));
+    }
+
+    static Complex binomial(Complex n, Complex k) {
+        return factorial(n)
+                .multiply(reciprocalGamma(k.add(Complex.ONE)))
+                .multiply(reciprocalGamma(n.subtract(k).add(Complex.ONE)));
+    }
+
+    /**
+     * @param nu the order
+     * @param z the argument
+     * @return the Bessel function of the first kind
+     */
+    static Complex besselJ(Complex nu, Complex z) {
+        return besselSeries(nu, z, true);
+    }
+
+    /**
+     * @param nu the order
+     * @param z the argument
+     * @return the modified Bessel function of the first kind
+     */
+    static Complex besselI(Complex nu, Complex z) {
+        return besselSeries(nu, z, false);
+    }
+
+    /**
+     * Sum_k (+/-1)^k (z/2)^(2k+nu) / (k! Gamma(k+nu+1)) = (z/2)^nu Sum_k (+/-z^2/4)^k / (k! Gamma(k+nu+1))
+     */
+    private static Complex besselSeries(Complex nu, Complex z, boolean alternating) {
+        Complex half = z.multiply(0.5);
+        Complex q = half.multiply(half);
+        if ( alternating ) q = q.negate();
+
+        Complex sum = Complex.ZERO;
+        Complex power = Complex.ONE;
+        double maxTerm = 0;
+        double kFactorial = 1;
+        for ( int k = 0; k < MAX_ITERATIONS; k++ ) {
+            if ( k > 0 ) {
+                power = power.multiply(q);
+                kFactorial *= k;
+            }
+            Complex term = power.multiply(reciprocalGamma(nu.add(Complex.real(k + 1)))).multiply(1 / kFactorial);
+            if ( !term.isFinite() ) throw new UndecidableException("Overflow in the Bessel series");
+            sum = sum.add(term);
+            maxTerm = Math.max(maxTerm, term.abs());
+            if ( k > q.abs() && term.abs() <= 1e-17 * sum.abs() ) {
+                if ( maxTerm > MAX_CANCELLATION * sum.abs() )
+                    throw new UndecidableException("Cancellation in the Bessel series");
+                return half.pow(nu).multiply(sum);
+            }
+        }
+        throw new UndecidableException("The Bessel series does not converge fast enough");
+    }
+}
@@ -0,0 +1,109 @@
+package gov.nist.drmf.interpreter.common.numeric;
+
+import java.util.*;
+
+/**
+ * The combinations of test values of a numerical test as generated by {@link TestValueGenerator}.
+ * Every combination assigns a value to each of the {@link #getVariables() variables}.
+ *
+ * @author Andre Greiner-Petter
+ */
+public final class TestValueCombinations {
+    private final List<String> variables;
+    private final List<String> constraints;
+    private final List<List<String>> combinations = new ArrayList<>();
+    private final List<Map<String, Complex>> values = new ArrayList<>();
+
+    private boolean requiresFiltering = false;
+    private boolean sampled = false;
+    private long numberOfCandidates = 0;
+
+    TestValueCombinations(List<String> variables, List<String> constraints) {
+        this.variables = Collections.unmodifiableList(variables);
+        this.constraints = Collections.unmodifiableList(constraints);
+    }
+
+    void add(List<String> combination, Map<String, Complex> combinationValues) {
+        combinations.add(Collections.unmodifiableList(combination));
+        values.add(combinationValues);
+    }
+
+    void markRequiresFiltering() {
+        this.requiresFiltering = true;
+    }
+
+    void setSampled(long numberOfCandidates) {
+        this.sampled = true;
+        this.numberOfCandidates = numberOfCandidates;
+    }
+
+    /**
+     * @return the variables in the same order as the values of each combination
+     */
+    public List<String> getVariables() {
+        return variables;
+    }
+
+    /**
+     * @return the combinations of values, each one in the same order as {@link #getVariables()}
+     */
+    public List<List<String>> getCombinations() {
+        return Collections.unmodifiableList(combinations);
+    }
+
+    /**
+     * @return the constraints (including the global constraints) that apply to the variables
+     */
+    public List<String> getConstraints() {
+        return constraints;
+    }
+
+    /**
+     * @return true if some constraints could not be decided in the JVM for some combinations. In this
+     * case, the CAS must filter the combinations by the constraints again.
+     */
+    public boolean requiresFiltering() {
+        return requiresFiltering;
+    }
+
+    /**
+     * @return true if there were more valid combinations than allowed and the combinations are a sample of them
+     */
+    public boolean isSampled() {
+        return sampled;
+    }
+
+    /**
+     * @return the number of valid combinations the sample was taken from (0 if not {@link #isSampled()})
+     */
+    public long getNumberOfCandidates() {
+        return numberOfCandidates;
+    }
+
+    public int size() {
+        return combinations.size();
+    }
+
+    public boolean isEmpty() {
+        return combinations.isEmpty();
+    }
+
+    /**
+     * @param i the index of the combination
+     * @return the numeric values of the i-th combination, a value is missing if it cannot be computed in the JVM
+     */
+    Map<String, Complex> getValues(int i) {
+        return values.get(i);
+    }
+
+    /**
+     * @param i the index of the combination
+     * @return the variable-value pairs of the i-th combination
+     */
+    public Map<String, String> getCombination(int i) {
+        Map<String, String> map = new LinkedHashMap<>();
+        List<String> combination = combinations.get(i);
+        for ( int v = 0; v < variables.size(); v++ ) map.put(variables.get(v), combination.get(v));
+        return map;
+    }
+}
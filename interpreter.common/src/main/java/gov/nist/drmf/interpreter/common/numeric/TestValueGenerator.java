@@ -0,0 +1,278 @@
+package gov.nist.drmf.interpreter.common.numeric;
+
+import gov.nist.drmf.interpreter.common.cache.LRUCache;
+import gov.nist.drmf.interpreter.common.eval.NumericalTest;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.*;
+
+/**
+ * <p>
+ * Generates the combinations of test values of a numerical test in the JVM. The free variables are tested with
+ * the test values (or the values of special variables) and the constraint variables have fixed values, i.e., the same
+ * combinations the CAS would generate. Instead of building the entire cartesian product first, the combinations are
+ * enumerated lazily, variable by variable. A constraint is checked as soon as all of its variables have a value,
+ * so that an invalid partial assignment prunes all of its completions.
+ * </p>
+ *
+ * <p>
+ * If there are more valid combinations than allowed, a deterministic uniform sample (with a fixed seed) of the valid
+ * combinations is returned instead of the first combinations in the order of the CAS. Constraints that cannot be
+ * decided in the JVM do not prune combinations. Instead, the result {@link TestValueCombinations#requiresFiltering()}
+ * and the CAS must filter the combinations again.
+ * </p>
+ *
+ * @author Andre Greiner-Petter
+ */
+public final class TestValueGenerator {
+    private static final Logger LOG = LogManager.getLogger(TestValueGenerator.class.getName());
+
+    /**
+     * The maximum number of (partial) assignments that are visited before the generation is given up.
+     */
+    private static final long MAX_VISITS = 1_000_000;
+
+    /**
+     * If the CAS must filter the combinations again, more combinations are sent to the CAS
+     * since some of them may be invalid.
+     */
+    private static final int FILTER_POOL_FACTOR = 4;
+
+    private static final long SEED = 20_210_601L;
+
+    /**
+     * The maximum number of cached test values. The test values of a dataset are usually a few dozen,
+     * but special values of variables might be unique per test.
+     */
+    private static final int VALUE_CACHE_SIZE = 10_000;
+
+    /**
+     * The tolerance of the comparisons in constraints (e.g., 0 < x) where the CAS computes exactly.
+     */
+    static final double CONSTRAINT_TOLERANCE = 1e-12;
+
+    private final NumericDialect dialect;
+
+    private final List<String> globalConstraints = new LinkedList<>();
+
+    /**
+     * The values of the test values, empty if a test value cannot be computed in the JVM
+     */
+    private final LRUCache<String, Optional<Complex>> valueCache = new LRUCache<>(VALUE_CACHE_SIZE);
+
+    public TestValueGenerator(NumericDialect dialect) {
+        this.dialect = dialect;
+    }
+
+    /**
+     * @param constraints the translated constraints that apply to every test (if their variables appear in a test)
+     */
+    public void setGlobalConstraints(List<String> constraints) {
+        globalConstraints.clear();
+        if ( constraints != null ) globalConstraints.addAll(constraints);
+    }
+
+    private static final class Candidate {
+        private final long index;
+        private final List<String> combination;
+        private final Map<String, Complex> values;
+        private final boolean uncertain;
+
+        private Candidate(long index, List<String> combination, Map<String, Complex> values, boolean uncertain) {
+            this.index = index;
+            this.combination = combination;
+            this.values = values;
+            this.uncertain = uncertain;
+        }
+    }
+
+    /**
+     * The state of a single generation.
+     */
+    private final class Enumeration {
+        private final List<String> dimensions;
+        private final List<List<String>> dimensionValues;
+        private final List<List<NumericExpression>> constraintsAtDepth;
+        private final int capacity;
+        private final Random random = new Random(SEED);
+
+        private final String[] current;
+        private final Map<String, Complex> currentValues = new HashMap<>();
+        private final List<Candidate> reservoir = new ArrayList<>();
+
+        private long visits = 0;
+        private long candidates = 0;
+
+        private Enumeration(
+                List<String> dimensions,
+                List<List<String>> dimensionValues,
+                List<List<NumericExpression>> constraintsAtDepth,
+                int capacity
+        ) {
+            this.dimensions = dimensions;
+            this.dimensionValues = dimensionValues;
+            this.constraintsAtDepth = constraintsAtDepth;
+            this.capacity = capacity;
+            this.current = new String[dimensions.size()];
+        }
+
+        /**
+         * @return false if the enumeration was given up
+         */
+        private boolean enumerate(int depth, boolean uncertain) {
+            if ( ++visits > MAX_VISITS ) return false;
+
+            EvaluationContext ctx = new EvaluationContext(currentValues, CONSTRAINT_TOLERANCE, true);
+            for ( NumericExpression constraint : constraintsAtDepth.get(depth) ) {
+                try {
+                    if ( !constraint.holds(ctx) ) return true;
+                } catch (UndecidableException ue) {
+                    uncertain = true;
+                }
+            }
+
+            if ( depth == dimensions.size() ) {
+                offer(uncertain);
+                return true;
+            }
+
+            String var = dimensions.get(depth);
+            for ( String value : dimensionValues.get(depth) ) {
+                current[depth] = value;
+                Complex c = getValue(value);
+                if ( c != null ) currentValues.put(var, c);
+                else currentValues.remove(var);
+                if ( !enumerate(depth + 1, uncertain) ) return false;
+            }
+            currentValues.remove(var);
+            return true;
+        }
+
+        /**
+         * Reservoir sampling keeps a uniform sample of all valid combinations without storing all of them.
+         */
+        private void offer(boolean uncertain) {
+            long index = candidates++;
+            if ( reservoir.size() < capacity ) {
+                reservoir.add(new Candidate(index, Arrays.asList(current.clone()), new HashMap<>(currentValues), uncertain));
+            } else {
+                long j = (long) (random.nextDouble() * candidates);
+                if ( j < capacity ) {
+                    reservoir.set((int) j, new Candidate(index, Arrays.asList(current.clone()), new HashMap<>(currentValues), uncertain));
+                }
+            }
+        }
+    }
+
+    /**
+     * Generates the combinations of test values of the given test.
+     * @param test the numerical test
+     * @return the valid combinations or null if the combinations cannot be generated in the JVM (e.g., the test
+     *          has no variables or the space of combinations is too large)
+     */
+    public TestValueCombinations generate(NumericalTest test) {
+        Set<String> vars = test.getVariables() == null ? Collections.emptySet() : test.getVariables();
+        List<String> conVars = nonNull(test.getConstraintVariables());
+        List<String> conVals = nonNull(test.getConstraintVariablesValues());
+        List<String> extraVars = nonNull(test.getExtraVariables());
+        List<String> extraVals = nonNull(test.getExtraVariablesValues());
+        List<String> testVals = nonNull(test.getTestValues());
+        if ( conVars.size() != conVals.size() ) return null;
+
+        Set<String> freeVars = new TreeSet<>(vars);
+        conVars.forEach(freeVars::remove);
+        if ( freeVars.isEmpty() && conVars.isEmpty() ) return null;
+
+        // constraints of other variables (e.g., constraint variables with fixed values) are not applied
+        boolean unparsedConstraints = false;
+        List<NumericExpression> constraints = new LinkedList<>();
+        List<String> constraintStrings = new LinkedList<>(nonNull(test.getConstraints()));
+        constraintStrings.addAll(globalConstraints);
+        for ( String constraintString : constraintStrings ) {
+            for ( String element : NumericExpressionParser.splitSequence(constraintString) ) {
+                try {
+                    NumericExpression constraint = NumericExpression.parse(element, dialect);
+                    if ( freeVars.containsAll(constraint.getVariables()) ) constraints.add(constraint);
+                } catch (UndecidableException ue) {
+                    LOG.debug("Unable to check constraint in the JVM: " + element);
+                    unparsedConstraints = true;
+                }
+            }
+        }
+
+        // fixed values first, then the variables that appear in most constraints to prune early
+        List<String> dimensions = new ArrayList<>(conVars);
+        List<List<String>> dimensionValues = new ArrayList<>();
+        for ( String conVal : conVals ) dimensionValues.add(Collections.singletonList(conVal));
+        List<String> sortedFreeVars = new ArrayList<>(freeVars);
+        sortedFreeVars.sort(Comparator.comparingLong((String v) ->
+                -constraints.stream().filter(c -> c.getVariables().contains(v)).count()
+        ).thenComparing(Comparator.naturalOrder()));
+        for ( String var : sortedFreeVars ) {
+            dimensions.add(var);
+            dimensionValues.add(extraVars.contains(var) ? extraVals : testVals);
+        }
+
+        // check every constraint as soon as its last variable gets a value
+        List<List<NumericExpression>> constraintsAtDepth = new ArrayList<>();
+        for ( int i = 0; i <= dimensions.size(); i++ ) constraintsAtDepth.add(new LinkedList<>());
+        for ( NumericExpression constraint : constraints ) {
+            int depth = 0;
+            for ( String var : constraint.getVariables() ) depth = Math.max(depth, dimensions.indexOf(var) + 1);
+            constraintsAtDepth.get(depth).add(constraint);
+        }
+
+        int maxCombis = Math.max(1, test.getMaxCombis());
+        Enumeration enumeration = new Enumeration(
+                dimensions, dimensionValues, constraintsAtDepth, maxCombis * FILTER_POOL_FACTOR
+        );
+        if ( !enumeration.enumerate(0, false) ) {
+            LOG.debug("Too many combinations of test values to generate them in the JVM.");
+            return null;
+        }
+
+        List<String> constraintsList = new LinkedList<>();
+        constraints.forEach(c -> constraintsList.add(c.toString()));
+        TestValueCombinations result = new TestValueCombinations(dimensions, constraintsList);
+
+        List<Candidate> selected = enumeration.reservoir;
+        boolean uncertain = unparsedConstraints || selected.stream().anyMatch(c -> c.uncertain);
+        if ( uncertain ) result.markRequiresFiltering();
+
+        int limit = uncertain ? maxCombis * FILTER_POOL_FACTOR : maxCombis;
+        if ( selected.size() > limit ) {
+            // a uniform sample of a uniform sample is a uniform sample
+            Collections.shuffle(selected, enumeration.random);
+            selected = selected.subList(0, limit);
+        }
+        if ( enumeration.candidates > selected.size() ) {
+            result.setSampled(enumeration.candidates);
+            LOG.info("Sampled " + selected.size() + " of " + enumeration.candidates + " valid combinations of test values.");
+        }
+
+        selected.sort(Comparator.comparingLong(c -> c.index));
+        for ( Candidate candidate : selected ) result.add(candidate.combination, candidate.values);
+        return result;
+    }
+
+    /**
+     * @return the value of the given test value or null if it cannot be computed in the JVM
+     */
+    private Complex getValue(String value) {
+        return valueCache.computeIfAbsent(value, this::computeValue).orElse(null);
+    }
+
+    private Optional<Complex> computeValue(String value) {
+        try {
+            NumericExpression expr = NumericExpression.parse(value, dialect);
+            return Optional.of(expr.evaluate(new EvaluationContext(Collections.emptyMap(), CONSTRAINT_TOLERANCE, true)));
+        } catch (UndecidableException ue) {
+            return Optional.empty();
+        }
+    }
+
+    private static List<String> nonNull(List<String> list) {
+        return list == null ? Collections.emptyList() : list;
+    }
+}
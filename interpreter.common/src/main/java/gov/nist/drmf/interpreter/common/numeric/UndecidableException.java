@@ -0,0 +1,14 @@
+package gov.nist.drmf.interpreter.common.numeric;
+
+/**
+ * Thrown if an expression cannot be evaluated reliably in the JVM, e.g., because it contains an unknown
+ * function, hits a pole or the result is too close to the threshold of a test. The test must be performed
+ * by a CAS instead.
+ *
+ * @author Andre Greiner-Petter
+ */
+class UndecidableException extends RuntimeException {
+    UndecidableException(String msg) {
+        super(msg);
+    }
+}
@@ -13,4 +13,9 @@ public final class ProcessKeys {
     public static String JAVA_CLASSPATH = "java.class.path";
 
     public static String JAVA_CLASSPATH_FLAG = "-classpath";
+
+    /**
+     * The system property that specifies the port of the RMI registry of a subprocess.
+     */
+    public static String RMI_REGISTRY_PORT = "lacast.rmi.registry.port";
 }
@@ -1,5 +1,6 @@
 package gov.nist.drmf.interpreter.common.process;
 
+import gov.nist.drmf.interpreter.common.eval.NumericBatchResult;
 import gov.nist.drmf.interpreter.common.eval.NumericalTest;
 import gov.nist.drmf.interpreter.common.exceptions.ComputerAlgebraSystemEngineException;
 import gov.nist.drmf.interpreter.common.eval.NumericResult;
@@ -29,4 +30,14 @@ public interface RmiCasNumericEvaluator extends RmiCasInterface, RmiAbortEvaluat
      */
     NumericResult performNumericalTest(NumericalTest test)
             throws ComputerAlgebraSystemEngineException, RemoteException;
+
+    /**
+     * Performs the given numerical tests (if possible in a single call to the CAS) and returns the results
+     * @param tests test cases
+     * @return the test results in the same order as the given tests
+     * @throws ComputerAlgebraSystemEngineException if the CAS is not available
+     * @throws RemoteException if something went wrong with the remote VM
+     */
+    NumericBatchResult performNumericalTests(List<NumericalTest> tests)
+            throws ComputerAlgebraSystemEngineException, RemoteException;
 }
@@ -1,6 +1,7 @@
 package gov.nist.drmf.interpreter.common.process;
 
 import java.nio.file.Paths;
+import java.rmi.registry.Registry;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -26,6 +27,24 @@ public interface RmiSubprocessInfo {
      */
     List<String> getJvmArgs();
 
+    /**
+     * The port of the RMI registry the subprocess creates. Multiple subprocesses that run at the same
+     * time must use different ports.
+     * @return the port of the RMI registry, by default {@link Registry#REGISTRY_PORT}
+     */
+    default int getRegistryPort() {
+        return Registry.REGISTRY_PORT;
+    }
+
+    /**
+     * Returns the registry port that was specified for the currently running (sub-)process,
+     * see {@link #getRegistryPort()}.
+     * @return the registry port of this process
+     */
+    static int getCurrentRegistryPort() {
+        return Integer.getInteger(ProcessKeys.RMI_REGISTRY_PORT, Registry.REGISTRY_PORT);
+    }
+
     /**
      * Builds the list of arguments
      * @return the list of arguments to start subprocess
@@ -39,6 +58,7 @@ public interface RmiSubprocessInfo {
         List<String> command = new LinkedList<>();
         command.add(javaBin);
         command.addAll(getJvmArgs());
+        command.add("-D" + ProcessKeys.RMI_REGISTRY_PORT + "=" + getRegistryPort());
         command.add(ProcessKeys.JAVA_CLASSPATH_FLAG);
         command.add(classpath);
         command.add(className);
@@ -0,0 +1,120 @@
+package gov.nist.drmf.interpreter.common.replacements;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import java.util.stream.Collectors;
+
+/**
+ * A compiled list of general replacement rules. The rules are applied in sequence, i.e., a rule
+ * sees the output of all previous rules. A single alternation of all rules cannot preserve this semantic.
+ * Instead, all rules are combined into one alternation that is used as a prefilter. If the combined pattern
+ * does not match the input, none of the rules can change the input and the input is returned after a single pass.
+ * Before the prefilter runs, a single scan over the input checks if it contains any of the characters the rules
+ * require (see {@link RequiredCharacters}). Most clean inputs are rejected by this scan without any regex.
+ *
+ * @author Andre Greiner-Petter
+ */
+class CompiledReplacementRules {
+    private static final Logger LOG = LogManager.getLogger(CompiledReplacementRules.class.getName());
+
+    /**
+     * Backreferences refer to group numbers (or names) that change in a combined pattern.
+     */
+    private static final Pattern BACK_REFERENCE = Pattern.compile("(?<!\\\\)(?:\\\\\\\\)*\\\\(?:[1-9]|k<)");
+
+    private final List<ReplacementRule> rules;
+
+    private final Pattern anyRule;
+
+    /**
+     * Every match of any rule contains at least one of these characters, null if unknown
+     */
+    private final BitSet triggers;
+
+    CompiledReplacementRules(List<ReplacementRule> rules) {
+        this.rules = rules == null ? new ArrayList<>() : new ArrayList<>(rules);
+        this.anyRule = combine(this.rules);
+        this.triggers = requiredCharacters(this.rules);
+    }
+
+    private static BitSet requiredCharacters(List<ReplacementRule> rules) {
+        BitSet union = new BitSet();
+        for ( ReplacementRule rule : rules ) {
+            BitSet required = RequiredCharacters.of(rule.getRegex());
+            if ( required == null ) {
+                LOG.debug("Unable to compute the trigger characters of " + rule + ". Disable character prefilter.");
+                return null;
+            }
+            union.or(required);
+        }
+        return union;
+    }
+
+    private static Pattern combine(List<ReplacementRule> rules) {
+        if ( rules.isEmpty() ) return null;
+        List<String> patterns = rules.stream()
+                .map( r -> r.getPattern().pattern() )
+                .collect(Collectors.toList());
+
+        if ( patterns.stream().anyMatch( p -> BACK_REFERENCE.matcher(p).find() ) ) {
+            LOG.debug("Replacement rules contain backreferences. Disable combined prefilter.");
+            return null;
+        }
+
+        try {
+            return Pattern.compile(
+                    patterns.stream().map( p -> "(?:" + p + ")" ).collect(Collectors.joining("|"))
+            );
+        } catch ( PatternSyntaxException pse ) {
+            LOG.warn("Unable to combine replacement rules. Disable combined prefilter.", pse);
+            return null;
+        }
+    }
+
+    /**
+     * @return true if a combined prefilter is available
+     */
+    boolean isCombined() {
+        return anyRule != null;
+    }
+
+    /**
+     * @return true if the trigger characters of all rules are known
+     */
+    boolean hasTriggers() {
+        return triggers != null;
+    }
+
+    /**
+     * A single scan over the input without any regex.
+     * @param input the input
+     * @return false if none of the rules can match the input, true if one of the rules may match
+     */
+    boolean mayMatch(String input) {
+        if ( input == null ) return false;
+        if ( triggers == null ) return true;
+        for ( int i = 0; i < input.length(); i++ ) {
+            if ( RequiredCharacters.contains(triggers, input.charAt(i)) ) return true;
+        }
+        return false;
+    }
+
+    public List<ReplacementRule> getRules() {
+        return rules;
+    }
+
+    public String replace(String input) {
+        if ( !mayMatch(input) ) return input;
+        if ( anyRule != null && !anyRule.matcher(input).find() ) return input;
+        for ( ReplacementRule rule : rules ) {
+            input = rule.replace(input);
+        }
+        return input;
+    }
+}
@@ -38,7 +38,19 @@ public abstract class ConditionalReplacementRule extends ReplacementRule {
         if ( link == null ) return false;
 
         // now lets check if the condition matches
-        IReplacementCondition inputLink = generateReplacementConditionalObject(link);
+        return applicable(generateReplacementConditionalObject(link));
+    }
+
+    /**
+     * Same as {@link #applicable(String)} but with an already parsed link. This avoids parsing the same
+     * link again for each rule.
+     * @param inputLink the parsed link
+     * @return true if this rule is applicable for the given link
+     */
+    boolean applicable( IReplacementCondition inputLink ) {
+        if ( !isConditional() ) return true;
+        if ( inputLink == null ) return false;
+
         for ( IReplacementCondition cond : conditions ) {
             if ( cond.match(inputLink) ) return true;
         }
@@ -50,6 +62,18 @@ public abstract class ConditionalReplacementRule extends ReplacementRule {
         return false;
     }
 
+    boolean isConditional() {
+        return !this.conditions.isEmpty() || !this.conditionRanges.isEmpty();
+    }
+
+    List<IReplacementCondition> getConditions() {
+        return conditions;
+    }
+
+    List<IReplacementCondition[]> getConditionRanges() {
+        return conditionRanges;
+    }
+
     public String saveReplace(String input, String link) {
         if ( applicable(link) ) return replace( input );
         else return input;
@@ -49,6 +49,13 @@ public class DLMFConditionalReplacementImpl extends ConditionalReplacementRule i
         }
     }
 
+    /**
+     * @return the first level of the hierarchy of this condition, i.e., the DLMF chapter
+     */
+    int getChapter() {
+        return hierarchy[0];
+    }
+
     @Override
     IReplacementCondition generateReplacementConditionalObject(String link) {
         return new DLMFConditionalReplacementImpl(link);
@@ -0,0 +1,112 @@
+package gov.nist.drmf.interpreter.common.replacements;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.*;
+
+/**
+ * An index of DLMF conditional replacement rules by DLMF chapter. Every condition (and condition range)
+ * of a rule is bound to one (or multiple) chapters. Hence, only the rules of the chapter of a given label
+ * need to be checked. The rules of a chapter keep the order of the rules in the config file.
+ *
+ * @author Andre Greiner-Petter
+ */
+class DLMFReplacementIndex {
+    private static final Logger LOG = LogManager.getLogger(DLMFReplacementIndex.class.getName());
+
+    private final List<DLMFConditionalReplacementImpl> allRules;
+
+    private final Map<Integer, List<DLMFConditionalReplacementImpl>> chapterRules;
+
+    /**
+     * Rules without conditions apply to all chapters.
+     */
+    private final List<DLMFConditionalReplacementImpl> unconditionalRules;
+
+    private final boolean hasConditionalRules;
+
+    DLMFReplacementIndex(List<DLMFConditionalReplacementImpl> rules) {
+        this.allRules = rules == null ? new ArrayList<>() : new ArrayList<>(rules);
+        this.chapterRules = new HashMap<>();
+        this.unconditionalRules = new ArrayList<>();
+
+        Map<Integer, SortedSet<Integer>> chapterRuleIndices = new HashMap<>();
+        boolean conditional = false;
+        for ( int i = 0; i < allRules.size(); i++ ) {
+            DLMFConditionalReplacementImpl rule = allRules.get(i);
+            if ( !rule.isConditional() ) {
+                unconditionalRules.add(rule);
+                continue;
+            }
+
+            conditional = true;
+            for ( int chapter : getChapters(rule) ) {
+                chapterRuleIndices.computeIfAbsent(chapter, k -> new TreeSet<>()).add(i);
+            }
+        }
+        this.hasConditionalRules = conditional;
+
+        for ( Map.Entry<Integer, SortedSet<Integer>> entry : chapterRuleIndices.entrySet() ) {
+            SortedSet<Integer> indices = entry.getValue();
+            // unconditional rules must be applied in their original order too
+            for ( int i = 0; i < allRules.size(); i++ ) {
+                if ( !allRules.get(i).isConditional() ) indices.add(i);
+            }
+
+            List<DLMFConditionalReplacementImpl> list = new ArrayList<>(indices.size());
+            for ( int idx : indices ) list.add(allRules.get(idx));
+            chapterRules.put(entry.getKey(), list);
+        }
+    }
+
+    private static Set<Integer> getChapters(ConditionalReplacementRule rule) {
+        Set<Integer> chapters = new HashSet<>();
+        for ( IReplacementCondition c : rule.getConditions() ) {
+            chapters.add(((DLMFConditionalReplacementImpl) c).getChapter());
+        }
+
+        for ( IReplacementCondition[] range : rule.getConditionRanges() ) {
+            int start = ((DLMFConditionalReplacementImpl) range[0]).getChapter();
+            int end = ((DLMFConditionalReplacementImpl) range[1]).getChapter();
+            for ( int i = Math.min(start, end); i <= Math.max(start, end); i++ ) chapters.add(i);
+        }
+        return chapters;
+    }
+
+    /**
+     * Applies all rules that are applicable for the given link in the order of the config file.
+     * @param input the input
+     * @param link the DLMF label, must not be null
+     * @return the replaced input
+     * @throws IllegalArgumentException if the link is not a valid DLMF label
+     */
+    String replace(String input, String link) throws IllegalArgumentException {
+        List<DLMFConditionalReplacementImpl> candidates = unconditionalRules;
+        DLMFConditionalReplacementImpl parsedLink = null;
+        if ( hasConditionalRules ) {
+            parsedLink = new DLMFConditionalReplacementImpl(link);
+            candidates = chapterRules.getOrDefault(parsedLink.getChapter(), unconditionalRules);
+        }
+
+        for ( ConditionalReplacementRule rule : candidates ) {
+            if ( rule.applicable(parsedLink) ) {
+                input = rule.replace(input);
+                LOG.trace("Applied conditional replacement rule " + rule);
+            }
+        }
+        return input;
+    }
+
+    List<DLMFConditionalReplacementImpl> getRules() {
+        return allRules;
+    }
+
+    /**
+     * @param chapter the DLMF chapter
+     * @return the number of rules that needs to be checked for labels in the given chapter
+     */
+    int getNumberOfCandidates(int chapter) {
+        return chapterRules.getOrDefault(chapter, unconditionalRules).size();
+    }
+}
@@ -12,6 +12,9 @@ import java.io.IOException;
 import java.util.List;
 
 /**
+ * The general and DLMF specific replacement rules. The general rules are compiled into a combined prefilter
+ * and the DLMF rules are indexed by chapter, see {@link CompiledReplacementRules} and {@link DLMFReplacementIndex}.
+ *
  * @author Andre Greiner-Petter
  */
 @JsonIgnoreProperties( ignoreUnknown = true )
@@ -20,9 +23,9 @@ public class ReplacementConfig {
 
     private static ReplacementConfig REPL_CONF;
 
-    private List<DLMFConditionalReplacementImpl> dlmfRules;
+    private DLMFReplacementIndex dlmfRules;
 
-    private List<ReplacementRule> rules;
+    private CompiledReplacementRules rules;
 
     private ReplacementConfig() {};
 
@@ -51,12 +54,34 @@ public class ReplacementConfig {
 
     @JsonSetter("dlmfReplacementRules")
     public void setDLMFReplacementRules(List<DLMFConditionalReplacementImpl> dlmfRules) {
-        this.dlmfRules = dlmfRules;
+        this.dlmfRules = new DLMFReplacementIndex(dlmfRules);
     }
 
     @JsonSetter("generalReplacements")
     public void setGeneralReplacementRules(List<ReplacementRule> rules) {
-        this.rules = rules;
+        this.rules = new CompiledReplacementRules(rules);
+    }
+
+    CompiledReplacementRules getGeneralRules() {
+        return rules;
+    }
+
+    DLMFReplacementIndex getDLMFRules() {
+        return dlmfRules;
+    }
+
+    /**
+     * A fast check without any regex if {@link #replace(String, String)} may change the given input
+     * (besides trimming it). Conditional DLMF replacements are not analyzed, i.e., if there is a link
+     * this method always returns true.
+     * @param input the input string
+     * @param link a link, if there should be conditional replacements
+     * @return false if no replacement rule can match the input, true if a rule may match
+     */
+    public boolean mayReplace(String input, String link) {
+        if ( input == null ) return false;
+        if ( link != null && dlmfRules != null ) return true;
+        return rules != null && rules.mayMatch(input);
     }
 
     /**
@@ -66,22 +91,14 @@ public class ReplacementConfig {
      * @return the changed input string according to the replacement rules
      */
     public String replace(String input, String link) {
-        for ( ReplacementRule rule : rules ) {
-            input = rule.replace(input);
-        }
+        if ( rules != null ) input = rules.replace(input);
 
-        if ( link == null ) {
+        if ( link == null || dlmfRules == null ) {
             if ( input != null ) input = input.trim();
             return input;
         }
 
-        for ( ConditionalReplacementRule rule : dlmfRules ) {
-            if ( rule.applicable(link) ) {
-                input = rule.replace(input);
-                LOG.trace("Applied conditional replacement rule " + rule);
-            }
-        }
-
+        input = dlmfRules.replace(input, link);
         if ( input != null ) input = input.trim();
         return input;
     }
@@ -9,6 +9,7 @@ import java.util.regex.Pattern;
  * @author Andre Greiner-Petter
  */
 public class ReplacementRule {
+    private String regex = null;
     private Pattern pattern = null;
     private String replacement = "";
     private int groups = 0;
@@ -17,7 +18,57 @@ public class ReplacementRule {
 
     @JsonSetter("pattern")
     public void setPattern(String pattern) {
-        this.pattern = Pattern.compile(pattern);
+        setPattern(pattern, true);
+    }
+
+    void setPattern(String pattern, boolean optimize) {
+        this.regex = pattern;
+        this.pattern = Pattern.compile(optimize ? moveLeadingLookbehind(pattern) : pattern);
+    }
+
+    /**
+     * Java evaluates a leading lookbehind at every position of the input before it checks the literal that
+     * follows the lookbehind. A pattern of the form {@code (?<!X)c...} is equivalent to
+     * {@code c(?<!(?:X)c)...} but the latter evaluates the lookbehind only at the positions of {@code c}.
+     * @param regex the regular expression
+     * @return the equivalent expression with the literal in front of the lookbehind or the given
+     *         expression if it does not start with a lookbehind that is followed by a literal
+     */
+    static String moveLeadingLookbehind(String regex) {
+        if ( !regex.startsWith("(?<!") && !regex.startsWith("(?<=") ) return regex;
+        int end = findClosingParenthesis(regex);
+        if ( end < 0 || end+1 >= regex.length() ) return regex;
+
+        char literal = regex.charAt(end+1);
+        if ( !Character.isLetterOrDigit(literal) ) return regex;
+        if ( end+2 < regex.length() && "?*+{".indexOf(regex.charAt(end+2)) >= 0 ) return regex;
+
+        return literal + regex.substring(0, 4) + "(?:" + regex.substring(4, end) + ")" + literal + ")"
+                + regex.substring(end+2);
+    }
+
+    private static int findClosingParenthesis(String regex) {
+        int depth = 0;
+        boolean inClass = false;
+        for ( int i = 0; i < regex.length(); i++ ) {
+            char c = regex.charAt(i);
+            if ( c == '\\' ) {
+                i++;
+            } else if ( inClass ) {
+                if ( c == ']' ) inClass = false;
+            } else if ( c == '[' ) {
+                inClass = true;
+                // a closing bracket right at the beginning of a class is a literal
+                if ( i+1 < regex.length() && regex.charAt(i+1) == '^' ) i++;
+                if ( i+1 < regex.length() && regex.charAt(i+1) == ']' ) i++;
+            } else if ( c == '(' ) {
+                depth++;
+            } else if ( c == ')' ) {
+                depth--;
+                if ( depth == 0 ) return i;
+            }
+        }
+        return -1;
     }
 
     @JsonSetter("replacement")
@@ -32,20 +83,34 @@ public class ReplacementRule {
 
     @Override
     public String toString() {
-        return "[Repl-Rule: " + pattern + " --> " + replacement + "]";
+        return "[Repl-Rule: " + regex + " --> " + replacement + "]";
+    }
+
+    /**
+     * @return the regular expression as it was specified (the compiled pattern might differ)
+     */
+    String getRegex() {
+        return regex;
+    }
+
+    Pattern getPattern() {
+        return pattern;
     }
 
     public String replace( String input ) {
         Matcher m = pattern.matcher(input);
+        // most rules do not match at all, so we do not need to copy the input
+        if ( !m.find() ) return input;
+
         StringBuffer sb = new StringBuffer();
-        while ( m.find() ) {
+        do {
             String replaceStr = replaceByGroupMatch(m);
 
             // yeah... I know... that's freaking crazy but it's necessary
             replaceStr = replaceStr.replaceAll("\\\\$", "\\\\\\\\");
 
             m.appendReplacement(sb, replaceStr);
-        }
+        } while ( m.find() );
         m.appendTail(sb);
         return sb.toString();
     }
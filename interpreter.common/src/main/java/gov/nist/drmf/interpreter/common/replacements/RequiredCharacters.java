@@ -0,0 +1,253 @@
+package gov.nist.drmf.interpreter.common.replacements;
+
+import java.util.BitSet;
+
+/**
+ * <p>
+ * Computes a set of characters for a regular expression such that every match of the expression contains
+ * at least one of these characters. For example, every match of {@code (\d)(?:\s+|\\[;,! ])+(\d)} contains
+ * a whitespace or a backslash. If an input contains none of these characters, the expression cannot match.
+ * </p>
+ *
+ * <p>
+ * The analysis supports literals, escaped characters, predefined and custom character classes, groups,
+ * lookarounds, alternations and quantifiers. Other constructs (e.g., inline flags or backreferences) are not
+ * supported. The set contains the ASCII characters (0-127) and the index {@link #NON_ASCII} for any other character.
+ * </p>
+ *
+ * @author Andre Greiner-Petter
+ */
+final class RequiredCharacters {
+    /**
+     * The index of the set that represents all non-ASCII characters
+     */
+    static final int NON_ASCII = 128;
+
+    private final String regex;
+    private int pos = 0;
+
+    private RequiredCharacters(String regex) {
+        this.regex = regex;
+    }
+
+    /**
+     * @param regex a regular expression (without flags)
+     * @return the characters every match contains at least one of or null if the expression may match
+     * without any specific character (e.g., the empty string) or the expression is not supported
+     */
+    static BitSet of(String regex) {
+        try {
+            RequiredCharacters analyzer = new RequiredCharacters(regex);
+            BitSet result = analyzer.alternation();
+            if ( analyzer.pos < regex.length() ) return null;
+            return result;
+        } catch (UnsupportedOperationException | IndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param set a set of required characters
+     * @param c a character
+     * @return true if the given character is in the set
+     */
+    static boolean contains(BitSet set, char c) {
+        return set.get( c < NON_ASCII ? c : NON_ASCII );
+    }
+
+    private BitSet alternation() {
+        BitSet union = new BitSet();
+        boolean required = true;
+        while ( true ) {
+            BitSet branch = sequence();
+            if ( branch == null ) required = false;
+            else union.or(branch);
+
+            if ( pos < regex.length() && regex.charAt(pos) == '|' ) pos++;
+            else return required ? union : null;
+        }
+    }
+
+    private BitSet sequence() {
+        BitSet best = null;
+        while ( pos < regex.length() && regex.charAt(pos) != '|' && regex.charAt(pos) != ')' ) {
+            BitSet atom = atom();
+            if ( !quantifier() ) atom = null;
+            // the most specific element of the sequence is the best filter
+            if ( atom != null && (best == null || atom.cardinality() < best.cardinality()) ) best = atom;
+        }
+        return best;
+    }
+
+    /**
+     * Skips a quantifier at the current position.
+     * @return false if the quantifier allows zero repetitions
+     */
+    private boolean quantifier() {
+        if ( pos >= regex.length() ) return true;
+        char c = regex.charAt(pos);
+        boolean required = true;
+        if ( c == '?' || c == '*' ) {
+            required = false;
+            pos++;
+        } else if ( c == '+' ) {
+            pos++;
+        } else if ( c == '{' ) {
+            int end = regex.indexOf('}', pos);
+            if ( end < 0 ) throw new UnsupportedOperationException();
+            String min = regex.substring(pos+1, end).split(",", -1)[0].trim();
+            if ( min.isEmpty() || !min.chars().allMatch(Character::isDigit) ) throw new UnsupportedOperationException();
+            required = Integer.parseInt(min) > 0;
+            pos = end+1;
+        } else return true;
+
+        // lazy or possessive quantifier
+        if ( pos < regex.length() && (regex.charAt(pos) == '?' || regex.charAt(pos) == '+') ) pos++;
+        return required;
+    }
+
+    private BitSet atom() {
+        char c = regex.charAt(pos++);
+        switch ( c ) {
+            case '(':
+                return group();
+            case '[':
+                return characterClass();
+            case '\\':
+                return escape(false);
+            case '.':
+            case '^':
+            case '$':
+                return null;
+            case '*':
+            case '+':
+            case '?':
+            case '{':
+                throw new UnsupportedOperationException();
+            default:
+                return single(c);
+        }
+    }
+
+    private BitSet group() {
+        boolean zeroWidth = false;
+        if ( regex.startsWith("?:", pos) || regex.startsWith("?>", pos) ) {
+            pos += 2;
+        } else if ( regex.startsWith("?=", pos) || regex.startsWith("?!", pos) ) {
+            pos += 2;
+            zeroWidth = true;
+        } else if ( regex.startsWith("?<=", pos) || regex.startsWith("?<!", pos) ) {
+            pos += 3;
+            zeroWidth = true;
+        } else if ( regex.startsWith("?<", pos) ) {
+            int end = regex.indexOf('>', pos);
+            if ( end < 0 ) throw new UnsupportedOperationException();
+            pos = end+1;
+        } else if ( regex.startsWith("?", pos) ) {
+            // inline flags may change the matched characters, e.g., (?i)
+            throw new UnsupportedOperationException();
+        }
+
+        BitSet inner = alternation();
+        if ( pos >= regex.length() || regex.charAt(pos) != ')' ) throw new UnsupportedOperationException();
+        pos++;
+        return zeroWidth ? null : inner;
+    }
+
+    private BitSet characterClass() {
+        boolean negated = regex.charAt(pos) == '^';
+        if ( negated ) pos++;
+        BitSet set = characterClassContent();
+        // a negated class matches almost everything
+        return negated ? null : set;
+    }
+
+    private BitSet characterClassContent() {
+        BitSet set = new BitSet();
+        // a closing bracket right at the beginning of a class is treated differently by regex dialects
+        if ( regex.charAt(pos) == ']' ) throw new UnsupportedOperationException();
+        while ( true ) {
+            char c = regex.charAt(pos++);
+            if ( c == ']' ) return set;
+            if ( c == '[' || (c == '&' && regex.charAt(pos) == '&') ) throw new UnsupportedOperationException();
+
+            BitSet element = c == '\\' ? escape(true) : single(c);
+            if ( element == null ) throw new UnsupportedOperationException();
+
+            // range, e.g., a-z
+            if ( element.cardinality() == 1 && regex.charAt(pos) == '-' && regex.charAt(pos+1) != ']' ) {
+                pos++;
+                char to = regex.charAt(pos++);
+                if ( to == '\\' ) {
+                    BitSet toSet = escape(true);
+                    if ( toSet == null || toSet.cardinality() != 1 ) throw new UnsupportedOperationException();
+                    to = (char) toSet.nextSetBit(0);
+                }
+                int from = element.nextSetBit(0);
+                if ( from == NON_ASCII || to >= NON_ASCII ) set.set(NON_ASCII);
+                set.set(Math.min(from, NON_ASCII), Math.min(to, NON_ASCII-1) + 1);
+            } else set.or(element);
+        }
+    }
+
+    /**
+     * @param inClass true if the escape is inside a character class
+     * @return the set of the escaped character(s) or null if the escape is zero-width or matches almost everything
+     */
+    private BitSet escape(boolean inClass) {
+        char c = regex.charAt(pos++);
+        switch ( c ) {
+            case 'd':
+                return range('0', '9');
+            case 'w':
+                BitSet word = range('a', 'z');
+                word.or(range('A', 'Z'));
+                word.or(range('0', '9'));
+                word.set('_');
+                return word;
+            case 's':
+                BitSet space = new BitSet();
+                for ( char s : new char[]{' ', '\t', '\n', '\u000B', '\f', '\r'} ) space.set(s);
+                return space;
+            case 't':
+                return single('\t');
+            case 'n':
+                return single('\n');
+            case 'r':
+                return single('\r');
+            case 'f':
+                return single('\f');
+            case 'e':
+                return single('\u001B');
+            case 'a':
+                return single('\u0007');
+            case 'b':
+            case 'B':
+            case 'A':
+            case 'z':
+            case 'Z':
+            case 'G':
+            case 'D':
+            case 'W':
+            case 'S':
+                if ( inClass ) throw new UnsupportedOperationException();
+                return null;
+            default:
+                // backreferences, unicode classes, hex and octal escapes, quotes, etc.
+                if ( Character.isLetterOrDigit(c) ) throw new UnsupportedOperationException();
+                return single(c);
+        }
+    }
+
+    private static BitSet single(char c) {
+        BitSet set = new BitSet();
+        set.set( c < NON_ASCII ? c : NON_ASCII );
+        return set;
+    }
+
+    private static BitSet range(char from, char to) {
+        BitSet set = new BitSet();
+        set.set(from, to+1);
+        return set;
+    }
+}
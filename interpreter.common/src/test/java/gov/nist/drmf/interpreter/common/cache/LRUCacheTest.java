@@ -0,0 +1,85 @@
+package gov.nist.drmf.interpreter.common.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Andre Greiner-Petter
+ */
+public class LRUCacheTest {
+
+    @Test
+    void invalidSizeTest() {
+        assertThrows(IllegalArgumentException.class, () -> new LRUCache<String, String>(0));
+    }
+
+    @Test
+    void hitMissTest() {
+        LRUCache<String, String> cache = new LRUCache<>(2);
+        assertNull(cache.get("a"));
+        cache.put("a", "A");
+        assertEquals("A", cache.get("a"));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(0.5, cache.getHitRate());
+    }
+
+    @Test
+    void evictLeastRecentlyUsedTest() {
+        LRUCache<String, String> cache = new LRUCache<>(2);
+        cache.put("a", "A");
+        cache.put("b", "B");
+        // access a, so b is the least recently used entry now
+        cache.get("a");
+        cache.put("c", "C");
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertTrue(cache.containsKey("a"));
+        assertFalse(cache.containsKey("b"));
+        assertTrue(cache.containsKey("c"));
+    }
+
+    @Test
+    void computeIfAbsentTest() {
+        LRUCache<String, Integer> cache = new LRUCache<>(5);
+        AtomicInteger counter = new AtomicInteger(0);
+        assertEquals(1, cache.computeIfAbsent("x", k -> counter.incrementAndGet()));
+        assertEquals(1, cache.computeIfAbsent("x", k -> counter.incrementAndGet()));
+        assertEquals(1, counter.get());
+
+        // null values are never cached
+        assertNull(cache.computeIfAbsent("y", k -> null));
+        assertFalse(cache.containsKey("y"));
+    }
+
+    @Test
+    void concurrentAccessTest() throws InterruptedException, ExecutionException {
+        LRUCache<Integer, Integer> cache = new LRUCache<>(50);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for ( int i = 0; i < 1000; i++ ) {
+                int key = i % 100;
+                results.add(executor.submit(() -> cache.computeIfAbsent(key, k -> 2*k)));
+            }
+            for ( int i = 0; i < results.size(); i++ ) {
+                assertEquals(2*(i % 100), results.get(i).get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(50, cache.size());
+        assertEquals(1000, cache.getHits() + cache.getMisses());
+    }
+}
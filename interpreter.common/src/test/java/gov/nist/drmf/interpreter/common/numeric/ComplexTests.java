@@ -0,0 +1,91 @@
+package gov.nist.drmf.interpreter.common.numeric;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Andre Greiner-Petter
+ */
+public class ComplexTests {
+    private static final double EPS = 1e-13;
+
+    @Test
+    void elementaryTest() {
+        assertClose( Complex.real(-1), Complex.I.multiply(Complex.PI).exp() );
+        assertClose( new Complex(0, 2), Complex.real(-4).sqrt() );
+        assertClose( new Complex(0, Math.PI), Complex.real(-1).log() );
+        assertClose( new Complex(1, 1), new Complex(0, 2).sqrt() );
+        assertClose( Complex.real(8), Complex.real(2).pow(Complex.real(3)) );
+        assertClose( Complex.real(0.25), Complex.real(2).pow(-2) );
+        assertClose( Complex.real(Math.exp(-Math.PI / 2)), Complex.I.pow(Complex.I) );
+    }
+
+    @Test
+    void inverseTest() {
+        Complex z = new Complex(0.3, -0.7);
+        assertClose( z, z.sin().asin() );
+        assertClose( z, z.cos().acos() );
+        assertClose( z, z.tan().atan() );
+        assertClose( z, z.sinh().asinh() );
+        assertClose( z, z.tanh().atanh() );
+        assertClose( Complex.real(-0.5).asinh().negate(), Complex.real(0.5).asinh() );
+    }
+
+    @Test
+    void branchCutTest() {
+        // the CAS do not agree on the values on the branch cuts
+        assertThrows( UndecidableException.class, () -> Complex.real(2).asin() );
+        assertThrows( UndecidableException.class, () -> Complex.real(0.5).acosh() );
+        assertThrows( UndecidableException.class, () -> Complex.I.atan() );
+        assertThrows( UndecidableException.class, () -> new Complex(-1, 1e-14).log() );
+        assertThrows( UndecidableException.class, () -> Complex.ZERO.log() );
+        assertThrows( UndecidableException.class, () -> Complex.ZERO.pow(-1) );
+    }
+
+    @Test
+    void gammaTest() {
+        assertClose( Complex.real(24), SpecialFunctions.gamma(Complex.real(5)) );
+        assertClose( Complex.real(Math.sqrt(Math.PI)), SpecialFunctions.gamma(Complex.real(0.5)) );
+        assertClose( Complex.real(-2 * Math.sqrt(Math.PI)), SpecialFunctions.gamma(Complex.real(-0.5)) );
+        assertClose( new Complex(0.49801566811835604, -0.15494982830181069), SpecialFunctions.gamma(new Complex(1, 1)) );
+        assertThrows( UndecidableException.class, () -> SpecialFunctions.gamma(Complex.real(-2)) );
+        assertEquals( Complex.ZERO, SpecialFunctions.reciprocalGamma(Complex.real(-2)) );
+    }
+
+    @Test
+    void betaBinomialTest() {
+        assertClose( Complex.real(1.0 / 12), SpecialFunctions.beta(Complex.real(2), Complex.real(3)) );
+        assertClose( Complex.real(10), SpecialFunctions.binomial(Complex.real(5), Complex.real(2)) );
+        assertClose( Complex.ZERO, SpecialFunctions.binomial(Complex.real(2), Complex.real(5)) );
+        assertClose( Complex.real(120), SpecialFunctions.factorial(Complex.real(5)) );
+    }
+
+    @Test
+    void besselTest() {
+        assertClose( Complex.real(0.7651976865579666), SpecialFunctions.besselJ(Complex.ZERO, Complex.ONE) );
+        assertClose( Complex.real(0.5651591039924851), SpecialFunctions.besselI(Complex.ONE, Complex.ONE) );
+        // J_{1/2}(x) = sqrt(2/(pi x)) sin(x)
+        assertClose(
+                Complex.real(Math.sqrt(1 / Math.PI) * Math.sin(2)),
+                SpecialFunctions.besselJ(Complex.real(0.5), Complex.real(2))
+        );
+        // the series loses too many digits for large arguments
+        assertThrows( UndecidableException.class, () -> SpecialFunctions.besselJ(Complex.ZERO, Complex.real(60)) );
+    }
+
+    @Test
+    void toStringTest() {
+        assertEquals( "1.50-0.250*I", new Complex(1.5, -0.25).toString(3) );
+        assertEquals( "2.00*I", new Complex(0, 2).toString(3) );
+        assertEquals( "0.00", new Complex(-0.0, 0).toString(3) );
+    }
+
+    private static void assertClose(Complex expected, Complex actual) {
+        double scale = Math.max(1, expected.abs());
+        assertTrue(
+                expected.subtract(actual).abs() <= EPS * scale,
+                "Expected " + expected + " but got " + actual
+        );
+    }
+}
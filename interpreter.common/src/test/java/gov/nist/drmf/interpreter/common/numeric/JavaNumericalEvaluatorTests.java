@@ -0,0 +1,218 @@
+package gov.nist.drmf.interpreter.common.numeric;
+
+import gov.nist.drmf.interpreter.common.eval.*;
+import gov.nist.drmf.interpreter.common.exceptions.ComputerAlgebraSystemEngineException;
+import gov.nist.drmf.interpreter.common.interfaces.IConstraintTranslator;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Andre Greiner-Petter
+ */
+public class JavaNumericalEvaluatorTests {
+    private static final String EXPECTATION = "abs(result) < 0.001";
+
+    private static final List<String> MAPLE_VALUES = List.of("1/2", "- 3/2", "exp(Pi*I/6)");
+    private static final List<String> MATH_VALUES = List.of("1/2", "- 3/2", "Exp[Pi*I/6]");
+
+    private final JavaNumericalEvaluator maple = new JavaNumericalEvaluator(NumericDialect.MAPLE, EXPECTATION);
+    private final JavaNumericalEvaluator mathematica = new JavaNumericalEvaluator(NumericDialect.MATHEMATICA, EXPECTATION);
+
+    @Test
+    void successfulTest() {
+        NumericalTest test = test("evalf(((sin(z))^(2)+ (cos(z))^(2))-(1))", Set.of("z"), MAPLE_VALUES);
+        NumericResult result = maple.prescreen(test);
+        assertNotNull( result );
+        assertEquals( TestResultType.SUCCESS, result.overallResult() );
+        assertEquals( 3, result.getNumberOfTotalTests() );
+        assertEquals( 3, result.getNumberOfSuccessfulTests() );
+    }
+
+    @Test
+    void failureTest() {
+        NumericalTest test = test("evalf((GAMMA(z + 1))-(z))", Set.of("z"), MAPLE_VALUES);
+        NumericResult result = maple.prescreen(test);
+        assertNotNull( result );
+        assertEquals( TestResultType.FAILURE, result.overallResult() );
+        assertEquals( 3, result.getNumberOfFailedTests() );
+
+        NumericCalculation calc = result.getTestCalculationsGroups().get(0).get(0);
+        assertEquals( "1/2", calc.getTestValues().get("z") );
+        // Gamma(3/2) - 1/2 = sqrt(pi)/2 - 1/2
+        assertEquals( "0.3862269255", calc.getResultExpression() );
+    }
+
+    @Test
+    void specialVariablesTest() {
+        NumericalTest test = test("evalf((factorial(n))-(n*GAMMA(n)))", Set.of("n"), MAPLE_VALUES);
+        NumericResult result = maple.prescreen(test);
+        assertNotNull( result );
+        // n is a special variable with the values 1, 2, 3
+        assertEquals( 3, result.getNumberOfSuccessfulTests() );
+        assertEquals( "3", result.getTestCalculationsGroups().get(0).get(2).getTestValues().get("n") );
+    }
+
+    @Test
+    void constraintsTest() {
+        NumericalTest test = test(
+                "evalf((BesselJ(nu, x))-(BesselJ(nu, x)))", Set.of("nu", "x"), MAPLE_VALUES,
+                "Re(nu) > 0", "0 < x ,  x < 1"
+        );
+        NumericResult result = maple.prescreen(test);
+        assertNotNull( result );
+        // nu in {1/2, exp(Pi*I/6)} and x = 1/2
+        assertEquals( 2, result.getNumberOfSuccessfulTests() );
+        assertEquals( List.of("Re(nu) > 0", "0 < x", "x < 1"), result.getTestCalculationsGroups().get(0).getConstraints() );
+    }
+
+    @Test
+    void globalConstraintsTest() {
+        maple.setGlobalNumericAssumptions(List.of("x in real"));
+        NumericalTest test = test("evalf((sqrt((x)^(2)))-(abs(x)))", Set.of("x"), MAPLE_VALUES);
+        NumericResult result = maple.prescreen(test);
+        assertNotNull( result );
+        assertEquals( 2, result.getNumberOfSuccessfulTests() );
+    }
+
+    @Test
+    void noValidValuesTest() {
+        NumericalTest test = test("evalf(z)", Set.of("z"), MAPLE_VALUES, "abs(z) > 10");
+        assertThrows( IllegalArgumentException.class, () -> maple.prescreen(test) );
+    }
+
+    @Test
+    void relationTest() {
+        NumericalTest test = test("(x)^(2) >= 0", Set.of("x"), MAPLE_VALUES, "x::real");
+        NumericResult result = maple.prescreen(test);
+        assertNotNull( result );
+        assertEquals( 2, result.getNumberOfSuccessfulTests() );
+
+        // exp(Pi*I/6)^2 is not real, Maple throws an error instead
+        NumericalTest complexTest = test("(x)^(2) >= 0", Set.of("x"), MAPLE_VALUES);
+        assertNull( maple.prescreen(complexTest) );
+    }
+
+    @Test
+    void undecidableTest() {
+        // unsupported function
+        NumericalTest unknown = test("evalf((LegendreP(1, z))-(z))", Set.of("z"), MAPLE_VALUES);
+        assertNull( maple.prescreen(unknown) );
+        assertThrows( IllegalArgumentException.class, () -> maple.performNumericTest(unknown) );
+
+        // the result is too close to the threshold
+        NumericalTest close = test("evalf((z)-(1/2 + 1/1000))", Set.of("z"), List.of("1/2"));
+        assertNull( maple.prescreen(close) );
+
+        // the integer check of a value close to an integer is undecidable
+        NumericalTest integer = test("evalf(z)", Set.of("z"), List.of("1 + 10^(-14)"), "z::integer");
+        assertNull( maple.prescreen(integer) );
+
+        // the variable gamma (e.g., translated from \gamma) is not Euler's constant
+        NumericalTest gamma = test("evalf((gamma)-(0.5772156649))", Set.of("gamma"), MAPLE_VALUES);
+        assertNull( maple.prescreen(gamma) );
+        assertThrows( IllegalArgumentException.class, () -> maple.performNumericTest(gamma) );
+    }
+
+    @Test
+    void numericExpressionTest() {
+        NumericalTest test = test("evalf((GAMMA(5))-(24))", Set.of(), MAPLE_VALUES);
+        NumericResult result = maple.prescreen(test);
+        assertNotNull( result );
+        assertEquals( 1, result.getNumberOfSuccessfulTests() );
+    }
+
+    @Test
+    void batchTest() throws ComputerAlgebraSystemEngineException {
+        NumericalTest successful = test("evalf(((sin(z))^(2)+ (cos(z))^(2))-(1))", Set.of("z"), MAPLE_VALUES);
+        NumericalTest noValues = test("evalf(z)", Set.of("z"), MAPLE_VALUES, "abs(z) > 10");
+        NumericalTest failure = test("evalf((GAMMA(z + 1))-(z))", Set.of("z"), MAPLE_VALUES);
+
+        NumericBatchResult results = maple.performNumericTests(List.of(successful, noValues, failure));
+        assertEquals( 3, results.size() );
+        assertEquals( TestResultType.SUCCESS, results.getResult(0).overallResult() );
+        assertNull( results.getError(0) );
+
+        // the error of a single test does not affect the other tests of the batch
+        assertTrue( results.getError(1) instanceof IllegalArgumentException );
+        assertThrows( IllegalArgumentException.class, () -> results.getResult(1) );
+        assertEquals( TestResultType.FAILURE, results.getResult(2).overallResult() );
+    }
+
+    @Test
+    void mathematicaTest() {
+        NumericalTest test = test(
+                "Gamma[z + 1] - z Gamma[z]", Set.of("z"), MATH_VALUES,
+                "z \\[NotEqual]0", "Re[z] > 0"
+        );
+        NumericResult result = mathematica.prescreen(test);
+        assertNotNull( result );
+        assertEquals( 2, result.getNumberOfSuccessfulTests() );
+
+        NumericalTest greek = test(
+                "BesselI[\\[Nu], x] - Divide[3, 2]", Set.of("\\[Nu]", "x"), List.of("1/2"),
+                "\\[Nu] \\[Element]Reals"
+        );
+        result = mathematica.prescreen(greek);
+        assertNotNull( result );
+        assertEquals( 1, result.getNumberOfFailedTests() );
+    }
+
+    private static NumericalTest test(String expression, Set<String> variables, List<String> values, String... constraints) {
+        NumericalConfig config = new NumericalConfig() {
+            @Override
+            public List<String> getListOfNumericalValues(IConstraintTranslator<?> translator, String label) {
+                return values;
+            }
+
+            @Override
+            public List<String> getListOfSpecialVariables(IConstraintTranslator<?> translator) {
+                return List.of("n", "k");
+            }
+
+            @Override
+            public List<String> getListOfSpecialVariableValues(IConstraintTranslator<?> translator) {
+                return List.of("1", "2", "3");
+            }
+
+            @Override
+            public int getPrecision() {
+                return 10;
+            }
+
+            @Override
+            public int getMaximumNumberOfCombs() {
+                return 300;
+            }
+        };
+
+        NumericalTest test = new NumericalTest(
+                null, null, expression,
+                new INumericTestCase() {
+                    @Override
+                    public List<String> getConstraints(IConstraintTranslator translator, String label) {
+                        return Arrays.asList(constraints);
+                    }
+
+                    @Override
+                    public List<String> getConstraintVariables(IConstraintTranslator translator, String label) {
+                        return new LinkedList<>();
+                    }
+
+                    @Override
+                    public List<String> getConstraintValues() {
+                        return new LinkedList<>();
+                    }
+                },
+                config,
+                null
+        );
+        test.setVariables(variables);
+        return test;
+    }
+}
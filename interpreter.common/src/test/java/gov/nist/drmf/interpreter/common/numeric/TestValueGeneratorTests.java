@@ -0,0 +1,156 @@
+package gov.nist.drmf.interpreter.common.numeric;
+
+import gov.nist.drmf.interpreter.common.eval.INumericTestCase;
+import gov.nist.drmf.interpreter.common.eval.NumericalConfig;
+import gov.nist.drmf.interpreter.common.eval.NumericalTest;
+import gov.nist.drmf.interpreter.common.interfaces.IConstraintTranslator;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Andre Greiner-Petter
+ */
+public class TestValueGeneratorTests {
+    private static final List<String> VALUES = List.of("1/2", "-3/2", "2", "3");
+    private static final List<String> DIGITS = List.of("0", "1", "2", "3", "4", "5", "6", "7", "8", "9");
+
+    private final TestValueGenerator generator = new TestValueGenerator(NumericDialect.MAPLE);
+
+    @Test
+    void pruningTest() {
+        NumericalTest test = test(Set.of("x", "y"), VALUES, 300, List.of(), List.of(), "x > 0", "y > x");
+        TestValueCombinations combis = generator.generate(test);
+        assertNotNull( combis );
+        assertFalse( combis.requiresFiltering() );
+        assertFalse( combis.isSampled() );
+        assertEquals( List.of("x > 0", "y > x"), combis.getConstraints() );
+
+        // (1/2, 2), (1/2, 3), (2, 3)
+        assertEquals( 3, combis.size() );
+        for ( int i = 0; i < combis.size(); i++ ) {
+            Map<String, Complex> values = combis.getValues(i);
+            assertTrue( values.get("x").getRe() > 0 );
+            assertTrue( values.get("y").getRe() > values.get("x").getRe() );
+        }
+        assertEquals( Map.of("x", "1/2", "y", "2"), combis.getCombination(0) );
+    }
+
+    @Test
+    void samplingTest() {
+        NumericalTest test = test(Set.of("a", "b", "c"), DIGITS, 300, List.of(), List.of());
+        TestValueCombinations combis = generator.generate(test);
+        assertNotNull( combis );
+        assertTrue( combis.isSampled() );
+        assertEquals( 1000, combis.getNumberOfCandidates() );
+        assertEquals( 300, combis.size() );
+        assertEquals( 300, new HashSet<>(combis.getCombinations()).size() );
+
+        // the sample is deterministic
+        TestValueCombinations again = generator.generate(test);
+        assertEquals( combis.getCombinations(), again.getCombinations() );
+    }
+
+    @Test
+    void requiresFilteringTest() {
+        // unknown function, the CAS must filter the combinations
+        NumericalTest test = test(Set.of("x"), VALUES, 300, List.of(), List.of(), "LegendreP(1, x) > 0");
+        TestValueCombinations combis = generator.generate(test);
+        assertNotNull( combis );
+        assertTrue( combis.requiresFiltering() );
+        assertEquals( 4, combis.size() );
+    }
+
+    @Test
+    void specialAndConstraintVariablesTest() {
+        NumericalTest test = test(
+                Set.of("n", "x", "nu"), VALUES, 300, List.of("nu"), List.of("1/2"),
+                "x < n", "nu > 1"
+        );
+        TestValueCombinations combis = generator.generate(test);
+        assertNotNull( combis );
+        // constraint variables first, constraints of constraint variables are not applied
+        assertEquals( List.of("nu", "n", "x"), combis.getVariables() );
+        assertEquals( List.of("x < n"), combis.getConstraints() );
+
+        // n in {1, 2, 3}: -3/2 and 1/2 are below all of them, 2 below 3
+        assertEquals( 7, combis.size() );
+        for ( List<String> combination : combis.getCombinations() ) assertEquals( "1/2", combination.get(0) );
+    }
+
+    @Test
+    void globalConstraintsTest() {
+        generator.setGlobalConstraints(List.of("x in posint"));
+        NumericalTest test = test(Set.of("x"), VALUES, 300, List.of(), List.of());
+        TestValueCombinations combis = generator.generate(test);
+        assertNotNull( combis );
+        assertEquals( 2, combis.size() );
+
+        // global constraints of other variables are ignored
+        NumericalTest other = test(Set.of("y"), VALUES, 300, List.of(), List.of());
+        assertEquals( 4, generator.generate(other).size() );
+    }
+
+    @Test
+    void tooManyCombinationsTest() {
+        NumericalTest test = test(Set.of("a", "b", "c", "d", "e", "f", "g"), DIGITS, 300, List.of(), List.of());
+        assertNull( generator.generate(test) );
+    }
+
+    private static NumericalTest test(
+            Set<String> variables,
+            List<String> values,
+            int maxCombis,
+            List<String> constraintVariables,
+            List<String> constraintValues,
+            String... constraints
+    ) {
+        NumericalConfig config = new NumericalConfig() {
+            @Override
+            public List<String> getListOfNumericalValues(IConstraintTranslator<?> translator, String label) {
+                return values;
+            }
+
+            @Override
+            public List<String> getListOfSpecialVariables(IConstraintTranslator<?> translator) {
+                return List.of("n", "k");
+            }
+
+            @Override
+            public List<String> getListOfSpecialVariableValues(IConstraintTranslator<?> translator) {
+                return List.of("1", "2", "3");
+            }
+
+            @Override
+            public int getMaximumNumberOfCombs() {
+                return maxCombis;
+            }
+        };
+
+        NumericalTest test = new NumericalTest(
+                null, null, "0",
+                new INumericTestCase() {
+                    @Override
+                    public List<String> getConstraints(IConstraintTranslator translator, String label) {
+                        return Arrays.asList(constraints);
+                    }
+
+                    @Override
+                    public List<String> getConstraintVariables(IConstraintTranslator translator, String label) {
+                        return constraintVariables;
+                    }
+
+                    @Override
+                    public List<String> getConstraintValues() {
+                        return constraintValues;
+                    }
+                },
+                config,
+                null
+        );
+        test.setVariables(variables);
+        return test;
+    }
+}
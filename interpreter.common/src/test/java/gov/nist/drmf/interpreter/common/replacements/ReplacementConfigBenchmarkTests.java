@@ -0,0 +1,180 @@
+package gov.nist.drmf.interpreter.common.replacements;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import gov.nist.drmf.interpreter.common.constants.GlobalPaths;
+import gov.nist.drmf.interpreter.common.latex.TeXPreProcessor;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the compiled replacement rules with the plain sequential application of all rules
+ * (as they are specified in the config files) on a corpus of DLMF formulae. The labels of the corpus are spread over all DLMF chapters.
+ *
+ * @author Andre Greiner-Petter
+ */
+public class ReplacementConfigBenchmarkTests {
+    private static final Logger LOG = LogManager.getLogger(ReplacementConfigBenchmarkTests.class.getName());
+
+    private static final ReplacementConfig CONFIG = ReplacementConfig.getInstance();
+
+    private static final List<String[]> CORPUS = new ArrayList<>();
+
+    /**
+     * The rules as they were specified in the config files without any optimizations
+     */
+    private static List<ReplacementRule> generalRules;
+    private static List<DLMFConditionalReplacementImpl> dlmfRules;
+
+    @BeforeAll
+    static void setup() throws IOException {
+        ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
+        generalRules = mapper.readValue(GlobalPaths.PATH_REPLACEMENT_RULES.toFile(), ReplacementConfig.class)
+                .getGeneralRules().getRules();
+        dlmfRules = mapper.readValue(GlobalPaths.PATH_DLMF_REPLACEMENT_RULES.toFile(), ReplacementConfig.class)
+                .getDLMFRules().getRules();
+        generalRules.forEach( r -> r.setPattern(r.getRegex(), false) );
+        dlmfRules.forEach( r -> r.setPattern(r.getRegex(), false) );
+
+        try ( BufferedReader br = new BufferedReader(new InputStreamReader(
+                Objects.requireNonNull(ReplacementConfigBenchmarkTests.class.getResourceAsStream("DLMFFormulaCorpus.tsv")),
+                StandardCharsets.UTF_8
+        )) ) {
+            br.lines().filter( l -> !l.isBlank() ).forEach( l -> CORPUS.add(l.split("\t", 2)) );
+        }
+    }
+
+    private static String sequentialReplace(String input, String link) {
+        for ( ReplacementRule rule : generalRules ) {
+            input = rule.replace(input);
+        }
+        if ( link != null ) {
+            for ( ConditionalReplacementRule rule : dlmfRules ) {
+                if ( rule.applicable(link) ) input = rule.replace(input);
+            }
+        }
+        return input.trim();
+    }
+
+    @Test
+    void compiledTest() {
+        assertTrue( CONFIG.getGeneralRules().isCombined() );
+        // chapter 16 has only a single conditional rule
+        assertTrue( CONFIG.getDLMFRules().getNumberOfCandidates(16) < CONFIG.getDLMFRules().getRules().size() );
+    }
+
+    @Test
+    void equivalenceTest() {
+        assertFalse( CORPUS.isEmpty() );
+        for ( String[] entry : CORPUS ) {
+            assertEquals( sequentialReplace(entry[1], entry[0]), CONFIG.replace(entry[1], entry[0]), entry[0] );
+            assertEquals( sequentialReplace(entry[1], null), CONFIG.replace(entry[1], null), entry[0] );
+        }
+    }
+
+    private static String fullPreProcessing(String tex) {
+        tex = TeXPreProcessor.trimIfWrappedInCurlyBrackets(tex);
+        tex = CONFIG.replace(tex, null);
+        return TeXPreProcessor.clearEndOfFormulaPunctuation(tex);
+    }
+
+    @Test
+    void cleanInputFastPathTest() {
+        assertTrue( CONFIG.getGeneralRules().hasTriggers() );
+        List<String> inputs = new ArrayList<>(List.of("", "x", "f(x)", "2n+1", "{x}", "x.", "x;", " x", "1 2", "x^2", "a_b"));
+        for ( String[] entry : CORPUS ) {
+            inputs.add(entry[1]);
+            inputs.addAll(List.of(entry[1].split("\\s+")));
+        }
+
+        int fastPath = 0;
+        for ( String in : inputs ) {
+            String expected = fullPreProcessing(in);
+            assertEquals( expected, TeXPreProcessor.preProcessingTeX(in), in );
+            if ( TeXPreProcessor.requiresNoPreProcessing(in, null) ) {
+                assertEquals( in, expected, in );
+                fastPath++;
+            }
+        }
+
+        LOG.info("Skipped the pre-processing of " + fastPath + " of " + inputs.size() + " expressions.");
+        assertTrue( fastPath > 0 );
+        assertTrue( TeXPreProcessor.requiresNoPreProcessing("f(x)", null) );
+        assertFalse( TeXPreProcessor.requiresNoPreProcessing("f(x)", "1.1.E1") );
+        assertFalse( TeXPreProcessor.requiresNoPreProcessing("\\sin x", null) );
+        assertFalse( TeXPreProcessor.requiresNoPreProcessing("x.", null) );
+    }
+
+    @Test
+    void moveLookbehindTest() {
+        String original = "(?<!\\\\[A-Za-z]{0,30}|\\\\math(?:bf|bb|cal|it|frak)\\{)i(.|$)";
+        String moved = ReplacementRule.moveLeadingLookbehind(original);
+        assertEquals("i(?<!(?:\\\\[A-Za-z]{0,30}|\\\\math(?:bf|bb|cal|it|frak)\\{)i)(.|$)", moved);
+
+        Pattern originalPattern = Pattern.compile(original);
+        Pattern movedPattern = Pattern.compile(moved);
+        List<String> inputs = new ArrayList<>(List.of("i", "ii", "\\sin i", "\\sini", "\\mathbf{i}", "\\mathit{i}i", "2i+i^2"));
+        CORPUS.forEach( e -> inputs.add(e[1]) );
+        for ( String in : inputs ) {
+            assertEquals(
+                    originalPattern.matcher(in).replaceAll("X$1"),
+                    movedPattern.matcher(in).replaceAll("X$1"),
+                    in
+            );
+        }
+
+        // nothing to move
+        assertEquals("(?<!a)(i)", ReplacementRule.moveLeadingLookbehind("(?<!a)(i)"));
+        assertEquals("(?<![)])i*", ReplacementRule.moveLeadingLookbehind("(?<![)])i*"));
+        assertEquals("\\\\pi", ReplacementRule.moveLeadingLookbehind("\\\\pi"));
+    }
+
+    @Test
+    void benchmarkTest() {
+        int rounds = 50;
+        // warm up
+        runSequential(5);
+        runCompiled(5);
+
+        long start = System.nanoTime();
+        runSequential(rounds);
+        long sequentialNs = Math.max(1, System.nanoTime() - start);
+
+        start = System.nanoTime();
+        runCompiled(rounds);
+        long compiledNs = Math.max(1, System.nanoTime() - start);
+
+        double formulae = (double) rounds * CORPUS.size();
+        LOG.printf(Level.INFO, "Sequential rules: %.1f formulae/ms; compiled rules: %.1f formulae/ms; speedup: %.2f",
+                1e6*formulae/sequentialNs,
+                1e6*formulae/compiledNs,
+                (double) sequentialNs / compiledNs
+        );
+    }
+
+    private static void runSequential(int rounds) {
+        for ( int r = 0; r < rounds; r++ ) {
+            for ( String[] entry : CORPUS ) assertNotNull(sequentialReplace(entry[1], entry[0]));
+        }
+    }
+
+    private static void runCompiled(int rounds) {
+        for ( int r = 0; r < rounds; r++ ) {
+            for ( String[] entry : CORPUS ) assertNotNull(CONFIG.replace(entry[1], entry[0]));
+        }
+    }
+}
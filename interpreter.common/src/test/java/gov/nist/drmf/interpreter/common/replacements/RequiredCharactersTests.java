@@ -0,0 +1,67 @@
+package gov.nist.drmf.interpreter.common.replacements;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Andre Greiner-Petter
+ */
+public class RequiredCharactersTests {
+
+    @Test
+    void literalTest() {
+        assertEquals( "\\", chars("\\\\Im(?![a-zA-Z])") );
+        assertEquals( "[", chars("\\[\\s*\\]") );
+        assertEquals( "\\", chars("(?<!\\\\)\\\\(?:displaystyle|hbox|[!,; ])") );
+    }
+
+    @Test
+    void alternationTest() {
+        assertEquals( "^_", chars("(\\^|_)([a-zA-Z])([a-zA-Z])") );
+        assertEquals( "\t\n\u000B\f\r \\", chars("(\\d)(?:\\s+|\\\\[;,! ])+(\\d)") );
+        assertEquals( "\t\n\u000B\f\r ./;\\^", chars("(?:[.;^/\\t\\s]|\\\\\\\\)+$") );
+    }
+
+    @Test
+    void rangeTest() {
+        assertEquals( "abc", chars("[a-c]") );
+        assertEquals( "+-", chars("[+\\-]") );
+        BitSet nonAscii = RequiredCharacters.of("[aä]");
+        assertNotNull( nonAscii );
+        assertTrue( RequiredCharacters.contains(nonAscii, 'ö') );
+        assertTrue( RequiredCharacters.contains(nonAscii, 'a') );
+        assertFalse( RequiredCharacters.contains(nonAscii, 'b') );
+    }
+
+    @Test
+    void optionalTest() {
+        assertNull( RequiredCharacters.of("a?") );
+        assertNull( RequiredCharacters.of("a*") );
+        assertNull( RequiredCharacters.of("a{0,3}") );
+        assertNull( RequiredCharacters.of("(a|)") );
+        assertNull( RequiredCharacters.of("[^a]") );
+        assertNull( RequiredCharacters.of(".+") );
+        assertNull( RequiredCharacters.of("$") );
+        assertEquals( "b", chars("a?b") );
+        assertEquals( "a", chars("a{2,}") );
+    }
+
+    @Test
+    void unsupportedTest() {
+        assertNull( RequiredCharacters.of("(?i)a") );
+        assertNull( RequiredCharacters.of("(a)\\1") );
+        assertNull( RequiredCharacters.of("\\p{L}") );
+        assertNull( RequiredCharacters.of("[a-z&&[^b]]") );
+        assertNull( RequiredCharacters.of("(a") );
+    }
+
+    private static String chars(String regex) {
+        BitSet set = RequiredCharacters.of(regex);
+        assertNotNull( set, regex );
+        return set.stream().mapToObj( i -> String.valueOf((char) i) ).collect(Collectors.joining());
+    }
+}
@@ -15,9 +15,13 @@ import gov.nist.drmf.interpreter.pom.extensions.PrintablePomTaggedExpression;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.HashSet;
 import java.util.Set;
 
 /**
+ * A translator from semantic LaTeX to CAS. If the {@link TranslationCache} is enabled in the config,
+ * repeated translations of the same expression are served from the cache.
+ *
  * @author Andre Greiner-Petter
  */
 public class DLMFTranslator implements IConstraintTranslator<PrintablePomTaggedExpression> {
@@ -27,10 +31,27 @@ public class DLMFTranslator implements IConstraintTranslator<PrintablePomTaggedE
     private final TranslationProcessConfig config;
     private final PackageWrapper packageWrapper;
 
+    private final TranslationCache cache;
+
+    /**
+     * The required packages of the last translation, since the translator is not used in case of a cache hit
+     */
+    private Set<String> lastRequiredPackages;
+
     public DLMFTranslator( String cas ) throws InitTranslatorException {
+        this( cas, TranslationCache.getDefaultInstance() );
+    }
+
+    /**
+     * @param cas the target language
+     * @param cache the translation cache or null to disable caching
+     * @throws InitTranslatorException if the translator cannot be initialized
+     */
+    public DLMFTranslator( String cas, TranslationCache cache ) throws InitTranslatorException {
         dlmfInterface = new SemanticLatexTranslator( cas );
         config = dlmfInterface.getConfig();
         packageWrapper = new PackageWrapper(config);
+        this.cache = cache;
         LOG.debug("Initialized DLMF LaTeX Interface.");
     }
 
@@ -46,27 +67,49 @@ public class DLMFTranslator implements IConstraintTranslator<PrintablePomTaggedE
 
     @Override
     public TranslationInformation translateToObject(String expression) throws TranslationException {
-        return dlmfInterface.translateToObject(expression);
+        return translateToObject(expression, null, null);
     }
 
     @Override
     public TranslationInformation translateToObject(String expression, String label) throws TranslationException {
-        return dlmfInterface.translateToObject(expression, label);
+        return translateToObject(expression, label, null);
     }
 
     @Override
     public TranslationInformation translateToObject(String expression, String label, TranslationFeature<PrintablePomTaggedExpression> translationFeatures) throws TranslationException {
-        return dlmfInterface.translateToObject(expression, label, translationFeatures);
+        lastRequiredPackages = null;
+        if ( cache == null || expression == null || expression.isEmpty() ) {
+            return dlmfInterface.translateToObject(expression, label, translationFeatures);
+        }
+
+        String language = dlmfInterface.getTargetLanguage();
+        String configuration = getConfigurationKey();
+        TranslationInformation ti = cache.get(expression, label, language, configuration, translationFeatures);
+        if ( ti == null ) {
+            ti = dlmfInterface.translateToObject(expression, label, translationFeatures);
+            cache.put(expression, label, language, configuration, translationFeatures, ti);
+        }
+        lastRequiredPackages = new HashSet<>(ti.getRequiredPackages());
+        return ti;
+    }
+
+    /**
+     * The settings can be changed at any time (e.g., via {@link #getConfig()}), hence the key is built per translation
+     * @return the key of the current settings that change translations
+     */
+    private String getConfigurationKey() {
+        return dlmfInterface.getConfig().getConfigurationKey() + ";tolerant=" + dlmfInterface.isTolerant();
     }
 
     @Override
     public Set<String> getRequiredPackages() {
+        if ( lastRequiredPackages != null ) return lastRequiredPackages;
         return dlmfInterface.getTranslatedExpressionObject().getRequiredPackages();
     }
 
     @Override
     public TranslationInformation translateToObjectFeatured(String expression, TranslationFeature<PrintablePomTaggedExpression> translationFeatures) {
-        return dlmfInterface.translateToObjectFeatured(expression, translationFeatures);
+        return translateToObject(expression, null, translationFeatures);
     }
 
     @Override
@@ -74,6 +117,13 @@ public class DLMFTranslator implements IConstraintTranslator<PrintablePomTaggedE
         return packageWrapper;
     }
 
+    /**
+     * @return the translation cache or null if caching is disabled
+     */
+    public TranslationCache getTranslationCache() {
+        return cache;
+    }
+
     public ForwardTranslationProcessConfig getConfig() {
         return dlmfInterface.getConfig();
     }
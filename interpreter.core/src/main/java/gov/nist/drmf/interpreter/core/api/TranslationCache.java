@@ -0,0 +1,356 @@
+package gov.nist.drmf.interpreter.core.api;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gov.nist.drmf.interpreter.common.InformationLogger;
+import gov.nist.drmf.interpreter.common.TranslationInformation;
+import gov.nist.drmf.interpreter.common.cache.LRUCache;
+import gov.nist.drmf.interpreter.common.config.Config;
+import gov.nist.drmf.interpreter.common.config.ConfigDiscovery;
+import gov.nist.drmf.interpreter.common.interfaces.TranslationFeature;
+import gov.nist.drmf.interpreter.common.latex.FreeVariables;
+import gov.nist.drmf.interpreter.common.latex.Relations;
+import gov.nist.drmf.interpreter.common.latex.RelationalComponents;
+import gov.nist.drmf.interpreter.common.latex.TeXPreProcessor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * <p>
+ * A bounded cache of {@link TranslationInformation}. An entry is identified by the pre-processed expression
+ * (see {@link TeXPreProcessor#preProcessingTeX(String, String)}), the label, the target language, the
+ * configuration of the translator and the translation features. Hence, a single cache can be shared by
+ * translators to different languages and with different settings (e.g., the inline package mode).
+ * </p>
+ *
+ * <p>
+ * Translation features are identified by their configuration, see {@link TranslationFeature#getConfigurationKey()}.
+ * Features without such a key (e.g., lambdas) may capture arbitrary state and are never cached. Combined features
+ * (see {@link TranslationFeature#combine(TranslationFeature[])}) are cached if all of their parts have a key.
+ * </p>
+ *
+ * <p>
+ * The cache can be warm-started from a JSON file that was stored by {@link #store(Path)} before.
+ * The cache stores and returns copies of the {@link TranslationInformation} objects. Hence, callers
+ * can freely change the returned objects without affecting the cache or other callers.
+ * </p>
+ *
+ * @author Andre Greiner-Petter
+ */
+public class TranslationCache {
+    private static final Logger LOG = LogManager.getLogger(TranslationCache.class.getName());
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static TranslationCache defaultInstance;
+    private static boolean defaultInstanceLoaded = false;
+
+    private final LRUCache<CacheKey, TranslationInformation> cache;
+
+    /**
+     * @param maximumSize the maximum number of cached translations
+     */
+    public TranslationCache(int maximumSize) {
+        this.cache = new LRUCache<>(maximumSize);
+    }
+
+    /**
+     * The cache that is specified in the {@link Config}. The cache is shared by all translators.
+     * If a warm-start file is specified and exists, the cache is loaded from this file.
+     * @return the default cache or null if the cache is disabled in the config
+     */
+    public static synchronized TranslationCache getDefaultInstance() {
+        if ( defaultInstanceLoaded ) return defaultInstance;
+        defaultInstanceLoaded = true;
+
+        Config config = ConfigDiscovery.getConfig();
+        if ( config.getTranslationCacheSize() < 1 ) return null;
+
+        defaultInstance = new TranslationCache(config.getTranslationCacheSize());
+        Path file = config.getTranslationCacheFile();
+        if ( file != null && Files.exists(file) ) {
+            try {
+                defaultInstance.load(file);
+            } catch (IOException e) {
+                LOG.warn("Unable to warm-start the translation cache from " + file + ". Start with an empty cache.", e);
+            }
+        }
+        return defaultInstance;
+    }
+
+    /**
+     * Stores the default cache to the warm-start file specified in the {@link Config}.
+     * Does nothing if the cache is disabled or no file was specified.
+     * @throws IOException if the file cannot be written
+     */
+    public static void storeDefaultInstance() throws IOException {
+        TranslationCache c = getDefaultInstance();
+        Path file = ConfigDiscovery.getConfig().getTranslationCacheFile();
+        if ( c != null && file != null ) c.store(file);
+    }
+
+    /**
+     * Returns the cached translation.
+     * @param expression the expression as it was given to the translator (it will be pre-processed)
+     * @param label the label or null
+     * @param language the target language
+     * @param configuration the key of the translator's settings that change translations
+     * @param translationFeatures the translation features or null
+     * @return a copy of the cached translation or null if it is not cached (or not cacheable)
+     */
+    public TranslationInformation get(
+            String expression,
+            String label,
+            String language,
+            String configuration,
+            TranslationFeature<?> translationFeatures
+    ) {
+        CacheKey key = buildKey(expression, label, language, configuration, translationFeatures);
+        if ( key == null ) return null;
+        TranslationInformation ti = cache.get(key);
+        return ti == null ? null : new TranslationInformation(ti);
+    }
+
+    /**
+     * Caches a copy of the given translation. Does nothing if the given translation features are not cacheable.
+     * @param expression the expression as it was given to the translator (it will be pre-processed)
+     * @param label the label or null
+     * @param language the target language
+     * @param configuration the key of the translator's settings that change translations
+     * @param translationFeatures the translation features or null
+     * @param information the translation
+     */
+    public void put(
+            String expression,
+            String label,
+            String language,
+            String configuration,
+            TranslationFeature<?> translationFeatures,
+            TranslationInformation information
+    ) {
+        CacheKey key = buildKey(expression, label, language, configuration, translationFeatures);
+        if ( key == null || information == null ) return;
+        cache.put(key, new TranslationInformation(information));
+    }
+
+    public static boolean isCacheable(TranslationFeature<?> translationFeatures) {
+        return translationFeatures == null || translationFeatures.getConfigurationKey() != null;
+    }
+
+    private static CacheKey buildKey(
+            String expression,
+            String label,
+            String language,
+            String configuration,
+            TranslationFeature<?> translationFeatures
+    ) {
+        if ( expression == null || !isCacheable(translationFeatures) ) return null;
+        String features = translationFeatures == null ? "" : translationFeatures.getConfigurationKey();
+        return new CacheKey(TeXPreProcessor.preProcessingTeX(expression, label), label, language, configuration, features);
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    public long getHits() {
+        return cache.getHits();
+    }
+
+    public long getMisses() {
+        return cache.getMisses();
+    }
+
+    public long getEvictions() {
+        return cache.getEvictions();
+    }
+
+    public double getHitRate() {
+        return cache.getHitRate();
+    }
+
+    /**
+     * Loads the entries of the given warm-start file into this cache. If the file contains more
+     * entries than the cache can hold, only the most recently used entries are kept.
+     * @param file the warm-start file
+     * @throws IOException if the file cannot be read
+     */
+    public void load(Path file) throws IOException {
+        List<CacheEntry> entries = MAPPER.readValue(file.toFile(), new TypeReference<>() {});
+        for ( CacheEntry entry : entries ) {
+            // entries of older files do not know the settings they were translated with
+            if ( entry.configuration == null ) continue;
+            cache.put(
+                    new CacheKey(entry.expression, entry.label, entry.language, entry.configuration, entry.features),
+                    entry.translation.toTranslationInformation()
+            );
+        }
+        // loading should not count as evictions
+        cache.resetStatistics();
+        LOG.info("Warm-started translation cache with " + cache.size() + " entries from " + file);
+    }
+
+    /**
+     * Stores the current entries of this cache to the given file.
+     * @param file the warm-start file
+     * @throws IOException if the file cannot be written
+     */
+    public void store(Path file) throws IOException {
+        List<CacheEntry> entries = cache.snapshot().entrySet().stream()
+                .map( e -> new CacheEntry(e.getKey(), e.getValue()) )
+                .collect(Collectors.toList());
+        MAPPER.writeValue(file.toFile(), entries);
+        LOG.info("Stored " + entries.size() + " cached translations to " + file);
+    }
+
+    @Override
+    public String toString() {
+        return "Translation " + cache.toString();
+    }
+
+    private static final class CacheKey {
+        private final String expression, label, language, configuration, features;
+
+        private CacheKey(String expression, String label, String language, String configuration, String features) {
+            this.expression = expression;
+            this.label = label;
+            this.language = language;
+            this.configuration = configuration;
+            this.features = features;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            CacheKey cacheKey = (CacheKey) o;
+            return Objects.equals(expression, cacheKey.expression) &&
+                    Objects.equals(label, cacheKey.label) &&
+                    Objects.equals(language, cacheKey.language) &&
+                    Objects.equals(configuration, cacheKey.configuration) &&
+                    Objects.equals(features, cacheKey.features);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(expression, label, language, configuration, features);
+        }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    private static final class CacheEntry {
+        @JsonProperty("expression")
+        private String expression;
+
+        @JsonProperty("label")
+        private String label;
+
+        @JsonProperty("language")
+        private String language;
+
+        @JsonProperty("configuration")
+        private String configuration;
+
+        @JsonProperty("features")
+        private String features;
+
+        @JsonProperty("translation")
+        private CachedTranslation translation;
+
+        private CacheEntry() {}
+
+        private CacheEntry(CacheKey key, TranslationInformation ti) {
+            this.expression = key.expression;
+            this.label = key.label;
+            this.language = key.language;
+            this.configuration = key.configuration;
+            this.features = key.features;
+            this.translation = new CachedTranslation(ti);
+        }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    private static final class CachedTranslation {
+        @JsonProperty("expression")
+        private String expression;
+
+        @JsonProperty("translatedExpression")
+        private String translatedExpression;
+
+        @JsonProperty("constraints")
+        private List<String> constraints = new LinkedList<>();
+
+        @JsonProperty("requiredPackages")
+        private Set<String> requiredPackages = new HashSet<>();
+
+        @JsonProperty("freeVariables")
+        private List<String> freeVariables = new LinkedList<>();
+
+        @JsonProperty("relationalComponents")
+        private List<String> relationalComponents = new LinkedList<>();
+
+        @JsonProperty("relations")
+        private List<Relations> relations = new LinkedList<>();
+
+        @JsonProperty("generalInformation")
+        private Map<String, String> generalInformation = new HashMap<>();
+
+        @JsonProperty("macroInformation")
+        private Map<String, String> macroInformation = new HashMap<>();
+
+        @JsonProperty("partialTranslations")
+        private List<CachedTranslation> partialTranslations = new LinkedList<>();
+
+        private CachedTranslation() {}
+
+        private CachedTranslation(TranslationInformation ti) {
+            this.expression = ti.getExpression();
+            this.translatedExpression = ti.getTranslatedExpression();
+            this.constraints.addAll(ti.getTranslatedConstraints());
+            this.requiredPackages.addAll(ti.getRequiredPackages());
+            this.freeVariables.addAll(ti.getFreeVariables().getFreeVariables());
+            this.relationalComponents.addAll(ti.getRelationalComponents().getComponents());
+            this.relations.addAll(ti.getRelationalComponents().getRelations());
+            this.generalInformation.putAll(ti.getTranslationInformation().getGeneralTranslationInformation());
+            this.macroInformation.putAll(ti.getTranslationInformation().getMacroTranslationInformation());
+            for ( TranslationInformation partial : ti.getPartialTranslations() )
+                this.partialTranslations.add(new CachedTranslation(partial));
+        }
+
+        private TranslationInformation toTranslationInformation() {
+            TranslationInformation ti = new TranslationInformation(expression, translatedExpression);
+            ti.addTranslatedConstraints(constraints);
+            ti.setRequiredPackages(requiredPackages);
+
+            FreeVariables vars = new FreeVariables();
+            vars.addFreeVariables(freeVariables);
+            ti.setFreeVariables(vars);
+
+            RelationalComponents rc = new RelationalComponents();
+            relationalComponents.forEach(rc::addComponent);
+            relations.forEach(rc::addRelation);
+            ti.setRelationalComponents(rc);
+
+            InformationLogger logger = new InformationLogger();
+            generalInformation.forEach(logger::addGeneralInfo);
+            macroInformation.forEach(logger::addMacroInfo);
+            ti.setInformation(logger);
+
+            for ( CachedTranslation partial : partialTranslations )
+                ti.addTranslations(partial.toTranslationInformation());
+            return ti;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package gov.nist.drmf.interpreter.core.api;
+
+import gov.nist.drmf.interpreter.common.TranslationInformation;
+import gov.nist.drmf.interpreter.common.constants.Keys;
+import gov.nist.drmf.interpreter.common.exceptions.InitTranslatorException;
+import gov.nist.drmf.interpreter.common.interfaces.TranslationFeature;
+import gov.nist.drmf.interpreter.pom.extensions.PrintablePomTaggedExpression;
+import gov.nist.drmf.interpreter.pom.common.meta.AssumeMLPAvailability;
+import gov.nist.drmf.interpreter.pom.generic.GenericFunctionAnnotator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Andre Greiner-Petter
+ */
+@AssumeMLPAvailability
+public class TranslationCacheTests {
+
+    @TempDir
+    Path tmp;
+
+    @Test
+    public void cacheHitTest() throws InitTranslatorException {
+        TranslationCache cache = new TranslationCache(10);
+        DLMFTranslator translator = new DLMFTranslator(Keys.KEY_MAPLE, cache);
+
+        TranslationInformation first = translator.translateToObject("\\cpi^k");
+        assertEquals(1, cache.getMisses());
+        assertEquals(0, cache.getHits());
+
+        // same expression after pre-processing
+        TranslationInformation second = translator.translateToObject("{\\cpi^k}");
+        assertEquals(1, cache.getHits());
+        assertEquals("(Pi)^(k)", second.getTranslatedExpression());
+        assertEquals(first.getTranslatedExpression(), second.getTranslatedExpression());
+    }
+
+    @Test
+    public void defensiveCopyTest() throws InitTranslatorException {
+        TranslationCache cache = new TranslationCache(10);
+        DLMFTranslator translator = new DLMFTranslator(Keys.KEY_MAPLE, cache);
+
+        TranslationInformation first = translator.translateToObject("\\cpi^k");
+        first.setTranslatedExpression("changed");
+        first.getFreeVariables().addFreeVariable("z");
+
+        TranslationInformation second = translator.translateToObject("\\cpi^k");
+        assertEquals(1, cache.getHits());
+        assertNotSame(first, second);
+        assertEquals("(Pi)^(k)", second.getTranslatedExpression());
+        assertFalse(second.getFreeVariables().getFreeVariables().contains("z"));
+
+        second.setTranslatedExpression("changed again");
+        assertEquals("(Pi)^(k)", translator.translateToObject("\\cpi^k").getTranslatedExpression());
+    }
+
+    @Test
+    public void keyTest() throws InitTranslatorException {
+        TranslationCache cache = new TranslationCache(10);
+        DLMFTranslator maple = new DLMFTranslator(Keys.KEY_MAPLE, cache);
+        DLMFTranslator mathematica = new DLMFTranslator(Keys.KEY_MATHEMATICA, cache);
+
+        TranslationInformation mapleTI = maple.translateToObject("\\sin@{x}");
+        TranslationInformation mathTI = mathematica.translateToObject("\\sin@{x}");
+        assertNotEquals(mapleTI.getTranslatedExpression(), mathTI.getTranslatedExpression());
+
+        maple.translateToObject("\\sin@{x}", null, new GenericFunctionAnnotator());
+        assertEquals(3, cache.size());
+        assertEquals(0, cache.getHits());
+
+        // lambdas are not cacheable
+        maple.translateToObject("\\sin@{x}", null, pte -> pte);
+        assertEquals(3, cache.size());
+
+        // differently configured features of the same class are different keys
+        maple.translateToObject("\\sin@{x}", null, new ConfiguredFeature("a"));
+        maple.translateToObject("\\sin@{x}", null, new ConfiguredFeature("b"));
+        assertEquals(5, cache.size());
+        assertEquals(0, cache.getHits());
+        maple.translateToObject("\\sin@{x}", null, new ConfiguredFeature("a"));
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    public void configurationKeyTest() throws InitTranslatorException {
+        TranslationCache cache = new TranslationCache(10);
+        DLMFTranslator plain = new DLMFTranslator(Keys.KEY_MAPLE, cache);
+        DLMFTranslator constants = new DLMFTranslator(Keys.KEY_MAPLE, cache);
+        constants.getConfig().setLettersAsConstantsMode(true);
+
+        String expr = "\\pi + e^x";
+        TranslationInformation plainTI = plain.translateToObject(expr);
+        TranslationInformation constantsTI = constants.translateToObject(expr);
+        assertEquals(0, cache.getHits());
+        assertNotEquals(plainTI.getTranslatedExpression(), constantsTI.getTranslatedExpression());
+
+        // changing the settings of a translator changes its key
+        plain.getConfig().setInlinePackageMode(true);
+        plain.translateToObject(expr);
+        assertEquals(0, cache.getHits());
+        assertEquals(3, cache.size());
+
+        plain.getConfig().setInlinePackageMode(false);
+        assertEquals(plainTI.getTranslatedExpression(), plain.translateToObject(expr).getTranslatedExpression());
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    public void combinedFeaturesTest() throws InitTranslatorException {
+        TranslationCache cache = new TranslationCache(10);
+        DLMFTranslator maple = new DLMFTranslator(Keys.KEY_MAPLE, cache);
+
+        maple.translateToObject("\\sin@{x}", null, TranslationFeature.combine(new GenericFunctionAnnotator(), new ConfiguredFeature("a")));
+        maple.translateToObject("\\sin@{x}", null, TranslationFeature.combine(new GenericFunctionAnnotator(), new ConfiguredFeature("a")));
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getHits());
+
+        // the order and the configuration of the parts are part of the key
+        maple.translateToObject("\\sin@{x}", null, TranslationFeature.combine(new ConfiguredFeature("a"), new GenericFunctionAnnotator()));
+        maple.translateToObject("\\sin@{x}", null, TranslationFeature.combine(new GenericFunctionAnnotator(), new ConfiguredFeature("b")));
+        assertEquals(3, cache.size());
+
+        // a single part without a key makes the combined feature uncacheable
+        maple.translateToObject("\\sin@{x}", null, TranslationFeature.combine(new GenericFunctionAnnotator(), pte -> pte));
+        assertEquals(3, cache.size());
+        assertEquals(1, cache.getHits());
+    }
+
+    private static class ConfiguredFeature implements TranslationFeature<PrintablePomTaggedExpression> {
+        private final String setting;
+
+        private ConfiguredFeature(String setting) {
+            this.setting = setting;
+        }
+
+        @Override
+        public PrintablePomTaggedExpression preProcess(PrintablePomTaggedExpression obj) {
+            return obj;
+        }
+
+        @Override
+        public String getConfigurationKey() {
+            return "configured:" + setting;
+        }
+    }
+
+    @Test
+    public void evictionTest() throws InitTranslatorException {
+        TranslationCache cache = new TranslationCache(2);
+        DLMFTranslator translator = new DLMFTranslator(Keys.KEY_MAPLE, cache);
+        translator.translateToObject("x");
+        translator.translateToObject("y");
+        translator.translateToObject("z");
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    public void requiredPackagesOnHitTest() throws InitTranslatorException {
+        TranslationCache cache = new TranslationCache(10);
+        DLMFTranslator translator = new DLMFTranslator(Keys.KEY_MAPLE, cache);
+        String expr = "\\qGamma{q}@{a}";
+        translator.translateToObject(expr);
+        assertFalse(translator.getRequiredPackages().isEmpty());
+
+        translator.translateToObject("x");
+        translator.translateToObject(expr);
+        assertEquals(1, cache.getHits());
+        assertFalse(translator.getRequiredPackages().isEmpty());
+    }
+
+    @Test
+    public void warmStartTest() throws InitTranslatorException, IOException {
+        TranslationCache cache = new TranslationCache(10);
+        DLMFTranslator translator = new DLMFTranslator(Keys.KEY_MAPLE, cache);
+        TranslationInformation ti = translator.translateToObject("\\sin@{x} = 1", "1.1.1");
+
+        Path file = tmp.resolve("cache.json");
+        cache.store(file);
+
+        TranslationCache warmCache = new TranslationCache(10);
+        warmCache.load(file);
+        assertEquals(1, warmCache.size());
+
+        DLMFTranslator warmTranslator = new DLMFTranslator(Keys.KEY_MAPLE, warmCache);
+        TranslationInformation loaded = warmTranslator.translateToObject("\\sin@{x} = 1", "1.1.1");
+        assertEquals(1, warmCache.getHits());
+        assertEquals(ti.getTranslatedExpression(), loaded.getTranslatedExpression());
+        assertEquals(ti.getFreeVariables().getFreeVariables(), loaded.getFreeVariables().getFreeVariables());
+        assertEquals(ti.getRelationalComponents().getRelations(), loaded.getRelationalComponents().getRelations());
+        assertEquals(ti.getPartialTranslations().size(), loaded.getPartialTranslations().size());
+
+        // the label is part of the key
+        warmTranslator.translateToObject("\\sin@{x} = 1");
+        assertEquals(1, warmCache.getHits());
+    }
+}
@@ -1,6 +1,7 @@
 package gov.nist.drmf.interpreter.evaluation.common;
 
 import java.util.Arrays;
+import java.util.StringJoiner;
 
 /**
  * The basic idea of the status is as follows
@@ -31,27 +32,55 @@ public enum Status {
 
     private int counter;
 
+    /**
+     * The counters a thread added since it started recording, see {@link #startRecording()}
+     */
+    private static final ThreadLocal<int[]> RECORDED = new ThreadLocal<>();
+
     Status( int counter ){
         this.counter = counter;
     }
 
-    public static void reset(){
+    public static synchronized void reset(){
         for ( Status s : Status.values() )
             s.counter = 0;
     }
 
     public void add(){
-        switch (this) {
-            case SKIPPED:
-            case DEFINITIONS:
-            case STARTED_TEST_CASES:
-                TOTAL.counter++;
+        synchronized (Status.class) {
+            switch (this) {
+                case SKIPPED:
+                case DEFINITIONS:
+                case STARTED_TEST_CASES:
+                    TOTAL.counter++;
+            }
+            this.counter++;
         }
-        this.counter++;
+        int[] recorded = RECORDED.get();
+        if ( recorded != null ) recorded[ordinal()]++;
+    }
+
+    /**
+     * Starts recording the counters the current thread adds, e.g., while it performs a single test case.
+     */
+    public static void startRecording() {
+        RECORDED.set(new int[values().length]);
+    }
+
+    /**
+     * Stops recording the counters of the current thread.
+     * @return the number of times the current thread added each status (by ordinal) since it started recording
+     */
+    public static int[] stopRecording() {
+        int[] recorded = RECORDED.get();
+        RECORDED.remove();
+        return recorded == null ? new int[values().length] : recorded;
     }
 
     public void set(int counter){
-        this.counter = counter;
+        synchronized (Status.class) {
+            this.counter = counter;
+        }
     }
 
     @Override
@@ -63,6 +92,40 @@ public enum Status {
         return Arrays.toString(Status.values());
     }
 
+    /**
+     * @return the current counters (by ordinal)
+     */
+    public static synchronized int[] getCounters() {
+        Status[] values = values();
+        int[] counters = new int[values.length];
+        for ( int i = 0; i < values.length; i++ ) counters[i] = values[i].counter;
+        return counters;
+    }
+
+    /**
+     * Adds the given recorded counters (see {@link #stopRecording()}) to the given counters
+     * the same way {@link #add()} does, i.e., including the total.
+     * @param counters the counters (by ordinal)
+     * @param recorded the number of times each status was added (by ordinal)
+     */
+    public static void add(int[] counters, int[] recorded) {
+        for ( int i = 0; i < counters.length; i++ ) counters[i] += recorded[i];
+        counters[TOTAL.ordinal()] += recorded[SKIPPED.ordinal()]
+                + recorded[DEFINITIONS.ordinal()]
+                + recorded[STARTED_TEST_CASES.ordinal()];
+    }
+
+    /**
+     * @param counters the counters (by ordinal)
+     * @return the same string as {@link #buildString()} but for the given counters
+     */
+    public static String buildString(int[] counters) {
+        StringJoiner sj = new StringJoiner(", ", "[", "]");
+        Status[] values = values();
+        for ( int i = 0; i < values.length; i++ ) sj.add(values[i].name() + ": " + counters[i]);
+        return sj.toString();
+    }
+
     public static String buildNumericalString() {
         String out = "[TOTAL: " + TOTAL.counter + ", " +
                 "SUCCESS: " +
@@ -0,0 +1,539 @@
+package gov.nist.drmf.interpreter.evaluation.common;
+
+import gov.nist.drmf.interpreter.common.cas.Constraints;
+import gov.nist.drmf.interpreter.common.eval.Label;
+import gov.nist.drmf.interpreter.common.eval.NumericalConfig;
+import gov.nist.drmf.interpreter.common.latex.Relations;
+import gov.nist.drmf.interpreter.pom.common.CaseMetaData;
+import gov.nist.drmf.interpreter.pom.common.SymbolTag;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.zip.CRC32;
+
+/**
+ * <p>
+ * The analyzed lines of a test case dataset. Every line of the dataset is analyzed once by
+ * {@link CaseAnalyzer#analyzeLine(String, int, SymbolDefinedLibrary)}, i.e., the corpus contains the
+ * test cases, the symbol definitions and the label of every line. The lines can be sliced by line numbers
+ * without analyzing the dataset again.
+ * </p>
+ *
+ * <p>
+ * Analyzing a dataset (especially its constraints) is comparably slow. Hence, a corpus can be compiled once
+ * into a compact binary file next to the dataset (see {@link #main(String[])}). The file remembers the length
+ * and CRC32 checksum of the dataset it was compiled from. If the dataset changed, the file is outdated and
+ * {@link #load(Path)} analyzes the dataset again.
+ * </p>
+ *
+ * @author Andre Greiner-Petter
+ */
+public final class TestCaseCorpus {
+    private static final Logger LOG = LogManager.getLogger(TestCaseCorpus.class.getName());
+
+    private static final int MAGIC = 0x54434350; // TCCP
+    private static final int VERSION = 1;
+
+    private static final String SUFFIX = ".corpus";
+
+    private static final byte SYMBOL_DEFINITION = 1;
+    private static final byte NO_SEMANTIC_MATH = 2;
+
+    private static final Relations[] RELATIONS = Relations.values();
+
+    /**
+     * The analyzed lines, the index is the line number - 1
+     */
+    private final List<Line> lines;
+
+    private TestCaseCorpus(List<Line> lines) {
+        this.lines = lines;
+    }
+
+    /**
+     * A single analyzed line of the dataset.
+     */
+    public static final class Line {
+        private final int number;
+        private final String url;
+        private final byte flags;
+        private final String error;
+
+        /**
+         * All test cases and definitions of a line share the same meta data
+         */
+        private final CaseMetaData metaData;
+        private final List<CaseEntry> cases;
+        private final List<SymbolTag> definitions;
+
+        private Line(
+                int number, String url, byte flags, String error,
+                CaseMetaData metaData, List<CaseEntry> cases, List<SymbolTag> definitions
+        ) {
+            this.number = number;
+            this.url = url;
+            this.flags = flags;
+            this.error = error;
+            this.metaData = metaData;
+            this.cases = cases;
+            this.definitions = definitions;
+        }
+
+        public int getNumber() {
+            return number;
+        }
+
+        /**
+         * @return the first url of the line or null
+         */
+        public String getUrl() {
+            return url;
+        }
+
+        /**
+         * @return true if the line defines a symbol
+         */
+        public boolean isSymbolDefinition() {
+            return (flags & SYMBOL_DEFINITION) != 0;
+        }
+
+        /**
+         * @return true if the line is commented with a warning and does not contain semantic math
+         */
+        public boolean hasNoSemanticMath() {
+            return (flags & NO_SEMANTIC_MATH) != 0;
+        }
+
+        /**
+         * @return the reason if the line cannot be analyzed, otherwise null
+         */
+        public String getError() {
+            return error;
+        }
+
+        /**
+         * Creates the test cases of this line. The test cases share the meta data of this line.
+         * @return the test cases of this line, null if the line is not a test case (e.g., a non-semantic definition)
+         */
+        public LinkedList<Case> getCases() {
+            if ( cases == null ) return null;
+            LinkedList<Case> list = new LinkedList<>();
+            for ( CaseEntry entry : cases ) {
+                Case c = new Case(entry.lhs, entry.rhs, entry.relation, metaData);
+                c.setOriginalLaTeXInput(entry.original);
+                list.add(c);
+            }
+            return list;
+        }
+
+        /**
+         * @return the symbols this line defines
+         */
+        public List<SymbolTag> getDefinitions() {
+            return definitions;
+        }
+    }
+
+    /**
+     * The test cases are created on demand, since every {@link Case} holds its own translator
+     */
+    private static final class CaseEntry {
+        private final String original, lhs, rhs;
+        private final Relations relation;
+
+        private CaseEntry(String original, String lhs, String rhs, Relations relation) {
+            this.original = original;
+            this.lhs = lhs;
+            this.rhs = rhs;
+            this.relation = relation;
+        }
+    }
+
+    /**
+     * @return the number of lines of the dataset
+     */
+    public int getNumberOfLines() {
+        return lines.size();
+    }
+
+    /**
+     * @param lineNumber the line number (starting at 1)
+     * @return the analyzed line
+     */
+    public Line getLine(int lineNumber) {
+        return lines.get(lineNumber-1);
+    }
+
+    /**
+     * @param start the first line number (inclusive, starting at 1)
+     * @param limit the last line number (exclusive)
+     * @return the analyzed lines in the given interval
+     */
+    public List<Line> getLines(int start, int limit) {
+        int from = Math.min(Math.max(start, 1) - 1, lines.size());
+        int to = Math.max(from, Math.min(limit - 1, lines.size()));
+        return lines.subList(from, to);
+    }
+
+    /**
+     * Adds the symbol definitions of all lines to the given library. Later definitions
+     * overwrite earlier definitions of the same symbol.
+     * @param library the library
+     */
+    public void fillSymbolDefinitions(SymbolDefinedLibrary library) {
+        for ( Line line : lines ) {
+            for ( SymbolTag def : line.definitions ) library.library.put(def.getId(), def);
+        }
+    }
+
+    /**
+     * Analyzes every line of the given dataset once.
+     * @param dataset the dataset
+     * @return the analyzed dataset
+     * @throws IOException if the dataset cannot be read
+     */
+    public static TestCaseCorpus compile(Path dataset) throws IOException {
+        List<Line> lines = new ArrayList<>();
+        try ( BufferedReader br = Files.newBufferedReader(dataset) ) {
+            String l;
+            while ( (l = br.readLine()) != null ) {
+                lines.add(analyze(l, lines.size()+1));
+            }
+        }
+        return new TestCaseCorpus(lines);
+    }
+
+    private static Line analyze(String l, int lineNumber) {
+        Matcher m = CaseAnalyzer.URL_PATTERN.matcher(l);
+        String url = m.find() ? m.group(1) : null;
+
+        byte flags = 0;
+        if ( l.contains("symbolDefined") ) flags |= SYMBOL_DEFINITION;
+        else if ( l.contains("comments{Warning") && !l.matches(".*(?<!\\\\[A-Za-z]{0,30})[ie](.|$).*") )
+            flags |= NO_SEMANTIC_MATH;
+
+        // the definitions of a line are collected even if the test cases cannot be extracted
+        SymbolDefinedLibrary lineLibrary = new SymbolDefinedLibrary();
+        LinkedList<Case> cases = null;
+        String error = null;
+        try {
+            cases = CaseAnalyzer.analyzeLine(l, lineNumber, lineLibrary);
+        } catch (Error | Exception e) {
+            error = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+        }
+        List<SymbolTag> definitions = new ArrayList<>(lineLibrary.library.values());
+        CaseMetaData metaData = null;
+        List<CaseEntry> entries = null;
+        if ( cases != null ) {
+            entries = new ArrayList<>(cases.size());
+            for ( Case c : cases ) {
+                metaData = c.getMetaData();
+                entries.add(new CaseEntry(c.getOriginalFormula(), c.getLHS(), c.getRHS(), c.getRelation()));
+            }
+        }
+        if ( metaData == null && !definitions.isEmpty() ) metaData = definitions.get(0).getMetaData();
+        return new Line(lineNumber, url, flags, error, metaData, entries, definitions);
+    }
+
+    /**
+     * @param dataset the dataset
+     * @return the path of the compiled corpus of the given dataset (in the same directory)
+     */
+    public static Path getCorpusPath(Path dataset) {
+        return dataset.resolveSibling(dataset.getFileName().toString() + SUFFIX);
+    }
+
+    /**
+     * Loads the compiled corpus of the given dataset. If there is no corpus or the corpus is outdated,
+     * the dataset is analyzed (see {@link #compile(Path)}) and the new corpus is stored for the next run.
+     * If the new corpus cannot be stored, it is used anyway.
+     * @param dataset the dataset
+     * @return the analyzed dataset
+     * @throws IOException if the dataset cannot be read
+     */
+    public static TestCaseCorpus load(Path dataset) throws IOException {
+        Path corpus = getCorpusPath(dataset);
+        if ( Files.exists(corpus) ) {
+            try {
+                TestCaseCorpus loaded = read(corpus, dataset);
+                if ( loaded != null ) {
+                    LOG.info("Loaded compiled test cases from " + corpus);
+                    return loaded;
+                }
+            } catch (IOException ioe) {
+                LOG.warn("Unable to load compiled test cases. Analyze the dataset instead.", ioe);
+            }
+        }
+
+        TestCaseCorpus compiled = compile(dataset);
+        try {
+            compiled.store(dataset);
+        } catch (IOException ioe) {
+            LOG.warn("Unable to store compiled test cases. The dataset will be analyzed again next time.", ioe);
+        }
+        return compiled;
+    }
+
+    private static TestCaseCorpus read(Path corpus, Path dataset) throws IOException {
+        try ( FileChannel channel = FileChannel.open(corpus, StandardOpenOption.READ) ) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if ( buffer.getInt() != MAGIC || buffer.getInt() != VERSION ) {
+                LOG.warn("Ignore compiled test cases with unknown format: " + corpus);
+                return null;
+            }
+
+            long length = buffer.getLong();
+            long checksum = buffer.getLong();
+            if ( length != Files.size(dataset) || checksum != checksum(dataset) ) {
+                LOG.info("Ignore outdated compiled test cases: " + corpus);
+                return null;
+            }
+
+            return read(buffer);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Corrupted compiled test cases: " + corpus, e);
+        }
+    }
+
+    /**
+     * Writes this corpus next to the given dataset. An existing corpus is replaced only if the new corpus
+     * was written completely.
+     * @param dataset the dataset this corpus was compiled from
+     * @return the path of the compiled corpus
+     * @throws IOException if the corpus cannot be written
+     */
+    public Path store(Path dataset) throws IOException {
+        Path corpus = getCorpusPath(dataset);
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try ( DataOutputStream out = new DataOutputStream(body) ) {
+            out.writeInt(lines.size());
+            for ( Line line : lines ) write(out, strings, line);
+        }
+
+        Path tmp = corpus.resolveSibling(corpus.getFileName().toString() + ".tmp");
+        try {
+            try ( DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp))) ) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(Files.size(dataset));
+                out.writeLong(checksum(dataset));
+                out.writeInt(strings.size());
+                for ( String str : strings.keySet() ) {
+                    byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(bytes.length);
+                    out.write(bytes);
+                }
+                body.writeTo(out);
+            }
+            Files.move(tmp, corpus, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            // nothing is left if the corpus could not be written or moved
+            Files.deleteIfExists(tmp);
+        }
+        LOG.info("Stored compiled test cases of " + lines.size() + " lines to " + corpus);
+        return corpus;
+    }
+
+    private static void write(DataOutputStream out, Map<String, Integer> strings, Line line) throws IOException {
+        out.writeInt(index(strings, line.url));
+        out.writeByte(line.flags);
+        out.writeInt(index(strings, line.error));
+
+        out.writeBoolean(line.metaData != null);
+        if ( line.metaData != null ) write(out, strings, line.metaData);
+
+        out.writeInt(line.definitions.size());
+        for ( SymbolTag def : line.definitions ) {
+            out.writeInt(index(strings, def.getId()));
+            out.writeInt(index(strings, def.getSymbol()));
+            out.writeInt(index(strings, def.getDefinition()));
+        }
+
+        out.writeInt(line.cases == null ? -1 : line.cases.size());
+        if ( line.cases == null ) return;
+        for ( CaseEntry c : line.cases ) {
+            out.writeInt(index(strings, c.original));
+            out.writeInt(index(strings, c.lhs));
+            out.writeInt(index(strings, c.rhs));
+            out.writeByte(c.relation == null ? -1 : c.relation.ordinal());
+        }
+    }
+
+    private static void write(DataOutputStream out, Map<String, Integer> strings, CaseMetaData metaData) throws IOException {
+        out.writeInt(index(strings, metaData.getLabel() == null ? null : metaData.getLabel().getTex()));
+        out.writeBoolean(metaData.isDefinition());
+
+        Constraints con = metaData.getConstraints();
+        out.writeBoolean(con != null);
+        if ( con != null ) {
+            write(out, strings, con.getOriginalConstraints());
+            write(out, strings, con.getTexConstraintList());
+            write(out, strings, con.getSpecialConstraintVariableList());
+            write(out, strings, con.getSpecialConstraintValueList());
+        }
+
+        List<SymbolTag> used = metaData.getSymbolsUsed();
+        out.writeInt(used == null ? -1 : used.size());
+        if ( used == null ) return;
+        for ( SymbolTag tag : used ) {
+            out.writeInt(index(strings, tag.getId()));
+            out.writeInt(index(strings, tag.getSymbol()));
+        }
+    }
+
+    private static void write(DataOutputStream out, Map<String, Integer> strings, List<String> list) throws IOException {
+        out.writeInt(list == null ? -1 : list.size());
+        if ( list == null ) return;
+        for ( String str : list ) out.writeInt(index(strings, str));
+    }
+
+    private static TestCaseCorpus read(ByteBuffer buffer) {
+        String[] strings = new String[size(buffer, false)];
+        for ( int i = 0; i < strings.length; i++ ) {
+            byte[] bytes = new byte[size(buffer, false)];
+            buffer.get(bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        int numberOfLines = size(buffer, false);
+        List<Line> lines = new ArrayList<>(numberOfLines);
+        for ( int i = 1; i <= numberOfLines; i++ ) lines.add(readLine(buffer, strings, i));
+        return new TestCaseCorpus(lines);
+    }
+
+    private static Line readLine(ByteBuffer buffer, String[] strings, int lineNumber) {
+        String url = string(strings, buffer.getInt());
+        byte flags = buffer.get();
+        String error = string(strings, buffer.getInt());
+
+        CaseMetaData metaData = buffer.get() != 0 ? readMetaData(buffer, strings, lineNumber) : null;
+
+        int numberOfDefinitions = size(buffer, false);
+        List<SymbolTag> definitions = new ArrayList<>(numberOfDefinitions);
+        for ( int i = 0; i < numberOfDefinitions; i++ ) {
+            definitions.add(new SymbolTag(
+                    requiredString(strings, buffer.getInt()),
+                    requiredString(strings, buffer.getInt()),
+                    string(strings, buffer.getInt()),
+                    metaData
+            ));
+        }
+
+        int numberOfCases = size(buffer, true);
+        List<CaseEntry> cases = numberOfCases < 0 ? null : new ArrayList<>(numberOfCases);
+        for ( int i = 0; i < numberOfCases; i++ ) {
+            String original = string(strings, buffer.getInt());
+            String lhs = string(strings, buffer.getInt());
+            String rhs = string(strings, buffer.getInt());
+            byte relation = buffer.get();
+            cases.add(new CaseEntry(original, lhs, rhs, relation < 0 ? null : RELATIONS[relation]));
+        }
+        return new Line(lineNumber, url, flags, error, metaData, cases, definitions);
+    }
+
+    private static CaseMetaData readMetaData(ByteBuffer buffer, String[] strings, int lineNumber) {
+        String label = string(strings, buffer.getInt());
+        boolean isDefinition = buffer.get() != 0;
+
+        Constraints con = null;
+        if ( buffer.get() != 0 ) {
+            LinkedList<String> original = readList(buffer, strings);
+            con = new Constraints(
+                    original,
+                    readArray(buffer, strings),
+                    readArray(buffer, strings),
+                    readArray(buffer, strings)
+            );
+        }
+
+        int numberOfUsed = size(buffer, true);
+        LinkedList<SymbolTag> used = numberOfUsed < 0 ? null : new LinkedList<>();
+        for ( int i = 0; i < numberOfUsed; i++ ) {
+            used.add(new SymbolTag(string(strings, buffer.getInt()), string(strings, buffer.getInt())));
+        }
+
+        CaseMetaData metaData = new CaseMetaData(lineNumber, label == null ? null : new Label(label), con, used);
+        if ( isDefinition ) metaData.tagAsDefinition();
+        return metaData;
+    }
+
+    private static LinkedList<String> readList(ByteBuffer buffer, String[] strings) {
+        int size = size(buffer, true);
+        if ( size < 0 ) return null;
+        LinkedList<String> list = new LinkedList<>();
+        for ( int i = 0; i < size; i++ ) list.add(string(strings, buffer.getInt()));
+        return list;
+    }
+
+    /**
+     * Unlike the original constraints, these lists are never null. Hence, a missing list means the corpus is corrupted.
+     */
+    private static String[] readArray(ByteBuffer buffer, String[] strings) {
+        LinkedList<String> list = readList(buffer, strings);
+        if ( list == null ) throw new IllegalArgumentException("Missing list of constraints");
+        return list.toArray(String[]::new);
+    }
+
+    /**
+     * Every element takes at least one byte. Hence, a larger size than the remaining bytes means the corpus
+     * is corrupted (rather than trying to allocate a huge array).
+     * @param buffer the buffer
+     * @param optional true if the size may be -1 for a missing list
+     * @return the size or -1 for a missing list
+     */
+    private static int size(ByteBuffer buffer, boolean optional) {
+        int size = buffer.getInt();
+        if ( size < (optional ? -1 : 0) || size > buffer.remaining() )
+            throw new IllegalArgumentException("Invalid size " + size);
+        return size;
+    }
+
+    private static int index(Map<String, Integer> strings, String str) {
+        if ( str == null ) return -1;
+        return strings.computeIfAbsent(str, k -> strings.size());
+    }
+
+    private static String string(String[] strings, int index) {
+        return index < 0 ? null : strings[index];
+    }
+
+    private static String requiredString(String[] strings, int index) {
+        if ( index < 0 ) throw new IllegalArgumentException("Missing string");
+        return strings[index];
+    }
+
+    private static long checksum(Path file) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(Files.readAllBytes(file));
+        return crc.getValue();
+    }
+
+    /**
+     * Compiles the test cases of the given datasets. Should be called whenever a dataset changed.
+     * @param args paths to datasets, the dataset of the numeric evaluation config by default
+     * @throws IOException if a dataset cannot be read or the corpus cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        List<Path> datasets = new LinkedList<>();
+        if ( args == null || args.length == 0 ) datasets.add(new NumericalConfig().getDataset());
+        else for ( String arg : args ) datasets.add(Paths.get(arg));
+
+        for ( Path dataset : datasets ) {
+            compile(dataset).store(dataset);
+        }
+    }
+}
@@ -6,6 +6,7 @@ import gov.nist.drmf.interpreter.common.exceptions.ComputerAlgebraSystemEngineEx
 import gov.nist.drmf.interpreter.common.exceptions.TranslationException;
 import gov.nist.drmf.interpreter.common.cas.ICASEngine;
 import gov.nist.drmf.interpreter.common.interfaces.IPackageWrapper;
+import gov.nist.drmf.interpreter.common.process.UnrecoverableProcessException;
 import gov.nist.drmf.interpreter.evaluation.common.*;
 import gov.nist.drmf.interpreter.common.interfaces.IConstraintTranslator;
 import gov.nist.drmf.interpreter.pom.common.CaseMetaData;
@@ -13,14 +14,12 @@ import gov.nist.drmf.interpreter.pom.extensions.PrintablePomTaggedExpression;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Stream;
 
 /**
  * @author Andre Greiner-Petter
@@ -46,6 +45,13 @@ public abstract class AbstractEvaluator {
 
     private boolean rememberPackages = false;
 
+    private ResultJournal journal;
+
+    /**
+     * The missing macros a thread added since it started recording, see {@link #startRecording()}
+     */
+    private static final ThreadLocal<List<String>> RECORDED_MACROS = new ThreadLocal<>();
+
     public static final Pattern filterCases = Pattern.compile(
             "\\\\([Bb]igO|littleo|[fdc]Diff|asymp|sim)(?:[^a-zA-Z]|$)|" +
                     "(?<!\\d|\\d\\s{0,5}\\\\[.,; ])\\s*\\\\([lc]?dots)(?:[^a-zA-Z]|$)|" +
@@ -77,6 +83,26 @@ public abstract class AbstractEvaluator {
         return symbolDefinitionLibrary;
     }
 
+    /**
+     * Adopts the test setup (e.g., the symbol definitions) of the given evaluator that loaded the test cases.
+     * This allows a worker of an {@link EvaluatorWorkerPool} to perform the test cases of the primary evaluator.
+     * Missing macros are collected by the primary evaluator.
+     * @param primary the evaluator that loaded the test cases
+     */
+    protected void adoptTestSetup(AbstractEvaluator primary) {
+        this.symbolDefinitionLibrary = primary.symbolDefinitionLibrary;
+        this.missingMacrosLib = primary.missingMacrosLib;
+        this.journal = primary.journal;
+    }
+
+    /**
+     * Stops the CAS session of this evaluator (e.g., the Maple subprocess). The evaluator cannot perform
+     * any tests afterwards.
+     */
+    protected void stopEngine() {
+        if ( engine != null ) engine.stop();
+    }
+
     public void startRememberPackages() {
         reqPackageMemory.clear();
         this.rememberPackages = true;
@@ -109,11 +135,15 @@ public abstract class AbstractEvaluator {
     }
 
     public void addMissingMacro(String macro) {
-        if ( missingMacrosLib.containsKey(macro) ) {
-            missingMacrosLib.put(macro, missingMacrosLib.get(macro)+1);
-        } else {
-            missingMacrosLib.put(macro, 1);
+        synchronized (missingMacrosLib) {
+            if ( missingMacrosLib.containsKey(macro) ) {
+                missingMacrosLib.put(macro, missingMacrosLib.get(macro)+1);
+            } else {
+                missingMacrosLib.put(macro, 1);
+            }
         }
+        List<String> recorded = RECORDED_MACROS.get();
+        if ( recorded != null ) recorded.add(macro);
     }
 
     public List<String> getOrderedMissingMacros() {
@@ -138,16 +168,143 @@ public abstract class AbstractEvaluator {
 
     public abstract void performSingleTest(Case testCase);
 
+    /**
+     * Called before the test cases of a single line are performed one after another via
+     * {@link #performSingleTest(Case)}. An evaluator may use it to prepare (e.g., compute in a single batch)
+     * the tests of the entire line. The default does nothing. Implementations prepare every line they get,
+     * the caller decides which lines are prepared (see {@link EvaluatorWorkerPool#prepareLine(AbstractEvaluator, List, Set)}).
+     * If the preparation fails because the CAS crashed, the test cases are performed without preparation.
+     * @param line the remaining test cases of a single line in the order they will be performed
+     * @throws UnrecoverableProcessException if the CAS crashed and could not recover
+     */
+    protected void prepareLine(List<Case> line) {}
+
     public void performAllTests(LinkedList<Case> testCases) {
 //        HashSet<Integer> m = new HashSet<>();
 //        for ( Integer i : NumericalEvaluator.POT_DIFF ) m.add(i);
 
-        for ( Case test : testCases ) {
+        LinkedList<Case> remaining = openJournal(testCases);
+        Set<Integer> unpreparedLines = new HashSet<>();
+        while ( !remaining.isEmpty() ) {
+            int currentLine = remaining.getFirst().getLine();
+            List<Case> line = new LinkedList<>();
+            while ( !remaining.isEmpty() && remaining.getFirst().getLine() == currentLine ) {
+                line.add(remaining.removeFirst());
+            }
+
+            try {
+                EvaluatorWorkerPool.prepareLine(this, line, unpreparedLines);
+            } catch ( UnrecoverableProcessException upe ) {
+                LOG.error("The CAS crashed while preparing line " + currentLine + ". Perform the cases one by one.", upe);
+            }
+            for ( Case test : line ) {
 //            if ( m.contains(test.getLine()) ) {
 //                test.replaceSymbolsUsed(symbolDefinitionLibrary);
-                performSingleTest(test);
+                performJournaledTest(this, test);
 //            }
+            }
+            journalLine(currentLine);
+        }
+    }
+
+    /**
+     * Opens the result journal next to the output file (if there is any output file) and replays the results
+     * of the lines a previous run of the same test expression and subset already finished,
+     * see {@link ResultJournal}.
+     * @param testCases all test cases of this run
+     * @return the test cases of the lines that are not finished yet
+     */
+    protected LinkedList<Case> openJournal(List<Case> testCases) {
+        LinkedList<Case> remaining = new LinkedList<>(testCases);
+        if ( journal != null ) journal.close();
+        journal = null;
+
+        EvaluationConfig config = getConfig();
+        if ( config == null || config.getOutputPath() == null ) return remaining;
+
+        String runKey = config.getOutputPath().toAbsolutePath() + " " +
+                Arrays.toString(getResultInterval()) + " " + config.getTestExpression();
+        Path journalPath = ResultJournal.getJournalPath(config.getOutputPath());
+        try {
+            journal = ResultJournal.open(journalPath, runKey, config.getTestExpression(), config.getJournalSyncInterval());
+            journal.recordSetup(Status.getCounters());
+        } catch (IOException ioe) {
+            LOG.error("Unable to open the result journal " + journalPath + ". Continue without a journal.", ioe);
+            return remaining;
         }
+
+        Set<Integer> finished = journal.getFinishedLines();
+        if ( !finished.isEmpty() ) {
+            journal.replay(getLineResults(), this::addMissingMacro);
+            remaining.removeIf( c -> finished.contains(c.getLine()) );
+        }
+        return remaining;
+    }
+
+    /**
+     * Performs the given test case on the given evaluator and appends the results the case added to the
+     * line results of this evaluator to the journal.
+     * @param worker the evaluator that performs the test (this evaluator or a worker of a pool)
+     * @param test the test case
+     */
+    protected void performJournaledTest(AbstractEvaluator worker, Case test) {
+        if ( journal == null ) {
+            worker.performSingleTest(test);
+            return;
+        }
+
+        int before = numberOfLineResults(test.getLine());
+        startRecording();
+        try {
+            worker.performSingleTest(test);
+        } finally {
+            journalCase(test, before);
+        }
+    }
+
+    /**
+     * Starts recording the status counters and missing macros the current thread adds while it performs
+     * a single test case. The recording is stopped by {@link #journalCase(Case, int)}.
+     */
+    protected static void startRecording() {
+        Status.startRecording();
+        RECORDED_MACROS.set(new LinkedList<>());
+    }
+
+    /**
+     * Stops recording (see {@link #startRecording()}) and appends the results the given test case added since
+     * the line had the given number of results together with the recorded status counters and missing macros.
+     * @param test the test case
+     * @param before the number of results of the line before the test case was performed
+     */
+    protected void journalCase(Case test, int before) {
+        int[] status = Status.stopRecording();
+        List<String> macros = RECORDED_MACROS.get();
+        RECORDED_MACROS.remove();
+        if ( journal == null ) return;
+        LinkedList<String> results = getLineResults()[test.getLine()];
+        List<String> added = results == null || results.size() <= before ?
+                Collections.emptyList() : new ArrayList<>(results.subList(before, results.size()));
+        journal.recordCase(test.getLine(), added, status, macros == null ? Collections.emptyList() : macros);
+    }
+
+    /**
+     * Marks the given line as finished in the journal.
+     * @param line the line number
+     */
+    protected void journalLine(int line) {
+        if ( journal == null ) return;
+        HashMap<Integer, String> labels = getConfig().showDLMFLinks() ? getLabelLibrary() : null;
+        journal.recordLine(line, labels == null ? null : labels.get(line));
+    }
+
+    /**
+     * @param line the line number
+     * @return the number of results of the given line
+     */
+    protected int numberOfLineResults(int line) {
+        LinkedList<String> results = getLineResults()[line];
+        return results == null ? 0 : results.size();
     }
 
     public abstract LinkedList<Case> loadTestCases();
@@ -188,119 +345,122 @@ public abstract class AbstractEvaluator {
                 subIds.add(s.subID);
             }
         } );
-        LinkedList<Case> testCases = new LinkedList<>();
-        int[] currLine = new int[] {0};
-
-        try (BufferedReader br = Files.newBufferedReader(dataset)) {
-            Stream<String> lines = br.lines();
-
-            int start = subset[0];
-            int limit = subset[1];
-
-            lines.sequential()
-                    .peek(l -> {
-                        currLine[0]++;
-                        Matcher m = CaseAnalyzer.URL_PATTERN.matcher(l);
-                        if ( m.find() )
-                            labelLib.put(currLine[0], m.group(1));
-                    }) // line counter
-                    .peek(l -> {
-                        try {
-                            CaseAnalyzer.analyzeLine(l, currLine[0], symbolDefinitionLibrary);
-                        } catch (Error | Exception e) {
-                            // just sneak into each line, to load all symbol definitions...
-                        }
-                    })
-                    .filter(l -> start <= currLine[0] && currLine[0] < limit) // filter by limits
-                    .filter(l -> {
-                        boolean skip = skipLineIDs.containsKey(currLine[0]);
-                        if ( reverseSkipLines ) skip = !skip;
-                        if ( skip ){
-                            skippedLinesInfo.put(currLine[0], "Skipped - user defined");
-                            Status.SKIPPED.add();
-                            return false;
-                        } else return true;
-                    }) // skip entries if wanted
-                    .flatMap(l -> {
-                        if ( l.contains("comments{Warning") && !l.contains("symbolDefined") && !l.matches(".*(?<!\\\\[A-Za-z]{0,30})[ie](.|$).*") ) {
-                            skippedLinesInfo.put(currLine[0], "Skipped - no semantic math");
-                            Status.SKIPPED.add();
-                            return null;
-                        }
-
-                        LinkedList<Case> cc = CaseAnalyzer.analyzeLine(l, currLine[0], symbolDefinitionLibrary);
-                        if ( cc == null || cc.isEmpty() ) {
-                            if ( l.contains("symbolDefined") ) {
-                                LOG.info(currLine[0] + ": Ignored, because it's a definition.");
-                                skippedLinesInfo.put(currLine[0], "Definition - Line is a non-semantic definition.");
-                                Status.DEFINITIONS.add();
-                                return null;
-                            } else {
-                                LOG.warn(currLine[0] + ": unable to extract test case.");
-                                skippedLinesInfo.put(currLine[0], "Skipped - Unable to analyze test case: Null");
-                                Status.SKIPPED.add();
-                                return null;
-                            }
-                        }
-
-                        Set<Integer> subIds = skipLineIDs.get(currLine[0]);
-                        LinkedList<Case> testCC = new LinkedList<>();
-                        int counter = 0;
-                        String reason = "";
-                        for ( Case ic : cc ) {
-                            String test = ic.getLHS() + " " + ic.getRelation().getSymbol() + " " + ic.getRHS();
-                            Matcher m = filterCases.matcher(test);
-                            if ( !m.find() ) {
-                                String conStr = ic.getRawConstraint();
-                                if ( conStr != null && !conStr.isEmpty() ) {
-                                    Matcher cm = filterCases.matcher(conStr);
-                                    if ( cm.find() ) ic.removeConstraint();
-                                }
-
-                                boolean addBoolean = subIds == null || !subIds.contains(counter);
-                                addBoolean = reverseSkipLines != addBoolean;
-
-                                if ( addBoolean ) {
-                                    testCC.add(ic);
-                                    counter++;
-                                } else {
-                                    testCC.add(new DummyCase(ic.getMetaData()));
-                                    counter++;
-                                }
-                            } else {
-                                boolean shouldBreak = false;
-                                if ( !reason.isEmpty() ) reason += ", ";
-
-                                if ( m.group(1) != null ) reason += m.group(1);
-                                else if ( m.group(2) != null ) reason += m.group(2);
-                                else if ( m.group(3) != null ) {
-                                    reason += m.group(3);
-                                    // everything after cases is probably corrupted...
-                                    shouldBreak = true;
-                                }
-                                else reason += "Generic function " + m.group(4);
-                                LOG.warn("Ignore " + currLine[0] + " because " + reason + "; Test case: " + test);
-                                if ( shouldBreak ) break;
-                            }
-                        }
-
-                        if (!testCC.isEmpty()) {
-                            Case c = testCC.get(0);
-                            labelLib.put(c.getLine(), c.getDlmf());
-                            return testCC.stream();
-                        } else {
-                            skippedLinesInfo.put(currLine[0], "Skipped - Invalid test case: " + reason);
-                            Status.SKIPPED.add();
-                            return null;
-                        }
-                    })
-                    .filter( Objects::nonNull )
-                    .forEach(testCases::add);
-            return testCases;
+        TestCaseCorpus corpus;
+        try {
+            corpus = TestCaseCorpus.load(dataset);
         } catch (IOException ioe) {
             LOG.fatal("Cannot load dataset!", ioe);
             return null;
         }
+
+        // the labels and symbol definitions of all lines, not only of the subset
+        corpus.fillSymbolDefinitions(symbolDefinitionLibrary);
+        for ( int i = 1; i <= corpus.getNumberOfLines(); i++ ) {
+            String url = corpus.getLine(i).getUrl();
+            if ( url != null ) labelLib.put(i, url);
+        }
+
+        LinkedList<Case> testCases = new LinkedList<>();
+        for ( TestCaseCorpus.Line line : corpus.getLines(subset[0], subset[1]) ) {
+            int currLine = line.getNumber();
+            boolean skip = skipLineIDs.containsKey(currLine);
+            if ( reverseSkipLines ) skip = !skip;
+            if ( skip ){
+                skippedLinesInfo.put(currLine, "Skipped - user defined");
+                Status.SKIPPED.add();
+                continue;
+            } // skip entries if wanted
+
+            LinkedList<Case> cases = loadTestCases(line, skipLineIDs.get(currLine), labelLib, skippedLinesInfo, reverseSkipLines);
+            if ( cases != null ) testCases.addAll(cases);
+        }
+        return testCases;
+    }
+
+    private LinkedList<Case> loadTestCases(
+            TestCaseCorpus.Line line,
+            Set<Integer> subIds,
+            HashMap<Integer, String> labelLib,
+            HashMap<Integer, String> skippedLinesInfo,
+            boolean reverseSkipLines
+    ) {
+        int currLine = line.getNumber();
+        if ( line.hasNoSemanticMath() ) {
+            skippedLinesInfo.put(currLine, "Skipped - no semantic math");
+            Status.SKIPPED.add();
+            return null;
+        }
+
+        if ( line.getError() != null ) {
+            LOG.warn(currLine + ": unable to analyze test case. Reason: " + line.getError());
+            skippedLinesInfo.put(currLine, "Skipped - Unable to analyze test case: " + line.getError());
+            Status.SKIPPED.add();
+            return null;
+        }
+
+        LinkedList<Case> cc = line.getCases();
+        if ( cc == null || cc.isEmpty() ) {
+            if ( line.isSymbolDefinition() ) {
+                LOG.info(currLine + ": Ignored, because it's a definition.");
+                skippedLinesInfo.put(currLine, "Definition - Line is a non-semantic definition.");
+                Status.DEFINITIONS.add();
+            } else {
+                LOG.warn(currLine + ": unable to extract test case.");
+                skippedLinesInfo.put(currLine, "Skipped - Unable to analyze test case: Null");
+                Status.SKIPPED.add();
+            }
+            return null;
+        }
+
+        LinkedList<Case> testCC = new LinkedList<>();
+        int counter = 0;
+        String reason = "";
+        for ( Case ic : cc ) {
+            String test = ic.getLHS() + " " + ic.getRelation().getSymbol() + " " + ic.getRHS();
+            Matcher m = filterCases.matcher(test);
+            if ( !m.find() ) {
+                String conStr = ic.getRawConstraint();
+                if ( conStr != null && !conStr.isEmpty() ) {
+                    Matcher cm = filterCases.matcher(conStr);
+                    if ( cm.find() ) ic.removeConstraint();
+                }
+
+                boolean addBoolean = subIds == null || !subIds.contains(counter);
+                addBoolean = reverseSkipLines != addBoolean;
+
+                if ( addBoolean ) {
+                    testCC.add(ic);
+                    counter++;
+                } else {
+                    testCC.add(new DummyCase(ic.getMetaData()));
+                    counter++;
+                }
+            } else {
+                boolean shouldBreak = false;
+                if ( !reason.isEmpty() ) reason += ", ";
+
+                if ( m.group(1) != null ) reason += m.group(1);
+                else if ( m.group(2) != null ) reason += m.group(2);
+                else if ( m.group(3) != null ) {
+                    reason += m.group(3);
+                    // everything after cases is probably corrupted...
+                    shouldBreak = true;
+                }
+                else reason += "Generic function " + m.group(4);
+                LOG.warn("Ignore " + currLine + " because " + reason + "; Test case: " + test);
+                if ( shouldBreak ) break;
+            }
+        }
+
+        if (!testCC.isEmpty()) {
+            Case c = testCC.get(0);
+            labelLib.put(c.getLine(), c.getDlmf());
+            return testCC;
+        } else {
+            skippedLinesInfo.put(currLine, "Skipped - Invalid test case: " + reason);
+            Status.SKIPPED.add();
+            return null;
+        }
     }
 
     public abstract EvaluationConfig getConfig();
@@ -326,6 +486,11 @@ public abstract class AbstractEvaluator {
                 this.getConfig().getOutputPath(),
                 results.getBytes()
         );
+
+        if ( journal != null ) {
+            journal.finish();
+            journal = null;
+        }
     }
 
     public int[] getResultInterval() {
@@ -358,7 +523,7 @@ public abstract class AbstractEvaluator {
         );
     }
 
-    protected String buildResults(
+    protected static String buildResults(
             StringBuffer sb,
             HashMap<Integer, String> labelLib,
             boolean showDLMF,
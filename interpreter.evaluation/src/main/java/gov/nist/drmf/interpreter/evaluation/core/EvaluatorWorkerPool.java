@@ -0,0 +1,298 @@
+package gov.nist.drmf.interpreter.evaluation.core;
+
+import gov.nist.drmf.interpreter.common.process.UnrecoverableProcessException;
+import gov.nist.drmf.interpreter.evaluation.common.Case;
+import gov.nist.drmf.interpreter.evaluation.common.Status;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>
+ * Performs test cases in parallel on a pool of evaluators (workers). Every worker owns its own translator and
+ * its own CAS (e.g., a Maple RMI subprocess). The test cases are grouped by their line and a line is always
+ * performed entirely by one worker in the original order of its cases. Hence, the results of a line
+ * are written in the same order as in a serial run. All workers write into the line results of the primary evaluator,
+ * i.e., {@link AbstractEvaluator#writeResults()} of the primary evaluator writes the merged results in line order.
+ * </p>
+ *
+ * <p>
+ * The primary evaluator, which loaded the test cases, is used as the first worker. If a worker dies
+ * (i.e., its CAS could not recover from a crash), the case that crashed the CAS is marked as an error and the
+ * remaining cases of the line go back to the queue. The dead worker is replaced by a new one. If a worker dies
+ * while it prepares a line (see {@link AbstractEvaluator#prepareLine(List)}), the line goes back to the queue and
+ * its cases are performed one by one without preparation, so that the case that crashed the CAS can be identified.
+ * The CAS session of a dead worker is stopped before the worker is replaced. Once all cases are finished, the
+ * pool stops the CAS sessions of all workers it started. The CAS session of the primary evaluator belongs to
+ * the caller and is only stopped if it died.
+ * </p>
+ *
+ * <p>
+ * The pool logs the progress and throughput after every finished line, see {@link #getProgressReport()}.
+ * Every finished case and line is appended to the result journal of the primary evaluator, see {@link ResultJournal}.
+ * Lines that were finished by a previous run of the same journal are not performed again.
+ * </p>
+ *
+ * @author Andre Greiner-Petter
+ */
+public class EvaluatorWorkerPool<E extends AbstractEvaluator> {
+    private static final Logger LOG = LogManager.getLogger(EvaluatorWorkerPool.class.getName());
+
+    /**
+     * Creates a new worker with its own CAS.
+     * @param <E> the type of the evaluator
+     */
+    @FunctionalInterface
+    public interface WorkerFactory<E extends AbstractEvaluator> {
+        /**
+         * @param workerId the id of the worker, unique during the lifetime of a pool
+         * @return a new evaluator
+         * @throws Exception if the worker cannot be created (e.g., the CAS is unavailable)
+         */
+        E create(int workerId) throws Exception;
+    }
+
+    private final int numberOfWorkers;
+    private final WorkerFactory<E> factory;
+
+    private final AtomicInteger workerIds = new AtomicInteger(1);
+    private final AtomicInteger restarts = new AtomicInteger(0);
+
+    private final AtomicInteger finishedCases = new AtomicInteger(0);
+    private final AtomicInteger finishedLines = new AtomicInteger(0);
+    private volatile int totalCases = 0;
+    private volatile long startTime = 0;
+
+    /**
+     * @param numberOfWorkers the number of parallel workers (including the primary evaluator)
+     * @param factory creates new workers
+     */
+    public EvaluatorWorkerPool(int numberOfWorkers, WorkerFactory<E> factory) {
+        if ( numberOfWorkers < 1 ) throw new IllegalArgumentException("The pool requires at least one worker.");
+        this.numberOfWorkers = numberOfWorkers;
+        this.factory = factory;
+    }
+
+    /**
+     * Performs all given test cases and blocks until all cases are finished.
+     * @param primary the evaluator that loaded the test cases
+     * @param testCases the test cases
+     */
+    public void performAllTests(E primary, List<Case> testCases) {
+        testCases = primary.openJournal(testCases);
+        LinkedBlockingDeque<LinkedList<Case>> queue = groupByLine(testCases);
+        totalCases = testCases.size();
+        finishedCases.set(0);
+        finishedLines.set(0);
+        startTime = System.currentTimeMillis();
+        int workers = Math.min(numberOfWorkers, Math.max(1, queue.size()));
+        LOG.info("Perform " + testCases.size() + " test cases of " + queue.size() + " lines with " + workers + " worker(s).");
+
+        Set<Integer> unpreparedLines = ConcurrentHashMap.newKeySet();
+        Set<E> startedWorkers = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        List<Future<?>> futures = new LinkedList<>();
+        futures.add( executor.submit(() -> work(primary, primary, queue, unpreparedLines, startedWorkers)) );
+        for ( int i = 1; i < workers; i++ ) {
+            futures.add( executor.submit(() -> work(primary, null, queue, unpreparedLines, startedWorkers)) );
+        }
+        executor.shutdown();
+
+        try {
+            for ( Future<?> f : futures ) {
+                try {
+                    f.get();
+                } catch (ExecutionException ee) {
+                    LOG.error("Worker stopped unexpectedly.", ee.getCause());
+                }
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            LOG.error("Interrupted while waiting for the workers.", ie);
+            executor.shutdownNow();
+            return;
+        } finally {
+            // workers may still be running if we were interrupted, but their CAS sessions must not outlive the run
+            startedWorkers.forEach(EvaluatorWorkerPool::stopWorker);
+        }
+
+        // if all workers died and no replacement could be started, the remaining cases must not get lost silently
+        LinkedList<Case> remaining;
+        while ( (remaining = queue.pollFirst()) != null ) {
+            for ( Case c : remaining ) {
+                markAsError(primary, c, "Error - No CAS worker available");
+                finishedCases.incrementAndGet();
+            }
+        }
+        LOG.info("Finished all test cases. " + getProgressReport() + " Restarted workers: " + restarts.get());
+    }
+
+    /**
+     * @return the number of finished test cases of the current (or last) run
+     */
+    public int getNumberOfFinishedCases() {
+        return finishedCases.get();
+    }
+
+    /**
+     * @return the number of finished test cases per second of the current (or last) run
+     */
+    public double getThroughput() {
+        long duration = Math.max(1, System.currentTimeMillis() - startTime);
+        return 1_000.0 * finishedCases.get() / duration;
+    }
+
+    /**
+     * @return a human readable report of the progress, the throughput and the estimated remaining time
+     */
+    public String getProgressReport() {
+        int finished = finishedCases.get();
+        double throughput = getThroughput();
+        double percent = totalCases == 0 ? 100 : 100.0 * finished / totalCases;
+        String report = String.format(Locale.ENGLISH, "Progress: %d/%d test cases (%.1f%%) of %d finished lines, %.2f cases/s",
+                finished, totalCases, percent, finishedLines.get(), throughput);
+        if ( finished < totalCases && throughput > 0 ) {
+            long remainingSec = (long) ((totalCases - finished) / throughput);
+            report += String.format(Locale.ENGLISH, ", remaining time ~%dh %02dm %02ds",
+                    remainingSec / 3600, (remainingSec % 3600) / 60, remainingSec % 60);
+        }
+        return report + ".";
+    }
+
+    /**
+     * @return the number of workers that were replaced because their CAS died
+     */
+    public int getNumberOfRestarts() {
+        return restarts.get();
+    }
+
+    private static LinkedBlockingDeque<LinkedList<Case>> groupByLine(List<Case> testCases) {
+        LinkedHashMap<Integer, LinkedList<Case>> lines = new LinkedHashMap<>();
+        for ( Case c : testCases ) {
+            lines.computeIfAbsent(c.getLine(), k -> new LinkedList<>()).addLast(c);
+        }
+        return new LinkedBlockingDeque<>(lines.values());
+    }
+
+    /**
+     * Prepares the given line on the given evaluator (see {@link AbstractEvaluator#prepareLine(List)}) unless
+     * the preparation of this line crashed the CAS before. This is the only place that decides whether a line
+     * is prepared, the evaluators prepare every line they get.
+     * @param evaluator the evaluator that performs the line
+     * @param line the cases of a single line
+     * @param unpreparedLines the lines whose preparation crashed the CAS, receives the given line if it crashes
+     * @throws UnrecoverableProcessException if the CAS crashed while preparing the line, the cases of the line
+     *                                       must be performed one by one
+     */
+    static void prepareLine(AbstractEvaluator evaluator, List<Case> line, Set<Integer> unpreparedLines) {
+        int lineNumber = line.get(0).getLine();
+        if ( unpreparedLines.contains(lineNumber) ) return;
+        try {
+            evaluator.prepareLine(line);
+        } catch ( UnrecoverableProcessException upe ) {
+            unpreparedLines.add(lineNumber);
+            throw upe;
+        }
+    }
+
+    private void work(
+            E primary,
+            E worker,
+            LinkedBlockingDeque<LinkedList<Case>> queue,
+            Set<Integer> unpreparedLines,
+            Set<E> startedWorkers
+    ) {
+        LinkedList<Case> line;
+        while ( (line = queue.pollFirst()) != null ) {
+            if ( worker == null ) {
+                worker = createWorker(primary);
+                if ( worker == null ) {
+                    // give the line back to the remaining workers
+                    queue.offerFirst(line);
+                    return;
+                }
+                startedWorkers.add(worker);
+            }
+
+            int lineNumber = line.getFirst().getLine();
+            try {
+                prepareLine(worker, line, unpreparedLines);
+            } catch ( UnrecoverableProcessException upe ) {
+                LOG.error("Worker died while preparing line " + lineNumber + ". Replace the worker and perform the cases of the line one by one.", upe);
+                queue.offerFirst(line);
+                restarts.incrementAndGet();
+                retireWorker(worker, startedWorkers);
+                worker = null;
+                continue;
+            }
+
+            while ( !line.isEmpty() ) {
+                Case c = line.getFirst();
+                int before = primary.numberOfLineResults(lineNumber);
+                AbstractEvaluator.startRecording();
+                try {
+                    worker.performSingleTest(c);
+                    line.removeFirst();
+                    finishedCases.incrementAndGet();
+                } catch ( UnrecoverableProcessException upe ) {
+                    LOG.error("Worker died on line " + c.getLine() + ". Replace the worker and continue with the remaining cases.", upe);
+                    // the case that crashed the CAS is not repeated, it would crash the next worker too
+                    line.removeFirst();
+                    finishedCases.incrementAndGet();
+                    if ( primary.numberOfLineResults(lineNumber) == before ) {
+                        markAsError(primary, c, "Error - CAS crashed: " + upe);
+                    }
+                    if ( !line.isEmpty() ) queue.offerFirst(line);
+                    restarts.incrementAndGet();
+                    retireWorker(worker, startedWorkers);
+                    worker = null;
+                    break;
+                } finally {
+                    primary.journalCase(c, before);
+                }
+            }
+
+            if ( line.isEmpty() ) {
+                primary.journalLine(lineNumber);
+                finishedLines.incrementAndGet();
+                LOG.info(getProgressReport());
+            }
+        }
+    }
+
+    private E createWorker(E primary) {
+        int id = workerIds.getAndIncrement();
+        try {
+            LOG.info("Start worker " + id);
+            E worker = factory.create(id);
+            worker.adoptTestSetup(primary);
+            return worker;
+        } catch (Exception e) {
+            LOG.error("Unable to start worker " + id, e);
+            return null;
+        }
+    }
+
+    private void retireWorker(E worker, Set<E> startedWorkers) {
+        startedWorkers.remove(worker);
+        stopWorker(worker);
+    }
+
+    private static void stopWorker(AbstractEvaluator worker) {
+        try {
+            worker.stopEngine();
+        } catch (Exception e) {
+            LOG.warn("Unable to stop the CAS of a worker.", e);
+        }
+    }
+
+    private static void markAsError(AbstractEvaluator primary, Case c, String message) {
+        LinkedList<String>[] lineResults = primary.getLineResults();
+        if ( lineResults[c.getLine()] == null ) lineResults[c.getLine()] = new LinkedList<>();
+        lineResults[c.getLine()].add(message);
+        Status.ERROR.add();
+    }
+}
@@ -0,0 +1,453 @@
+package gov.nist.drmf.interpreter.evaluation.core;
+
+import gov.nist.drmf.interpreter.evaluation.common.Status;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * <p>
+ * An append-only journal of the results of an evaluation run. Every finished test case appends a record
+ * with the results it added to its line, the {@link Status} counters it added and the missing macros it found. Once all test cases of a line
+ * are finished, the line is marked as finished. The journal is synced to the disk every
+ * {@link gov.nist.drmf.interpreter.common.eval.EvaluationConfig#getJournalSyncInterval()} records. Hence,
+ * a crash of the JVM or a CAS loses at most the lines that were not finished yet.
+ * </p>
+ *
+ * <p>
+ * If an evaluation is restarted with the same run key (e.g., the same subset of the same test expression),
+ * the journal of the previous run is continued. The results of the finished lines are replayed and these lines
+ * are not tested again. A journal of a run that finished regularly (see {@link #finish()}) or of another run key
+ * is replaced by a new journal.
+ * </p>
+ *
+ * <p>
+ * The result report of a run can be rebuilt from its journal alone, e.g., if the run crashed before it wrote
+ * the report (see {@link #buildReport(Path)} and {@link #main(String[])}).
+ * </p>
+ *
+ * <p>
+ * The journal is a text file with one record per line. Tabs and line breaks within results are escaped.
+ * The status counters of the setup are the counters before the first test case was performed
+ * (e.g., of the skipped lines).
+ * <pre>
+ *     #RUN &lt;run key&gt; &lt;test expression&gt;
+ *     S &lt;status counters of the setup&gt;
+ *     C &lt;line&gt; &lt;status counters&gt; &lt;result&gt;...
+ *     M &lt;line&gt; &lt;missing macro&gt;...
+ *     L &lt;line&gt; &lt;label&gt;
+ *     #END
+ * </pre>
+ * </p>
+ *
+ * @author Andre Greiner-Petter
+ */
+public class ResultJournal implements Closeable {
+    private static final Logger LOG = LogManager.getLogger(ResultJournal.class.getName());
+
+    private static final String SUFFIX = ".journal";
+
+    private static final String RUN = "#RUN";
+    private static final String END = "#END";
+    private static final String SETUP = "S";
+    private static final String CASE = "C";
+    private static final String LINE = "L";
+    private static final String MACROS = "M";
+
+    private static final String SEP = "\t";
+
+    private final Path path;
+    private final int syncInterval;
+    private final FileChannel channel;
+
+    /**
+     * The results, status counters and missing macros of the finished lines of the previous run
+     */
+    private final SortedMap<Integer, LinkedList<String>> replayedResults;
+    private final int[] replayedStatus;
+    private final List<String> replayedMacros;
+
+    private int unsynced = 0;
+
+    private ResultJournal(
+            Path path,
+            int syncInterval,
+            FileChannel channel,
+            SortedMap<Integer, LinkedList<String>> replayedResults,
+            int[] replayedStatus,
+            List<String> replayedMacros
+    ) {
+        this.path = path;
+        this.syncInterval = syncInterval;
+        this.channel = channel;
+        this.replayedResults = replayedResults;
+        this.replayedStatus = replayedStatus;
+        this.replayedMacros = replayedMacros;
+    }
+
+    /**
+     * @param output the output file of an evaluation
+     * @return the path of the journal of the given output file (in the same directory)
+     */
+    public static Path getJournalPath(Path output) {
+        return output.resolveSibling(output.getFileName().toString() + SUFFIX);
+    }
+
+    /**
+     * Opens the journal at the given path, see {@link #open(Path, String, String, int)}.
+     * The journal does not know the test expression of the run.
+     */
+    public static ResultJournal open(Path path, String runKey, int syncInterval) throws IOException {
+        return open(path, runKey, null, syncInterval);
+    }
+
+    /**
+     * Opens the journal at the given path. If the journal belongs to an unfinished run with the same key,
+     * the finished lines of this run are kept and can be replayed. Otherwise, a new journal is started.
+     * @param path the path of the journal
+     * @param runKey identifies the run, e.g., the test expression and the subset of the dataset
+     * @param testExpression the test expression of the run (for the report, see {@link #buildReport(Path)})
+     * @param syncInterval the number of records before the journal is synced to the disk, 0 never forces a sync
+     * @return the opened journal
+     * @throws IOException if the journal cannot be read or written
+     */
+    public static ResultJournal open(Path path, String runKey, String testExpression, int syncInterval) throws IOException {
+        String header = RUN + SEP + escape(runKey) + SEP + escape(testExpression);
+        Content previous = Files.exists(path) ? read(path) : null;
+        if ( previous != null && !previous.header.equals(header) ) {
+            LOG.info("The journal " + path + " belongs to another run. Start a new journal.");
+            previous = null;
+        } else if ( previous != null && previous.finished ) {
+            LOG.info("The previous run of " + path + " finished. Start a new journal.");
+            previous = null;
+        }
+
+        if ( previous != null ) {
+            LOG.info("Continue the evaluation from the journal " + path + ". Skip " + previous.results.size() + " finished lines.");
+        } else previous = new Content();
+
+        // rewrite the journal with the finished lines only, records of unfinished lines would be repeated otherwise
+        Path tmp = path.resolveSibling(path.getFileName().toString() + ".tmp");
+        StringBuilder sb = new StringBuilder(header).append('\n');
+        for ( String record : previous.committed ) sb.append(record).append('\n');
+        Files.write(tmp, sb.toString().getBytes(StandardCharsets.UTF_8));
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        return new ResultJournal(path, syncInterval, channel, previous.results, previous.status, previous.macros);
+    }
+
+    /**
+     * The records of a journal file. Only the records of finished lines are replayed.
+     */
+    private static final class Content {
+        private String header = "";
+        private boolean finished = false;
+
+        private int[] setupStatus;
+        private final SortedMap<Integer, LinkedList<String>> results = new TreeMap<>();
+        private final int[] status = new int[Status.values().length];
+        private final List<String> macros = new LinkedList<>();
+        private final Map<Integer, String> labels = new HashMap<>();
+
+        /**
+         * The records of the finished lines
+         */
+        private final List<String> committed = new LinkedList<>();
+    }
+
+    /**
+     * @return the content of the journal or null if the journal is empty
+     */
+    private static Content read(Path path) throws IOException {
+        String text = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+        // the last record might be incomplete if the previous run crashed while writing it
+        int end = text.lastIndexOf('\n');
+        if ( end < 0 ) return null;
+        String[] records = text.substring(0, end).split("\n", -1);
+
+        Content content = new Content();
+        content.header = records[0];
+        Map<Integer, List<String>> pending = new HashMap<>();
+        for ( int i = 1; i < records.length; i++ ) {
+            String record = records[i];
+            if ( record.equals(END) ) {
+                content.finished = true;
+                break;
+            }
+
+            String[] fields = record.split(SEP, -1);
+            try {
+                if ( fields[0].equals(SETUP) ) {
+                    content.setupStatus = parseStatus(fields[1]);
+                    continue;
+                }
+
+                int line = Integer.parseInt(fields[1]);
+                if ( fields[0].equals(CASE) || fields[0].equals(MACROS) ) {
+                    pending.computeIfAbsent(line, k -> new LinkedList<>()).add(record);
+                } else if ( fields[0].equals(LINE) ) {
+                    List<String> lineRecords = pending.remove(line);
+                    if ( lineRecords == null ) lineRecords = new LinkedList<>();
+                    LinkedList<String> lineResults = content.results.computeIfAbsent(line, k -> new LinkedList<>());
+                    for ( String lineRecord : lineRecords ) {
+                        if ( replay(lineRecord, lineResults, content.status, content.macros) )
+                            content.committed.add(lineRecord);
+                    }
+                    if ( fields.length > 2 && !fields[2].isEmpty() ) content.labels.put(line, unescape(fields[2]));
+                    content.committed.add(record);
+                }
+            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                LOG.warn("Ignore corrupted journal record: " + record);
+            }
+        }
+        return content;
+    }
+
+    /**
+     * Replays a single record of a finished line. A corrupted record is ignored entirely.
+     * @return true if the record was replayed, otherwise false
+     */
+    private static boolean replay(String record, LinkedList<String> lineResults, int[] status, List<String> macros) {
+        String[] fields = record.split(SEP, -1);
+        if ( fields[0].equals(MACROS) ) {
+            for ( int i = 2; i < fields.length; i++ ) macros.add(unescape(fields[i]));
+            return true;
+        }
+
+        try {
+            int[] caseStatus = parseStatus(fields[2]);
+            for ( int i = 0; i < status.length; i++ ) status[i] += caseStatus[i];
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            LOG.warn("Ignore corrupted journal record: " + record);
+            return false;
+        }
+        for ( int i = 3; i < fields.length; i++ ) lineResults.add(unescape(fields[i]));
+        return true;
+    }
+
+    private static int[] parseStatus(String counters) {
+        int[] status = new int[Status.values().length];
+        if ( counters.isEmpty() ) return status;
+        for ( String counter : counters.split(",") ) {
+            String[] nameValue = counter.split("=");
+            status[Status.valueOf(nameValue[0]).ordinal()] += Integer.parseInt(nameValue[1]);
+        }
+        return status;
+    }
+
+    private static void appendStatus(StringBuilder sb, int[] status) {
+        Status[] values = Status.values();
+        boolean first = true;
+        for ( int i = 0; i < values.length; i++ ) {
+            if ( status[i] == 0 ) continue;
+            if ( !first ) sb.append(',');
+            sb.append(values[i].name()).append('=').append(status[i]);
+            first = false;
+        }
+    }
+
+    /**
+     * @return the line numbers that were finished by a previous run
+     */
+    public Set<Integer> getFinishedLines() {
+        return Collections.unmodifiableSet(replayedResults.keySet());
+    }
+
+    /**
+     * Adds the results, status counters and missing macros of the lines that were finished by a previous run.
+     * @param lineResults the results per line of the current run
+     * @param missingMacros receives every missing macro the finished lines found (once per occurrence)
+     */
+    public void replay(LinkedList<String>[] lineResults, Consumer<String> missingMacros) {
+        for ( Map.Entry<Integer, LinkedList<String>> entry : replayedResults.entrySet() ) {
+            int line = entry.getKey();
+            if ( line >= lineResults.length || entry.getValue().isEmpty() ) continue;
+            if ( lineResults[line] == null ) lineResults[line] = new LinkedList<>();
+            lineResults[line].addAll(entry.getValue());
+        }
+
+        Status[] values = Status.values();
+        for ( int i = 0; i < values.length; i++ ) {
+            for ( int j = 0; j < replayedStatus[i]; j++ ) values[i].add();
+        }
+
+        replayedMacros.forEach(missingMacros);
+    }
+
+    /**
+     * Appends the status counters of the setup of the run, i.e., the counters before the first test case was
+     * performed (e.g., of the skipped lines). These counters are not replayed, since every run repeats its setup.
+     * @param status the status counters (by ordinal), see {@link Status#getCounters()}
+     */
+    public synchronized void recordSetup(int[] status) {
+        StringBuilder sb = new StringBuilder(SETUP).append(SEP);
+        appendStatus(sb, status);
+        append(sb.toString());
+    }
+
+    /**
+     * Appends a finished test case.
+     * @param line the line of the test case
+     * @param results the results the test case added to its line
+     * @param status the status counters the test case added (by ordinal), see {@link Status#stopRecording()}
+     * @param missingMacros the missing macros the test case found
+     */
+    public synchronized void recordCase(int line, List<String> results, int[] status, List<String> missingMacros) {
+        StringBuilder sb = new StringBuilder(CASE).append(SEP).append(line).append(SEP);
+        appendStatus(sb, status);
+        for ( String result : results ) sb.append(SEP).append(escape(result));
+        if ( !missingMacros.isEmpty() ) {
+            sb.append('\n').append(MACROS).append(SEP).append(line);
+            for ( String macro : missingMacros ) sb.append(SEP).append(escape(macro));
+        }
+        append(sb.toString());
+    }
+
+    /**
+     * Marks a line as finished, i.e., all test cases of the line were recorded.
+     * @param line the line number
+     */
+    public void recordLine(int line) {
+        recordLine(line, null);
+    }
+
+    /**
+     * Marks a line as finished, i.e., all test cases of the line were recorded.
+     * @param line the line number
+     * @param label the label of the line for the report (e.g., the DLMF equation) or null
+     */
+    public synchronized void recordLine(int line, String label) {
+        append(LINE + SEP + line + (label == null ? "" : SEP + escape(label)));
+    }
+
+    /**
+     * Marks the run as finished and closes the journal. The next run starts a new journal.
+     */
+    public synchronized void finish() {
+        append(END);
+        close();
+    }
+
+    private void append(String record) {
+        if ( !channel.isOpen() ) return;
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap((record + "\n").getBytes(StandardCharsets.UTF_8));
+            while ( buffer.hasRemaining() ) channel.write(buffer);
+            unsynced++;
+            if ( syncInterval > 0 && unsynced >= syncInterval ) sync();
+        } catch (IOException ioe) {
+            LOG.error("Unable to write to the result journal " + path, ioe);
+        }
+    }
+
+    private void sync() throws IOException {
+        channel.force(false);
+        unsynced = 0;
+    }
+
+    @Override
+    public synchronized void close() {
+        if ( !channel.isOpen() ) return;
+        try {
+            if ( unsynced > 0 ) sync();
+            channel.close();
+        } catch (IOException ioe) {
+            LOG.error("Unable to close the result journal " + path, ioe);
+        }
+    }
+
+    /**
+     * Rebuilds the result report of a run from its journal without performing any test case again. The report
+     * contains the finished lines only. Evaluator specific additions to the report (e.g., the symbolic
+     * test cases of a symbolic evaluation) are missing.
+     * @param path the path of the journal
+     * @return the result report
+     * @throws IOException if the journal cannot be read
+     */
+    @SuppressWarnings("unchecked")
+    public static String buildReport(Path path) throws IOException {
+        Content content = read(path);
+        if ( content == null || !content.header.startsWith(RUN + SEP) )
+            throw new IOException("Not a result journal: " + path);
+
+        String[] header = content.header.split(SEP, -1);
+        String testExpression = header.length > 2 ? unescape(header[2]) : "";
+        int[] counters = content.setupStatus != null ? content.setupStatus : new int[Status.values().length];
+        Status.add(counters, content.status);
+
+        int size = content.results.isEmpty() ? 0 : content.results.lastKey() + 1;
+        LinkedList<String>[] lineResults = new LinkedList[size];
+        content.results.forEach( (line, results) -> lineResults[line] = results );
+
+        StringBuffer sb = new StringBuffer();
+        sb.append("Overall: ");
+        sb.append(Status.buildString(counters));
+        sb.append(" for test expression: ");
+        sb.append(testExpression);
+        sb.append(AbstractEvaluator.NL);
+
+        return AbstractEvaluator.buildResults(sb, new HashMap<>(content.labels), true, new int[]{0, size}, lineResults);
+    }
+
+    /**
+     * Rebuilds the result report of a run from its journal, see {@link #buildReport(Path)}.
+     * Arguments: {@code <journal> [<report>]}. By default, the report is written to the output file
+     * of the run, i.e., the path of the journal without its suffix.
+     * @param args the arguments
+     * @throws IOException if the journal cannot be read or the report cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        if ( args == null || args.length < 1 ) {
+            System.out.println("Usage: <journal> [<report>]");
+            return;
+        }
+
+        Path journal = Paths.get(args[0]);
+        Path report;
+        if ( args.length > 1 ) report = Paths.get(args[1]);
+        else {
+            String name = journal.getFileName().toString();
+            report = journal.resolveSibling(name.endsWith(SUFFIX) ?
+                    name.substring(0, name.length() - SUFFIX.length()) :
+                    name + ".txt");
+        }
+
+        Files.write(report, buildReport(journal).getBytes(StandardCharsets.UTF_8));
+        LOG.info("Rebuilt the result report " + report + " from the journal " + journal);
+    }
+
+    private static String escape(String in) {
+        if ( in == null ) return "";
+        return in.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    private static String unescape(String in) {
+        StringBuilder sb = new StringBuilder(in.length());
+        for ( int i = 0; i < in.length(); i++ ) {
+            char c = in.charAt(i);
+            if ( c == '\\' && i+1 < in.length() ) {
+                char next = in.charAt(++i);
+                switch ( next ) {
+                    case 't': sb.append('\t'); break;
+                    case 'n': sb.append('\n'); break;
+                    case 'r': sb.append('\r'); break;
+                    default: sb.append(next);
+                }
+            } else sb.append(c);
+        }
+        return sb.toString();
+    }
+}
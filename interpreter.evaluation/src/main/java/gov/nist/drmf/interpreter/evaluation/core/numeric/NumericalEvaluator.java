@@ -7,6 +7,10 @@ import gov.nist.drmf.interpreter.common.exceptions.ComputerAlgebraSystemEngineEx
 import gov.nist.drmf.interpreter.common.exceptions.InitTranslatorException;
 import gov.nist.drmf.interpreter.common.exceptions.TranslationException;
 import gov.nist.drmf.interpreter.common.eval.NumericResult;
+import gov.nist.drmf.interpreter.common.numeric.JavaNumericConnector;
+import gov.nist.drmf.interpreter.common.numeric.JavaNumericalEvaluator;
+import gov.nist.drmf.interpreter.common.numeric.NumericDialect;
+import gov.nist.drmf.interpreter.common.process.UnrecoverableProcessException;
 import gov.nist.drmf.interpreter.common.text.JoinConfig;
 import gov.nist.drmf.interpreter.common.text.TextUtility;
 import gov.nist.drmf.interpreter.core.api.DLMFTranslator;
@@ -14,13 +18,16 @@ import gov.nist.drmf.interpreter.evaluation.common.Case;
 import gov.nist.drmf.interpreter.evaluation.common.CaseAnalyzer;
 import gov.nist.drmf.interpreter.evaluation.common.Status;
 import gov.nist.drmf.interpreter.evaluation.core.AbstractEvaluator;
+import gov.nist.drmf.interpreter.evaluation.core.EvaluatorWorkerPool;
 import gov.nist.drmf.interpreter.maple.MapleConnector;
 import gov.nist.drmf.interpreter.maple.common.MapleConstants;
+import gov.nist.drmf.interpreter.maple.secure.DefaultMapleRmiServerSubprocessInfo;
 import gov.nist.drmf.interpreter.mathematica.MathematicaConnector;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
+import java.rmi.registry.Registry;
 import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -102,6 +109,21 @@ public class NumericalEvaluator extends AbstractNumericalEvaluator {//implements
 
     private boolean reserveMODE = false;
 
+    /**
+     * Computes numerical tests in the JVM before they are sent to the CAS. If null, all tests are sent to the CAS.
+     */
+    private JavaNumericalEvaluator preScreening;
+
+    /**
+     * Creates further evaluators to perform the tests in parallel. If null, the tests are performed serially.
+     */
+    private EvaluatorWorkerPool.WorkerFactory<NumericalEvaluator> workerFactory;
+
+    /**
+     * The tests of the current line that were already translated (and computed) by {@link #prepareLine(List)}.
+     */
+    private final Map<Case, PreparedTest> preparedTests = new IdentityHashMap<>();
+
     private JoinConfig<NumericCalculation> stringJoinConfig =
             new JoinConfig<NumericCalculation>(", ", null, NumericCalculation::toString)
                     .setMax(5)
@@ -118,6 +140,18 @@ public class NumericalEvaluator extends AbstractNumericalEvaluator {//implements
      */
     public NumericalEvaluator(
             NativeComputerAlgebraInterfaceBuilder interfaceBuilder
+    ) throws ComputerAlgebraSystemEngineException, InitTranslatorException {
+        this(interfaceBuilder, true);
+    }
+
+    /**
+     * @param interfaceBuilder the CAS interface
+     * @param resetStatus false for workers of an {@link EvaluatorWorkerPool} that must not reset the
+     *                    global {@link Status} while other workers are running
+     */
+    private NumericalEvaluator(
+            NativeComputerAlgebraInterfaceBuilder interfaceBuilder,
+            boolean resetStatus
     ) throws ComputerAlgebraSystemEngineException, InitTranslatorException {
         super(new DLMFTranslator(interfaceBuilder.getLanguageKey()), interfaceBuilder.getCASEngine(), interfaceBuilder.getNumericEvaluator());
         this.scriptHandler = interfaceBuilder.getEvaluationScriptHandler();
@@ -159,7 +193,13 @@ public class NumericalEvaluator extends AbstractNumericalEvaluator {//implements
         setUpScripts(interfaceBuilder.getNumericProcedures());
         interfaceBuilder.getNumericEvaluator().setTimeout( config.getTimeout() );
 
-        Status.reset();
+        NumericDialect dialect = NumericDialect.fromLanguageKey(interfaceBuilder.getLanguageKey());
+        if ( config.isJavaPreScreeningEnabled() && dialect != null
+                && !(interfaceBuilder.getNumericEvaluator() instanceof JavaNumericalEvaluator) ) {
+            this.preScreening = new JavaNumericalEvaluator(dialect, config);
+        }
+
+        if ( resetStatus ) Status.reset();
         init();
     }
 
@@ -170,6 +210,7 @@ public class NumericalEvaluator extends AbstractNumericalEvaluator {//implements
             String[] ass = overallAss.split(" \\|\\| ");
             String[] transAss = this.getThisConstraintTranslator().translateEachConstraint(ass);
             this.globalConstraints = Arrays.asList(transAss);
+            if ( preScreening != null ) preScreening.setGlobalNumericAssumptions(globalConstraints);
             try {
                 super.setGlobalNumericAssumptions(globalConstraints);
             } catch (ComputerAlgebraSystemEngineException e) {
@@ -208,15 +249,55 @@ public class NumericalEvaluator extends AbstractNumericalEvaluator {//implements
                 reverse
         );
 
+        initLineResults(subset, skippedLinesInfo);
+        currentNumOfTestCases = testCases.size();
+        currentTestCase = 0;
+        return testCases;
+    }
+
+    /**
+     * Creates the (empty) results of all lines in the given subset.
+     * @param subset the interval of lines
+     * @param skippedLinesInfo the results of lines that were skipped during loading the test cases
+     */
+    void initLineResults(int[] subset, Map<Integer, String> skippedLinesInfo) {
+        this.subset = subset;
         lineResult = new LinkedList[subset[1]];
         for ( Integer i : skippedLinesInfo.keySet() ){
             lineResult[i] = new LinkedList<>();
             lineResult[i].add(skippedLinesInfo.get(i));
         }
+    }
 
-        currentNumOfTestCases = testCases.size();
-        currentTestCase = 0;
-        return testCases;
+    @Override
+    protected void adoptTestSetup(AbstractEvaluator primary) {
+        super.adoptTestSetup(primary);
+        NumericalEvaluator evaluator = (NumericalEvaluator) primary;
+        this.subset = evaluator.subset;
+        this.labelLib = evaluator.labelLib;
+        this.lineResult = evaluator.lineResult;
+        this.currentNumOfTestCases = evaluator.currentNumOfTestCases;
+        this.reserveMODE = evaluator.reserveMODE;
+    }
+
+    /**
+     * Performs the tests in parallel if more than one worker is specified in the config
+     * and this evaluator is able to start further workers. Otherwise, the tests are performed serially.
+     * @param testCases the test cases
+     */
+    @Override
+    public void performAllTests(LinkedList<Case> testCases) {
+        int workers = config.getNumberOfWorkers();
+        if ( workers > 1 && workerFactory == null ) {
+            LOG.warn("Unable to start multiple workers for this CAS. Fallback to serial evaluation.");
+        }
+
+        if ( workers < 2 || workerFactory == null ) {
+            super.performAllTests(testCases);
+            return;
+        }
+
+        new EvaluatorWorkerPool<>(workers, workerFactory).performAllTests(this, testCases);
     }
 
     @Override
@@ -249,8 +330,11 @@ public class NumericalEvaluator extends AbstractNumericalEvaluator {//implements
         LOG.info("Test case: " + c);
         LOG.info("Test case " + (currentTestCase++) + " of " + currentNumOfTestCases);
 
-        LOG.info("Replacing defined symbols.");
-        c.replaceSymbolsUsed(super.getSymbolDefinitionLibrary());
+        PreparedTest prepared = preparedTests.remove(c);
+        if ( prepared == null ) {
+            LOG.info("Replacing defined symbols.");
+            c.replaceSymbolsUsed(super.getSymbolDefinitionLibrary());
+        }
         LOG.info("Final Test case: " + c);
 
         if ( realSkips.contains(c.getLine()) ) {
@@ -306,6 +390,9 @@ public class NumericalEvaluator extends AbstractNumericalEvaluator {//implements
                 LOG.debug("Enter pre-testing commands: " + preAndPostCommands[0]);
                 enterEngineCommand(preAndPostCommands[0]);
             }
+        } catch ( UnrecoverableProcessException upe ) {
+            // the CAS is dead, the worker pool must replace it
+            throw upe;
         } catch (Error | Exception e) {
             // nothing.
             LOG.warn("Unable to enter pre-testing commands: " + c);
@@ -314,7 +401,7 @@ public class NumericalEvaluator extends AbstractNumericalEvaluator {//implements
         NumericalTest test = null;
         try {
             LOG.debug("Start numerical calculations.");
-            test = buildTestObject(c);
+            test = prepared != null ? prepared.getTest() : buildTestObject(c);
             Status.SUCCESS_TRANS.add();
             LOG.info("Numerical test expression: " + test.getTestExpression());
         } catch ( TranslationException te ) {
@@ -332,7 +419,8 @@ public class NumericalEvaluator extends AbstractNumericalEvaluator {//implements
 
         try {
             if ( isMaple ) test.setSkipClassicAbortion();
-            NumericResult results = performNumericalTest(test);
+            NumericResult results = prepared != null ? prepared.getResult() : preScreen(test);
+            if ( results == null ) results = performNumericalTest(test);
 
             LOG.debug("Finished numerical calculations.");
             if ( preAndPostCommands[1] != null ){
@@ -386,6 +474,8 @@ public class NumericalEvaluator extends AbstractNumericalEvaluator {//implements
             lineResult[c.getLine()].add("Error - " + iae.getMessage());
             // Note, we rename the overview lines, so we use missing here, just to avoid trouble with SKIP infos
             Status.ERROR.add();
+        } catch ( UnrecoverableProcessException upe ) {
+            throw upe;
         } catch ( Error | Exception e ){
             LOG.warn("Error for line " + c.getLine() + ", because: " + e.toString(), e);
             lineResult[c.getLine()].add("Error - " + e.toString());
@@ -400,6 +490,86 @@ public class NumericalEvaluator extends AbstractNumericalEvaluator {//implements
 //        return c.getLine() + ": " + lineResult[c.getLine()];
     }
 
+    /**
+     * Translates all tests of the given line and computes the tests that cannot be decided in the JVM in
+     * a single call to the CAS (if enabled via {@link NumericalConfig#isBatchTestsEnabled()}).
+     * Tests that require pre-commands are not part of the batch and performed as usual.
+     * The results are reported later test by test in {@link #performSingleTest(Case)}.
+     * The caller decides whether a line is prepared, e.g., a line whose preparation crashed the CAS is not
+     * prepared again (see {@link EvaluatorWorkerPool}).
+     * @param line the test cases of a single line
+     */
+    @Override
+    protected void prepareLine(List<Case> line) {
+        preparedTests.clear();
+        if ( !config.isBatchTestsEnabled() || line.size() < 2 ) return;
+
+        List<NumericalTest> batch = new LinkedList<>();
+        List<PreparedTest> batchPrepared = new LinkedList<>();
+        for ( Case c : line ) {
+            // the same skips as in performSingleTest, pre-commands always come with post-commands
+            if ( realSkips.contains(c.getLine()) || c instanceof AbstractEvaluator.DummyCase ) continue;
+            if ( getPrevCommand( c.getLHS() + ", " + c.getRHS() )[0] != null ) continue;
+
+            c.replaceSymbolsUsed(super.getSymbolDefinitionLibrary());
+            PreparedTest prepared = new PreparedTest();
+            preparedTests.put(c, prepared);
+            try {
+                prepared.test = buildTestObject(c);
+                if ( isMaple ) prepared.test.setSkipClassicAbortion();
+            } catch ( TranslationException | NullPointerException e ) {
+                prepared.translationError = e;
+                continue;
+            }
+
+            NumericBatchResult screened = new NumericBatchResult(1);
+            try {
+                NumericResult results = preScreen(prepared.test);
+                if ( results == null ) {
+                    batch.add(prepared.test);
+                    batchPrepared.add(prepared);
+                    continue;
+                }
+                screened.setResult(0, results);
+            } catch ( RuntimeException e ) {
+                screened.setError(0, e);
+            }
+            prepared.batch = screened;
+        }
+
+        if ( batch.size() < 2 ) return;
+        LOG.info("Perform " + batch.size() + " numerical tests of line " + line.get(0).getLine() + " in a single batch.");
+        NumericBatchResult results = getNumericEvaluator().performNumericTests(batch);
+        int i = 0;
+        for ( PreparedTest prepared : batchPrepared ) {
+            prepared.batch = results;
+            prepared.index = i++;
+        }
+    }
+
+    /**
+     * A test of a line that was translated (and maybe already computed) by {@link #prepareLine(List)}.
+     */
+    private static class PreparedTest {
+        private NumericalTest test;
+        private Exception translationError;
+        private NumericBatchResult batch;
+        private int index = 0;
+
+        private NumericalTest getTest() throws TranslationException {
+            if ( translationError instanceof TranslationException ) throw (TranslationException) translationError;
+            if ( translationError instanceof NullPointerException ) throw (NullPointerException) translationError;
+            return test;
+        }
+
+        /**
+         * @return the result of the test or null if the test was not computed yet
+         */
+        private NumericResult getResult() throws ComputerAlgebraSystemEngineException {
+            return batch == null ? null : batch.getResult(index);
+        }
+    }
+
     private NumericalTest buildTestObject(Case c) {
         super.startRememberPackages();
         LOG.debug("Translating LHS: " + c.getLHS());
@@ -481,6 +651,17 @@ public class NumericalEvaluator extends AbstractNumericalEvaluator {//implements
         return pac;
     }
 
+    /**
+     * @param test the numerical test
+     * @return the results computed in the JVM or null if the test must be computed by the CAS
+     */
+    private NumericResult preScreen(NumericalTest test) {
+        if ( preScreening == null ) return null;
+        NumericResult results = preScreening.prescreen(test);
+        if ( results != null ) LOG.info("Decided numerical test in the JVM without the CAS.");
+        return results;
+    }
+
     private boolean requestedRestart = false;
     private int factor = 1;
 
@@ -488,15 +669,39 @@ public class NumericalEvaluator extends AbstractNumericalEvaluator {//implements
             throws IOException, ComputerAlgebraSystemEngineException, InitTranslatorException {
         NumericalEvaluator evaluator = new NumericalEvaluator(new MapleConnector());
         evaluator.isMaple = true;
+        evaluator.workerFactory = NumericalEvaluator::createMapleWorker;
         return evaluator;
     }
 
+    /**
+     * Every Maple worker runs in its own JVM with its own RMI registry port.
+     */
+    private static NumericalEvaluator createMapleWorker(int workerId)
+            throws ComputerAlgebraSystemEngineException, InitTranslatorException {
+        MapleConnector connector = new MapleConnector(
+                new DefaultMapleRmiServerSubprocessInfo(Registry.REGISTRY_PORT + workerId)
+        );
+        NumericalEvaluator worker = new NumericalEvaluator(connector, false);
+        worker.isMaple = true;
+        return worker;
+    }
+
     public static NumericalEvaluator createStandardMathematicaEvaluator() throws IOException, ComputerAlgebraSystemEngineException, InitTranslatorException {
         NumericalEvaluator evaluator = new NumericalEvaluator(new MathematicaConnector());
         evaluator.isMaple = false;
         return evaluator;
     }
 
+    /**
+     * Performs the numerical tests in the JVM without a CAS. Tests that cannot be decided in the JVM are errors.
+     */
+    public static NumericalEvaluator createStandardJavaEvaluator()
+            throws ComputerAlgebraSystemEngineException, InitTranslatorException {
+        NumericalEvaluator evaluator = new NumericalEvaluator(new JavaNumericConnector());
+        evaluator.isMaple = false;
+        return evaluator;
+    }
+
     private static void startTestAndWriteResults( NumericalEvaluator evaluator ) throws IOException {
         LinkedList<Case> tests = evaluator.loadTestCases();
         evaluator.performAllTests(tests);
@@ -520,6 +725,9 @@ public class NumericalEvaluator extends AbstractNumericalEvaluator {//implements
                 } else if ( arg.matches("--?maple") ) {
                     System.out.println("Start Maple Evaluator");
                     evaluator = createStandardMapleEvaluator();
+                } else if ( arg.matches("--?java") ) {
+                    System.out.println("Start Java Evaluator (without CAS)");
+                    evaluator = createStandardJavaEvaluator();
                 } else if ( arg.matches("--?(reverse|success|successful)") ) {
                     System.out.println("Successful mode");
                     successful = true;
@@ -13,7 +13,9 @@ import gov.nist.drmf.interpreter.evaluation.common.Case;
 import gov.nist.drmf.interpreter.evaluation.common.CaseAnalyzer;
 import gov.nist.drmf.interpreter.evaluation.common.Status;
 import gov.nist.drmf.interpreter.evaluation.core.AbstractEvaluator;
+import gov.nist.drmf.interpreter.evaluation.core.EvaluatorWorkerPool;
 import gov.nist.drmf.interpreter.maple.MapleConnector;
+import gov.nist.drmf.interpreter.maple.secure.DefaultMapleRmiServerSubprocessInfo;
 import gov.nist.drmf.interpreter.mathematica.MathematicaConnector;
 import gov.nist.drmf.interpreter.mathematica.core.MathematicaInterface;
 import org.apache.logging.log4j.LogManager;
@@ -22,6 +24,7 @@ import org.apache.logging.log4j.Logger;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.rmi.registry.Registry;
 import java.util.*;
 
 /**
@@ -49,6 +52,11 @@ public class SymbolicEvaluator extends AbstractSymbolicEvaluator {
 
     private final double expectedResult;
 
+    /**
+     * Creates further evaluators to perform the tests in parallel. If null, the tests are performed serially.
+     */
+    private EvaluatorWorkerPool.WorkerFactory<SymbolicEvaluator> workerFactory;
+
     /**
      * Creates an object for numerical evaluations.
      * Workflow:
@@ -58,6 +66,18 @@ public class SymbolicEvaluator extends AbstractSymbolicEvaluator {
      */
     public SymbolicEvaluator(
             NativeComputerAlgebraInterfaceBuilder casBuilder
+    ) throws IOException, InitTranslatorException {
+        this(casBuilder, true);
+    }
+
+    /**
+     * @param casBuilder the CAS interface
+     * @param resetStatus false for workers of an {@link EvaluatorWorkerPool} that must not reset the
+     *                    global {@link Status} while other workers are running
+     */
+    private SymbolicEvaluator(
+            NativeComputerAlgebraInterfaceBuilder casBuilder,
+            boolean resetStatus
     ) throws IOException, InitTranslatorException {
         super( new DLMFTranslator(casBuilder.getLanguageKey()), casBuilder.getCASEngine(), casBuilder.getSymbolicEvaluator(), casBuilder.getDefaultSymbolicTestCases() );
 
@@ -91,7 +111,7 @@ public class SymbolicEvaluator extends AbstractSymbolicEvaluator {
             idSkips.add(Integer.parseInt(s));
         }
 
-        Status.reset();
+        if ( resetStatus ) Status.reset();
         mathematica = (casBuilder.getCASEngine() instanceof MathematicaInterface);
         expectedResult = Double.parseDouble(config.getExpectationValue());
     }
@@ -123,6 +143,14 @@ public class SymbolicEvaluator extends AbstractSymbolicEvaluator {
         return testCases;
     }
 
+    @Override
+    protected void adoptTestSetup(AbstractEvaluator primary) {
+        super.adoptTestSetup(primary);
+        SymbolicEvaluator evaluator = (SymbolicEvaluator) primary;
+        this.labelLib = evaluator.labelLib;
+        this.lineResults = evaluator.lineResults;
+    }
+
     @Override
     public EvaluationConfig getConfig() {
         return config;
@@ -151,14 +179,32 @@ public class SymbolicEvaluator extends AbstractSymbolicEvaluator {
         }
     }
 
+    /**
+     * Performs the tests in parallel if more than one worker is specified in the config
+     * and this evaluator is able to start further workers. Otherwise, the tests are performed serially.
+     * Every worker sets the global assumptions in its own CAS session.
+     * @param cases the test cases
+     */
     @Override
     public void performAllTests(LinkedList<Case> cases) {
         try {
             setGlobalAssumption();
-            super.performAllTests(cases);
         } catch ( ComputerAlgebraSystemEngineException casee ) {
             LOG.error("Cannot perform assumptions.", casee);
+            return;
+        }
+
+        int workers = config.getNumberOfWorkers();
+        if ( workers > 1 && workerFactory == null ) {
+            LOG.warn("Unable to start multiple workers for this CAS. Fallback to serial evaluation.");
+        }
+
+        if ( workers < 2 || workerFactory == null ) {
+            super.performAllTests(cases);
+            return;
         }
+
+        new EvaluatorWorkerPool<>(workers, workerFactory).performAllTests(this, cases);
     }
 
     public String[] checkPrevCommand( String caseStr ){
@@ -431,9 +477,23 @@ public class SymbolicEvaluator extends AbstractSymbolicEvaluator {
     public static SymbolicEvaluator createStandardMapleEvaluator() throws Exception {
         SymbolicEvaluator evaluator = new SymbolicEvaluator(new MapleConnector());
         evaluator.init();
+        evaluator.workerFactory = SymbolicEvaluator::createMapleWorker;
         return evaluator;
     }
 
+    /**
+     * Every Maple worker runs in its own JVM with its own RMI registry port and its own assumptions.
+     */
+    private static SymbolicEvaluator createMapleWorker(int workerId) throws Exception {
+        MapleConnector connector = new MapleConnector(
+                new DefaultMapleRmiServerSubprocessInfo(Registry.REGISTRY_PORT + workerId)
+        );
+        SymbolicEvaluator worker = new SymbolicEvaluator(connector, false);
+        worker.init();
+        worker.setGlobalAssumption();
+        return worker;
+    }
+
     public static SymbolicEvaluator createStandardMathematicaEvaluator() throws Exception {
         SymbolicEvaluator evaluator = new SymbolicEvaluator(new MathematicaConnector());
         evaluator.init();
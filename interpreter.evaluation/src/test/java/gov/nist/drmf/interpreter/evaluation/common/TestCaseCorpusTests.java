@@ -0,0 +1,216 @@
+package gov.nist.drmf.interpreter.evaluation.common;
+
+import gov.nist.drmf.interpreter.pom.common.SymbolTag;
+import gov.nist.drmf.interpreter.pom.common.meta.AssumeMLPAvailability;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Andre Greiner-Petter
+ */
+@AssumeMLPAvailability
+public class TestCaseCorpusTests {
+    @TempDir
+    Path tmp;
+
+    private Path dataset;
+    private List<String> datasetLines;
+
+    @BeforeEach
+    void setup() throws IOException {
+        datasetLines = new LinkedList<>();
+        datasetLines.addAll(readResource("gammaSubstitutionConstraintTests.txt"));
+        datasetLines.addAll(readResource("recursiveDefinitionTests.txt"));
+        dataset = tmp.resolve("dataset.txt");
+        Files.write(dataset, datasetLines);
+    }
+
+    @Test
+    void compileTest() throws IOException {
+        TestCaseCorpus corpus = TestCaseCorpus.compile(dataset);
+        assertEquals( datasetLines.size(), corpus.getNumberOfLines() );
+        assertSameAsAnalyzer(corpus);
+
+        assertEquals( "http://dlmf.nist.gov/5.2.E1", corpus.getLine(1).getUrl() );
+        assertTrue( corpus.getLine(1).isSymbolDefinition() );
+        assertFalse( corpus.getLine(2).isSymbolDefinition() );
+    }
+
+    @Test
+    void storeAndLoadTest() throws IOException {
+        TestCaseCorpus compiled = TestCaseCorpus.compile(dataset);
+        Path corpusFile = compiled.store(dataset);
+        assertEquals( TestCaseCorpus.getCorpusPath(dataset), corpusFile );
+
+        TestCaseCorpus loaded = TestCaseCorpus.load(dataset);
+        assertEquals( compiled.getNumberOfLines(), loaded.getNumberOfLines() );
+        assertSameAsAnalyzer(loaded);
+
+        for ( int i = 1; i <= loaded.getNumberOfLines(); i++ ) {
+            TestCaseCorpus.Line expected = compiled.getLine(i);
+            TestCaseCorpus.Line actual = loaded.getLine(i);
+            assertEquals( expected.getUrl(), actual.getUrl() );
+            assertEquals( expected.isSymbolDefinition(), actual.isSymbolDefinition() );
+            assertEquals( expected.hasNoSemanticMath(), actual.hasNoSemanticMath() );
+            assertEquals( expected.getError(), actual.getError() );
+        }
+
+        // the substitution of symbol definitions works on loaded test cases too
+        SymbolDefinedLibrary expectedLib = new SymbolDefinedLibrary();
+        compiled.fillSymbolDefinitions(expectedLib);
+        SymbolDefinedLibrary loadedLib = new SymbolDefinedLibrary();
+        loaded.fillSymbolDefinitions(loadedLib);
+        assertEquals( expectedLib.library.keySet(), loadedLib.library.keySet() );
+
+        for ( int i = 1; i <= loaded.getNumberOfLines(); i++ ) {
+            LinkedList<Case> expected = compiled.getLine(i).getCases();
+            LinkedList<Case> actual = loaded.getLine(i).getCases();
+            if ( expected == null || expected.isEmpty() ) continue;
+            Case expectedCase = expected.getFirst().replaceSymbolsUsed(expectedLib);
+            Case actualCase = actual.getFirst().replaceSymbolsUsed(loadedLib);
+            assertEquals( expectedCase.getRHS(), actualCase.getRHS() );
+            assertEquals( expectedCase.specialValueInfo(), actualCase.specialValueInfo() );
+        }
+    }
+
+    @Test
+    void outdatedTest() throws IOException {
+        TestCaseCorpus.compile(dataset).store(dataset);
+        datasetLines.remove(0);
+        Files.write(dataset, datasetLines);
+
+        TestCaseCorpus loaded = TestCaseCorpus.load(dataset);
+        assertEquals( datasetLines.size(), loaded.getNumberOfLines() );
+        assertSameAsAnalyzer(loaded);
+    }
+
+    @Test
+    void storeAfterCompileTest() throws IOException {
+        Path corpusFile = TestCaseCorpus.getCorpusPath(dataset);
+        assertFalse( Files.exists(corpusFile) );
+
+        TestCaseCorpus compiled = TestCaseCorpus.load(dataset);
+        assertTrue( Files.exists(corpusFile) );
+        assertEquals( compiled.getNumberOfLines(), TestCaseCorpus.load(dataset).getNumberOfLines() );
+
+        // an outdated corpus is replaced by the new one
+        datasetLines.remove(0);
+        Files.write(dataset, datasetLines);
+        long outdatedSize = Files.size(corpusFile);
+        TestCaseCorpus.load(dataset);
+        assertNotEquals( outdatedSize, Files.size(corpusFile) );
+    }
+
+    @Test
+    void unwritableCorpusTest() throws IOException {
+        // a directory in place of the corpus cannot be replaced
+        Path corpusFile = Files.createDirectory(TestCaseCorpus.getCorpusPath(dataset));
+        Files.createFile(corpusFile.resolve("blocker"));
+
+        TestCaseCorpus loaded = assertDoesNotThrow( () -> TestCaseCorpus.load(dataset) );
+        assertEquals( datasetLines.size(), loaded.getNumberOfLines() );
+        assertTrue( Files.isDirectory(corpusFile) );
+        assertFalse( Files.exists(corpusFile.resolveSibling(corpusFile.getFileName() + ".tmp")) );
+    }
+
+    @Test
+    void corruptedTest() throws IOException {
+        Path corpusFile = TestCaseCorpus.compile(dataset).store(dataset);
+        byte[] stored = Files.readAllBytes(corpusFile);
+
+        // sizes of -1 mark missing lists, every corrupted size or index must either load or fall back to the dataset
+        for ( int offset = 0; offset + 4 <= stored.length; offset++ ) {
+            int value = ByteBuffer.wrap(stored).getInt(offset);
+            if ( value < 0 || value > stored.length ) continue;
+            byte[] corrupted = stored.clone();
+            ByteBuffer.wrap(corrupted).putInt(offset, -1);
+            Files.write(corpusFile, corrupted);
+
+            TestCaseCorpus loaded = assertDoesNotThrow( () -> TestCaseCorpus.load(dataset), "Offset " + offset );
+            assertEquals( datasetLines.size(), loaded.getNumberOfLines() );
+        }
+
+        // a truncated corpus falls back to the dataset
+        Files.write(corpusFile, Arrays.copyOf(stored, stored.length / 2));
+        TestCaseCorpus loaded = TestCaseCorpus.load(dataset);
+        assertEquals( datasetLines.size(), loaded.getNumberOfLines() );
+        assertSameAsAnalyzer(loaded);
+    }
+
+    @Test
+    void sliceTest() throws IOException {
+        TestCaseCorpus corpus = TestCaseCorpus.compile(dataset);
+        int size = corpus.getNumberOfLines();
+        assertEquals( List.of(2, 3), corpus.getLines(2, 4).stream().map(TestCaseCorpus.Line::getNumber).collect(Collectors.toList()) );
+        assertEquals( size, corpus.getLines(0, size + 100).size() );
+        assertTrue( corpus.getLines(size + 1, size + 10).isEmpty() );
+        assertTrue( corpus.getLines(3, 2).isEmpty() );
+    }
+
+    private void assertSameAsAnalyzer(TestCaseCorpus corpus) {
+        SymbolDefinedLibrary lib = new SymbolDefinedLibrary();
+        int lineNumber = 0;
+        for ( String line : datasetLines ) {
+            lineNumber++;
+            LinkedList<Case> expected = CaseAnalyzer.analyzeLine(line, lineNumber, lib);
+            LinkedList<Case> actual = corpus.getLine(lineNumber).getCases();
+            if ( expected == null ) {
+                assertNull( actual, line );
+                continue;
+            }
+
+            assertEquals( expected.size(), actual.size(), line );
+            for ( int i = 0; i < expected.size(); i++ ) {
+                Case e = expected.get(i);
+                Case a = actual.get(i);
+                assertEquals( e.getLHS(), a.getLHS() );
+                assertEquals( e.getRHS(), a.getRHS() );
+                assertEquals( e.getRelation(), a.getRelation() );
+                assertEquals( e.getOriginalFormula(), a.getOriginalFormula() );
+                assertEquals( e.getLine(), a.getLine() );
+                assertEquals( e.getDlmf(), a.getDlmf() );
+                assertEquals( e.isDefinition(), a.isDefinition() );
+                assertEquals( e.getRawConstraint(), a.getRawConstraint() );
+                assertEquals( e.specialValueInfo(), a.specialValueInfo() );
+                assertEquals( toString(e.getMetaData().getSymbolsUsed()), toString(a.getMetaData().getSymbolsUsed()) );
+            }
+        }
+
+        SymbolDefinedLibrary corpusLib = new SymbolDefinedLibrary();
+        corpus.fillSymbolDefinitions(corpusLib);
+        assertEquals( lib.library.keySet(), corpusLib.library.keySet() );
+        for ( String id : lib.library.keySet() ) {
+            SymbolTag e = lib.library.get(id);
+            SymbolTag a = corpusLib.library.get(id);
+            assertEquals( e.getSymbol(), a.getSymbol() );
+            assertEquals( e.getDefinition(), a.getDefinition() );
+            assertEquals( e.getMetaData().getVariableSlots(), a.getMetaData().getVariableSlots() );
+        }
+    }
+
+    private static String toString(List<SymbolTag> tags) {
+        if ( tags == null ) return null;
+        return tags.stream().map( t -> t.getId() + ":" + t.getSymbol() ).collect(Collectors.joining(", "));
+    }
+
+    private static List<String> readResource(String name) throws IOException {
+        try ( InputStream in = Objects.requireNonNull(TestCaseCorpusTests.class.getResourceAsStream(name)) ) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package gov.nist.drmf.interpreter.evaluation.core;
+
+import gov.nist.drmf.interpreter.common.constants.Keys;
+import gov.nist.drmf.interpreter.common.eval.EvaluationConfig;
+import gov.nist.drmf.interpreter.common.eval.Label;
+import gov.nist.drmf.interpreter.common.exceptions.InitTranslatorException;
+import gov.nist.drmf.interpreter.common.latex.Relations;
+import gov.nist.drmf.interpreter.common.process.UnrecoverableProcessException;
+import gov.nist.drmf.interpreter.core.api.DLMFTranslator;
+import gov.nist.drmf.interpreter.evaluation.common.Case;
+import gov.nist.drmf.interpreter.pom.common.CaseMetaData;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Andre Greiner-Petter
+ */
+public class EvaluatorWorkerPoolTests {
+
+    private static final int LINES = 40;
+
+    @Test
+    public void lineOrderTest() throws InitTranslatorException {
+        FakeEvaluator primary = new FakeEvaluator(Set.of());
+        Set<Integer> usedWorkers = ConcurrentHashMap.newKeySet();
+        List<FakeEvaluator> workers = Collections.synchronizedList(new LinkedList<>());
+        EvaluatorWorkerPool<FakeEvaluator> pool = new EvaluatorWorkerPool<>(4, id -> {
+            usedWorkers.add(id);
+            FakeEvaluator worker = new FakeEvaluator(Set.of());
+            workers.add(worker);
+            return worker;
+        });
+
+        pool.performAllTests(primary, createCases());
+        assertFalse(usedWorkers.isEmpty());
+        assertEquals(0, pool.getNumberOfRestarts());
+
+        // the pool stops the CAS of all workers it started, but not the CAS of the primary evaluator
+        assertEquals(0, primary.stops);
+        for ( FakeEvaluator worker : workers ) assertEquals(1, worker.stops);
+
+        int total = 3 * (LINES - 1);
+        assertEquals(total, pool.getNumberOfFinishedCases());
+        assertTrue(pool.getThroughput() > 0);
+        assertTrue(pool.getProgressReport().startsWith("Progress: " + total + "/" + total + " test cases (100.0%) of " + (LINES-1) + " finished lines"), pool.getProgressReport());
+
+        LinkedList<String>[] results = primary.getLineResults();
+        for ( int i = 1; i < LINES; i++ ) {
+            assertEquals(List.of(i + ".0", i + ".1", i + ".2"), results[i], "Line " + i);
+        }
+    }
+
+    @Test
+    public void crashedWorkerTest() throws InitTranslatorException {
+        // every worker dies on the second case of line 5 and the first case of line 7,
+        // no matter which worker handles these lines
+        Set<String> crashes = Set.of("5.1", "7.0");
+        FakeEvaluator primary = new FakeEvaluator(crashes);
+        List<FakeEvaluator> workers = Collections.synchronizedList(new LinkedList<>());
+        EvaluatorWorkerPool<FakeEvaluator> pool = new EvaluatorWorkerPool<>(2, id -> {
+            FakeEvaluator worker = new FakeEvaluator(crashes);
+            workers.add(worker);
+            return worker;
+        });
+
+        pool.performAllTests(primary, createCases());
+        LinkedList<String>[] results = primary.getLineResults();
+        for ( int i = 1; i < LINES; i++ ) {
+            if ( i == 5 || i == 7 ) continue;
+            assertEquals(List.of(i + ".0", i + ".1", i + ".2"), results[i], "Line " + i);
+        }
+
+        assertEquals(3, results[5].size());
+        assertEquals("5.0", results[5].get(0));
+        assertTrue(results[5].get(1).startsWith("Error - CAS crashed"), results[5].get(1));
+        assertEquals("5.2", results[5].get(2));
+
+        assertEquals(3, results[7].size());
+        assertTrue(results[7].get(0).startsWith("Error - CAS crashed"), results[7].get(0));
+        assertEquals(List.of("7.1", "7.2"), results[7].subList(1, 3));
+        assertEquals(2, pool.getNumberOfRestarts());
+
+        // dead workers (including a dead primary) are stopped once, the surviving workers are stopped at the end
+        assertTrue(primary.stops <= 1);
+        for ( FakeEvaluator worker : workers ) assertEquals(1, worker.stops);
+    }
+
+    @Test
+    public void crashedPreparationTest() throws InitTranslatorException {
+        // every worker dies when it prepares line 5 (e.g., computes the line in a single batch)
+        // and when it performs the second case of line 5
+        Set<String> crashes = Set.of("5.1");
+        Set<Integer> preparationCrashes = Set.of(5);
+        FakeEvaluator primary = new FakeEvaluator(crashes, preparationCrashes);
+        EvaluatorWorkerPool<FakeEvaluator> pool = new EvaluatorWorkerPool<>(2, id -> new FakeEvaluator(crashes, preparationCrashes));
+
+        pool.performAllTests(primary, createCases());
+        LinkedList<String>[] results = primary.getLineResults();
+        for ( int i = 1; i < LINES; i++ ) {
+            if ( i == 5 ) continue;
+            assertEquals(List.of(i + ".0", i + ".1", i + ".2"), results[i], "Line " + i);
+        }
+
+        // the line is performed one by one, hence only the case that crashed the CAS is an error
+        assertEquals(3, results[5].size());
+        assertEquals("5.0", results[5].get(0));
+        assertTrue(results[5].get(1).startsWith("Error - CAS crashed"), results[5].get(1));
+        assertEquals("5.2", results[5].get(2));
+        assertEquals(2, pool.getNumberOfRestarts());
+        assertEquals(3 * (LINES - 1), pool.getNumberOfFinishedCases());
+    }
+
+    @Test
+    public void crashedPreparationWithoutPoolTest() throws InitTranslatorException {
+        FakeEvaluator evaluator = new FakeEvaluator(Set.of(), Set.of(5));
+        evaluator.performAllTests(new LinkedList<>(createCases()));
+        LinkedList<String>[] results = evaluator.getLineResults();
+        for ( int i = 1; i < LINES; i++ ) {
+            assertEquals(List.of(i + ".0", i + ".1", i + ".2"), results[i], "Line " + i);
+        }
+    }
+
+    @Test
+    public void noWorkerAvailableTest() throws InitTranslatorException {
+        // the primary dies on its first case (no matter which line it gets first) and cannot be replaced
+        Set<String> crashes = new HashSet<>();
+        createCases().forEach( c -> crashes.add(c.getLHS()) );
+        FakeEvaluator primary = new FakeEvaluator(crashes);
+        EvaluatorWorkerPool<FakeEvaluator> pool = new EvaluatorWorkerPool<>(2, id -> {
+            throw new IllegalStateException("No CAS");
+        });
+
+        pool.performAllTests(primary, createCases());
+        LinkedList<String>[] results = primary.getLineResults();
+        int crashed = 0;
+        for ( int i = 1; i < LINES; i++ ) {
+            assertEquals(3, results[i].size(), "Line " + i);
+            for ( String r : results[i] ) {
+                if ( r.startsWith("Error - CAS crashed") ) crashed++;
+                else assertTrue(r.startsWith("Error - No CAS worker"), "Line " + i + ": " + r);
+            }
+        }
+        assertEquals(1, crashed);
+    }
+
+    private static List<Case> createCases() {
+        List<Case> cases = new LinkedList<>();
+        for ( int i = 1; i < LINES; i++ ) {
+            for ( int j = 0; j < 3; j++ ) {
+                CaseMetaData meta = new CaseMetaData(i, new Label("http://dlmf.nist.gov/1.1.E" + i), null, null);
+                cases.add(new Case(i + "." + j, "b", Relations.EQUAL, meta));
+            }
+        }
+        return cases;
+    }
+
+    private static class FakeEvaluator extends AbstractEvaluator {
+        private final Set<String> crashes;
+        private final Set<Integer> preparationCrashes;
+        private LinkedList<String>[] lineResults;
+        private int stops = 0;
+
+        FakeEvaluator(Set<String> crashes) throws InitTranslatorException {
+            this(crashes, Set.of());
+        }
+
+        @SuppressWarnings("unchecked")
+        FakeEvaluator(Set<String> crashes, Set<Integer> preparationCrashes) throws InitTranslatorException {
+            super(new DLMFTranslator(Keys.KEY_MAPLE), null);
+            this.crashes = crashes;
+            this.preparationCrashes = preparationCrashes;
+            this.lineResults = new LinkedList[LINES];
+        }
+
+        @Override
+        protected void adoptTestSetup(AbstractEvaluator primary) {
+            super.adoptTestSetup(primary);
+            this.lineResults = primary.getLineResults();
+        }
+
+        @Override
+        protected void stopEngine() {
+            stops++;
+        }
+
+        @Override
+        protected void prepareLine(List<Case> line) {
+            if ( preparationCrashes.contains(line.get(0).getLine()) ) throw new UnrecoverableProcessException();
+        }
+
+        @Override
+        public void performSingleTest(Case testCase) {
+            if ( crashes.contains(testCase.getLHS()) ) throw new UnrecoverableProcessException();
+            // simulate some computation time, so that all workers get some lines
+            try { Thread.sleep(2); }
+            catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+            if ( lineResults[testCase.getLine()] == null ) lineResults[testCase.getLine()] = new LinkedList<>();
+            lineResults[testCase.getLine()].add(testCase.getLHS());
+        }
+
+        @Override
+        public LinkedList<Case> loadTestCases() {
+            return new LinkedList<>();
+        }
+
+        @Override
+        public EvaluationConfig getConfig() {
+            return null;
+        }
+
+        @Override
+        public HashMap<Integer, String> getLabelLibrary() {
+            return new HashMap<>();
+        }
+
+        @Override
+        public LinkedList<String>[] getLineResults() {
+            return lineResults;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package gov.nist.drmf.interpreter.evaluation.core;
+
+import gov.nist.drmf.interpreter.evaluation.common.Status;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Andre Greiner-Petter
+ */
+public class ResultJournalTests {
+    private static final String RUN = "results.txt [1, 10] LHS-(RHS)";
+
+    @TempDir
+    Path tmp;
+
+    @Test
+    void journalPathTest() {
+        assertEquals( tmp.resolve("results.txt.journal"), ResultJournal.getJournalPath(tmp.resolve("results.txt")) );
+    }
+
+    @Test
+    void resumeTest() throws IOException {
+        Path path = tmp.resolve("results.txt.journal");
+        try ( ResultJournal journal = ResultJournal.open(path, RUN, 1) ) {
+            assertTrue( journal.getFinishedLines().isEmpty() );
+            journal.recordCase(1, List.of("1-a [SUCCESS]", "multi\tline\nresult \\n"), status(Status.SUCCESS_NUM, 2), List.of());
+            journal.recordCase(1, List.of(), status(Status.SKIPPED, 1), List.of());
+            journal.recordLine(1);
+            journal.recordCase(2, List.of("2-a [ERROR]"), status(Status.ERROR, 1), List.of());
+            journal.recordLine(2);
+            // line 3 is not finished when the run crashes
+            journal.recordCase(3, List.of("3-a [SUCCESS]"), status(Status.SUCCESS_NUM, 1), List.of());
+        }
+
+        Status.reset();
+        try ( ResultJournal journal = ResultJournal.open(path, RUN, 1) ) {
+            assertEquals( Set.of(1, 2), journal.getFinishedLines() );
+
+            LinkedList<String>[] lineResults = newLineResults();
+            journal.replay(lineResults, m -> {});
+            assertEquals( List.of("1-a [SUCCESS]", "multi\tline\nresult \\n"), lineResults[1] );
+            assertEquals( List.of("2-a [ERROR]"), lineResults[2] );
+            assertNull( lineResults[3] );
+
+            assertEquals( "SUCCESS_NUM: 2", Status.SUCCESS_NUM.toString() );
+            assertEquals( "SKIPPED: 1", Status.SKIPPED.toString() );
+            assertEquals( "ERROR: 1", Status.ERROR.toString() );
+        }
+        Status.reset();
+
+        // the records of the unfinished line 3 are dropped
+        assertFalse( Files.readString(path).contains("3-a") );
+    }
+
+    @Test
+    void incompleteRecordTest() throws IOException {
+        Path path = tmp.resolve("results.txt.journal");
+        try ( ResultJournal journal = ResultJournal.open(path, RUN, 0) ) {
+            journal.recordCase(1, List.of("1-a"), status(Status.SUCCESS_NUM, 1), List.of());
+            journal.recordLine(1);
+            journal.recordCase(2, List.of("2-a"), status(Status.SUCCESS_NUM, 1), List.of());
+        }
+        // the run crashed while it wrote the line record of line 2
+        Files.write(path, "L\t2".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        try ( ResultJournal journal = ResultJournal.open(path, RUN, 0) ) {
+            assertEquals( Set.of(1), journal.getFinishedLines() );
+            journal.recordCase(2, List.of("2-b"), status(Status.SUCCESS_NUM, 1), List.of());
+            journal.recordLine(2);
+        }
+
+        try ( ResultJournal journal = ResultJournal.open(path, RUN, 0) ) {
+            assertEquals( Set.of(1, 2), journal.getFinishedLines() );
+            LinkedList<String>[] lineResults = newLineResults();
+            journal.replay(lineResults, m -> {});
+            assertEquals( List.of("2-b"), lineResults[2] );
+        }
+        Status.reset();
+    }
+
+    @Test
+    void missingMacrosTest() throws IOException {
+        Path path = tmp.resolve("results.txt.journal");
+        try ( ResultJournal journal = ResultJournal.open(path, RUN, 1) ) {
+            journal.recordCase(1, List.of("1-a [ERROR]"), status(Status.MISSING, 2), List.of("\\macro", "\\macro"));
+            journal.recordCase(1, List.of("1-b [ERROR]"), status(Status.MISSING, 1), List.of("\\other\tmacro"));
+            journal.recordLine(1);
+            // the missing macros of an unfinished line are dropped
+            journal.recordCase(2, List.of("2-a [ERROR]"), status(Status.MISSING, 1), List.of("\\unfinished"));
+        }
+
+        try ( ResultJournal journal = ResultJournal.open(path, RUN, 1) ) {
+            List<String> macros = new LinkedList<>();
+            journal.replay(newLineResults(), macros::add);
+            assertEquals( List.of("\\macro", "\\macro", "\\other\tmacro"), macros );
+        }
+        Status.reset();
+    }
+
+    @Test
+    void corruptedStatusTest() throws IOException {
+        Path path = tmp.resolve("results.txt.journal");
+        try ( ResultJournal journal = ResultJournal.open(path, RUN, 1) ) {
+            journal.recordCase(1, List.of("1-a"), status(Status.SUCCESS_NUM, 1), List.of());
+            journal.recordLine(1);
+        }
+        // an unknown status name, e.g., of an older version
+        Files.write(path, "C\t2\tUNKNOWN=1\t2-a\nL\t2\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        Status.reset();
+        try ( ResultJournal journal = ResultJournal.open(path, RUN, 1) ) {
+            assertEquals( Set.of(1, 2), journal.getFinishedLines() );
+            LinkedList<String>[] lineResults = newLineResults();
+            journal.replay(lineResults, m -> {});
+            assertEquals( List.of("1-a"), lineResults[1] );
+            assertNull( lineResults[2] );
+            assertEquals( "SUCCESS_NUM: 1", Status.SUCCESS_NUM.toString() );
+        }
+        Status.reset();
+    }
+
+    @Test
+    void newRunTest() throws IOException {
+        Path path = tmp.resolve("results.txt.journal");
+        try ( ResultJournal journal = ResultJournal.open(path, RUN, 1) ) {
+            journal.recordCase(1, List.of("1-a"), status(Status.SUCCESS_NUM, 1), List.of());
+            journal.recordLine(1);
+        }
+
+        // another subset does not continue the journal
+        try ( ResultJournal journal = ResultJournal.open(path, "results.txt [10, 20] LHS-(RHS)", 1) ) {
+            assertTrue( journal.getFinishedLines().isEmpty() );
+            journal.recordCase(10, List.of("10-a"), status(Status.SUCCESS_NUM, 1), List.of());
+            journal.recordLine(10);
+            journal.finish();
+        }
+
+        // a finished run does not continue the journal either
+        try ( ResultJournal journal = ResultJournal.open(path, "results.txt [10, 20] LHS-(RHS)", 1) ) {
+            assertTrue( journal.getFinishedLines().isEmpty() );
+        }
+    }
+
+    @Test
+    void rebuildReportTest() throws IOException {
+        // the same counters a live run adds
+        Status.reset();
+        Status.SKIPPED.add();
+        int[] setup = Status.getCounters();
+        Status.startRecording();
+        Status.STARTED_TEST_CASES.add();
+        Status.SUCCESS_NUM.add();
+        int[] line1 = Status.stopRecording();
+        Status.startRecording();
+        Status.STARTED_TEST_CASES.add();
+        Status.ERROR.add();
+        int[] line3 = Status.stopRecording();
+        String overall = Status.buildString();
+        Status.reset();
+
+        Path output = tmp.resolve("results.txt");
+        Path path = ResultJournal.getJournalPath(output);
+        try ( ResultJournal journal = ResultJournal.open(path, RUN, "LHS-(RHS)", 1) ) {
+            journal.recordSetup(setup);
+            journal.recordCase(1, List.of("Successful [SUCCESS]", "Ignore"), line1, List.of());
+            journal.recordLine(1, "http://dlmf.nist.gov/5.2.E1");
+            journal.recordCase(3, List.of("Error [ERROR]"), line3, List.of());
+            journal.recordLine(3);
+            // line 4 is not finished when the run crashes
+            journal.recordCase(4, List.of("Unfinished [SUCCESS]"), status(Status.SUCCESS_NUM, 1), List.of());
+        }
+
+        String nl = AbstractEvaluator.NL;
+        String expected = "Overall: " + overall + " for test expression: LHS-(RHS)" + nl +
+                "1 [http://dlmf.nist.gov/5.2.E1]: Successful [SUCCESS]" + nl +
+                "3: Error [ERROR]" + nl;
+        assertEquals( expected, ResultJournal.buildReport(path) );
+
+        // the report is written to the output file of the run by default
+        ResultJournal.main(new String[]{path.toString()});
+        assertEquals( expected, Files.readString(output) );
+        // building the report does not change the journal
+        try ( ResultJournal journal = ResultJournal.open(path, RUN, "LHS-(RHS)", 1) ) {
+            assertEquals( Set.of(1, 3), journal.getFinishedLines() );
+        }
+    }
+
+    @Test
+    void rebuildReportOfNoJournalTest() throws IOException {
+        Path path = tmp.resolve("results.txt");
+        Files.writeString(path, "Overall: [TOTAL: 0]\n");
+        assertThrows( IOException.class, () -> ResultJournal.buildReport(path) );
+    }
+
+    private static int[] status(Status status, int count) {
+        int[] counters = new int[Status.values().length];
+        counters[status.ordinal()] = count;
+        return counters;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static LinkedList<String>[] newLineResults() {
+        return new LinkedList[5];
+    }
+}
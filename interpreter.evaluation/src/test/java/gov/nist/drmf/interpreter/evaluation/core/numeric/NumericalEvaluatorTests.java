@@ -0,0 +1,68 @@
+package gov.nist.drmf.interpreter.evaluation.core.numeric;
+
+import gov.nist.drmf.interpreter.common.cas.ICASEngineNumericalEvaluator;
+import gov.nist.drmf.interpreter.common.eval.Label;
+import gov.nist.drmf.interpreter.common.eval.NumericResult;
+import gov.nist.drmf.interpreter.common.eval.NumericalConfig;
+import gov.nist.drmf.interpreter.common.eval.NumericalTest;
+import gov.nist.drmf.interpreter.common.latex.Relations;
+import gov.nist.drmf.interpreter.common.numeric.JavaNumericConnector;
+import gov.nist.drmf.interpreter.common.numeric.JavaNumericalEvaluator;
+import gov.nist.drmf.interpreter.common.numeric.NumericDialect;
+import gov.nist.drmf.interpreter.common.process.UnrecoverableProcessException;
+import gov.nist.drmf.interpreter.evaluation.common.Case;
+import gov.nist.drmf.interpreter.pom.common.CaseMetaData;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Andre Greiner-Petter
+ */
+public class NumericalEvaluatorTests {
+
+    @Test
+    public void crashedCASTest() throws Exception {
+        NumericalEvaluator evaluator = new NumericalEvaluator(new CrashingConnector());
+        evaluator.initLineResults(new int[]{1, 10}, new HashMap<>());
+
+        Case c = createCase(3, "x^2", "x \\cdot x");
+        // the worker pool must see the crash to replace the dead CAS
+        assertThrows(UnrecoverableProcessException.class, () -> evaluator.performSingleTest(c));
+        LinkedList<String>[] results = evaluator.getLineResults();
+        assertTrue(results[3].isEmpty(), "The crash must not be reported as an ordinary error: " + results[3]);
+    }
+
+    @Test
+    public void computedTest() throws Exception {
+        NumericalEvaluator evaluator = new NumericalEvaluator(new JavaNumericConnector());
+        evaluator.initLineResults(new int[]{1, 10}, new HashMap<>());
+
+        evaluator.performSingleTest(createCase(3, "x^2", "x \\cdot x"));
+        LinkedList<String>[] results = evaluator.getLineResults();
+        assertEquals(1, results[3].size());
+        assertTrue(results[3].getFirst().startsWith("Successful"), results[3].getFirst());
+    }
+
+    private static Case createCase(int line, String lhs, String rhs) {
+        CaseMetaData meta = new CaseMetaData(line, new Label("http://dlmf.nist.gov/1.1.E" + line), null, new LinkedList<>());
+        return new Case(lhs, rhs, Relations.EQUAL, meta);
+    }
+
+    private static class CrashingConnector extends JavaNumericConnector {
+        private final JavaNumericalEvaluator evaluator = new JavaNumericalEvaluator(NumericDialect.MAPLE, new NumericalConfig()) {
+            @Override
+            public NumericResult performNumericTest(NumericalTest test) {
+                throw new UnrecoverableProcessException();
+            }
+        };
+
+        @Override
+        public ICASEngineNumericalEvaluator getNumericEvaluator() {
+            return evaluator;
+        }
+    }
+}
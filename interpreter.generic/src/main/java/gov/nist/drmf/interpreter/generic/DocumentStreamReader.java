@@ -0,0 +1,151 @@
+package gov.nist.drmf.interpreter.generic;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.formulasearchengine.mathosphere.mlp.contracts.WikiTextPageExtractorMapper;
+import com.formulasearchengine.mathosphere.mlp.pojos.RawWikiDocument;
+import gov.nist.drmf.interpreter.generic.mlp.Document;
+import gov.nist.drmf.interpreter.generic.mlp.WikitextDocument;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazily reads documents from large collections. Only the currently read document is kept in memory.
+ * Two formats are supported:
+ * <ul>
+ *     <li>JSONL, i.e., one JSON object per line with a {@code title} and a {@code content} (or {@code text}) field,</li>
+ *     <li>MediaWiki XML dumps, i.e., a sequence of {@code <page>...</page>} elements.</li>
+ * </ul>
+ *
+ * @author Andre Greiner-Petter
+ */
+public final class DocumentStreamReader {
+    private static final Logger LOG = LogManager.getLogger(DocumentStreamReader.class.getName());
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private DocumentStreamReader() {}
+
+    /**
+     * Reads documents from JSONL. Empty or invalid lines are skipped.
+     * @param reader the reader, it is closed when the stream is closed
+     * @return lazy stream of documents
+     */
+    public static Stream<Document> readJsonl(BufferedReader reader) {
+        return reader.lines()
+                .filter( l -> !l.isBlank() )
+                .map( DocumentStreamReader::parseJsonlDocument )
+                .filter( Objects::nonNull )
+                .onClose( () -> close(reader) );
+    }
+
+    /**
+     * Reads all pages of a MediaWiki XML dump.
+     * @param reader the reader, it is closed when the stream is closed
+     * @return lazy stream of documents
+     */
+    public static Stream<Document> readWikitextDump(BufferedReader reader) {
+        WikiTextPageExtractorMapper pageMapper = new WikiTextPageExtractorMapper();
+        Iterator<String> pages = new PageIterator(reader);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(pages, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .flatMap( pageMapper::streamFlatMap )
+                .map( p -> (Document) new WikitextDocument(p) )
+                .onClose( () -> close(reader) );
+    }
+
+    static RawWikiDocument parseJsonl(String line) {
+        try {
+            JsonNode node = MAPPER.readTree(line);
+            JsonNode content = node.has("content") ? node.get("content") : node.get("text");
+            if ( content == null || content.isNull() ) {
+                LOG.warn("Skip JSONL document without content: " + shorten(line));
+                return null;
+            }
+            String title = node.hasNonNull("title") ? node.get("title").asText() : "Unknown";
+            return new RawWikiDocument(title, 0, content.asText());
+        } catch (IOException e) {
+            LOG.warn("Skip invalid JSONL line: " + shorten(line));
+            return null;
+        }
+    }
+
+    private static Document parseJsonlDocument(String line) {
+        RawWikiDocument raw = parseJsonl(line);
+        return raw == null ? null : new WikitextDocument(raw);
+    }
+
+    private static String shorten(String line) {
+        return line.length() > 100 ? line.substring(0, 100) + "..." : line;
+    }
+
+    private static void close(BufferedReader reader) {
+        try {
+            reader.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Iterates over the {@code <page>...</page>} elements of a dump, one page at a time.
+     */
+    static final class PageIterator implements Iterator<String> {
+        private final BufferedReader reader;
+        private String next;
+
+        PageIterator(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if ( next == null ) next = readPage();
+            return next != null;
+        }
+
+        @Override
+        public String next() {
+            if ( !hasNext() ) throw new NoSuchElementException();
+            String page = next;
+            next = null;
+            return page;
+        }
+
+        private String readPage() {
+            try {
+                StringBuilder sb = null;
+                String line;
+                while ( (line = reader.readLine()) != null ) {
+                    if ( sb == null ) {
+                        int start = line.indexOf("<page>");
+                        if ( start < 0 ) continue;
+                        sb = new StringBuilder();
+                        line = line.substring(start);
+                    }
+
+                    int end = line.indexOf("</page>");
+                    if ( end >= 0 ) {
+                        sb.append(line, 0, end + "</page>".length());
+                        return sb.toString();
+                    }
+                    sb.append(line).append(System.lineSeparator());
+                }
+                if ( sb != null ) LOG.warn("Dump ended within an unclosed page element. Ignore the last page.");
+                return null;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
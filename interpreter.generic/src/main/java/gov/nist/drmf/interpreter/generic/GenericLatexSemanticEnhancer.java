@@ -22,9 +22,11 @@ import gov.nist.drmf.interpreter.generic.mlp.ContextAnalyzer;
 import gov.nist.drmf.interpreter.generic.mlp.Document;
 import gov.nist.drmf.interpreter.generic.mlp.SemanticEnhancer;
 import gov.nist.drmf.interpreter.generic.mlp.WikitextDocument;
+import gov.nist.drmf.interpreter.generic.mlp.cas.CASComputationExecutor;
 import gov.nist.drmf.interpreter.generic.mlp.cas.CASTranslators;
 import gov.nist.drmf.interpreter.generic.mlp.pojo.MLPDependencyGraph;
 import gov.nist.drmf.interpreter.generic.mlp.pojo.MOIAnnotation;
+import gov.nist.drmf.interpreter.generic.mlp.pojo.MOIChangeTracker;
 import gov.nist.drmf.interpreter.generic.mlp.pojo.MOIPresentations;
 import gov.nist.drmf.interpreter.generic.mlp.pojo.SemanticEnhancedDocument;
 import gov.nist.drmf.interpreter.pom.moi.MOINode;
@@ -40,6 +42,11 @@ import java.nio.file.Paths;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 /**
@@ -50,6 +57,7 @@ import java.util.stream.Collectors;
 public class GenericLatexSemanticEnhancer implements IGenericLatexSemanticEnhancerAPI {
     private static final Logger LOG = LogManager.getLogger(GenericLatexSemanticEnhancer.class.getName());
 
+    private final GenericLacastConfig config;
     private final SemanticEnhancer semanticEnhancer;
 
     /**
@@ -63,6 +71,7 @@ public class GenericLatexSemanticEnhancer implements IGenericLatexSemanticEnhanc
      * Constructs a new instance of the class
      */
     public GenericLatexSemanticEnhancer(GenericLacastConfig config) {
+        this.config = config;
         this.semanticEnhancer = new SemanticEnhancer(config);
     }
 
@@ -82,14 +91,52 @@ public class GenericLatexSemanticEnhancer implements IGenericLatexSemanticEnhanc
         annotatedDocument.requires(SemanticEnhancedAnnotationStatus.SEMANTICALLY_ANNOTATED);
 
         MLPDependencyGraph graph = new MLPDependencyGraph(annotatedDocument.getFormulae());
+        List<MOIPresentations> formulae = annotatedDocument.getFormulae();
+        int threads = Math.min(config.getTranslationThreads(), formulae.size());
+        if ( threads > 1 ) {
+            appendTranslationsConcurrently(formulae, graph, threads);
+            return annotatedDocument;
+        }
+
         CASTranslators casTranslators = new CASTranslators();
-        for ( MOIPresentations formula : annotatedDocument.getFormulae() ) {
+        for ( MOIPresentations formula : formulae ) {
             appendTranslationToMOI(formula, graph.getNode(formula.getId()), casTranslators);
         }
 
         return annotatedDocument;
     }
 
+    /**
+     * Translates the given formulae concurrently. The translation of a formula only reads the annotations
+     * of the formulae it depends on but never their translations. Hence, all formulae are independent of each
+     * other and the results are the same as translating them one after another. Every thread uses its own
+     * translators.
+     */
+    private void appendTranslationsConcurrently(List<MOIPresentations> formulae, MLPDependencyGraph graph, int threads) {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        ThreadLocal<CASTranslators> casTranslators = ThreadLocal.withInitial(CASTranslators::new);
+        try {
+            List<Future<?>> futures = new ArrayList<>(formulae.size());
+            for ( MOIPresentations formula : formulae ) {
+                MOINode<MOIAnnotation> node = graph.getNode(formula.getId());
+                futures.add( executor.submit(() -> appendTranslationToMOI(formula, node, casTranslators.get())) );
+            }
+
+            for ( Future<?> future : futures ) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            LOG.warn("Interrupted while translating the formulae. Not all formulae may be translated.");
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            if ( e.getCause() instanceof RuntimeException ) throw (RuntimeException) e.getCause();
+            if ( e.getCause() instanceof Error ) throw (Error) e.getCause();
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     public MOIPresentations appendTranslationToMoi(SemanticEnhancedDocument context, MOIPresentations moi) {
         context.requires(SemanticEnhancedAnnotationStatus.SEMANTICALLY_ANNOTATED);
 
@@ -98,18 +145,35 @@ public class GenericLatexSemanticEnhancer implements IGenericLatexSemanticEnhanc
         return moi;
     }
 
+    /**
+     * Translates and computes only the formulae of the given document that are affected by changes
+     * since their last translation, i.e., formulae with changed annotations and formulae that depend on them
+     * (see {@link MOIChangeTracker}). The results of all other formulae are kept as they are.
+     * Computations are only appended if the semantic LaTeX of a formula changed. Formulae that were
+     * never updated by this method before are translated again.
+     * @param sed the document
+     * @return the same document with updated translations and computations
+     */
     public SemanticEnhancedDocument appendCASComputationsIfChanged(SemanticEnhancedDocument sed) {
         if ( sed == null || sed.getFormulae() == null ) return sed;
 
-        MLPDependencyGraph graph = new MLPDependencyGraph(sed.getFormulae());
+        MOIChangeTracker tracker = new MOIChangeTracker(sed.getFormulae());
+        Set<String> affected = tracker.getAffectedIds(config.getMaxDepth());
+        LOG.info("Update " + affected.size() + " of " + sed.getFormulae().size() + " formulae");
+        if ( affected.isEmpty() ) return sed;
+
+        // the dependency graph only requires the affected formulae and the formulae they depend on
+        MLPDependencyGraph graph = new MLPDependencyGraph(tracker.getRequiredFormulae(affected, config.getMaxDepth()));
         CASTranslators casTranslators = new CASTranslators();
-        int max = sed.getFormulae().size();
+        int max = affected.size();
         int counter = 0;
         for ( MOIPresentations formula : sed.getFormulae() ) {
+            if ( !affected.contains(formula.getId()) ) continue;
             counter++;
             String oldSemantic = formula.getSemanticLatex();
             LOG.info("Update translation for " + counter + "/" + max);
             appendTranslationToMOI(formula, graph.getNode(formula.getId()), casTranslators);
+            tracker.updateFingerprint(formula);
             String newSemantic = formula.getSemanticLatex();
 
             if ( oldSemantic == null || !oldSemantic.equals(newSemantic) ) {
@@ -128,18 +192,31 @@ public class GenericLatexSemanticEnhancer implements IGenericLatexSemanticEnhanc
 
     @Override
     public SemanticEnhancedDocument appendCASComputationsToDocument(SemanticEnhancedDocument semanticDocument) throws MinimumRequirementNotFulfilledException {
+        return appendCASComputationsToDocumentAsync(semanticDocument).join();
+    }
+
+    /**
+     * Appends the computation results to all formulae of the given document asynchronously. The computations
+     * in different CAS run concurrently and every formula is limited by the computation timeout of the config.
+     * Cancelling the future cancels all computations of the document.
+     * @param semanticDocument a translated document
+     * @return the future that completes with the given document once all computations finished
+     * @throws MinimumRequirementNotFulfilledException if the document was not translated
+     */
+    public CompletableFuture<SemanticEnhancedDocument> appendCASComputationsToDocumentAsync(SemanticEnhancedDocument semanticDocument) throws MinimumRequirementNotFulfilledException {
         semanticDocument.requires(SemanticEnhancedAnnotationStatus.TRANSLATED);
 
         List<MOIPresentations> formulae = semanticDocument.getFormulae();
+        List<CompletableFuture<MOIPresentations>> futures = new LinkedList<>();
         for ( MOIPresentations moi : formulae ) {
             try {
-                semanticEnhancer.appendComputationResults(moi);
+                futures.add( semanticEnhancer.appendComputationResultsAsync(moi) );
             } catch ( MinimumRequirementNotFulfilledException m ) {
                 // ignore it... because maybe this case could simply not be translated ;)
             }
         }
 
-        return semanticDocument;
+        return CASComputationExecutor.thenApply( CASComputationExecutor.allOf(futures), v -> semanticDocument );
     }
 
     @Override
@@ -0,0 +1,314 @@
+package gov.nist.drmf.interpreter.generic;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import gov.nist.drmf.interpreter.common.config.GenericLacastConfig;
+import gov.nist.drmf.interpreter.generic.macro.MacroSearchCache;
+import gov.nist.drmf.interpreter.generic.mlp.Document;
+import gov.nist.drmf.interpreter.generic.mlp.pojo.SemanticEnhancedDocument;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * <p>
+ * A streaming pipeline that semantically enhances large collections of documents. The pipeline consists of
+ * the stages annotation, translation and CAS computation (see {@link Stage}). Every stage runs on its own
+ * number of threads and the stages are connected by bounded queues. If a stage is slower than its predecessor,
+ * the queue fills up and the predecessor blocks (backpressure). Hence, at most
+ * {@code (number of stages + 1) * capacity} documents plus the documents currently in process are kept in memory.
+ * </p>
+ *
+ * <p>
+ * The documents are written to the sink in the order they finished, not necessarily in the input order.
+ * Documents that fail in one of the stages are logged and dropped.
+ * </p>
+ *
+ * @author Andre Greiner-Petter
+ */
+public class SemanticEnhancementPipeline {
+    private static final Logger LOG = LogManager.getLogger(SemanticEnhancementPipeline.class.getName());
+
+    /**
+     * The stages of the pipeline in the order of their execution.
+     */
+    public enum Stage {
+        ANNOTATE, TRANSLATE, COMPUTE
+    }
+
+    private final Function<Document, SemanticEnhancedDocument> annotator;
+    private final UnaryOperator<SemanticEnhancedDocument> translator;
+    private final UnaryOperator<SemanticEnhancedDocument> calculator;
+
+    private Stage lastStage = Stage.COMPUTE;
+
+    private int annotationWorkers = Runtime.getRuntime().availableProcessors();
+    private int translationWorkers = Runtime.getRuntime().availableProcessors();
+    private int computationWorkers = 1;
+
+    private int capacity = 16;
+
+    private final AtomicLong failed = new AtomicLong(0);
+
+    public SemanticEnhancementPipeline(GenericLatexSemanticEnhancer enhancer) {
+        this(
+                enhancer::getSemanticEnhancedDocument,
+                enhancer::appendTranslationsToDocument,
+                enhancer::appendCASComputationsToDocument
+        );
+    }
+
+    SemanticEnhancementPipeline(
+            Function<Document, SemanticEnhancedDocument> annotator,
+            UnaryOperator<SemanticEnhancedDocument> translator,
+            UnaryOperator<SemanticEnhancedDocument> calculator
+    ) {
+        this.annotator = annotator;
+        this.translator = translator;
+        this.calculator = calculator;
+    }
+
+    /**
+     * @param lastStage the last stage that will be performed, e.g., {@link Stage#TRANSLATE} skips the CAS computations
+     * @return this pipeline
+     */
+    public SemanticEnhancementPipeline setLastStage(Stage lastStage) {
+        this.lastStage = lastStage;
+        return this;
+    }
+
+    public SemanticEnhancementPipeline setAnnotationWorkers(int annotationWorkers) {
+        this.annotationWorkers = Math.max(1, annotationWorkers);
+        return this;
+    }
+
+    public SemanticEnhancementPipeline setTranslationWorkers(int translationWorkers) {
+        this.translationWorkers = Math.max(1, translationWorkers);
+        return this;
+    }
+
+    /**
+     * Note that the CAS computations of a single {@link GenericLatexSemanticEnhancer} are synchronized.
+     * Hence, more computation workers only help to overlap computations with the other stages.
+     * @param computationWorkers the number of threads for CAS computations
+     * @return this pipeline
+     */
+    public SemanticEnhancementPipeline setComputationWorkers(int computationWorkers) {
+        this.computationWorkers = Math.max(1, computationWorkers);
+        return this;
+    }
+
+    /**
+     * @param capacity the maximum number of documents that wait between two stages
+     * @return this pipeline
+     */
+    public SemanticEnhancementPipeline setCapacity(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        return this;
+    }
+
+    /**
+     * @return the number of documents that failed in the last run
+     */
+    public long getNumberOfFailedDocuments() {
+        return failed.get();
+    }
+
+    /**
+     * Processes all documents of the given stream and passes the results to the sink. The sink is only
+     * called by the calling thread. This method blocks until all documents are processed.
+     * @param documents the documents, the stream is consumed lazily
+     * @param sink consumes the enhanced documents
+     * @return the number of documents passed to the sink
+     * @throws InterruptedException if the calling thread was interrupted
+     */
+    public long process(Stream<Document> documents, Consumer<SemanticEnhancedDocument> sink) throws InterruptedException {
+        failed.set(0);
+        List<StageSpec> stages = new LinkedList<>();
+        stages.add(new StageSpec(Stage.ANNOTATE, annotationWorkers, o -> annotator.apply((Document) o)));
+        if ( lastStage.compareTo(Stage.TRANSLATE) >= 0 )
+            stages.add(new StageSpec(Stage.TRANSLATE, translationWorkers, o -> translator.apply((SemanticEnhancedDocument) o)));
+        if ( lastStage.compareTo(Stage.COMPUTE) >= 0 )
+            stages.add(new StageSpec(Stage.COMPUTE, computationWorkers, o -> calculator.apply((SemanticEnhancedDocument) o)));
+
+        int threads = 1 + stages.stream().mapToInt( s -> s.workers ).sum();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            BlockingQueue<Object> source = new ArrayBlockingQueue<>(capacity);
+            Future<?> reader = executor.submit(() -> read(documents, source, stages.get(0).workers));
+
+            BlockingQueue<Object> in = source;
+            for ( int i = 0; i < stages.size(); i++ ) {
+                StageSpec spec = stages.get(i);
+                int consumers = i + 1 < stages.size() ? stages.get(i + 1).workers : 1;
+                BlockingQueue<Object> out = new ArrayBlockingQueue<>(capacity);
+                AtomicInteger running = new AtomicInteger(spec.workers);
+                for ( int w = 0; w < spec.workers; w++ ) {
+                    BlockingQueue<Object> stageIn = in;
+                    executor.submit(() -> runStage(spec, stageIn, out, running, consumers));
+                }
+                in = out;
+            }
+
+            long written = 0;
+            Object next;
+            while ( (next = in.take()) != END ) {
+                sink.accept((SemanticEnhancedDocument) next);
+                written++;
+            }
+
+            try {
+                reader.get();
+            } catch (ExecutionException e) {
+                LOG.error("Unable to read all documents.", e.getCause());
+            }
+            return written;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Marks the end of the stream. Every worker of a stage receives its own end marker.
+     */
+    private static final Object END = new Object();
+
+    private static final class StageSpec {
+        private final Stage stage;
+        private final int workers;
+        private final Function<Object, SemanticEnhancedDocument> task;
+
+        private StageSpec(Stage stage, int workers, Function<Object, SemanticEnhancedDocument> task) {
+            this.stage = stage;
+            this.workers = workers;
+            this.task = task;
+        }
+    }
+
+    private static void read(Stream<Document> documents, BlockingQueue<Object> out, int consumers) {
+        try {
+            Iterator<Document> it = documents.iterator();
+            while ( it.hasNext() ) {
+                out.put(it.next());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (RuntimeException e) {
+            LOG.error("Unable to read further documents. Stop reading.", e);
+        }
+
+        try {
+            for ( int i = 0; i < consumers; i++ ) out.put(END);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runStage(
+            StageSpec spec,
+            BlockingQueue<Object> in,
+            BlockingQueue<Object> out,
+            AtomicInteger running,
+            int consumers
+    ) {
+        try {
+            Object next;
+            while ( (next = in.take()) != END ) {
+                SemanticEnhancedDocument result = null;
+                try {
+                    result = spec.task.apply(next);
+                } catch (Exception | Error e) {
+                    LOG.warn("Stage " + spec.stage + " failed for document " + titleOf(next) + ". Drop the document.", e);
+                }
+
+                if ( result != null ) out.put(result);
+                else failed.incrementAndGet();
+            }
+
+            // the last worker of this stage signals the end to all workers of the next stage
+            if ( running.decrementAndGet() == 0 ) {
+                for ( int i = 0; i < consumers; i++ ) out.put(END);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String titleOf(Object o) {
+        if ( o instanceof Document ) return ((Document) o).getTitle();
+        if ( o instanceof SemanticEnhancedDocument ) return ((SemanticEnhancedDocument) o).getTitle();
+        return String.valueOf(o);
+    }
+
+    /**
+     * Semantically enhances the documents of a JSONL file or a MediaWiki dump and writes the results as JSONL.
+     * Arguments: {@code <input> <output> [--wiki] [--stage ANNOTATE|TRANSLATE|COMPUTE]}
+     * @param args the arguments
+     * @throws Exception if the input cannot be read or the output cannot be written
+     */
+    public static void main(String[] args) throws Exception {
+        if ( args == null || args.length < 2 ) {
+            System.out.println("Usage: <input> <output> [--wiki] [--stage ANNOTATE|TRANSLATE|COMPUTE]");
+            return;
+        }
+
+        Path input = Paths.get(args[0]);
+        Path output = Paths.get(args[1]);
+        boolean wikiDump = false;
+        Stage stage = Stage.COMPUTE;
+        for ( int i = 2; i < args.length; i++ ) {
+            if ( args[i].matches("--?wiki") ) wikiDump = true;
+            else if ( args[i].matches("--?stage") && i + 1 < args.length ) stage = Stage.valueOf(args[++i].toUpperCase());
+        }
+
+        GenericLacastConfig config = GenericLacastConfig.getDefaultConfig();
+        SemanticEnhancementPipeline pipeline = new SemanticEnhancementPipeline(new GenericLatexSemanticEnhancer(config))
+                .setLastStage(stage);
+        ObjectWriter writer = SemanticEnhancedDocument.getMapper().writer().without(SerializationFeature.INDENT_OUTPUT);
+
+        Instant start = Instant.now();
+        BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8);
+        try (
+                Stream<Document> docs = wikiDump ?
+                        DocumentStreamReader.readWikitextDump(reader) :
+                        DocumentStreamReader.readJsonl(reader);
+                BufferedWriter out = Files.newBufferedWriter(output, StandardCharsets.UTF_8)
+        ) {
+            long written = pipeline.process(docs, sed -> {
+                try {
+                    out.write(writer.writeValueAsString(sed));
+                    out.newLine();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            Duration elapsed = Duration.between(start, Instant.now());
+            LOG.info("Wrote " + written + " documents to " + output + " (" + pipeline.getNumberOfFailedDocuments()
+                    + " failed) [" + elapsed + "]");
+        }
+        // the next batch job starts with the cached macro search results of this run
+        MacroSearchCache.storeInstance(config);
+    }
+}
@@ -6,6 +6,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import gov.nist.drmf.interpreter.common.config.ElasticSearchConfig;
 import gov.nist.drmf.interpreter.common.constants.GlobalPaths;
+import gov.nist.drmf.interpreter.generic.interfaces.IMacroSearchEngine;
 import gov.nist.drmf.interpreter.generic.macro.MacroBean;
 import gov.nist.drmf.interpreter.generic.macro.MacroDefinitionStyleFileParser;
 import org.apache.http.HttpHost;
@@ -18,6 +19,8 @@ import org.elasticsearch.action.bulk.BulkItemResponse;
 import org.elasticsearch.action.bulk.BulkRequest;
 import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.search.MultiSearchRequest;
+import org.elasticsearch.action.search.MultiSearchResponse;
 import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.action.support.WriteRequest;
@@ -42,43 +45,118 @@ import java.io.IOException;
 import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.util.HashMap;
-import java.util.LinkedList;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Consumer;
 
 import static gov.nist.drmf.interpreter.common.constants.GlobalPaths.PATH_ELASTICSEARCH_INDEX_CONFIG;
 
 /**
  * To avoid complications in the first place, the current interface is entirely implemented
  * synchronously!
+ *
+ * Creating a client opens a new connection pool. Hence, it is recommended to use a long-living shared client
+ * (see {@link #getSharedClient(ElasticSearchConfig)}) rather than creating new clients for every request.
  * @author Andre Greiner-Petter
  */
-public class DLMFElasticSearchClient {
+public class DLMFElasticSearchClient implements IMacroSearchEngine {
     private static final Logger LOG = LogManager.getLogger(DLMFElasticSearchClient.class.getName());
 
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
             .enable(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY);
 
+    private static final Map<String, DLMFElasticSearchClient> SHARED_CLIENTS = new HashMap<>();
+    private static boolean shutdownHookRegistered = false;
+
+    private static final ThreadFactory DAEMON_THREADS = r -> {
+        Thread t = Executors.defaultThreadFactory().newThread(r);
+        t.setName("elasticsearch-" + t.getName());
+        t.setDaemon(true);
+        return t;
+    };
+
+    private static final List<Consumer<DLMFElasticSearchClient>> INDEX_REBUILD_LISTENERS = new CopyOnWriteArrayList<>();
+
     private final RestHighLevelClient client;
 
+    private final HttpHost httpHost;
+
     private final String index;
 
+    private final boolean shared;
+
     public DLMFElasticSearchClient() {
         this(new ElasticSearchConfig());
     }
 
     public DLMFElasticSearchClient(ElasticSearchConfig config) {
-        HttpHost httpHost = new HttpHost(config.getHost(), config.getPort(), "http");
+        this(config, false);
+    }
+
+    private DLMFElasticSearchClient(ElasticSearchConfig config, boolean shared) {
+        httpHost = new HttpHost(config.getHost(), config.getPort(), "http");
         RestClientBuilder builder = RestClient.builder(httpHost);
+        // shared clients are never stopped explicitly, so they must not keep the JVM alive
+        if ( shared ) builder.setHttpClientConfigCallback( b -> b.setThreadFactory(DAEMON_THREADS) );
         client = new RestHighLevelClient(builder);
         index = config.getIndex();
+        this.shared = shared;
+    }
+
+    /**
+     * Returns the shared client for the given config. Every config (host, port, and index) has a single
+     * shared client that lives until the JVM shuts down. The client is thread-safe. Calling {@link #stop()}
+     * on a shared client has no effect.
+     * @param config the config of the elasticsearch instance
+     * @return the shared client
+     */
+    public static DLMFElasticSearchClient getSharedClient(ElasticSearchConfig config) {
+        String key = config.getHost() + ":" + config.getPort() + "/" + config.getIndex();
+        synchronized (SHARED_CLIENTS) {
+            if ( !shutdownHookRegistered ) {
+                Runtime.getRuntime().addShutdownHook(new Thread(DLMFElasticSearchClient::stopSharedClients));
+                shutdownHookRegistered = true;
+            }
+            return SHARED_CLIENTS.computeIfAbsent(key, k -> new DLMFElasticSearchClient(config, true));
+        }
+    }
+
+    /**
+     * Registers a listener that is called whenever a client (re)created its index, e.g., to invalidate
+     * cached search results of this index.
+     * @param listener the listener that receives the client that rebuilt its index
+     */
+    public static void addIndexRebuildListener(Consumer<DLMFElasticSearchClient> listener) {
+        INDEX_REBUILD_LISTENERS.add(listener);
+    }
+
+    private void notifyIndexRebuilt() {
+        INDEX_REBUILD_LISTENERS.forEach( l -> l.accept(this) );
+    }
+
+    private static void stopSharedClients() {
+        synchronized (SHARED_CLIENTS) {
+            for ( DLMFElasticSearchClient c : SHARED_CLIENTS.values() ) c.close();
+            SHARED_CLIENTS.clear();
+        }
     }
 
     /**
      * Stops the client.
      * After calling, you must create another client connection if needed.
+     * Shared clients are not stopped, see {@link #getSharedClient(ElasticSearchConfig)}.
      */
     public void stop() {
+        if ( shared ) {
+            LOG.debug("Ignore request to stop a shared elasticsearch client.");
+            return;
+        }
+        close();
+    }
+
+    private void close() {
         try {
             this.client.close();
         } catch (IOException e) {
@@ -86,9 +164,41 @@ public class DLMFElasticSearchClient {
         }
     }
 
+    @Override
     public LinkedList<MacroResult> searchMacroDescription(String description, int max) throws IOException {
         SearchRequest searchRequest = buildSearchRequest(description, max);
         SearchResponse searchResponse = client.search(searchRequest, RequestOptions.DEFAULT);
+        return toMacroResults(searchResponse);
+    }
+
+    /**
+     * Searches for multiple descriptions in a single request (multi-search).
+     * @param descriptions the descriptions
+     * @param max the maximum number of hits per description
+     * @return the results in the same order as the given descriptions. If a single search failed,
+     * its result is null (in contrast to an empty list, which means that nothing was found).
+     * @throws IOException if the request failed
+     */
+    @Override
+    public List<LinkedList<MacroResult>> searchMacroDescriptions(List<String> descriptions, int max) throws IOException {
+        List<LinkedList<MacroResult>> results = new ArrayList<>(descriptions.size());
+        if ( descriptions.isEmpty() ) return results;
+
+        MultiSearchRequest multiSearchRequest = new MultiSearchRequest();
+        for ( String description : descriptions ) multiSearchRequest.add(buildSearchRequest(description, max));
+        MultiSearchResponse multiSearchResponse = client.msearch(multiSearchRequest, RequestOptions.DEFAULT);
+
+        MultiSearchResponse.Item[] items = multiSearchResponse.getResponses();
+        for ( int i = 0; i < items.length; i++ ) {
+            if ( items[i].isFailure() ) {
+                LOG.warn("Unable to search for description " + descriptions.get(i) + ": " + items[i].getFailureMessage());
+                results.add(null);
+            } else results.add(toMacroResults(items[i].getResponse()));
+        }
+        return results;
+    }
+
+    private static LinkedList<MacroResult> toMacroResults(SearchResponse searchResponse) throws IOException {
         LinkedList<MacroResult> results = new LinkedList<>();
         for ( SearchHit hit : searchResponse.getHits() ) {
             MacroBean res = OBJECT_MAPPER.readValue(hit.getSourceAsString(), MacroBean.class);
@@ -225,6 +335,7 @@ public class DLMFElasticSearchClient {
             throw new IOException("Elasticsearch did not acknowledge the creation of the new index: "
                     + response.toString());
         }
+        notifyIndexRebuilt();
     }
 
     private void indexElements(Map<String, MacroBean> macros) throws IOException {
@@ -252,6 +363,7 @@ public class DLMFElasticSearchClient {
         } else {
             LOG.info("Successfully indexed " + counter + " elements.");
         }
+        notifyIndexRebuilt();
     }
 
     /**
@@ -271,6 +383,14 @@ public class DLMFElasticSearchClient {
         return counter;
     }
 
+    /**
+     * @return the host and index of this client, e.g., {@code elasticsearch[http://localhost:9200/dlmf-macros]}
+     */
+    @Override
+    public String toString() {
+        return "elasticsearch[" + httpHost.toURI() + "/" + index + "]";
+    }
+
     public static boolean isEsAvailable() {
         try {
             DLMFElasticSearchClient connector = new DLMFElasticSearchClient(new ElasticSearchConfig());
@@ -10,7 +10,7 @@ public class MacroResult {
 
     private final MacroBean macro;
 
-    MacroResult(double score, MacroBean macro) {
+    public MacroResult(double score, MacroBean macro) {
         this.score = score;
         this.macro = macro;
     }
@@ -0,0 +1,37 @@
+package gov.nist.drmf.interpreter.generic.interfaces;
+
+import gov.nist.drmf.interpreter.generic.elasticsearch.MacroResult;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Retrieves semantic macros by their descriptions, e.g., via elasticsearch or a local index.
+ *
+ * @author Andre Greiner-Petter
+ */
+public interface IMacroSearchEngine {
+    /**
+     * @param description the description of the macro (e.g., a definiens)
+     * @param max the maximum number of hits (0 or less uses the default of the engine)
+     * @return the macros ordered by their scores (descending)
+     * @throws IOException if the engine is unreachable
+     */
+    LinkedList<MacroResult> searchMacroDescription(String description, int max) throws IOException;
+
+    /**
+     * Searches for multiple descriptions at once. By default, it searches for every description separately.
+     * @param descriptions the descriptions
+     * @param max the maximum number of hits per description
+     * @return the results in the same order as the given descriptions. The result of a single search
+     * that failed (while the others succeeded) is null.
+     * @throws IOException if the engine is unreachable
+     */
+    default List<LinkedList<MacroResult>> searchMacroDescriptions(List<String> descriptions, int max) throws IOException {
+        List<LinkedList<MacroResult>> results = new ArrayList<>(descriptions.size());
+        for ( String description : descriptions ) results.add(searchMacroDescription(description, max));
+        return results;
+    }
+}
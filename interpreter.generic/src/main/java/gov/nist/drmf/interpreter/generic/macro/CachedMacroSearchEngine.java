@@ -0,0 +1,83 @@
+package gov.nist.drmf.interpreter.generic.macro;
+
+import gov.nist.drmf.interpreter.generic.elasticsearch.MacroResult;
+import gov.nist.drmf.interpreter.generic.interfaces.IMacroSearchEngine;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * A search engine that answers repeated searches from a {@link MacroSearchCache} and delegates
+ * only the uncached searches to the underlying engine.
+ *
+ * @author Andre Greiner-Petter
+ */
+public class CachedMacroSearchEngine implements IMacroSearchEngine {
+    private final IMacroSearchEngine engine;
+
+    private final MacroSearchCache cache;
+
+    public CachedMacroSearchEngine(IMacroSearchEngine engine, MacroSearchCache cache) {
+        this.engine = engine;
+        this.cache = cache;
+    }
+
+    public MacroSearchCache getCache() {
+        return cache;
+    }
+
+    @Override
+    public LinkedList<MacroResult> searchMacroDescription(String description, int max) throws IOException {
+        LinkedList<MacroResult> results = cache.get(engine, description, max);
+        if ( results != null ) return results;
+
+        results = engine.searchMacroDescription(description, max);
+        put(description, max, results);
+        return results;
+    }
+
+    /**
+     * Only the uncached descriptions are searched (with a single request if the underlying engine supports it).
+     * @param descriptions the descriptions
+     * @param max the maximum number of hits per description
+     * @return the results in the same order as the given descriptions (null for failed searches)
+     * @throws IOException if the underlying engine is unreachable
+     */
+    @Override
+    public List<LinkedList<MacroResult>> searchMacroDescriptions(List<String> descriptions, int max) throws IOException {
+        List<LinkedList<MacroResult>> results = new ArrayList<>(descriptions.size());
+        List<Integer> missingIdx = new ArrayList<>();
+        List<String> missing = new ArrayList<>();
+        for ( String description : descriptions ) {
+            LinkedList<MacroResult> cached = cache.get(engine, description, max);
+            if ( cached == null ) {
+                missingIdx.add(results.size());
+                missing.add(description);
+            }
+            results.add(cached);
+        }
+
+        if ( missing.isEmpty() ) return results;
+        List<LinkedList<MacroResult>> searched = missing.size() == 1 ?
+                List.of(engine.searchMacroDescription(missing.get(0), max)) :
+                engine.searchMacroDescriptions(missing, max);
+        for ( int i = 0; i < missing.size(); i++ ) {
+            put(missing.get(i), max, searched.get(i));
+            results.set(missingIdx.get(i), searched.get(i));
+        }
+        return results;
+    }
+
+    private void put(String description, int max, List<MacroResult> results) {
+        // failed searches of a multi-search request are null, they should be repeated later.
+        // Empty results are cached, nothing will be found the next time either.
+        if ( results != null ) cache.put(engine, description, max, results);
+    }
+
+    @Override
+    public String toString() {
+        return engine.toString();
+    }
+}
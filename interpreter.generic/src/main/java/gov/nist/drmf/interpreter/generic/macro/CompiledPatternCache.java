@@ -0,0 +1,128 @@
+package gov.nist.drmf.interpreter.generic.macro;
+
+import gov.nist.drmf.interpreter.common.cache.LRUCache;
+import gov.nist.drmf.interpreter.common.exceptions.NotMatchableException;
+import gov.nist.drmf.interpreter.pom.extensions.MatchablePomTaggedExpression;
+import gov.nist.drmf.interpreter.pom.extensions.PomMatcherBuilder;
+import mlp.ParseException;
+import org.intellij.lang.annotations.Language;
+
+import java.util.Objects;
+
+/**
+ * <p>
+ * A bounded cache of compiled generic LaTeX patterns. Compiling a pattern parses it with the (synchronized)
+ * POM tagger. Since the same patterns of the DLMF macros are applied to thousands of formulae, every pattern
+ * should be compiled only once. The cache is keyed by the pattern and the regex of wildcards.
+ * </p>
+ *
+ * <p>
+ * A compiled {@link MatchablePomTaggedExpression} is never changed after its compilation except for the
+ * captured groups of the latest match. Hence, the cached expressions can be shared across threads but
+ * a thread must synchronize on the returned expression as long as it matches and replaces with it
+ * (including the evaluation of the captured groups), for example:
+ * </p>
+ * <pre>
+ *     MatchablePomTaggedExpression pattern = cache.compile(genericLaTeX, MacroHelper.WILDCARD_PATTERNS);
+ *     synchronized (pattern) {
+ *         PomMatcher matcher = pattern.matcher(pte, config);
+ *         pte = matcher.replacePattern(semanticLaTeX);
+ *     }
+ * </pre>
+ *
+ * @author Andre Greiner-Petter
+ */
+public class CompiledPatternCache {
+    /**
+     * The DLMF macros provide a few thousand different generic LaTeX patterns
+     */
+    public static final int DEFAULT_SIZE = 4096;
+
+    private static CompiledPatternCache instance;
+
+    private final LRUCache<PatternKey, MatchablePomTaggedExpression> cache;
+
+    public CompiledPatternCache(int maximumSize) {
+        this.cache = new LRUCache<>(maximumSize);
+    }
+
+    public static synchronized CompiledPatternCache getStandardInstance() {
+        if ( instance == null ) instance = new CompiledPatternCache(DEFAULT_SIZE);
+        return instance;
+    }
+
+    /**
+     * Returns the cached compiled pattern or compiles (and caches) it if it is not cached yet.
+     * Patterns that cannot be compiled are not cached.
+     * @param pattern the generic LaTeX pattern
+     * @param wildcardPattern the regex to find wildcards (e.g., var\d+)
+     * @return the compiled pattern, synchronize on it while matching
+     * @throws ParseException if the pattern cannot be parsed
+     * @throws NotMatchableException if the pattern cannot be matched
+     */
+    public MatchablePomTaggedExpression compile(String pattern, @Language("RegExp") String wildcardPattern)
+            throws ParseException, NotMatchableException {
+        PatternKey key = new PatternKey(pattern, wildcardPattern);
+        MatchablePomTaggedExpression compiled = cache.get(key);
+        if ( compiled != null ) return compiled;
+
+        compiled = PomMatcherBuilder.compile(pattern, wildcardPattern);
+        cache.put(key, compiled);
+        return compiled;
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    public long getHits() {
+        return cache.getHits();
+    }
+
+    public long getMisses() {
+        return cache.getMisses();
+    }
+
+    /**
+     * @return the ratio of hits to all requests or 0 if there were no requests yet
+     */
+    public double getHitRate() {
+        return cache.getHitRate();
+    }
+
+    public void resetStatistics() {
+        cache.resetStatistics();
+    }
+
+    @Override
+    public String toString() {
+        return "Compiled Patterns " + cache;
+    }
+
+    private static final class PatternKey {
+        private final String pattern;
+        private final String wildcardPattern;
+
+        private PatternKey(String pattern, String wildcardPattern) {
+            this.pattern = pattern;
+            this.wildcardPattern = wildcardPattern;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if ( this == o ) return true;
+            if ( !(o instanceof PatternKey) ) return false;
+            PatternKey that = (PatternKey) o;
+            return pattern.equals(that.pattern) && wildcardPattern.equals(that.wildcardPattern);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(pattern, wildcardPattern);
+        }
+    }
+}
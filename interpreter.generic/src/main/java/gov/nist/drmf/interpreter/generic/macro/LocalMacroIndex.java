@@ -0,0 +1,210 @@
+package gov.nist.drmf.interpreter.generic.macro;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gov.nist.drmf.interpreter.common.constants.GlobalPaths;
+import gov.nist.drmf.interpreter.generic.elasticsearch.MacroResult;
+import gov.nist.drmf.interpreter.generic.interfaces.IMacroSearchEngine;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.StopFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.analysis.en.PorterStemFilter;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.pattern.PatternReplaceCharFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.*;
+import org.apache.lucene.search.similarities.BM25Similarity;
+import org.apache.lucene.store.ByteBuffersDirectory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * <p>
+ * An in-memory alternative to the elasticsearch index of DLMF macros (see
+ * {@link gov.nist.drmf.interpreter.generic.elasticsearch.DLMFElasticSearchClient}). It indexes the same
+ * macro database ({@link GlobalPaths#PATH_MACROS_REPLACEMENT_PATTERNS}) with the same analyzer and
+ * the same BM25 similarity as specified in the elasticsearch index config
+ * ({@link GlobalPaths#PATH_ELASTICSEARCH_INDEX_CONFIG}). Hence, the results are ranked like
+ * the results from elasticsearch but no running elasticsearch instance is required.
+ * </p>
+ *
+ * <p>
+ * The index is thread-safe. Note that all results share the same {@link MacroBean} objects.
+ * </p>
+ *
+ * @author Andre Greiner-Petter
+ */
+public class LocalMacroIndex implements IMacroSearchEngine {
+    private static final Logger LOG = LogManager.getLogger(LocalMacroIndex.class.getName());
+
+    private static final String FIELD = "description";
+
+    /**
+     * The default size of elasticsearch search requests
+     */
+    private static final int DEFAULT_SIZE = 10;
+
+    private static LocalMacroIndex instance;
+
+    private final Analyzer analyzer;
+
+    private final IndexSearcher searcher;
+
+    private final List<MacroBean> macros;
+
+    /**
+     * @param macros the macros to index (the descriptions of their meta information are indexed)
+     */
+    public LocalMacroIndex(Map<String, MacroBean> macros) {
+        this.analyzer = new DLMFAnalyzer();
+        this.macros = new ArrayList<>(macros.size());
+
+        ByteBuffersDirectory directory = new ByteBuffersDirectory();
+        IndexWriterConfig writerConfig = new IndexWriterConfig(analyzer).setSimilarity(similarity());
+        try ( IndexWriter writer = new IndexWriter(directory, writerConfig) ) {
+            for ( MacroBean macro : macros.values() ) {
+                Document doc = new Document();
+                if ( macro.getMetaInformation() != null && macro.getMetaInformation().getDescription() != null )
+                    doc.add(new TextField(FIELD, macro.getMetaInformation().getDescription(), Field.Store.NO));
+                writer.addDocument(doc);
+                this.macros.add(macro);
+            }
+            writer.forceMerge(1);
+        } catch (IOException e) {
+            // an in-memory index does not perform any real IO
+            throw new UncheckedIOException("Unable to build the local macro index", e);
+        }
+
+        try {
+            this.searcher = new IndexSearcher(DirectoryReader.open(directory));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open the local macro index", e);
+        }
+        this.searcher.setSimilarity(similarity());
+        LOG.info("Indexed " + this.macros.size() + " macros in the local macro index.");
+    }
+
+    /**
+     * Returns the index of the standard DLMF macro database. If the database cannot be loaded,
+     * the returned index is empty.
+     * @return the local index of DLMF macros
+     */
+    public static synchronized LocalMacroIndex getStandardInstance() {
+        if ( instance == null ) {
+            Map<String, MacroBean> macros = new LinkedHashMap<>();
+            try {
+                macros = load(GlobalPaths.PATH_MACROS_REPLACEMENT_PATTERNS);
+            } catch (IOException e) {
+                LOG.error("Unable to load the DLMF macro database. The local macro index is empty.", e);
+            }
+            instance = new LocalMacroIndex(macros);
+        }
+        return instance;
+    }
+
+    public static Map<String, MacroBean> load(Path database) throws IOException {
+        TypeReference<LinkedHashMap<String, MacroBean>> typeRef = new TypeReference<>() {};
+        return new ObjectMapper().readValue(Files.readString(database), typeRef);
+    }
+
+    /**
+     * @return the number of indexed macros
+     */
+    public int size() {
+        return macros.size();
+    }
+
+    @Override
+    public LinkedList<MacroResult> searchMacroDescription(String description, int max) throws IOException {
+        LinkedList<MacroResult> results = new LinkedList<>();
+        Query query = buildQuery(description);
+        if ( query == null ) return results;
+
+        TopDocs topDocs = searcher.search(query, max > 0 ? max : DEFAULT_SIZE);
+        for ( ScoreDoc scoreDoc : topDocs.scoreDocs ) {
+            results.addLast(new MacroResult(scoreDoc.score, macros.get(scoreDoc.doc)));
+        }
+        return results;
+    }
+
+    @Override
+    public String toString() {
+        return "local[" + macros.size() + " macros]";
+    }
+
+    /**
+     * Equivalent to a match query, i.e., a disjunction of all analyzed terms of the description.
+     * @param description the description
+     * @return the query or null if the description has no terms (e.g., only stop words)
+     * @throws IOException if the analyzer fails
+     */
+    private Query buildQuery(String description) throws IOException {
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        int terms = 0;
+        try ( TokenStream ts = analyzer.tokenStream(FIELD, description) ) {
+            CharTermAttribute termAttribute = ts.addAttribute(CharTermAttribute.class);
+            ts.reset();
+            while ( ts.incrementToken() ) {
+                builder.add(new TermQuery(new Term(FIELD, termAttribute.toString())), BooleanClause.Occur.SHOULD);
+                terms++;
+            }
+            ts.end();
+        }
+
+        if ( terms == 0 ) return null;
+        else if ( terms == 1 ) return builder.build().clauses().get(0).getQuery();
+        return builder.build();
+    }
+
+    /**
+     * @return the similarity of the index config ({@code k1 = 2}, {@code b = 0.25})
+     */
+    private static BM25Similarity similarity() {
+        return new BM25Similarity(2f, 0.25f);
+    }
+
+    /**
+     * The {@code dlmf_analyzer} of the elasticsearch index config.
+     */
+    private static final class DLMFAnalyzer extends Analyzer {
+        private static final Pattern TEX_EQ = Pattern.compile("\\$(.*?)\\$");
+        private static final Pattern TEX_CHARS = Pattern.compile("(?:\\\\|\\{.*})");
+        private static final Pattern MACRO_SPLITTER = Pattern.compile("(?<=\\p{Lower})(?=\\p{Upper})|-");
+
+        @Override
+        protected Reader initReader(String fieldName, Reader reader) {
+            reader = new PatternReplaceCharFilter(TEX_EQ, "$1", reader);
+            reader = new PatternReplaceCharFilter(TEX_CHARS, "", reader);
+            return new PatternReplaceCharFilter(MACRO_SPLITTER, " ", reader);
+        }
+
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName) {
+            Tokenizer tokenizer = new StandardTokenizer();
+            TokenStream stream = new LowerCaseFilter(tokenizer);
+            stream = new ASCIIFoldingFilter(stream);
+            stream = new PorterStemFilter(stream);
+            stream = new StopFilter(stream, EnglishAnalyzer.ENGLISH_STOP_WORDS_SET);
+            return new TokenStreamComponents(tokenizer, stream);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.formulasearchengine.mathosphere.mlp.pojos.Relation;
 import gov.nist.drmf.interpreter.common.config.GenericLacastConfig;
 import gov.nist.drmf.interpreter.generic.elasticsearch.DLMFElasticSearchClient;
 import gov.nist.drmf.interpreter.generic.elasticsearch.MacroResult;
+import gov.nist.drmf.interpreter.generic.interfaces.IMacroSearchEngine;
 import gov.nist.drmf.interpreter.generic.mlp.pojo.MLPLacastScorer;
 import gov.nist.drmf.interpreter.generic.mlp.pojo.MOIAnnotation;
 import gov.nist.drmf.interpreter.generic.mlp.pojo.SemanticReplacementRule;
@@ -18,7 +19,11 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
- * Retrieves replacement macros.
+ * Retrieves replacement macros. All definiens of one depth level are searched with as few
+ * elasticsearch requests as possible (see {@link GenericLacastConfig#getSearchBatchSize()}).
+ * If configured, the macros are retrieved from a {@link LocalMacroIndex} instead of elasticsearch
+ * (see {@link GenericLacastConfig#useLocalMacroSearchEngine()}). Search results are cached across
+ * documents (see {@link MacroSearchCache}).
  *
  * @author Andre Greiner-Petter
  */
@@ -29,14 +34,27 @@ public class MacroRetriever {
 
     private final MacroDistributionAnalyzer macroDistributionAnalyzer;
 
+    private final IMacroSearchEngine searchEngine;
+
     public MacroRetriever(GenericLacastConfig config) {
+        this(config, getSearchEngine(config));
+    }
+
+    public MacroRetriever(GenericLacastConfig config, IMacroSearchEngine searchEngine) {
         this.config = config;
         this.macroDistributionAnalyzer = MacroDistributionAnalyzer.getStandardInstance();
+        this.searchEngine = searchEngine;
     }
 
-    public RetrievedMacros retrieveReplacements(MOINode<MOIAnnotation> node) {
-        DLMFElasticSearchClient client = new DLMFElasticSearchClient(config.getESConfig());
+    private static IMacroSearchEngine getSearchEngine(GenericLacastConfig config) {
+        IMacroSearchEngine engine = config.useLocalMacroSearchEngine() ?
+                LocalMacroIndex.getStandardInstance() :
+                DLMFElasticSearchClient.getSharedClient(config.getESConfig());
+        MacroSearchCache cache = MacroSearchCache.getInstance(config);
+        return cache == null ? engine : new CachedMacroSearchEngine(engine, cache);
+    }
 
+    public RetrievedMacros retrieveReplacements(MOINode<MOIAnnotation> node) {
         List<MOINode<MOIAnnotation>> dependentNodes = new LinkedList<>();
         dependentNodes.add( node );
 
@@ -45,17 +63,15 @@ public class MacroRetriever {
             config.getSuppressedMacros().forEach(retrievedMacros::addMacro);
 
         try {
-            retrieveReplacements(client, 0, dependentNodes, retrievedMacros);
+            retrieveReplacements(0, dependentNodes, retrievedMacros);
         } catch (IOException ioe) {
-            LOG.error("Unable to retrieve information from Elasticsearch!", ioe);
+            LOG.error("Unable to retrieve semantic macros!", ioe);
         }
 
-        client.stop();
         return retrievedMacros;
     }
 
     private void retrieveReplacements(
-            DLMFElasticSearchClient esClient,
             int depth,
             List<MOINode<MOIAnnotation>> dependencyList,
             RetrievedMacros retrievedMacros
@@ -64,13 +80,16 @@ public class MacroRetriever {
         if ( dependencyList.isEmpty() ||
                 (depth > config.getMaxDepth() && config.getMaxDepth() >= 0) ) return;
 
+        // the definitions of this depth, the macros are retrieved for all of them at once
+        List<Relation> definitions = new LinkedList<>();
+
         List<String> supports = config.getSupportDescriptions();
         for ( String s : supports ) {
             if ( retrievedMacros.containsDefinition(s) ) continue;
             Relation rel = new Relation();
             rel.setDefinition(s);
             rel.setScore(0.1); // default low score
-            retrieveFromDefinition(esClient, retrievedMacros, rel, depth);
+            addDefinition(retrievedMacros, rel, definitions);
         }
 
         // iterate through the current depth and generate a new depth list of nodes that must be checked
@@ -85,7 +104,8 @@ public class MacroRetriever {
             addDependantNodes(node, retrievedMacros, nextDepthList);
 
             // now, do the shit we are here for
-            List<Relation> definiensList = node.getAnnotation().getAttachedRelations();
+            // sort a copy, the nodes of the graph may be shared by concurrent retrievals
+            List<Relation> definiensList = new ArrayList<>(node.getAnnotation().getAttachedRelations());
             LOG.debug("Retrieve " + definiensList.size() +
                     " definiens for node "+ node.getId() +": " +
                     node.getNode().getOriginalLaTeX());
@@ -93,12 +113,13 @@ public class MacroRetriever {
 
             int max = config.getMaxRelations() > 0 ? config.getMaxRelations() : definiensList.size();
             for ( int i = 0; i < definiensList.size() && i < max; i++ ) {
-                retrieveFromDefinition( esClient, retrievedMacros, definiensList.get(i), depth );
+                addDefinition( retrievedMacros, definiensList.get(i), definitions );
             }
         }
 
+        retrieveFromDefinitions(retrievedMacros, definitions, depth);
+
         retrieveReplacements(
-                esClient,
                 depth+1,
                 nextDepthList,
                 retrievedMacros
@@ -124,15 +145,42 @@ public class MacroRetriever {
         return sb.toString();
     }
 
-    private void retrieveFromDefinition(DLMFElasticSearchClient esClient, RetrievedMacros retrievedMacros, Relation definitionRelation, int depth) throws IOException {
-        double definiensScore = definitionRelation.getScore();
-        String definition = definitionRelation.getDefinition();
-        definition = preprocessDefinition(definition);
+    private void addDefinition(RetrievedMacros retrievedMacros, Relation definitionRelation, List<Relation> definitions) {
+        String definition = preprocessDefinition(definitionRelation.getDefinition());
 
         if ( retrievedMacros.containsDefinition(definition) ) return;
         retrievedMacros.addDefinition(definition);
 
-        LinkedList<MacroResult> macros = esClient.searchMacroDescription(definition, config.getMaxMacros());
+        Relation rel = new Relation();
+        rel.setDefinition(definition);
+        rel.setScore(definitionRelation.getScore());
+        definitions.add(rel);
+    }
+
+    private void retrieveFromDefinitions(RetrievedMacros retrievedMacros, List<Relation> definitions, int depth) throws IOException {
+        int batchSize = Math.max(1, config.getSearchBatchSize());
+        for ( int start = 0; start < definitions.size(); start += batchSize ) {
+            List<Relation> batch = definitions.subList(start, Math.min(definitions.size(), start + batchSize));
+            List<LinkedList<MacroResult>> results;
+            if ( batch.size() == 1 ) {
+                results = List.of(searchEngine.searchMacroDescription(batch.get(0).getDefinition(), config.getMaxMacros()));
+            } else {
+                List<String> descriptions = new LinkedList<>();
+                batch.forEach( r -> descriptions.add(r.getDefinition()) );
+                results = searchEngine.searchMacroDescriptions(descriptions, config.getMaxMacros());
+            }
+
+            for ( int i = 0; i < batch.size(); i++ ) {
+                // the search engine already reported failed searches
+                if ( results.get(i) == null ) continue;
+                retrieveFromDefinition(retrievedMacros, batch.get(i), results.get(i), depth);
+            }
+        }
+    }
+
+    private void retrieveFromDefinition(RetrievedMacros retrievedMacros, Relation definitionRelation, LinkedList<MacroResult> macros, int depth) {
+        double definiensScore = definitionRelation.getScore();
+        String definition = definitionRelation.getDefinition();
         LOG.debug("For definition " + definition + ": retrieved " + macros.size() + " semantic macros " + macros);
 
         double maxMacroScore = macros.isEmpty() ? 0 : macros.get(0).getScore();
@@ -0,0 +1,288 @@
+package gov.nist.drmf.interpreter.generic.macro;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gov.nist.drmf.interpreter.common.cache.LRUCache;
+import gov.nist.drmf.interpreter.common.config.GenericLacastConfig;
+import gov.nist.drmf.interpreter.generic.elasticsearch.DLMFElasticSearchClient;
+import gov.nist.drmf.interpreter.generic.elasticsearch.MacroResult;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * <p>
+ * A bounded cache of macro search results. The same definiens (e.g., "gamma function") appear in nearly
+ * all documents, hence the results are cached across documents. An entry is identified by the search
+ * engine (its {@link Object#toString()}, e.g., the elasticsearch host and index), the (pre-processed)
+ * description and the maximum number of hits.
+ * </p>
+ *
+ * <p>
+ * An entry expires after the configured time to live. All entries of an elasticsearch index are invalidated
+ * when the index is rebuilt (see {@link DLMFElasticSearchClient#addIndexRebuildListener(java.util.function.Consumer)}).
+ * The cache can be warm-started from a JSON file that was stored by {@link #store(Path)} before.
+ * The cached {@link MacroResult} objects are shared and must not be changed.
+ * </p>
+ *
+ * @author Andre Greiner-Petter
+ */
+public class MacroSearchCache {
+    private static final Logger LOG = LogManager.getLogger(MacroSearchCache.class.getName());
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    /**
+     * The caches of the configs, identified by their size, time to live and warm-start file
+     */
+    private static final Map<String, MacroSearchCache> INSTANCES = new HashMap<>();
+
+    private final LRUCache<CacheKey, CachedResults> cache;
+
+    private final long ttlMillis;
+
+    /**
+     * @param maximumSize the maximum number of cached search results
+     * @param ttlSeconds the number of seconds a search result is valid (0 or less means forever)
+     */
+    public MacroSearchCache(int maximumSize, long ttlSeconds) {
+        this.cache = new LRUCache<>(maximumSize);
+        this.ttlMillis = ttlSeconds > 0 ? ttlSeconds * 1_000 : -1;
+        // the listener must not keep this cache alive
+        WeakReference<MacroSearchCache> ref = new WeakReference<>(this);
+        DLMFElasticSearchClient.addIndexRebuildListener( engine -> {
+            MacroSearchCache c = ref.get();
+            if ( c != null ) c.invalidate(engine.toString());
+        });
+    }
+
+    /**
+     * The cache that is specified in the given {@link GenericLacastConfig}. The cache is shared by all
+     * retrievers whose configs specify the same size, time to live and warm-start file.
+     * If a warm-start file is specified and exists, the cache is loaded from this file.
+     * @param config the config that specifies the cache
+     * @return the cache or null if the cache is disabled in the config
+     */
+    public static synchronized MacroSearchCache getInstance(GenericLacastConfig config) {
+        if ( config.getSearchCacheSize() < 1 ) return null;
+
+        Path file = config.getSearchCacheFile();
+        String id = config.getSearchCacheSize() + ";" + config.getSearchCacheTTL() + ";" + file;
+        MacroSearchCache instance = INSTANCES.get(id);
+        if ( instance != null ) return instance;
+
+        instance = new MacroSearchCache(config.getSearchCacheSize(), config.getSearchCacheTTL());
+        if ( file != null && Files.exists(file) ) {
+            try {
+                instance.load(file);
+            } catch (IOException e) {
+                LOG.warn("Unable to warm-start the macro search cache from " + file + ". Start with an empty cache.", e);
+            }
+        }
+        INSTANCES.put(id, instance);
+        return instance;
+    }
+
+    /**
+     * Stores the cache of the given config to the warm-start file specified in this config.
+     * Does nothing if the cache is disabled or no file was specified.
+     * @param config the config that specifies the cache
+     * @throws IOException if the file cannot be written
+     */
+    public static void storeInstance(GenericLacastConfig config) throws IOException {
+        MacroSearchCache c = getInstance(config);
+        Path file = config.getSearchCacheFile();
+        if ( c != null && file != null ) c.store(file);
+    }
+
+    /**
+     * @param engine the search engine
+     * @param description the description
+     * @param max the maximum number of hits
+     * @return the cached results or null if they are not cached (or expired)
+     */
+    public LinkedList<MacroResult> get(Object engine, String description, int max) {
+        CacheKey key = new CacheKey(engine.toString(), description, max);
+        CachedResults results = cache.get(key);
+        if ( results == null ) return null;
+        if ( isExpired(results) ) {
+            cache.remove(key);
+            return null;
+        }
+        return new LinkedList<>(results.results);
+    }
+
+    public void put(Object engine, String description, int max, List<MacroResult> results) {
+        cache.put(new CacheKey(engine.toString(), description, max), new CachedResults(results, System.currentTimeMillis()));
+    }
+
+    private boolean isExpired(CachedResults results) {
+        return ttlMillis > 0 && System.currentTimeMillis() - results.created > ttlMillis;
+    }
+
+    /**
+     * Removes all cached results of the given engine.
+     * @param engine the {@link Object#toString()} of the engine
+     */
+    public void invalidate(String engine) {
+        int removed = 0;
+        for ( CacheKey key : cache.snapshot().keySet() ) {
+            if ( key.engine.equals(engine) ) {
+                cache.remove(key);
+                removed++;
+            }
+        }
+        if ( removed > 0 ) LOG.info("Invalidated " + removed + " cached search results of " + engine);
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    public long getHits() {
+        return cache.getHits();
+    }
+
+    public long getMisses() {
+        return cache.getMisses();
+    }
+
+    public double getHitRate() {
+        return cache.getHitRate();
+    }
+
+    /**
+     * Loads the entries of the given warm-start file into this cache. Expired entries are skipped.
+     * If the file contains more entries than the cache can hold, only the most recently used entries are kept.
+     * @param file the warm-start file
+     * @throws IOException if the file cannot be read
+     */
+    public void load(Path file) throws IOException {
+        List<CacheEntry> entries = MAPPER.readValue(file.toFile(), new TypeReference<>() {});
+        for ( CacheEntry entry : entries ) {
+            List<MacroResult> results = entry.results.stream()
+                    .map( r -> new MacroResult(r.score, r.macro) )
+                    .collect(Collectors.toList());
+            CachedResults cached = new CachedResults(results, entry.created);
+            if ( isExpired(cached) ) continue;
+            cache.put(new CacheKey(entry.engine, entry.description, entry.max), cached);
+        }
+        // loading should not count as evictions
+        cache.resetStatistics();
+        LOG.info("Warm-started macro search cache with " + cache.size() + " entries from " + file);
+    }
+
+    /**
+     * Stores the current entries of this cache to the given file.
+     * @param file the warm-start file
+     * @throws IOException if the file cannot be written
+     */
+    public void store(Path file) throws IOException {
+        List<CacheEntry> entries = cache.snapshot().entrySet().stream()
+                .filter( e -> !isExpired(e.getValue()) )
+                .map( e -> new CacheEntry(e.getKey(), e.getValue()) )
+                .collect(Collectors.toList());
+        MAPPER.writeValue(file.toFile(), entries);
+        LOG.info("Stored " + entries.size() + " cached macro search results to " + file);
+    }
+
+    @Override
+    public String toString() {
+        return "Macro Search " + cache.toString();
+    }
+
+    private static final class CacheKey {
+        private final String engine;
+        private final String description;
+        private final int max;
+
+        private CacheKey(String engine, String description, int max) {
+            this.engine = engine;
+            this.description = description;
+            this.max = max;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            CacheKey cacheKey = (CacheKey) o;
+            return max == cacheKey.max &&
+                    Objects.equals(engine, cacheKey.engine) &&
+                    Objects.equals(description, cacheKey.description);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(engine, description, max);
+        }
+    }
+
+    private static final class CachedResults {
+        private final List<MacroResult> results;
+        private final long created;
+
+        private CachedResults(List<MacroResult> results, long created) {
+            this.results = List.copyOf(results);
+            this.created = created;
+        }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    private static final class CacheEntry {
+        @JsonProperty("engine")
+        private String engine;
+
+        @JsonProperty("description")
+        private String description;
+
+        @JsonProperty("max")
+        private int max;
+
+        @JsonProperty("created")
+        private long created;
+
+        @JsonProperty("results")
+        private List<CachedMacroResult> results = new LinkedList<>();
+
+        private CacheEntry() {}
+
+        private CacheEntry(CacheKey key, CachedResults cached) {
+            this.engine = key.engine;
+            this.description = key.description;
+            this.max = key.max;
+            this.created = cached.created;
+            cached.results.forEach( r -> results.add(new CachedMacroResult(r)) );
+        }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    private static final class CachedMacroResult {
+        @JsonProperty("score")
+        private double score;
+
+        @JsonProperty("macro")
+        private MacroBean macro;
+
+        private CachedMacroResult() {}
+
+        private CachedMacroResult(MacroResult result) {
+            this.score = result.getScore();
+            this.macro = result.getMacro();
+        }
+    }
+}
@@ -3,6 +3,7 @@ package gov.nist.drmf.interpreter.generic.mlp;
 import com.formulasearchengine.mathosphere.mlp.pojos.MathTag;
 import com.formulasearchengine.mathosphere.mlp.text.WikiTextUtils;
 import gov.nist.drmf.interpreter.common.TranslationInformation;
+import gov.nist.drmf.interpreter.common.cas.IAbortEvaluator;
 import gov.nist.drmf.interpreter.common.cas.ICASEngineNumericalEvaluator;
 import gov.nist.drmf.interpreter.common.cas.ICASEngineSymbolicEvaluator;
 import gov.nist.drmf.interpreter.common.config.GenericLacastConfig;
@@ -21,6 +22,7 @@ import gov.nist.drmf.interpreter.pom.generic.GenericConstantReplacer;
 import gov.nist.drmf.interpreter.pom.generic.GenericReplacementTool;
 import gov.nist.drmf.interpreter.generic.interfaces.IPartialEnhancer;
 import gov.nist.drmf.interpreter.generic.macro.*;
+import gov.nist.drmf.interpreter.generic.mlp.cas.CASComputationExecutor;
 import gov.nist.drmf.interpreter.generic.mlp.cas.CASConnections;
 import gov.nist.drmf.interpreter.generic.mlp.pojo.*;
 import gov.nist.drmf.interpreter.pom.common.DefaultNumericTestCase;
@@ -35,6 +37,8 @@ import org.apache.logging.log4j.Logger;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BooleanSupplier;
 
 /**
  * @author Andre Greiner-Petter
@@ -46,6 +50,10 @@ public class SemanticEnhancer implements IPartialEnhancer {
 
     private final GenericLacastConfig config;
 
+    private final CompiledPatternCache patternCache;
+
+    private final CASComputationExecutor casExecutor = new CASComputationExecutor();
+
     private CASConnections casConnections;
 
     protected SemanticEnhancer() {
@@ -55,6 +63,14 @@ public class SemanticEnhancer implements IPartialEnhancer {
     public SemanticEnhancer(GenericLacastConfig config) {
         this.retriever = new MacroRetriever(config);
         this.config = config;
+        this.patternCache = CompiledPatternCache.getStandardInstance();
+    }
+
+    /**
+     * @return the cache of compiled generic LaTeX patterns, e.g., to monitor its hit rate
+     */
+    public CompiledPatternCache getPatternCache() {
+        return patternCache;
     }
 
     private synchronized void lazyInit() {
@@ -80,109 +96,169 @@ public class SemanticEnhancer implements IPartialEnhancer {
 
     @Override
     public void appendComputationResults(MOIPresentations moi) throws MinimumRequirementNotFulfilledException {
+        appendComputationResultsAsync(moi).join();
+    }
+
+    /**
+     * Computes the numeric and symbolic results for all CAS translations of the given MOI asynchronously.
+     * The computations in different CAS run concurrently. Cancelling the future cancels the computations.
+     * @param moi a translated MOI
+     * @return the future that completes with the given MOI once all results were appended
+     * @throws MinimumRequirementNotFulfilledException if the MOI was not translated
+     */
+    public CompletableFuture<MOIPresentations> appendComputationResultsAsync(MOIPresentations moi) throws MinimumRequirementNotFulfilledException {
         moi.requires( SemanticEnhancedAnnotationStatus.TRANSLATED );
         LOG.info("Compute MOI " + moi.getId());
 
         Map<String, CASResult> casResultMap = moi.getCasRepresentations();
         Instant start = Instant.now();
+        List<CompletableFuture<CASResult>> futures = new LinkedList<>();
         for ( String casName : casResultMap.keySet() ) {
-            appendComputationResults(moi, casName);
+            futures.add( appendComputationResultsAsync(moi, casName) );
         }
-        Duration elapsed = Duration.between(start, Instant.now());
-        LOG.printf(Level.INFO,
-                "Finished all calculations for %s [%d.%ds]",
-                moi.getId(),
-                elapsed.toSecondsPart(),
-                elapsed.toMillisPart()
-        );
+
+        return CASComputationExecutor.thenApply( CASComputationExecutor.allOf(futures), v -> {
+            Duration elapsed = Duration.between(start, Instant.now());
+            LOG.printf(Level.INFO,
+                    "Finished all calculations for %s [%d.%ds]",
+                    moi.getId(),
+                    elapsed.toSecondsPart(),
+                    elapsed.toMillisPart()
+            );
+            return moi;
+        } );
     }
 
     @Override
     public void appendComputationResults(MOIPresentations moi, String casName) throws MinimumRequirementNotFulfilledException {
-        Instant start = Instant.now();
-//        if ( moi.getId().equals("FORMULA_43e16b736c3ae9163cfddd4918b3c9b8") ) return;
+        appendComputationResultsAsync(moi, casName).join();
+    }
 
+    /**
+     * Computes the numeric and symbolic results of the given MOI in the given CAS asynchronously. Both computations
+     * share the deadline of {@link GenericLacastConfig#getComputationTimeout()}. Cancelling the future cancels
+     * the computation.
+     * @param moi a translated MOI
+     * @param casName the name of the CAS
+     * @return the future that completes with the updated CAS result of the MOI
+     * @throws MinimumRequirementNotFulfilledException if the MOI was not translated
+     */
+    public CompletableFuture<CASResult> appendComputationResultsAsync(MOIPresentations moi, String casName) throws MinimumRequirementNotFulfilledException {
         moi.requires( SemanticEnhancedAnnotationStatus.TRANSLATED );
-        Map<String, CASResult> casResultMap = moi.getCasRepresentations();
         String semanticLaTeX = moi.getSemanticLatex();
+        CASResult casResult = moi.getCasRepresentations().get(casName);
         LOG.info("Compute numeric and symbolic verification for CAS " + casName + " on MOI " + moi.getId());
-        CASResult casResult = casResultMap.get(casName);
-        LOG.debug("Compute numerical verification tests on " + moi.getId());
-        NumericResult nr = computeNumerically(semanticLaTeX, casName);
-        casResult.setNumericResults(nr);
-        if ( nr == null ) LOG.info("Numeric evaluation failed.");
-        LOG.debug("Compute symbolical verification tests on " + moi.getId());
-        SymbolicResult sr = computeSymbolically(semanticLaTeX, casName);
-        casResult.setSymbolicResults(sr);
-        if ( sr == null ) LOG.info("Symbolic evaluation failed.");
-
-        Duration elapsed = Duration.between(start, Instant.now());
-        LOG.printf(Level.INFO,
-                "Finished numeric and symbolic in %s calculations for %s [%d.%ds]",
-                casName,
-                moi.getId(),
-                elapsed.toSecondsPart(),
-                elapsed.toMillisPart()
-        );
+
+        return CASComputationExecutor.thenApply( computeAsync(semanticLaTeX, casName, true, true), results -> {
+            casResult.setNumericResults(results.numericResult);
+            if ( results.numericResult == null ) LOG.info("Numeric evaluation failed.");
+            casResult.setSymbolicResults(results.symbolicResult);
+            if ( results.symbolicResult == null ) LOG.info("Symbolic evaluation failed.");
+
+            LOG.printf(Level.INFO,
+                    "Finished numeric and symbolic in %s calculations for %s [%d.%ds]",
+                    casName,
+                    moi.getId(),
+                    results.elapsed.toSecondsPart(),
+                    results.elapsed.toMillisPart()
+            );
+            return casResult;
+        } );
     }
 
     @Override
     public NumericResult computeNumerically(String semanticLatex, String casName) {
+        return computeNumericallyAsync(semanticLatex, casName).join();
+    }
+
+    /**
+     * Computes the numeric results asynchronously. The future completes with null if the computation failed.
+     * Cancelling the future stops the computation before the next numeric test.
+     * @param semanticLatex semantic LaTeX expression
+     * @param casName the name of the CAS
+     * @return the future numeric results
+     */
+    public CompletableFuture<NumericResult> computeNumericallyAsync(String semanticLatex, String casName) {
+        return CASComputationExecutor.thenApply( computeAsync(semanticLatex, casName, true, false), r -> r.numericResult );
+    }
+
+    @Override
+    public SymbolicResult computeSymbolically(String semanticLatex, String casName) {
+        return computeSymbolicallyAsync(semanticLatex, casName).join();
+    }
+
+    /**
+     * Computes the symbolic results asynchronously. The future completes with null if the computation failed.
+     * Cancelling the future stops the computation before the symbolic tests start.
+     * @param semanticLatex semantic LaTeX expression
+     * @param casName the name of the CAS
+     * @return the future symbolic results
+     */
+    public CompletableFuture<SymbolicResult> computeSymbolicallyAsync(String semanticLatex, String casName) {
+        return CASComputationExecutor.thenApply( computeAsync(semanticLatex, casName, false, true), r -> r.symbolicResult );
+    }
+
+    private CompletableFuture<ComputationResults> computeAsync(String semanticLatex, String casName, boolean numeric, boolean symbolic) {
+        ComputationResults results = new ComputationResults();
         if ( EvaluationSkipper.shouldNotBeEvaluated(semanticLatex) ) {
             LOG.info("The test expression should not be evaluated due to missing equation or because it contains underscores (troublesome for CAS): " + semanticLatex);
-            return new NumericResult();
+            if ( numeric ) results.numericResult = new NumericResult();
+            if ( symbolic ) results.symbolicResult = new SymbolicResult();
+            return CompletableFuture.completedFuture(results);
         }
 
         lazyInit();
         NativeComputerAlgebraInterfaceBuilder cas = this.casConnections.getCASConnection(casName);
+        if ( cas == null ) {
+            LOG.warn("The requested CAS " + casName + " is not connected with valid native CAS. Skip it.");
+            return CompletableFuture.completedFuture(results);
+        }
+
+        return casExecutor.submit(casName, cancelled -> {
+            Instant start = Instant.now();
+            Deadline deadline = new Deadline(config.getComputationTimeout(), cancelled);
+            if ( numeric ) results.numericResult = computeNumerically(semanticLatex, cas, deadline);
+            if ( symbolic ) results.symbolicResult = computeSymbolically(semanticLatex, cas, deadline);
+            results.elapsed = Duration.between(start, Instant.now());
+            return results;
+        });
+    }
+
+    private NumericResult computeNumerically(String semanticLatex, NativeComputerAlgebraInterfaceBuilder cas, Deadline deadline) {
         try {
-            if ( cas == null ) {
-                LOG.warn("The requested CAS is not connected with valid native CAS. Skip it.");
-            } else {
-                NumericResult result = computeNumericResults(semanticLatex, cas);
-                try { cas.getCASEngine().forceGC(); }
-                catch (NullPointerException | ComputerAlgebraSystemEngineException e){
-                    LOG.warn("Unable to call GC in CAS " + casName + ". Ignore it and hope we can survive", e);
-                }
-                return result;
-            }
+            NumericResult result = computeNumericResults(semanticLatex, cas, deadline);
+            forceGC(cas);
+            return result;
         } catch (ComputerAlgebraSystemEngineException e) {
-            LOG.warn("Unable to perform numerical tests for " + casName + ": " + semanticLatex, e);
+            LOG.warn("Unable to perform numerical tests for " + cas.getLanguageKey() + ": " + semanticLatex, e);
         } catch (Exception e) {
             LOG.warn("Unable to analyze test. Something went wrong: " + semanticLatex, e);
         }
         return null;
     }
 
-    @Override
-    public SymbolicResult computeSymbolically(String semanticLatex, String casName) {
-        if ( EvaluationSkipper.shouldNotBeEvaluated(semanticLatex) ) {
-            LOG.debug("The test expression should not be evaluated due to missing equation or because it contains underscores (troublesome for CAS): " + semanticLatex);
-            return new SymbolicResult();
-        }
-
-        lazyInit();
-        NativeComputerAlgebraInterfaceBuilder cas = this.casConnections.getCASConnection(casName);
+    private SymbolicResult computeSymbolically(String semanticLatex, NativeComputerAlgebraInterfaceBuilder cas, Deadline deadline) {
         try {
-            if ( cas == null ) {
-                LOG.debug("The requested CAS "+ casName +" is not connected with valid native CAS. Skip it.");
-            } else {
-                SymbolicResult result = computeSymbolicResults(semanticLatex, cas);
-                try { cas.getCASEngine().forceGC(); }
-                catch (NullPointerException | ComputerAlgebraSystemEngineException e){
-                    LOG.warn("Unable to call GC in CAS "+ casName +". Ignore it and hope we can survive", e);
-                }
-                return result;
-            }
+            SymbolicResult result = computeSymbolicResults(semanticLatex, cas, deadline);
+            forceGC(cas);
+            return result;
         } catch (Exception e) {
             LOG.warn("Unable to analyze test. Something went wrong: " + semanticLatex, e);
         }
         return null;
     }
 
-    private synchronized NumericResult computeNumericResults(
+    private static void forceGC(NativeComputerAlgebraInterfaceBuilder cas) {
+        try { cas.getCASEngine().forceGC(); }
+        catch (NullPointerException | ComputerAlgebraSystemEngineException e){
+            LOG.warn("Unable to call GC in CAS " + cas.getLanguageKey() + ". Ignore it and hope we can survive", e);
+        }
+    }
+
+    private NumericResult computeNumericResults(
             String semanticLatex,
-            NativeComputerAlgebraInterfaceBuilder cas
+            NativeComputerAlgebraInterfaceBuilder cas,
+            Deadline deadline
     ) throws ComputerAlgebraSystemEngineException {
         NumericalConfig config = this.casConnections.getNumericalConfig(cas.getLanguageKey());
         IConstraintTranslator dlmfTranslator;
@@ -208,10 +284,55 @@ public class SemanticEnhancer implements IPartialEnhancer {
 
         ICASEngineNumericalEvaluator numericEvaluator = cas.getNumericEvaluator();
         NumericResult numericResult = new NumericResult();
-        for ( NumericalTest test : tests ) {
+        try {
+            if ( config.isBatchTestsEnabled() && tests.size() > 1 ) {
+                return computeNumericResultsInBatch(semanticLatex, tests, numericEvaluator, config, deadline);
+            }
+
+            for ( NumericalTest test : tests ) {
+                if ( deadline.isOver() ) {
+                    LOG.info("Reached the deadline of the computation. Skip remaining numeric tests for " + semanticLatex);
+                    numericResult.wasAborted(true);
+                    break;
+                }
+
+                deadline.limitTimeout(numericEvaluator, EvaluatorType.NUMERIC, config.getTimeout());
+                try {
+                    NumericResult partialResult = numericEvaluator.performNumericTest(test);
+                    numericResult.addFurtherResults(partialResult);
+                } catch (ComputerAlgebraSystemEngineException e) {
+                    LOG.warn("A numeric test failed: " + e.getMessage());
+                }
+            }
+        } finally {
+            deadline.resetTimeout(numericEvaluator, EvaluatorType.NUMERIC, config.getTimeout());
+        }
+        return numericResult;
+    }
+
+    /**
+     * Performs all tests in a single batch (and thus a single call to the CAS if the CAS supports it).
+     * The deadline limits the timeout of each test of the batch.
+     */
+    private static NumericResult computeNumericResultsInBatch(
+            String semanticLatex,
+            List<NumericalTest> tests,
+            ICASEngineNumericalEvaluator numericEvaluator,
+            NumericalConfig config,
+            Deadline deadline
+    ) throws ComputerAlgebraSystemEngineException {
+        NumericResult numericResult = new NumericResult();
+        if ( deadline.isOver() ) {
+            LOG.info("Reached the deadline of the computation. Skip remaining numeric tests for " + semanticLatex);
+            numericResult.wasAborted(true);
+            return numericResult;
+        }
+
+        deadline.limitTimeout(numericEvaluator, EvaluatorType.NUMERIC, config.getTimeout());
+        NumericBatchResult results = numericEvaluator.performNumericTests(tests);
+        for ( int i = 0; i < results.size(); i++ ) {
             try {
-                NumericResult partialResult = numericEvaluator.performNumericTest(test);
-                numericResult.addFurtherResults(partialResult);
+                numericResult.addFurtherResults(results.getResult(i));
             } catch (ComputerAlgebraSystemEngineException e) {
                 LOG.warn("A numeric test failed: " + e.getMessage());
             }
@@ -219,9 +340,10 @@ public class SemanticEnhancer implements IPartialEnhancer {
         return numericResult;
     }
 
-    private synchronized SymbolicResult computeSymbolicResults(
+    private SymbolicResult computeSymbolicResults(
             String semanticLatex,
-            NativeComputerAlgebraInterfaceBuilder cas
+            NativeComputerAlgebraInterfaceBuilder cas,
+            Deadline deadline
     ) {
         SymbolicalConfig config = this.casConnections.getSymbolicalConfig(cas.getLanguageKey());
         IConstraintTranslator dlmfTranslator;
@@ -230,11 +352,62 @@ public class SemanticEnhancer implements IPartialEnhancer {
         } catch (InitTranslatorException e) {
             return new SymbolicResult().markAsCrashed();
         }
+
+        if ( deadline.isOver() ) {
+            LOG.info("Reached the deadline of the computation. Skip symbolic tests for " + semanticLatex);
+            SymbolicResult symbolicResult = new SymbolicResult();
+            symbolicResult.wasAborted(true);
+            return symbolicResult;
+        }
+
         ISymbolicTestCases[] testCases = cas.getDefaultSymbolicTestCases();
 
         SymbolicalTest symbolicalTest = new SymbolicalTest(config, dlmfTranslator, semanticLatex, testCases);
         ICASEngineSymbolicEvaluator symbolicEvaluator = cas.getSymbolicEvaluator();
-        return symbolicEvaluator.performSymbolicTest(symbolicalTest);
+        deadline.limitTimeout(symbolicEvaluator, EvaluatorType.SYMBOLIC, config.getTimeout());
+        try {
+            return symbolicEvaluator.performSymbolicTest(symbolicalTest);
+        } finally {
+            deadline.resetTimeout(symbolicEvaluator, EvaluatorType.SYMBOLIC, config.getTimeout());
+        }
+    }
+
+    private static final class ComputationResults {
+        private NumericResult numericResult;
+        private SymbolicResult symbolicResult;
+        private Duration elapsed = Duration.ZERO;
+    }
+
+    /**
+     * The deadline of the computations of one formula. Once the deadline is reached or the computation was
+     * cancelled, no further tests are started. The timeouts of the single tests are limited to the remaining time.
+     */
+    private static final class Deadline {
+        private final long end;
+        private final BooleanSupplier cancelled;
+
+        private Deadline(double timeoutInSeconds, BooleanSupplier cancelled) {
+            this.end = timeoutInSeconds > 0 ? System.nanoTime() + (long) (timeoutInSeconds * 1_000_000_000L) : -1;
+            this.cancelled = cancelled;
+        }
+
+        private double remainingSeconds() {
+            return (end - System.nanoTime()) / 1_000_000_000.0;
+        }
+
+        private boolean isOver() {
+            return cancelled.getAsBoolean() || ( end >= 0 && remainingSeconds() <= 0 );
+        }
+
+        private void limitTimeout(IAbortEvaluator evaluator, EvaluatorType type, double timeout) {
+            if ( end < 0 ) return;
+            double remaining = remainingSeconds();
+            evaluator.setTimeout(type, timeout > 0 ? Math.min(timeout, remaining) : remaining);
+        }
+
+        private void resetTimeout(IAbortEvaluator evaluator, EvaluatorType type, double timeout) {
+            if ( end >= 0 ) evaluator.setTimeout(type, timeout);
+        }
     }
 
     private void coreSemanticallyEnhance(MOIPresentations moiPresentation, MOINode<MOIAnnotation> node, RetrievedMacros retrievedMacros) throws ParseException {
@@ -264,15 +437,21 @@ public class SemanticEnhancer implements IPartialEnhancer {
             LOG.debug("Apply replacement from '"+genericLaTeXPattern+"' to '"+semanticLaTeXPattern+"'.");
 
             MatchablePomTaggedExpression genericPattern =
-                    PomMatcherBuilder.compile(genericLaTeXPattern, MacroHelper.WILDCARD_PATTERNS);
-            PomMatcher matcher = genericPattern.matcher(pte, config);
-            pte = matcher.replacePattern(semanticLaTeXPattern);
+                    patternCache.compile(genericLaTeXPattern, MacroHelper.WILDCARD_PATTERNS);
+            boolean performedReplacements;
+            // compiled patterns are shared, and the captured groups are stored in the pattern
+            synchronized (genericPattern) {
+                PomMatcher matcher = genericPattern.matcher(pte, config);
+                pte = matcher.replacePattern(semanticLaTeXPattern);
+                performedReplacements = matcher.performedReplacements();
+            }
             LOG.debug("Replacement applied, updated MOI: " + pte.getTexString());
-            if ( matcher.performedReplacements() ) {
+            if ( performedReplacements ) {
                 counter++;
                 score += semanticReplacementRule.getScore();
             }
         }
+        LOG.debug(patternCache);
 
         if ( retrievedMacros.containedEulerMascheroniEvidence() ) {
             LOG.debug("The hit contained an evidence on Euler-Mascheroni constant. Hence we replace all \\gamma by \\EulerConstant");
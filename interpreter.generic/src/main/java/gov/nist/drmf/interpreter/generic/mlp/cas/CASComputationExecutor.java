@@ -0,0 +1,99 @@
+package gov.nist.drmf.interpreter.generic.mlp.cas;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+/**
+ * <p>
+ * Runs computations in computer algebra systems asynchronously. Every CAS connection is a single session,
+ * hence every CAS has its own worker thread that runs the computations for this CAS one after another
+ * (in the order they were submitted). Computations in different CAS run concurrently.
+ * </p>
+ *
+ * <p>
+ * A computation receives a flag that tells if its future was cancelled or completed otherwise in the meantime.
+ * Long-running computations should check it between single tests and stop early. A computation that was
+ * cancelled before it started is skipped. Futures derived from submitted computations should be created via
+ * {@link #thenApply(CompletableFuture, Function)} and {@link #allOf(Collection)}, because cancelling a future
+ * derived by {@link CompletableFuture} itself does not cancel the computation it depends on.
+ * </p>
+ *
+ * @author Andre Greiner-Petter
+ */
+public final class CASComputationExecutor {
+    private static final Logger LOG = LogManager.getLogger(CASComputationExecutor.class.getName());
+
+    private final Map<String, ExecutorService> workers = new ConcurrentHashMap<>();
+
+    private static final ThreadFactory DAEMON_THREADS = r -> {
+        Thread t = Executors.defaultThreadFactory().newThread(r);
+        t.setName("cas-" + t.getName());
+        t.setDaemon(true);
+        return t;
+    };
+
+    /**
+     * Submits a computation to the worker of the given CAS.
+     * @param cas the name of the CAS
+     * @param computation the computation, the argument returns true if the returned future is already done
+     *                    (e.g., because it was cancelled)
+     * @param <T> the type of the result
+     * @return the future result of the computation
+     */
+    public <T> CompletableFuture<T> submit(String cas, Function<BooleanSupplier, T> computation) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        ExecutorService worker = workers.computeIfAbsent(cas, k -> Executors.newSingleThreadExecutor(DAEMON_THREADS));
+        try {
+            worker.execute(() -> {
+                if ( future.isDone() ) return;
+                try {
+                    future.complete( computation.apply(future::isDone) );
+                } catch (Exception | Error e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            LOG.warn("Unable to schedule a computation in " + cas);
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Same as {@link CompletableFuture#thenApply(Function)} but cancelling the returned future
+     * also cancels the given source future.
+     * @param source the source future, e.g., a submitted computation
+     * @param fn the function that is applied on the result of the source
+     * @param <T> the type of the source result
+     * @param <R> the type of the derived result
+     * @return the derived future
+     */
+    public static <T, R> CompletableFuture<R> thenApply(CompletableFuture<T> source, Function<? super T, ? extends R> fn) {
+        return forwardCancellation( source.thenApply(fn), List.of(source) );
+    }
+
+    /**
+     * Same as {@link CompletableFuture#allOf(CompletableFuture[])} but cancelling the returned future
+     * also cancels all given source futures.
+     * @param sources the source futures, e.g., submitted computations
+     * @return the future that completes once all sources completed
+     */
+    public static CompletableFuture<Void> allOf(Collection<? extends CompletableFuture<?>> sources) {
+        List<CompletableFuture<?>> copy = List.copyOf(sources);
+        return forwardCancellation( CompletableFuture.allOf(copy.toArray(new CompletableFuture[0])), copy );
+    }
+
+    private static <T> CompletableFuture<T> forwardCancellation(CompletableFuture<T> derived, List<CompletableFuture<?>> sources) {
+        derived.whenComplete( (result, throwable) -> {
+            if ( derived.isCancelled() ) sources.forEach( source -> source.cancel(false) );
+        } );
+        return derived;
+    }
+}
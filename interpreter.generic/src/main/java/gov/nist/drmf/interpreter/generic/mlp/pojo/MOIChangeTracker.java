@@ -0,0 +1,156 @@
+package gov.nist.drmf.interpreter.generic.mlp.pojo;
+
+import gov.nist.drmf.interpreter.common.pojo.FormulaDefinition;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * <p>
+ * Detects which MOIs of a document must be translated again. The translation of an MOI depends on
+ * its generic LaTeX, its definiens and the definiens of the MOIs it includes (up to the maximum depth
+ * of the {@link gov.nist.drmf.interpreter.generic.macro.MacroRetriever}). The fingerprint of an MOI
+ * covers its generic LaTeX, its definiens and the formulae it includes. It is stored with the MOI
+ * after a translation (see {@link MOIPresentations#getFingerprint()}).
+ * </p>
+ *
+ * <p>
+ * An MOI changed if it has no semantic LaTeX or its stored fingerprint differs from the current one.
+ * A change is propagated along the outgoing edges, i.e., to all MOIs that (transitively) include the
+ * changed MOI. To translate the affected MOIs again, only the affected MOIs and the MOIs they
+ * (transitively) include are required to build the dependency graph.
+ * </p>
+ *
+ * @author Andre Greiner-Petter
+ */
+public class MOIChangeTracker {
+    private final List<MOIPresentations> formulae;
+
+    private final Map<String, Set<String>> ingoing = new HashMap<>();
+    private final Map<String, Set<String>> outgoing = new HashMap<>();
+
+    /**
+     * @param formulae the formulae of a document
+     */
+    public MOIChangeTracker(List<MOIPresentations> formulae) {
+        this.formulae = formulae;
+
+        Map<String, String> texIDMap = new HashMap<>();
+        for ( MOIPresentations f : formulae ) {
+            texIDMap.put(f.getGenericLatex(), f.getId());
+            ingoing.put(f.getId(), new LinkedHashSet<>());
+            outgoing.put(f.getId(), new LinkedHashSet<>());
+        }
+
+        // a dependency may be stored on either side, the same way the MLPDependencyGraph adds them
+        for ( MOIPresentations f : formulae ) {
+            addDependencies(f.getIngoingNodes(), texIDMap, f.getId(), true);
+            addDependencies(f.getOutgoingNodes(), texIDMap, f.getId(), false);
+        }
+    }
+
+    private void addDependencies(List<String> texs, Map<String, String> texIDMap, String id, boolean isIngoing) {
+        if ( texs == null ) return;
+        for ( String tex : texs ) {
+            String otherId = texIDMap.get(tex);
+            if ( otherId == null ) continue;
+            if ( isIngoing ) addDependency(otherId, id);
+            else addDependency(id, otherId);
+        }
+    }
+
+    private void addDependency(String sourceId, String sinkId) {
+        outgoing.get(sourceId).add(sinkId);
+        ingoing.get(sinkId).add(sourceId);
+    }
+
+    /**
+     * @param moi an MOI of the document
+     * @return the fingerprint of the current annotations of the given MOI
+     */
+    public String getFingerprint(MOIPresentations moi) {
+        StringBuilder sb = new StringBuilder(moi.getGenericLatex()).append('\n');
+        if ( moi.getDefiniens() != null ) {
+            for ( FormulaDefinition def : moi.getDefiniens() )
+                sb.append(def.getScore()).append(':').append(def.getDefinition()).append('\n');
+        }
+        sb.append('\n');
+        for ( String id : ingoing.getOrDefault(moi.getId(), Collections.emptySet()) )
+            sb.append(id).append('\n');
+        return hash(sb.toString());
+    }
+
+    /**
+     * Sets the fingerprint of the current annotations to the given MOI.
+     * Should be called once the given MOI was translated.
+     * @param moi an MOI of the document
+     */
+    public void updateFingerprint(MOIPresentations moi) {
+        moi.setFingerprint(getFingerprint(moi));
+    }
+
+    /**
+     * @param moi an MOI of the document
+     * @return true if the given MOI was never translated or its annotations changed since its translation
+     */
+    public boolean hasChanged(MOIPresentations moi) {
+        return moi.getSemanticLatex() == null || !getFingerprint(moi).equals(moi.getFingerprint());
+    }
+
+    /**
+     * @param maxDepth the maximum depth of dependencies that are considered for a translation,
+     *                 a negative value means there is no limit
+     * @return the IDs of all changed MOIs and all MOIs that depend on changed MOIs
+     */
+    public Set<String> getAffectedIds(int maxDepth) {
+        Set<String> changed = new HashSet<>();
+        for ( MOIPresentations f : formulae ) {
+            if ( hasChanged(f) ) changed.add(f.getId());
+        }
+        return reach(changed, outgoing, maxDepth);
+    }
+
+    /**
+     * @param ids the IDs of MOIs that will be translated
+     * @param maxDepth the maximum depth of dependencies that are considered for a translation,
+     *                 a negative value means there is no limit
+     * @return the given MOIs and all MOIs they depend on, in the order of the document
+     */
+    public List<MOIPresentations> getRequiredFormulae(Set<String> ids, int maxDepth) {
+        Set<String> required = reach(ids, ingoing, maxDepth);
+        List<MOIPresentations> result = new LinkedList<>();
+        for ( MOIPresentations f : formulae ) {
+            if ( required.contains(f.getId()) ) result.add(f);
+        }
+        return result;
+    }
+
+    private static Set<String> reach(Set<String> start, Map<String, Set<String>> edges, int maxDepth) {
+        Set<String> visited = new HashSet<>(start);
+        Collection<String> currentDepth = start;
+        for ( int depth = 0; !currentDepth.isEmpty() && (maxDepth < 0 || depth < maxDepth); depth++ ) {
+            List<String> nextDepth = new LinkedList<>();
+            for ( String id : currentDepth ) {
+                for ( String next : edges.getOrDefault(id, Collections.emptySet()) ) {
+                    if ( visited.add(next) ) nextDepth.add(next);
+                }
+            }
+            currentDepth = nextDepth;
+        }
+        return visited;
+    }
+
+    private static String hash(String content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder();
+            for ( byte b : digest ) sb.append(String.format("%02x", b));
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform must support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -20,7 +20,7 @@ import java.util.stream.Collectors;
  */
 @JsonPropertyOrder({
         "id", "formula", "semanticFormula", "confidence", "translations",
-        "positions", "includes", "isPartOf", "definiens"
+        "positions", "includes", "isPartOf", "definiens", "fingerprint"
 })
 @JsonInclude(JsonInclude.Include.NON_NULL)
 @JsonIgnoreProperties(ignoreUnknown = true)
@@ -57,6 +57,9 @@ public class MOIPresentations implements SemanticallyRanked {
     @JsonProperty("isPartOf")
     private List<String> outgoingNodes;
 
+    @JsonProperty("fingerprint")
+    private String fingerprint;
+
     public MOIPresentations() {
         id = "FORMULA_EMPTY";
         genericLatex = "";
@@ -102,6 +105,7 @@ public class MOIPresentations implements SemanticallyRanked {
         if (copy.positions != null) this.positions = new LinkedList<>(copy.positions);
         if (copy.ingoingNodes != null) this.ingoingNodes = new LinkedList<>(copy.ingoingNodes);
         if (copy.outgoingNodes != null) this.outgoingNodes = new LinkedList<>(copy.outgoingNodes);
+        this.fingerprint = copy.fingerprint;
     }
 
     private List<String> getDependants(MOINode<MOIAnnotation> node, boolean ingoing) {
@@ -228,6 +232,20 @@ public class MOIPresentations implements SemanticallyRanked {
         this.outgoingNodes = outgoingNodes;
     }
 
+    /**
+     * @return the fingerprint of the annotations the current translation was generated from
+     * (see {@link MOIChangeTracker}) or null if the MOI was not translated yet
+     */
+    @JsonGetter("fingerprint")
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    @JsonSetter("fingerprint")
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
     @Override
     @JsonIgnore
     public String toString() {
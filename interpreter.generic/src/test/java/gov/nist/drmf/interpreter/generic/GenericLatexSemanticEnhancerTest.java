@@ -1,6 +1,7 @@
 package gov.nist.drmf.interpreter.generic;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import gov.nist.drmf.interpreter.common.config.GenericLacastConfig;
 import gov.nist.drmf.interpreter.common.pojo.FormulaDefinition;
 import gov.nist.drmf.interpreter.common.tests.Resource;
 import gov.nist.drmf.interpreter.generic.elasticsearch.AssumeElasticsearchAvailability;
@@ -94,4 +95,36 @@ public class GenericLatexSemanticEnhancerTest {
         enhancer.appendTranslationsToDocument(sed);
         assertEquals( translatedDoc, sed.serialize(), "Translation does not match mlp/JacobiTranslatedDoc.json" );
     }
+
+    @Resource({"mlp/JacobiSemanticAnnotatedDoc.json", "mlp/JacobiTranslatedDoc.json"})
+    void addTranslationsConcurrentlyTest(String annotatedDoc, String translatedDoc) throws JsonProcessingException {
+        SemanticEnhancedDocument sed = SemanticEnhancedDocument.deserialize(annotatedDoc);
+        GenericLacastConfig config = new GenericLacastConfig(GenericLacastConfig.getDefaultConfig());
+        config.setTranslationThreads(4);
+        GenericLatexSemanticEnhancer enhancer = new GenericLatexSemanticEnhancer(config);
+        enhancer.appendTranslationsToDocument(sed);
+        assertEquals( translatedDoc, sed.serialize(), "Translation does not match mlp/JacobiTranslatedDoc.json" );
+    }
+
+    /**
+     * Translates the same document one formula after another and concurrently multiple times.
+     * All concurrent runs must produce exactly the same document as the sequential run.
+     */
+    @Resource("mlp/JacobiSemanticAnnotatedDoc.json")
+    void concurrentEqualsSequentialTranslationsTest(String annotatedDoc) throws JsonProcessingException {
+        GenericLacastConfig sequentialConfig = new GenericLacastConfig(GenericLacastConfig.getDefaultConfig());
+        sequentialConfig.setTranslationThreads(1);
+        SemanticEnhancedDocument sequentialDoc = SemanticEnhancedDocument.deserialize(annotatedDoc);
+        new GenericLatexSemanticEnhancer(sequentialConfig).appendTranslationsToDocument(sequentialDoc);
+        String sequential = sequentialDoc.serialize();
+
+        GenericLacastConfig concurrentConfig = new GenericLacastConfig(GenericLacastConfig.getDefaultConfig());
+        concurrentConfig.setTranslationThreads(8);
+        GenericLatexSemanticEnhancer concurrentEnhancer = new GenericLatexSemanticEnhancer(concurrentConfig);
+        for ( int run = 0; run < 3; run++ ) {
+            SemanticEnhancedDocument concurrentDoc = SemanticEnhancedDocument.deserialize(annotatedDoc);
+            concurrentEnhancer.appendTranslationsToDocument(concurrentDoc);
+            assertEquals( sequential, concurrentDoc.serialize(), "Concurrent translation differs in run " + run );
+        }
+    }
 }
@@ -0,0 +1,123 @@
+package gov.nist.drmf.interpreter.generic;
+
+import gov.nist.drmf.interpreter.generic.mlp.Document;
+import gov.nist.drmf.interpreter.generic.mlp.pojo.MLPDependencyGraph;
+import gov.nist.drmf.interpreter.generic.mlp.pojo.MOIAnnotation;
+import gov.nist.drmf.interpreter.generic.mlp.pojo.SemanticEnhancedDocument;
+import gov.nist.drmf.interpreter.pom.moi.MOINode;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Andre Greiner-Petter
+ */
+public class SemanticEnhancementPipelineTests {
+
+    @Test
+    public void allStagesTest() throws InterruptedException {
+        Set<String> translated = ConcurrentHashMap.newKeySet();
+        Set<String> computed = ConcurrentHashMap.newKeySet();
+        SemanticEnhancementPipeline pipeline = new SemanticEnhancementPipeline(
+                d -> new SemanticEnhancedDocument(d.getTitle()),
+                sed -> { translated.add(sed.getTitle()); return sed; },
+                sed -> { computed.add(sed.getTitle()); return sed; }
+        ).setAnnotationWorkers(3).setTranslationWorkers(2).setComputationWorkers(2).setCapacity(2);
+
+        List<String> titles = new LinkedList<>();
+        long written = pipeline.process(documents(100), sed -> titles.add(sed.getTitle()));
+
+        assertEquals(100, written);
+        assertEquals(100, new HashSet<>(titles).size());
+        assertEquals(100, translated.size());
+        assertEquals(100, computed.size());
+        assertEquals(0, pipeline.getNumberOfFailedDocuments());
+    }
+
+    @Test
+    public void lastStageAndFailureTest() throws InterruptedException {
+        AtomicInteger computations = new AtomicInteger();
+        SemanticEnhancementPipeline pipeline = new SemanticEnhancementPipeline(
+                d -> {
+                    if ( d.getTitle().equals("Doc 7") ) throw new IllegalStateException("Broken document");
+                    return new SemanticEnhancedDocument(d.getTitle());
+                },
+                sed -> sed,
+                sed -> { computations.incrementAndGet(); return sed; }
+        ).setLastStage(SemanticEnhancementPipeline.Stage.TRANSLATE);
+
+        List<String> titles = new LinkedList<>();
+        long written = pipeline.process(documents(20), sed -> titles.add(sed.getTitle()));
+
+        assertEquals(19, written);
+        assertFalse(titles.contains("Doc 7"));
+        assertEquals(1, pipeline.getNumberOfFailedDocuments());
+        assertEquals(0, computations.get());
+    }
+
+    @Test
+    public void jsonlTest() {
+        assertEquals("Title", DocumentStreamReader.parseJsonl("{\"title\": \"Title\", \"content\": \"Text\"}").getTitle());
+        assertEquals("Text", DocumentStreamReader.parseJsonl("{\"title\": \"Title\", \"text\": \"Text\"}").getContent());
+        assertNull(DocumentStreamReader.parseJsonl("{\"title\": \"Title\"}"));
+        assertNull(DocumentStreamReader.parseJsonl("no json"));
+    }
+
+    @Test
+    public void pageIteratorTest() {
+        String dump = "<mediawiki>\n<siteinfo></siteinfo>\n" +
+                "  <page>\n    <title>A</title>\n  </page>\n" +
+                "  <page><title>B</title></page>\n" +
+                "  <page>\n    <title>C</title>\n" +
+                "</mediawiki>";
+        DocumentStreamReader.PageIterator it = new DocumentStreamReader.PageIterator(new BufferedReader(new StringReader(dump)));
+        List<String> pages = new LinkedList<>();
+        it.forEachRemaining(pages::add);
+
+        assertEquals(2, pages.size());
+        assertTrue(pages.get(0).startsWith("<page>"));
+        assertTrue(pages.get(0).contains("<title>A</title>"));
+        assertTrue(pages.get(0).endsWith("</page>"));
+        assertEquals("<page><title>B</title></page>", pages.get(1));
+    }
+
+    private static Stream<Document> documents(int n) {
+        return IntStream.range(0, n).mapToObj( i -> new TitleDocument("Doc " + i) );
+    }
+
+    private static final class TitleDocument implements Document {
+        private final String title;
+
+        private TitleDocument(String title) {
+            this.title = title;
+        }
+
+        @Override
+        public String getTitle() {
+            return title;
+        }
+
+        @Override
+        public String getContent() {
+            return "";
+        }
+
+        @Override
+        public MLPDependencyGraph getMOIDependencyGraph() {
+            return new MLPDependencyGraph();
+        }
+
+        @Override
+        public MOINode<MOIAnnotation> getAnnotatedMOINode(String latex) {
+            return null;
+        }
+    }
+}
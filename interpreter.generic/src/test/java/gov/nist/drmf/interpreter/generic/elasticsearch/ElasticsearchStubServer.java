@@ -0,0 +1,150 @@
+package gov.nist.drmf.interpreter.generic.elasticsearch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import gov.nist.drmf.interpreter.common.config.ElasticSearchConfig;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A minimal local HTTP server that answers search and multi-search requests like an elasticsearch
+ * instance with the DLMF macro index. Every description {@code d} hits exactly one macro named
+ * {@code d} without whitespaces. The score of the hit is the length of the description.
+ * It allows testing the retrieval of macros without a running elasticsearch instance.
+ *
+ * @author Andre Greiner-Petter
+ */
+public class ElasticsearchStubServer implements AutoCloseable {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public static final String INDEX = "macros";
+
+    private final HttpServer server;
+
+    private final AtomicInteger requests = new AtomicInteger(0);
+    private final List<String> searchedDescriptions = new LinkedList<>();
+
+    public ElasticsearchStubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    public ElasticSearchConfig getConfig() {
+        return new ElasticSearchConfig(
+                server.getAddress().getHostString(),
+                server.getAddress().getPort(),
+                INDEX
+        );
+    }
+
+    /**
+     * @return the number of received requests
+     */
+    public int getNumberOfRequests() {
+        return requests.get();
+    }
+
+    /**
+     * @return all searched descriptions in the order they were received
+     */
+    public synchronized List<String> getSearchedDescriptions() {
+        return new LinkedList<>(searchedDescriptions);
+    }
+
+    public static String macroName(String description) {
+        return description.replaceAll("\\s", "");
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        String path = exchange.getRequestURI().getPath();
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+
+        ObjectNode response;
+        if ( path.endsWith("/_msearch") ) {
+            response = MAPPER.createObjectNode();
+            response.put("took", 1);
+            ArrayNode responses = response.putArray("responses");
+            // NDJSON: every search consists of a header line and a body line
+            String[] lines = body.split("\n");
+            for ( int i = 1; i < lines.length; i += 2 ) {
+                ObjectNode item = searchResponse(lines[i]);
+                item.put("status", 200);
+                responses.add(item);
+            }
+        } else if ( path.endsWith("/_search") ) {
+            response = searchResponse(body);
+        } else {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+            return;
+        }
+
+        byte[] bytes = MAPPER.writeValueAsBytes(response);
+        exchange.getResponseHeaders().add("Content-Type", "application/json; charset=UTF-8");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try ( OutputStream out = exchange.getResponseBody() ) {
+            out.write(bytes);
+        }
+    }
+
+    private ObjectNode searchResponse(String query) throws IOException {
+        String description = MAPPER.readTree(query).findValue("meta.description").get("query").asText();
+        synchronized (this) {
+            searchedDescriptions.add(description);
+        }
+
+        ObjectNode response = MAPPER.createObjectNode();
+        response.put("took", 1);
+        response.put("timed_out", false);
+        ObjectNode shards = response.putObject("_shards");
+        shards.put("total", 1);
+        shards.put("successful", 1);
+        shards.put("skipped", 0);
+        shards.put("failed", 0);
+
+        double score = description.length();
+        ObjectNode hits = response.putObject("hits");
+        ObjectNode total = hits.putObject("total");
+        total.put("value", 1);
+        total.put("relation", "eq");
+        hits.put("max_score", score);
+
+        ObjectNode hit = hits.putArray("hits").addObject();
+        hit.put("_index", INDEX);
+        hit.put("_type", "_doc");
+        hit.put("_id", macroName(description));
+        hit.put("_score", score);
+        hit.set("_source", macroSource(description));
+        return response;
+    }
+
+    private static JsonNode macroSource(String description) {
+        ObjectNode source = MAPPER.createObjectNode();
+        source.put("macro", macroName(description));
+        ObjectNode meta = source.putObject("meta");
+        meta.put("description", description);
+        ObjectNode tex = source.putArray("TeX").addObject();
+        tex.put("genericTeX", "x");
+        tex.put("semanticTeX", "\\" + macroName(description) + "{x}");
+        tex.put("score", 1.0);
+        return source;
+    }
+}
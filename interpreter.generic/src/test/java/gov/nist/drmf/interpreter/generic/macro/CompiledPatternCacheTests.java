@@ -0,0 +1,96 @@
+package gov.nist.drmf.interpreter.generic.macro;
+
+import gov.nist.drmf.interpreter.pom.SemanticMLPWrapper;
+import gov.nist.drmf.interpreter.pom.extensions.*;
+import mlp.ParseException;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Andre Greiner-Petter
+ */
+public class CompiledPatternCacheTests {
+
+    private static final String[][] RULES = {
+            {"P^{(par1, par2)}_{par3} (var1)", "\\JacobipolyP{par1}{par2}{par3}@{var1}"},
+            {"\\Gamma(var1)", "\\EulerGamma@{var1}"},
+            {"(par1)_{par2}", "\\Pochhammersym{par1}{par2}"},
+    };
+
+    private static final String[] EXPRESSIONS = {
+            "P^{(\\alpha, \\beta)}_n (x) = \\frac{(\\alpha+1)_n}{n!}",
+            "\\Gamma(z+1) = z \\Gamma(z)",
+            "\\frac{\\Gamma(\\alpha+n+1)}{\\Gamma(n+1)} + P^{(a, b)}_{m} (\\cos \\theta)",
+            "(a)_n (b)_n",
+            "x^2 + y^2",
+    };
+
+    @Test
+    void equalToFreshCompilationTest() throws ParseException {
+        CompiledPatternCache cache = new CompiledPatternCache(10);
+        for ( int round = 0; round < 2; round++ ) {
+            for ( String expr : EXPRESSIONS ) {
+                assertEquals( replaceAll(expr, null), replaceAll(expr, cache), expr );
+            }
+        }
+
+        String replaced = replaceAll(EXPRESSIONS[2], cache);
+        assertTrue( replaced.contains("\\EulerGamma") && replaced.contains("\\JacobipolyP"), replaced );
+
+        assertEquals( RULES.length, cache.size() );
+        assertEquals( RULES.length, cache.getMisses() );
+        assertEquals( (2L * EXPRESSIONS.length + 1) * RULES.length - RULES.length, cache.getHits() );
+        assertTrue( cache.getHitRate() > 0.8 );
+    }
+
+    @Test
+    void keyTest() throws ParseException {
+        CompiledPatternCache cache = new CompiledPatternCache(10);
+        MatchablePomTaggedExpression wildcards = cache.compile(RULES[1][0], MacroHelper.WILDCARD_PATTERNS);
+        MatchablePomTaggedExpression noWildcards = cache.compile(RULES[1][0], "");
+        assertNotSame( wildcards, noWildcards );
+        assertSame( wildcards, cache.compile(RULES[1][0], MacroHelper.WILDCARD_PATTERNS) );
+        assertEquals( 2, cache.size() );
+    }
+
+    @Test
+    void concurrentTest() throws Exception {
+        Map<String, String> expected = new HashMap<>();
+        for ( String expr : EXPRESSIONS ) expected.put(expr, replaceAll(expr, null));
+
+        CompiledPatternCache cache = new CompiledPatternCache(10);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new LinkedList<>();
+            for ( int i = 0; i < 40; i++ ) {
+                String expr = EXPRESSIONS[i % EXPRESSIONS.length];
+                futures.add( executor.submit(() -> {
+                    assertEquals( expected.get(expr), replaceAll(expr, cache), expr );
+                    return null;
+                }) );
+            }
+            for ( Future<?> f : futures ) f.get();
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals( RULES.length, cache.size() );
+    }
+
+    private static String replaceAll(String expr, CompiledPatternCache cache) throws ParseException {
+        PrintablePomTaggedExpression pte = SemanticMLPWrapper.getStandardInstance().parse(expr);
+        for ( String[] rule : RULES ) {
+            MatchablePomTaggedExpression pattern = cache == null ?
+                    PomMatcherBuilder.compile(rule[0], MacroHelper.WILDCARD_PATTERNS) :
+                    cache.compile(rule[0], MacroHelper.WILDCARD_PATTERNS);
+            synchronized (pattern) {
+                PomMatcher matcher = pattern.matcher(pte, MatcherConfig.getInPlaceMatchConfig());
+                pte = matcher.replacePattern(rule[1]);
+            }
+        }
+        return pte.getTexString();
+    }
+}
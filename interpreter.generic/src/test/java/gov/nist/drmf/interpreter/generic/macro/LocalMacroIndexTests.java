@@ -0,0 +1,90 @@
+package gov.nist.drmf.interpreter.generic.macro;
+
+import com.formulasearchengine.mathosphere.mlp.pojos.Relation;
+import gov.nist.drmf.interpreter.common.config.GenericLacastConfig;
+import gov.nist.drmf.interpreter.common.constants.GlobalPaths;
+import gov.nist.drmf.interpreter.generic.elasticsearch.MacroResult;
+import gov.nist.drmf.interpreter.generic.mlp.pojo.MOIAnnotation;
+import gov.nist.drmf.interpreter.pom.moi.MOIDependencyGraph;
+import gov.nist.drmf.interpreter.pom.moi.MOINode;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Andre Greiner-Petter
+ */
+public class LocalMacroIndexTests {
+    private static LocalMacroIndex index;
+
+    @BeforeAll
+    static void setup() {
+        index = LocalMacroIndex.getStandardInstance();
+    }
+
+    @Test
+    void loadTest() throws IOException {
+        assertEquals( LocalMacroIndex.load(GlobalPaths.PATH_MACROS_REPLACEMENT_PATTERNS).size(), index.size() );
+        assertSame( index, LocalMacroIndex.getStandardInstance() );
+    }
+
+    @Test
+    void searchLeviCivitaTest() throws IOException {
+        List<MacroResult> results = index.searchMacroDescription("Levi Civita Symbol", 5);
+        assertTrue( results.size() > 1 );
+        assertEquals( "LeviCivitasym", results.get(0).getMacro().getName() );
+        assertTrue( results.get(0).getScore() > 5.0 );
+        for ( int i = 1; i < results.size(); i++ ) {
+            assertTrue( results.get(i-1).getScore() >= results.get(i).getScore() );
+        }
+    }
+
+    @Test
+    void analyzerTest() throws IOException {
+        // the description of qDigamma is "the $q$-digamma function"
+        List<MacroResult> results = index.searchMacroDescription("q digamma functions", 3);
+        assertEquals( "qDigamma", results.get(0).getMacro().getName() );
+
+        results = index.searchMacroDescription("Jacobi polynomials", 3);
+        assertEquals( "JacobipolyP", results.get(0).getMacro().getName() );
+    }
+
+    @Test
+    void limitsTest() throws IOException {
+        assertTrue( index.searchMacroDescription("the of and", 5).isEmpty() );
+        assertTrue( index.searchMacroDescription("", 5).isEmpty() );
+        assertEquals( 2, index.searchMacroDescription("function", 2).size() );
+        assertEquals( 10, index.searchMacroDescription("function", 0).size() );
+
+        List<LinkedList<MacroResult>> batch = index.searchMacroDescriptions(List.of("Levi Civita Symbol", "Jacobi polynomial"), 1);
+        assertEquals( "LeviCivitasym", batch.get(0).get(0).getMacro().getName() );
+        assertEquals( "JacobipolyP", batch.get(1).get(0).getMacro().getName() );
+    }
+
+    @Test
+    void retrieverTest() throws Exception {
+        GenericLacastConfig config = new GenericLacastConfig(GenericLacastConfig.getDefaultConfig());
+        config.setMacroSearchEngine(GenericLacastConfig.LOCAL_MACRO_SEARCH_ENGINE);
+        config.getSupportDescriptions().clear();
+        assertTrue( config.useLocalMacroSearchEngine() );
+
+        MOIAnnotation annotation = new MOIAnnotation();
+        Relation relation = new Relation();
+        relation.setDefinition("Jacobi polynomial");
+        relation.setScore(0.9);
+        annotation.appendRelation(relation);
+        MOIDependencyGraph<MOIAnnotation> graph = new MOIDependencyGraph<>();
+        MOINode<MOIAnnotation> node = graph.addNode("jacobi", "P_n^{(\\alpha,\\beta)}(x)", annotation);
+
+        RetrievedMacros macros = new MacroRetriever(config).retrieveReplacements(node);
+        Set<String> names = macros.getPatterns().stream().map( p -> p.getMacro().getName() ).collect(Collectors.toSet());
+        assertTrue( names.contains("JacobipolyP"), names.toString() );
+    }
+}
@@ -0,0 +1,132 @@
+package gov.nist.drmf.interpreter.generic.macro;
+
+import com.formulasearchengine.mathosphere.mlp.pojos.Relation;
+import gov.nist.drmf.interpreter.common.config.GenericLacastConfig;
+import gov.nist.drmf.interpreter.generic.elasticsearch.DLMFElasticSearchClient;
+import gov.nist.drmf.interpreter.generic.elasticsearch.ElasticsearchStubServer;
+import gov.nist.drmf.interpreter.generic.elasticsearch.MacroResult;
+import gov.nist.drmf.interpreter.generic.mlp.pojo.MOIAnnotation;
+import gov.nist.drmf.interpreter.generic.mlp.pojo.SemanticReplacementRule;
+import gov.nist.drmf.interpreter.pom.moi.MOIDependencyGraph;
+import gov.nist.drmf.interpreter.pom.moi.MOINode;
+import mlp.ParseException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the batched retrieval of macros with the sequential retrieval (one request per definition)
+ * against a local stub of elasticsearch.
+ *
+ * @author Andre Greiner-Petter
+ */
+public class MacroRetrieverBatchTests {
+
+    private static ElasticsearchStubServer server;
+    private static DLMFElasticSearchClient client;
+
+    private static MOIDependencyGraph<MOIAnnotation> graph;
+
+    @BeforeAll
+    static void setup() throws IOException, ParseException {
+        server = new ElasticsearchStubServer();
+        client = new DLMFElasticSearchClient(server.getConfig());
+
+        Map<String, String> mois = new LinkedHashMap<>();
+        Map<String, MOIAnnotation> annotations = new HashMap<>();
+        mois.put("alpha", "\\alpha");
+        annotations.put("alpha", annotation("parameter", 0.9, "real number 2a", 0.5));
+        mois.put("beta", "\\beta");
+        annotations.put("beta", annotation("parameter", 0.8, "second parameter", 0.7));
+        mois.put("jacobi", "P_n^{(\\alpha,\\beta)}(x)");
+        annotations.put("jacobi", annotation("Jacobi polynomial", 0.95, "parameter", 0.2, "polynomial", 0.4));
+
+        graph = new MOIDependencyGraph<>();
+        graph.addNodes(mois, annotations);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        client.stop();
+        server.close();
+    }
+
+    @Test
+    void batchedEqualsSequentialTest() {
+        for ( MOINode<MOIAnnotation> node : graph.getVertices() ) {
+            int before = server.getNumberOfRequests();
+            int searched = server.getSearchedDescriptions().size();
+            RetrievedMacros sequential = retriever(1).retrieveReplacements(node);
+            int sequentialRequests = server.getNumberOfRequests() - before;
+            List<String> sequentialDescriptions = server.getSearchedDescriptions().subList(searched, server.getSearchedDescriptions().size());
+
+            before = server.getNumberOfRequests();
+            searched = server.getSearchedDescriptions().size();
+            RetrievedMacros batched = retriever(50).retrieveReplacements(node);
+            int batchedRequests = server.getNumberOfRequests() - before;
+            List<String> batchedDescriptions = server.getSearchedDescriptions().subList(searched, server.getSearchedDescriptions().size());
+
+            assertFalse( sequential.getPatterns().isEmpty(), node.getId() );
+            assertEquals( toStrings(sequential), toStrings(batched), node.getId() );
+            // the same definitions were searched in the same order but with fewer requests
+            assertEquals( sequentialDescriptions, batchedDescriptions );
+            assertEquals( sequentialDescriptions.size(), sequentialRequests );
+            assertTrue( batchedRequests < sequentialRequests, batchedRequests + " vs " + sequentialRequests );
+        }
+    }
+
+    @Test
+    void preprocessedDefinitionTest() {
+        RetrievedMacros macros = retriever(50).retrieveReplacements(graph.getNode("alpha"));
+        assertTrue( macros.containsDefinition("real number 2 a") );
+        assertTrue( macros.containsMacro(ElasticsearchStubServer.macroName("real number 2 a")) );
+    }
+
+    @Test
+    void multiSearchTest() throws IOException {
+        List<String> descriptions = List.of("Jacobi polynomial", "parameter", "Gamma function");
+        int before = server.getNumberOfRequests();
+        List<LinkedList<MacroResult>> results = client.searchMacroDescriptions(descriptions, 3);
+        assertEquals( 1, server.getNumberOfRequests() - before );
+
+        assertEquals( 3, results.size() );
+        for ( int i = 0; i < descriptions.size(); i++ ) {
+            List<MacroResult> single = client.searchMacroDescription(descriptions.get(i), 3);
+            assertEquals( 1, results.get(i).size() );
+            assertEquals( single.get(0).getMacro().getName(), results.get(i).get(0).getMacro().getName() );
+            assertEquals( single.get(0).getScore(), results.get(i).get(0).getScore() );
+        }
+
+        assertTrue( client.searchMacroDescriptions(List.of(), 3).isEmpty() );
+    }
+
+    private static MacroRetriever retriever(int batchSize) {
+        GenericLacastConfig config = new GenericLacastConfig(GenericLacastConfig.getDefaultConfig());
+        config.setMaxDepth(3);
+        config.setSearchBatchSize(batchSize);
+        return new MacroRetriever(config, client);
+    }
+
+    private static List<String> toStrings(RetrievedMacros macros) {
+        return macros.getPatterns().stream()
+                .map( SemanticReplacementRule::getWikitextTableString )
+                .collect(Collectors.toList());
+    }
+
+    private static MOIAnnotation annotation(Object... definitionsAndScores) {
+        MOIAnnotation annotation = new MOIAnnotation();
+        for ( int i = 0; i < definitionsAndScores.length; i += 2 ) {
+            Relation relation = new Relation();
+            relation.setDefinition((String) definitionsAndScores[i]);
+            relation.setScore((Double) definitionsAndScores[i+1]);
+            annotation.appendRelation(relation);
+        }
+        return annotation;
+    }
+}
@@ -0,0 +1,213 @@
+package gov.nist.drmf.interpreter.generic.macro;
+
+import gov.nist.drmf.interpreter.common.config.GenericLacastConfig;
+import gov.nist.drmf.interpreter.generic.elasticsearch.DLMFElasticSearchClient;
+import gov.nist.drmf.interpreter.generic.elasticsearch.ElasticsearchStubServer;
+import gov.nist.drmf.interpreter.generic.elasticsearch.MacroResult;
+import gov.nist.drmf.interpreter.generic.interfaces.IMacroSearchEngine;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Andre Greiner-Petter
+ */
+public class MacroSearchCacheTests {
+
+    private static ElasticsearchStubServer server;
+    private static DLMFElasticSearchClient client;
+
+    @BeforeAll
+    static void setup() throws IOException {
+        server = new ElasticsearchStubServer();
+        client = new DLMFElasticSearchClient(server.getConfig());
+    }
+
+    @AfterAll
+    static void tearDown() {
+        client.stop();
+        server.close();
+    }
+
+    @Test
+    void repeatedSearchTest() throws IOException {
+        CachedMacroSearchEngine engine = new CachedMacroSearchEngine(client, new MacroSearchCache(10, 0));
+        int before = server.getNumberOfRequests();
+        List<MacroResult> first = engine.searchMacroDescription("Jacobi polynomial", 3);
+        List<MacroResult> second = engine.searchMacroDescription("Jacobi polynomial", 3);
+        assertEquals( 1, server.getNumberOfRequests() - before );
+        assertEquals( toNames(first), toNames(second) );
+        assertEquals( ElasticsearchStubServer.macroName("Jacobi polynomial"), second.get(0).getMacro().getName() );
+
+        // the maximum number of hits is part of the key
+        engine.searchMacroDescription("Jacobi polynomial", 5);
+        assertEquals( 2, server.getNumberOfRequests() - before );
+        assertEquals( 2, engine.getCache().size() );
+        assertEquals( 1, engine.getCache().getHits() );
+    }
+
+    @Test
+    void batchSearchesOnlyMissesTest() throws IOException {
+        CachedMacroSearchEngine engine = new CachedMacroSearchEngine(client, new MacroSearchCache(10, 0));
+        engine.searchMacroDescription("parameter", 3);
+
+        int before = server.getNumberOfRequests();
+        int searched = server.getSearchedDescriptions().size();
+        List<String> descriptions = List.of("Gamma function", "parameter", "Jacobi polynomial");
+        List<LinkedList<MacroResult>> results = engine.searchMacroDescriptions(descriptions, 3);
+        assertEquals( 1, server.getNumberOfRequests() - before );
+        assertEquals(
+                List.of("Gamma function", "Jacobi polynomial"),
+                server.getSearchedDescriptions().subList(searched, server.getSearchedDescriptions().size())
+        );
+
+        assertEquals( 3, results.size() );
+        for ( int i = 0; i < descriptions.size(); i++ ) {
+            assertEquals( ElasticsearchStubServer.macroName(descriptions.get(i)), results.get(i).get(0).getMacro().getName() );
+        }
+
+        before = server.getNumberOfRequests();
+        engine.searchMacroDescriptions(descriptions, 3);
+        assertEquals( 0, server.getNumberOfRequests() - before );
+    }
+
+    @Test
+    void emptyResultsAreCachedTest() throws IOException {
+        AtomicInteger searches = new AtomicInteger(0);
+        IMacroSearchEngine nothingFound = (description, max) -> {
+            searches.incrementAndGet();
+            return new LinkedList<>();
+        };
+        CachedMacroSearchEngine engine = new CachedMacroSearchEngine(nothingFound, new MacroSearchCache(10, 0));
+        assertTrue( engine.searchMacroDescription("unknown definiens", 3).isEmpty() );
+        assertTrue( engine.searchMacroDescription("unknown definiens", 3).isEmpty() );
+        assertEquals( 1, searches.get() );
+    }
+
+    @Test
+    void failedSearchesAreNotCachedTest() throws IOException {
+        AtomicInteger searches = new AtomicInteger(0);
+        IMacroSearchEngine failing = new IMacroSearchEngine() {
+            @Override
+            public LinkedList<MacroResult> searchMacroDescription(String description, int max) {
+                return new LinkedList<>();
+            }
+
+            @Override
+            public List<LinkedList<MacroResult>> searchMacroDescriptions(List<String> descriptions, int max) {
+                searches.incrementAndGet();
+                // the second search of the multi-search request failed
+                List<LinkedList<MacroResult>> results = new ArrayList<>();
+                results.add(new LinkedList<>());
+                results.add(null);
+                return results;
+            }
+        };
+
+        MacroSearchCache cache = new MacroSearchCache(10, 0);
+        CachedMacroSearchEngine engine = new CachedMacroSearchEngine(failing, cache);
+        List<LinkedList<MacroResult>> results = engine.searchMacroDescriptions(List.of("a function", "b function"), 3);
+        assertNotNull( results.get(0) );
+        assertNull( results.get(1) );
+        assertEquals( 1, cache.size() );
+        assertNull( cache.get(failing, "b function", 3) );
+    }
+
+    @Test
+    void instanceOfConfigTest() {
+        GenericLacastConfig disabled = new GenericLacastConfig();
+        disabled.setSearchCacheSize(0);
+        assertNull( MacroSearchCache.getInstance(disabled) );
+
+        GenericLacastConfig config = new GenericLacastConfig();
+        config.setSearchCacheSize(42);
+        config.setSearchCacheTTL(60);
+        MacroSearchCache cache = MacroSearchCache.getInstance(config);
+        assertNotNull( cache );
+        assertSame( cache, MacroSearchCache.getInstance(new GenericLacastConfig(config)) );
+
+        GenericLacastConfig other = new GenericLacastConfig(config);
+        other.setSearchCacheSize(7);
+        assertNotSame( cache, MacroSearchCache.getInstance(other) );
+    }
+
+    @Test
+    void sizeBoundTest() throws IOException {
+        MacroSearchCache cache = new MacroSearchCache(2, 0);
+        CachedMacroSearchEngine engine = new CachedMacroSearchEngine(client, cache);
+        engine.searchMacroDescriptions(List.of("a function", "b function", "c function"), 3);
+        assertEquals( 2, cache.size() );
+        assertNull( cache.get(client, "a function", 3) );
+        assertNotNull( cache.get(client, "c function", 3) );
+    }
+
+    @Test
+    void invalidateTest() throws IOException {
+        MacroSearchCache cache = new MacroSearchCache(10, 0);
+        new CachedMacroSearchEngine(client, cache).searchMacroDescription("Jacobi polynomial", 3);
+        cache.put("other engine", "Jacobi polynomial", 3, List.of());
+        assertEquals( 2, cache.size() );
+
+        cache.invalidate(client.toString());
+        assertEquals( 1, cache.size() );
+        assertNull( cache.get(client, "Jacobi polynomial", 3) );
+        assertNotNull( cache.get("other engine", "Jacobi polynomial", 3) );
+    }
+
+    @Test
+    void storeAndLoadTest() throws IOException {
+        MacroSearchCache cache = new MacroSearchCache(10, 0);
+        CachedMacroSearchEngine engine = new CachedMacroSearchEngine(client, cache);
+        List<MacroResult> expected = engine.searchMacroDescription("Jacobi polynomial", 3);
+
+        Path file = Files.createTempFile("macro-search-cache", ".json");
+        try {
+            cache.store(file);
+
+            MacroSearchCache warm = new MacroSearchCache(10, 0);
+            warm.load(file);
+            assertEquals( 1, warm.size() );
+
+            int before = server.getNumberOfRequests();
+            List<MacroResult> loaded = new CachedMacroSearchEngine(client, warm).searchMacroDescription("Jacobi polynomial", 3);
+            assertEquals( 0, server.getNumberOfRequests() - before );
+            assertEquals( toNames(expected), toNames(loaded) );
+            assertEquals( expected.get(0).getScore(), loaded.get(0).getScore() );
+            assertEquals( expected.get(0).getMacro().getTex(), loaded.get(0).getMacro().getTex() );
+
+            // entries of the file older than the time to live are skipped
+            Files.writeString(file, Files.readString(file).replaceAll("\"created\":\\d+", "\"created\":0"));
+            MacroSearchCache expired = new MacroSearchCache(10, 60);
+            expired.load(file);
+            assertEquals( 0, expired.size() );
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void expiredTest() throws InterruptedException {
+        MacroSearchCache cache = new MacroSearchCache(10, 1);
+        cache.put(client, "Jacobi polynomial", 3, List.of());
+        assertNotNull( cache.get(client, "Jacobi polynomial", 3) );
+        Thread.sleep(1_100);
+        assertNull( cache.get(client, "Jacobi polynomial", 3) );
+        assertEquals( 0, cache.size() );
+    }
+
+    private static List<String> toNames(List<MacroResult> results) {
+        List<String> names = new LinkedList<>();
+        results.forEach( r -> names.add(r.getMacro().getName()) );
+        return names;
+    }
+}
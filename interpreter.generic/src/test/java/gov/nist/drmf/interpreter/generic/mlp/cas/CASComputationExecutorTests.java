@@ -0,0 +1,168 @@
+package gov.nist.drmf.interpreter.generic.mlp.cas;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Andre Greiner-Petter
+ */
+public class CASComputationExecutorTests {
+
+    @Test
+    void sameCASInOrderTest() {
+        CASComputationExecutor executor = new CASComputationExecutor();
+        List<Integer> order = new LinkedList<>();
+        List<CompletableFuture<Integer>> futures = new LinkedList<>();
+        for ( int i = 0; i < 10; i++ ) {
+            int id = i;
+            futures.add( executor.submit("Maple", cancelled -> {
+                order.add(id);
+                return id;
+            }) );
+        }
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        assertEquals( List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), order );
+        assertEquals( 9, futures.get(9).join() );
+    }
+
+    @Test
+    void differentCASConcurrentlyTest() throws InterruptedException {
+        CASComputationExecutor executor = new CASComputationExecutor();
+        CountDownLatch mapleStarted = new CountDownLatch(1);
+        CountDownLatch mathematicaDone = new CountDownLatch(1);
+
+        CompletableFuture<String> maple = executor.submit("Maple", cancelled -> {
+            mapleStarted.countDown();
+            try {
+                // only finishes if the Mathematica computation runs in the meantime
+                return mathematicaDone.await(10, TimeUnit.SECONDS) ? "maple" : "blocked";
+            } catch (InterruptedException e) {
+                return "interrupted";
+            }
+        });
+
+        assertTrue( mapleStarted.await(10, TimeUnit.SECONDS) );
+        CompletableFuture<String> mathematica = executor.submit("Mathematica", cancelled -> {
+            mathematicaDone.countDown();
+            return "mathematica";
+        });
+
+        assertEquals( "mathematica", mathematica.join() );
+        assertEquals( "maple", maple.join() );
+    }
+
+    @Test
+    void cancelTest() throws InterruptedException {
+        CASComputationExecutor executor = new CASComputationExecutor();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        AtomicBoolean sawCancel = new AtomicBoolean(false);
+        AtomicBoolean skippedRan = new AtomicBoolean(false);
+
+        CompletableFuture<Integer> running = executor.submit("Maple", isCancelled -> {
+            started.countDown();
+            try {
+                cancelled.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                return -1;
+            }
+            sawCancel.set(isCancelled.getAsBoolean());
+            return 1;
+        });
+        CompletableFuture<Integer> queued = executor.submit("Maple", isCancelled -> {
+            skippedRan.set(true);
+            return 2;
+        });
+
+        assertTrue( started.await(10, TimeUnit.SECONDS) );
+        running.cancel(false);
+        queued.cancel(false);
+        cancelled.countDown();
+
+        // the worker is idle once the next computation finished
+        assertEquals( 3, executor.submit("Maple", isCancelled -> 3).join() );
+        assertTrue( sawCancel.get() );
+        assertFalse( skippedRan.get() );
+        assertTrue( running.isCancelled() );
+    }
+
+    @Test
+    void cancelDerivedTest() throws InterruptedException {
+        CASComputationExecutor executor = new CASComputationExecutor();
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicBoolean sawCancel = new AtomicBoolean(false);
+
+        CompletableFuture<Integer> source = executor.submit("Maple", isCancelled -> {
+            started.countDown();
+            // a long-running computation that stops once it is cancelled
+            long end = System.currentTimeMillis() + 10_000;
+            while ( !isCancelled.getAsBoolean() && System.currentTimeMillis() < end ) Thread.onSpinWait();
+            sawCancel.set(isCancelled.getAsBoolean());
+            return 1;
+        });
+        CompletableFuture<String> derived = CASComputationExecutor.thenApply(source, i -> "result " + i);
+
+        assertTrue( started.await(10, TimeUnit.SECONDS) );
+        derived.cancel(false);
+
+        assertEquals( 2, executor.submit("Maple", isCancelled -> 2).join() );
+        assertTrue( source.isCancelled() );
+        assertTrue( sawCancel.get() );
+    }
+
+    @Test
+    void cancelAllOfTest() throws InterruptedException {
+        CASComputationExecutor executor = new CASComputationExecutor();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean queuedRan = new AtomicBoolean(false);
+
+        CompletableFuture<Integer> running = executor.submit("Maple", isCancelled -> {
+            started.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                return -1;
+            }
+            return 1;
+        });
+        CompletableFuture<Integer> queued = executor.submit("Maple", isCancelled -> {
+            queuedRan.set(true);
+            return 2;
+        });
+        List<CompletableFuture<String>> derived = List.of(
+                CASComputationExecutor.thenApply(running, i -> "running " + i),
+                CASComputationExecutor.thenApply(queued, i -> "queued " + i)
+        );
+        CompletableFuture<List<CompletableFuture<String>>> all =
+                CASComputationExecutor.thenApply(CASComputationExecutor.allOf(derived), v -> derived);
+
+        assertTrue( started.await(10, TimeUnit.SECONDS) );
+        all.cancel(false);
+        release.countDown();
+
+        assertEquals( 3, executor.submit("Maple", isCancelled -> 3).join() );
+        assertTrue( running.isCancelled() );
+        assertTrue( queued.isCancelled() );
+        assertFalse( queuedRan.get() );
+    }
+
+    @Test
+    void exceptionTest() {
+        CASComputationExecutor executor = new CASComputationExecutor();
+        CompletableFuture<Integer> future = executor.submit("Maple", cancelled -> {
+            throw new IllegalStateException("CAS crashed");
+        });
+        assertTrue( assertThrows( Exception.class, future::join ).getCause() instanceof IllegalStateException );
+        assertEquals( 1, executor.submit("Maple", cancelled -> 1).join() );
+    }
+}
@@ -0,0 +1,89 @@
+package gov.nist.drmf.interpreter.generic.mlp.pojo;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import gov.nist.drmf.interpreter.common.pojo.FormulaDefinition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Andre Greiner-Petter
+ */
+public class MOIChangeTrackerTests {
+    private static final String DOC = "{\"title\": \"Test\", \"formulae\": [" +
+            "{\"id\": \"A\", \"formula\": \"x\", \"isPartOf\": [\"f(x)\"], " +
+            "\"definiens\": [{\"definition\": \"variable\", \"score\": 0.8}]}," +
+            "{\"id\": \"B\", \"formula\": \"f(x)\", \"includes\": [\"x\"], " +
+            "\"definiens\": [{\"definition\": \"function\", \"score\": 0.7}]}," +
+            "{\"id\": \"C\", \"formula\": \"g(f(x))\", \"includes\": [\"f(x)\"]}," +
+            "{\"id\": \"D\", \"formula\": \"y\"}" +
+            "]}";
+
+    private SemanticEnhancedDocument sed;
+
+    @BeforeEach
+    void setup() throws JsonProcessingException {
+        sed = SemanticEnhancedDocument.deserialize(DOC);
+    }
+
+    @Test
+    void untranslatedTest() {
+        MOIChangeTracker tracker = new MOIChangeTracker(sed.getFormulae());
+        assertEquals( Set.of("A", "B", "C", "D"), tracker.getAffectedIds(-1) );
+    }
+
+    @Test
+    void unchangedTest() {
+        markTranslated();
+        MOIChangeTracker tracker = new MOIChangeTracker(sed.getFormulae());
+        assertTrue( tracker.getAffectedIds(-1).isEmpty() );
+    }
+
+    @Test
+    void propagateChangeTest() {
+        markTranslated();
+        MOIPresentations x = sed.getFormulae().get(0);
+        x.setDefiniens(List.of(new FormulaDefinition(0.9, "real variable")));
+
+        MOIChangeTracker tracker = new MOIChangeTracker(sed.getFormulae());
+        assertTrue( tracker.hasChanged(x) );
+        assertEquals( Set.of("A", "B", "C"), tracker.getAffectedIds(-1) );
+        assertEquals( Set.of("A", "B"), tracker.getAffectedIds(1) );
+        assertEquals( Set.of("A"), tracker.getAffectedIds(0) );
+    }
+
+    @Test
+    void changedDependencyTest() {
+        markTranslated();
+        // g(f(x)) no longer includes f(x), hence g(f(x)) must be translated again but f(x) is untouched
+        sed.getFormulae().get(1).setOutgoingNodes(List.of());
+        sed.getFormulae().get(2).setIngoingNodes(List.of());
+        MOIChangeTracker tracker = new MOIChangeTracker(sed.getFormulae());
+        assertEquals( Set.of("C"), tracker.getAffectedIds(-1) );
+    }
+
+    @Test
+    void requiredFormulaeTest() {
+        MOIChangeTracker tracker = new MOIChangeTracker(sed.getFormulae());
+        assertEquals( List.of("A", "B", "C"), toIds(tracker.getRequiredFormulae(Set.of("C"), -1)) );
+        assertEquals( List.of("B", "C"), toIds(tracker.getRequiredFormulae(Set.of("C"), 1)) );
+        assertEquals( List.of("D"), toIds(tracker.getRequiredFormulae(Set.of("D"), -1)) );
+    }
+
+    private void markTranslated() {
+        MOIChangeTracker tracker = new MOIChangeTracker(sed.getFormulae());
+        for ( MOIPresentations moi : sed.getFormulae() ) {
+            moi.setSemanticLatex(moi.getGenericLatex());
+            tracker.updateFingerprint(moi);
+        }
+    }
+
+    private static List<String> toIds(List<MOIPresentations> formulae) {
+        return formulae.stream().map(MOIPresentations::getId).collect(Collectors.toList());
+    }
+}
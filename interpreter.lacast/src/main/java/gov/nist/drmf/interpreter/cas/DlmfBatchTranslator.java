@@ -1,85 +1,296 @@
 package gov.nist.drmf.interpreter.cas;
 
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.thoughtworks.xstream.XStream;
 import com.thoughtworks.xstream.io.xml.DomDriver;
 import gov.nist.drmf.interpreter.cas.translation.SemanticLatexTranslator;
+import gov.nist.drmf.interpreter.cas.translation.SharedSemanticLatexTranslator;
+import gov.nist.drmf.interpreter.common.exceptions.InitTranslatorException;
+import gov.nist.drmf.interpreter.common.exceptions.TranslationException;
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
 import org.apache.commons.cli.DefaultParser;
 import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.filefilter.DirectoryFileFilter;
 import org.apache.commons.io.filefilter.RegexFileFilter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Collection;
-import java.util.Map;
-import java.util.Set;
-
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+/**
+ * Translates all {@code *.s.tex} files of a directory to Maple. The batch translator supports
+ * <ul>
+ *     <li>a parallel mode ({@code -p}) that distributes the files over a work-stealing pool with one translator per worker,</li>
+ *     <li>a manifest ({@code -m}) of finished files, so that an interrupted run can be resumed without
+ *     translating the finished files again, and</li>
+ *     <li>a single combined JSONL output ({@code -j}) rather than one output file per input file.</li>
+ * </ul>
+ */
 public class DlmfBatchTranslator {
+	private static final Logger LOG = LogManager.getLogger(DlmfBatchTranslator.class.getName());
 
 	public static final String MLPERROR = "mlperror";
 
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private final SharedSemanticLatexTranslator sharedTranslator;
+	private final ThreadLocal<SemanticLatexTranslator> workerTranslators;
+	private final Queue<SemanticLatexTranslator> allTranslators = new ConcurrentLinkedQueue<>();
+
+	private final Path outPutDir;
+	private final String prefix;
+	private final boolean mlpfilter;
+
+	private final Set<String> finished = ConcurrentHashMap.newKeySet();
+	private final AtomicInteger processed = new AtomicInteger(0);
+
+	private BufferedWriter manifestWriter;
+	private BufferedWriter jsonlWriter;
+
+	private DlmfBatchTranslator( Path outPutDir, String prefix, boolean mlpfilter ) throws InitTranslatorException {
+		this.outPutDir = outPutDir;
+		this.prefix = prefix;
+		this.mlpfilter = mlpfilter;
+		this.sharedTranslator = new SharedSemanticLatexTranslator( "Maple" );
+		this.workerTranslators = ThreadLocal.withInitial( this::createWorkerTranslator );
+	}
+
 	public static void main( String[] args ) throws Exception {
 		// create Options object
 		Options options = new Options();
 		options.addRequiredOption( "i", "input", true, "directory" );
-		options.addRequiredOption( "o", "output", true, "directory" );
+		options.addOption( "o", "output", true, "directory" );
 		options.addOption("s","subdir",true,"subdirectory for filtering");
 		options.addOption( "f", "filter", true, "filter" );
 		options.addOption( "e","error",true,"file for error report" );
+		options.addOption( "p", "parallel", true, "number of parallel workers (default 1)" );
+		options.addOption( "m", "manifest", true, "manifest file of finished inputs to resume interrupted runs" );
+		options.addOption( "j", "jsonl", true, "single JSONL output file instead of one output file per input" );
 		CommandLineParser parser = new DefaultParser();
 		CommandLine cmd = parser.parse( options, args );
+		if ( !cmd.hasOption( "o" ) && !cmd.hasOption( "j" ) ) {
+			throw new ParseException( "Either an output directory (-o) or a JSONL output file (-j) is required." );
+		}
+
 		Collection<File> files = getFiles( cmd );
-		final Path outPutDir = FileUtils.getFile( cmd.getOptionValue( "o" ) ).toPath();
-		SemanticLatexTranslator translator = SemanticToCASInterpreter.getParser( false, "Maple" );
-		translator.setTolerant( true );
-		final boolean mlpfilter;
-		if ( cmd.hasOption( "f" ) ) {
-			if ( cmd.getOptionValue( "f" ).equals( MLPERROR ) ) {
-				mlpfilter = true;
-			} else {
-				mlpfilter = false;
+		final Path outPutDir = cmd.hasOption( "o" ) ? FileUtils.getFile( cmd.getOptionValue( "o" ) ).toPath() : null;
+		final boolean mlpfilter = cmd.hasOption( "f" ) && cmd.getOptionValue( "f" ).equals( MLPERROR );
+		final String prefix = cmd.getOptionValue( "i" ).replace( "/", "-" );
+		final int parallel = cmd.hasOption( "p" ) ? Integer.parseInt( cmd.getOptionValue( "p" ) ) : 1;
+
+		DlmfBatchTranslator batchTranslator = new DlmfBatchTranslator( outPutDir, prefix, mlpfilter );
+		try {
+			if ( cmd.hasOption( "m" ) ) batchTranslator.openManifest( Paths.get( cmd.getOptionValue( "m" ) ) );
+			if ( cmd.hasOption( "j" ) ) batchTranslator.openJsonl( Paths.get( cmd.getOptionValue( "j" ) ) );
+			batchTranslator.translateAll( files, parallel );
+		} finally {
+			batchTranslator.close();
+		}
+
+		if(cmd.hasOption( 'e' )) {
+			final Map<String, Map<Integer, Set<String>>> problemTokens = batchTranslator.getProblemTokens();
+			XStream xstream = new XStream( new DomDriver() );
+			try ( FileWriter fw = new FileWriter( cmd.getOptionValue( "e" ) ) ) {
+				xstream.toXML( problemTokens, fw );
 			}
-		} else {
-			mlpfilter = false;
 		}
-		Path finalOutPutDir = outPutDir;
-		// System.out.println("processing files" + files.size());
-		final String prefix = cmd.getOptionValue( "i" ).replace( "/", "-" );
-		files.forEach( file -> {
-			try {
-				final String sTeX = FileUtils.readFileToString( file );
-				final String id = file.getPath().replace( "/", "-" ).replace( prefix, "" );
-				translator.reset();
-				translator.setFileID( id );
-				translator.translate( sTeX );
-				final String translatedExpression = translator.getTranslatedExpression();
-				if ( mlpfilter ) {
-					if ( translator.isMlpError() ) {
-						final File f = Paths.get( finalOutPutDir.toString(), id ).toFile();
-						FileUtils.write( f, sTeX );
+	}
+
+	private SemanticLatexTranslator createWorkerTranslator() {
+		try {
+			SemanticLatexTranslator translator = sharedTranslator.createContext();
+			translator.setTolerant( true );
+			allTranslators.add( translator );
+			return translator;
+		} catch ( InitTranslatorException e ) {
+			throw new IllegalStateException( "Unable to create worker translator", e );
+		}
+	}
+
+	/**
+	 * Loads the already finished inputs from the given manifest (if it exists) and appends
+	 * every newly finished input to it.
+	 * @param manifest the manifest file
+	 * @throws IOException if the manifest cannot be read or opened
+	 */
+	private void openManifest( Path manifest ) throws IOException {
+		if ( Files.exists( manifest ) ) {
+			Files.readAllLines( manifest, StandardCharsets.UTF_8 ).stream()
+					.map( String::trim )
+					.filter( l -> !l.isEmpty() )
+					.forEach( finished::add );
+			LOG.info( "Resume batch translation. Skipping " + finished.size() + " finished files." );
+		}
+		manifestWriter = Files.newBufferedWriter( manifest, StandardCharsets.UTF_8,
+				StandardOpenOption.CREATE, StandardOpenOption.APPEND );
+	}
+
+	/**
+	 * Appends the results to the given JSONL file. The inputs that already have a result in the file are
+	 * treated as finished, even if they are missing in the manifest (e.g., a run crashed between writing the
+	 * result and updating the manifest). Hence, a resumed run never writes the same input twice.
+	 * @param jsonl the JSONL file
+	 * @throws IOException if the file cannot be read or opened
+	 */
+	private void openJsonl( Path jsonl ) throws IOException {
+		boolean endsWithNewLine = true;
+		if ( Files.exists( jsonl ) ) {
+			int recovered = 0;
+			try ( Stream<String> lines = Files.lines( jsonl, StandardCharsets.UTF_8 ) ) {
+				for ( String line : (Iterable<String>) lines::iterator ) {
+					String id = readID( line );
+					if ( id != null && finished.add( id ) ) {
+						markFinished( id );
+						recovered++;
 					}
-				} else {
-					final File f = Paths.get( finalOutPutDir.toString(), id + ".maple" ).toFile();
-					FileUtils.write( f, translatedExpression );
 				}
-			} catch ( IOException e ) {
-				e.printStackTrace();
 			}
-		});
-		if(cmd.hasOption( 'e' )) {
-			final Map<String, Map<Integer, Set<String>>> problemTokens = translator.getProblemTokens();
-			XStream xstream = new XStream( new DomDriver() );
-			xstream.toXML( problemTokens, new FileWriter( cmd.getOptionValue( "e" ) ) );
+			if ( recovered > 0 ) LOG.info( "Recovered " + recovered + " finished files from the JSONL output." );
+			endsWithNewLine = Files.size( jsonl ) == 0 || endsWithNewLine( jsonl );
 		}
 
+		// append, otherwise resumed runs would lose the previous results
+		jsonlWriter = Files.newBufferedWriter( jsonl, StandardCharsets.UTF_8,
+				StandardOpenOption.CREATE, StandardOpenOption.APPEND );
+		// a crash may have left a partially written line, do not continue it
+		if ( !endsWithNewLine ) jsonlWriter.newLine();
+	}
+
+	private static String readID( String line ) {
+		if ( line.isBlank() ) return null;
+		try {
+			return MAPPER.readTree( line ).path( "id" ).asText( null );
+		} catch ( JsonProcessingException e ) {
+			LOG.warn( "Skip corrupted line in JSONL output: " + line );
+			return null;
+		}
+	}
+
+	private static boolean endsWithNewLine( Path file ) throws IOException {
+		try ( RandomAccessFile raf = new RandomAccessFile( file.toFile(), "r" ) ) {
+			raf.seek( raf.length() - 1 );
+			return raf.read() == '\n';
+		}
+	}
+
+	private void translateAll( Collection<File> files, int parallel ) throws InterruptedException, ExecutionException {
+		List<File> todo = files.stream()
+				.filter( f -> !finished.contains( getID( f ) ) )
+				.collect( Collectors.toList() );
+		LOG.info( "Translate " + todo.size() + " files with " + parallel + " worker(s)." );
+
+		if ( parallel <= 1 ) {
+			todo.forEach( this::translateFile );
+			return;
+		}
+
+		ForkJoinPool pool = new ForkJoinPool( parallel );
+		try {
+			// parallel streams are executed in the pool of the submitting task, i.e., with work-stealing
+			pool.submit( () -> todo.parallelStream().forEach( this::translateFile ) ).get();
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	private String getID( File file ) {
+		return file.getPath().replace( "/", "-" ).replace( prefix, "" );
+	}
+
+	private void translateFile( File file ) {
+		final String id = getID( file );
+		try {
+			final String sTeX = FileUtils.readFileToString( file, StandardCharsets.UTF_8 );
+			SemanticLatexTranslator translator = workerTranslators.get();
+			translator.reset();
+			translator.setFileID( id );
+			translator.translate( sTeX );
+			final String translatedExpression = translator.getTranslatedExpression();
+			if ( mlpfilter ) {
+				if ( translator.isMlpError() ) {
+					writeResult( id, id, "tex", sTeX );
+				}
+			} else {
+				writeResult( id, id + ".maple", "translation", translatedExpression );
+			}
+			markFinished( id );
+		} catch ( IOException e ) {
+			LOG.error( "Unable to read or write the translation of " + id, e );
+		} catch ( TranslationException te ) {
+			LOG.error( "Unable to translate " + id + ": " + te.getMessage() );
+		}
+
+		int count = processed.incrementAndGet();
+		if ( count % 1000 == 0 ) LOG.info( "Processed " + count + " files." );
+	}
+
+	private void writeResult( String id, String fileName, String key, String content ) throws IOException {
+		if ( jsonlWriter != null ) {
+			Map<String, String> entry = new LinkedHashMap<>();
+			entry.put( "id", id );
+			entry.put( key, content );
+			String line = MAPPER.writeValueAsString( entry );
+			synchronized ( jsonlWriter ) {
+				jsonlWriter.write( line );
+				jsonlWriter.newLine();
+				// the result must be persisted before the input is marked as finished
+				jsonlWriter.flush();
+			}
+		} else {
+			final File f = Paths.get( outPutDir.toString(), fileName ).toFile();
+			FileUtils.write( f, content, StandardCharsets.UTF_8 );
+		}
+	}
+
+	private void markFinished( String id ) throws IOException {
+		if ( manifestWriter == null ) return;
+		synchronized ( manifestWriter ) {
+			manifestWriter.write( id );
+			manifestWriter.newLine();
+			manifestWriter.flush();
+		}
+	}
+
+	private void close() throws IOException {
+		if ( manifestWriter != null ) manifestWriter.close();
+		if ( jsonlWriter != null ) jsonlWriter.close();
+	}
+
+	/**
+	 * Merges the problem tokens of all worker translators.
+	 * @return the merged problem tokens
+	 */
+	private Map<String, Map<Integer, Set<String>>> getProblemTokens() {
+		Map<String, Map<Integer, Set<String>>> merged = new HashMap<>();
+		for ( SemanticLatexTranslator translator : allTranslators ) {
+			translator.getProblemTokens().forEach( (token, lines) -> {
+				Map<Integer, Set<String>> mergedLines = merged.computeIfAbsent( token, k -> new HashMap<>() );
+				lines.forEach( (line, files) -> mergedLines.computeIfAbsent( line, k -> new HashSet<>() ).addAll( files ) );
+			});
+		}
+		return merged;
 	}
 
 	static Collection<File> getFiles( CommandLine cmd ) {
@@ -0,0 +1,103 @@
+package gov.nist.drmf.interpreter.cas.blueprints;
+
+import mlp.PomTaggedExpression;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * <p>
+ * An index over blueprints to prefilter the blueprints that may match a given expression.
+ * A non-wildcard node of a blueprint only matches a node with the same term text. Hence, a blueprint
+ * can only match an expression if all its non-wildcard tokens (e.g., the relation symbols {@code \leq},
+ * {@code <} or {@code \to}) appear in the expression.
+ * </p>
+ *
+ * <p>
+ * Every blueprint is stored under its rarest token (its anchor). A lookup only checks the blueprints
+ * of the anchors that appear in the expression and the blueprints without any token (e.g., {@code varN}).
+ * The candidates are returned in the order the blueprints were added, i.e., the first matching
+ * candidate is the same blueprint a linear scan over all blueprints would find.
+ * </p>
+ *
+ * @param <T> the type of blueprints
+ * @author Andre Greiner-Petter
+ */
+final class BlueprintIndex<T extends BlueprintRuleMatcher> {
+    private final List<T> blueprints = new ArrayList<>();
+
+    // lazily (re)build after blueprints were added
+    private Map<String, List<Integer>> anchors;
+    private List<Integer> unanchored;
+
+    void add(T blueprint) {
+        blueprints.add(blueprint);
+        anchors = null;
+    }
+
+    int size() {
+        return blueprints.size();
+    }
+
+    List<T> getBlueprints() {
+        return Collections.unmodifiableList(blueprints);
+    }
+
+    /**
+     * @param tokens the tokens of the expression (see {@link #collectTokens(PomTaggedExpression, Pattern, Set)})
+     * @return the blueprints that contain no other tokens than the given ones (in the order they were added)
+     */
+    List<T> getCandidates(Set<String> tokens) {
+        if ( anchors == null ) build();
+
+        BitSet candidates = new BitSet(blueprints.size());
+        unanchored.forEach(candidates::set);
+        for ( String token : tokens ) {
+            List<Integer> ids = anchors.get(token);
+            if ( ids == null ) continue;
+            for ( Integer id : ids ) {
+                if ( tokens.containsAll(blueprints.get(id).getRequiredTokens()) ) candidates.set(id);
+            }
+        }
+
+        List<T> result = new ArrayList<>(candidates.cardinality());
+        candidates.stream().forEach( id -> result.add(blueprints.get(id)) );
+        return result;
+    }
+
+    /**
+     * Builds the index of all blueprints added so far. Call it once all blueprints are added, so that
+     * lookups only read the index and can run in parallel.
+     */
+    void build() {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for ( T blueprint : blueprints ) {
+            blueprint.getRequiredTokens().forEach( t -> frequencies.merge(t, 1, Integer::sum) );
+        }
+
+        anchors = new HashMap<>();
+        unanchored = new ArrayList<>();
+        for ( int id = 0; id < blueprints.size(); id++ ) {
+            Optional<String> anchor = blueprints.get(id).getRequiredTokens().stream()
+                    .min(Comparator.comparing(frequencies::get));
+            if ( anchor.isPresent() ) anchors.computeIfAbsent(anchor.get(), k -> new ArrayList<>()).add(id);
+            else unanchored.add(id);
+        }
+    }
+
+    /**
+     * Collects the (non-blank) term texts of all nodes of the given expression.
+     * @param pte the expression
+     * @param wildcard nodes matching this pattern are skipped (can be null)
+     * @param tokens the set the term texts are added to
+     */
+    static void collectTokens(PomTaggedExpression pte, Pattern wildcard, Set<String> tokens) {
+        if ( pte == null ) return;
+        String text = pte.getRoot() == null ? null : pte.getRoot().getTermText();
+        if ( text != null && !text.isBlank() && (wildcard == null || !wildcard.matcher(text).matches()) )
+            tokens.add(text);
+        for ( PomTaggedExpression child : pte.getComponents() ) {
+            collectTokens(child, wildcard, tokens);
+        }
+    }
+}
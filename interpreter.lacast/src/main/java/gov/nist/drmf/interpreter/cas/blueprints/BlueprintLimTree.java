@@ -4,6 +4,8 @@ import gov.nist.drmf.interpreter.cas.translation.SemanticLatexTranslator;
 import gov.nist.drmf.interpreter.pom.common.grammar.LimDirections;
 import mlp.ParseException;
 
+import java.util.Map;
+
 /**
  * @author Andre Greiner-Petter
  */
@@ -19,8 +21,8 @@ public class BlueprintLimTree extends BlueprintRuleMatcher {
     }
 
     @Override
-    protected MathematicalEssentialOperatorMetadata getExtractedMEOM() {
-        MathematicalEssentialOperatorMetadata lim = super.getExtractedMEOM();
+    protected MathematicalEssentialOperatorMetadata getExtractedMEOM(Map<String, String> matches, boolean isOverSet) {
+        MathematicalEssentialOperatorMetadata lim = super.getExtractedMEOM(matches, isOverSet);
         lim.setDirection(direction);
         return lim;
     }
@@ -2,6 +2,8 @@ package gov.nist.drmf.interpreter.cas.blueprints;
 
 import gov.nist.drmf.interpreter.cas.translation.SemanticLatexTranslator;
 import gov.nist.drmf.interpreter.common.constants.GlobalPaths;
+import gov.nist.drmf.interpreter.pom.SemanticMLPWrapper;
+import gov.nist.drmf.interpreter.pom.extensions.PrintablePomTaggedExpression;
 import mlp.ParseException;
 import mlp.PomTaggedExpression;
 import org.apache.logging.log4j.LogManager;
@@ -11,9 +13,19 @@ import org.intellij.lang.annotations.Language;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.LinkedList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
+ * Finds the matching blueprint of limit expressions. Only the blueprints that contain no other
+ * tokens than the limit expression are matched against it (see {@link BlueprintIndex}).
+ *
+ * Once initialized, a master is immutable and can be shared between threads. The
+ * {@link gov.nist.drmf.interpreter.cas.common.ForwardTranslationProcessConfig} shares one master
+ * with all of its copies.
+ *
  * @author Andre Greiner-Petter
  */
 public class BlueprintMaster {
@@ -25,17 +37,20 @@ public class BlueprintMaster {
     public static final boolean LIMITED = false;
     public static final boolean LIM = true;
 
-    private LinkedList<BlueprintRuleMatcher> limitedTrees;
-    private LinkedList<BlueprintLimTree> limTrees;
+    private BlueprintIndex<BlueprintRuleMatcher> limitedTrees;
+    private BlueprintIndex<BlueprintLimTree> limTrees;
     private SemanticLatexTranslator slt;
 
     private Path limitBTFile, limBTFile;
 
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder candidates = new LongAdder();
+
     public BlueprintMaster(SemanticLatexTranslator slt) {
         limitBTFile = GlobalPaths.PATH_MEOM_BLUEPRINTS;
         limBTFile = GlobalPaths.PATH_MEOM_LIMIT_BLUEPRINTS;
-        limitedTrees = new LinkedList<>();
-        limTrees = new LinkedList<>();
+        limitedTrees = new BlueprintIndex<>();
+        limTrees = new BlueprintIndex<>();
         this.slt = slt;
     }
 
@@ -45,6 +60,9 @@ public class BlueprintMaster {
 
         Files.readAllLines(limBTFile)
                 .forEach( this::addLimTrees );
+
+        limitedTrees.build();
+        limTrees.build();
     }
 
     private void addLimitedTrees( String l ) {
@@ -65,17 +83,75 @@ public class BlueprintMaster {
         }
     }
 
+    /**
+     * Finds the matching blueprint for the given limit expression.
+     * @param lim if it is a limit or a limited expression (sum, product, integral)
+     * @param limit the limit expression
+     * @return the extracted metadata or null if no blueprint matches
+     */
     public MathematicalEssentialOperatorMetadata findMatchingLimit(boolean lim, String limit) {
-        for ( BlueprintRuleMatcher t : (lim == LIM) ? limTrees : limitedTrees ) {
-            if ( t.match(limit) ) return t.getExtractedMEOM();
+        if ( limit == null || limit.isBlank() ) return null;
+        try {
+            // parse once rather than once per blueprint
+            PrintablePomTaggedExpression ppte = SemanticMLPWrapper.getStandardInstance()
+                    .parse(BlueprintRuleMatcher.preCleaning(limit));
+            return findMatchingLimit(lim, ppte);
+        } catch (ParseException e) {
+            return null;
         }
-        return null;
     }
 
+    /**
+     * Finds the matching blueprint for the given limit expressions.
+     * @param lim if it is a limit or a limited expression (sum, product, integral)
+     * @param pte the limit expressions
+     * @return the extracted metadata or null if no blueprint matches
+     * @see #findMatchingLimit(boolean, String)
+     */
     public MathematicalEssentialOperatorMetadata findMatchingLimit(boolean lim, PomTaggedExpression... pte) {
-        for ( BlueprintRuleMatcher t : (lim == LIM) ? limTrees : limitedTrees ) {
-            if ( t.match(pte) ) return t.getExtractedMEOM();
+        for ( BlueprintRuleMatcher t : getCandidates(lim, pte) ) {
+            MathematicalEssentialOperatorMetadata meom = t.matchAndExtract(pte);
+            if ( meom != null ) return meom;
         }
         return null;
     }
+
+    private List<? extends BlueprintRuleMatcher> getCandidates(boolean lim, PomTaggedExpression... pte) {
+        Set<String> tokens = new HashSet<>();
+        if ( pte != null ) {
+            for ( PomTaggedExpression p : pte ) BlueprintIndex.collectTokens(p, null, tokens);
+        }
+        List<? extends BlueprintRuleMatcher> result = (lim == LIM) ?
+                limTrees.getCandidates(tokens) :
+                limitedTrees.getCandidates(tokens);
+        lookups.increment();
+        candidates.add(result.size());
+        return result;
+    }
+
+    /**
+     * @param lim if it is a limit or a limited expression (sum, product, integral)
+     * @return the number of loaded blueprints
+     */
+    public int getNumberOfBlueprints(boolean lim) {
+        return (lim == LIM) ? limTrees.size() : limitedTrees.size();
+    }
+
+    /**
+     * @return the number of lookups so far
+     */
+    public long getNumberOfLookups() {
+        return lookups.sum();
+    }
+
+    /**
+     * @return the total number of candidate blueprints of all lookups so far
+     */
+    public long getNumberOfCandidates() {
+        return candidates.sum();
+    }
+
+    List<? extends BlueprintRuleMatcher> getBlueprints(boolean lim) {
+        return (lim == LIM) ? limTrees.getBlueprints() : limitedTrees.getBlueprints();
+    }
 }
@@ -19,11 +19,15 @@ import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 /**
+ * A blueprint of limit expressions. The captured groups of a match are returned per call
+ * rather than stored in the blueprint. Hence, a blueprint can be shared between threads.
+ *
  * @author Andre Greiner-Petter
  */
 public class BlueprintRuleMatcher implements IBlueprintMatcher {
     @Language("RegExp")
     private static final String WILDCARD_PATTERN = "num[LU]\\d+|var(?:N|\\d+)";
+    private static final Pattern WILDCARD = Pattern.compile(WILDCARD_PATTERN);
 
     @Language("RegExp")
     private static final String DEFAULT_ILLEGAL_CHAR_FOR_VARS = "[;.=\\d]";
@@ -35,9 +39,10 @@ public class BlueprintRuleMatcher implements IBlueprintMatcher {
     private static final String VAR_SPLITTER = " / ";
     private static final String LOW_UP_SPLITTER = ",";
 
-    private final MatcherConfig matcherConfig;
+    private static final Map<SemanticLatexTranslator, String[]> WILDCARD_TRANSLATIONS =
+            Collections.synchronizedMap(new WeakHashMap<>());
 
-    private List<String> vars = null;
+    private final MatcherConfig matcherConfig;
 
     private String varPattern, upBPattern, lowBPattern;
     private final Pattern LIMIT_PATTERN;
@@ -46,15 +51,16 @@ public class BlueprintRuleMatcher implements IBlueprintMatcher {
     private final SemanticLatexTranslator translator;
     private final String[] limitPattern;
 
-    private Map<String, String> matches;
-
-    private boolean isOverSet;
-
     private final String pattern;
 
+    private final Set<String> requiredTokens;
+
     public BlueprintRuleMatcher(SemanticLatexTranslator translator, String pattern, String replacement) throws ParseException {
         PrintablePomTaggedExpression ppte = SemanticMLPWrapper.getStandardInstance().parse(pattern);
         ppte = (PrintablePomTaggedExpression) FakeMLPGenerator.wrapNonSequenceInSequence(ppte);
+        Set<String> tokens = new HashSet<>();
+        BlueprintIndex.collectTokens(ppte, WILDCARD, tokens);
+        this.requiredTokens = Collections.unmodifiableSet(tokens);
         matchablePom = PomMatcherBuilder.compile(ppte, WILDCARD_PATTERN);
         this.translator = translator;
         this.limitPattern = replacement.split(VAR_SPLITTER);
@@ -68,9 +74,13 @@ public class BlueprintRuleMatcher implements IBlueprintMatcher {
     }
 
     private Pattern setupPattern() {
-        lowBPattern = translate(LOWER_BOUND_TOKEN);
-        upBPattern = translate(UPPER_BOUND_TOKEN);
-        varPattern = translate(VAR_TOKEN);
+        // the wildcard tokens are the same for all blueprints, hence translate them once per translator
+        String[] wildcards = WILDCARD_TRANSLATIONS.computeIfAbsent(translator, t -> new String[] {
+                translate(LOWER_BOUND_TOKEN), translate(UPPER_BOUND_TOKEN), translate(VAR_TOKEN)
+        });
+        lowBPattern = wildcards[0];
+        upBPattern = wildcards[1];
+        varPattern = wildcards[2];
 
 //        lowBPattern = lowBPattern.replaceAll("\\*", "\\\\*");
 //        upBPattern = upBPattern.replaceAll("\\*", "\\\\*");
@@ -85,42 +95,76 @@ public class BlueprintRuleMatcher implements IBlueprintMatcher {
         );
     }
 
+    /**
+     * @return the non-wildcard tokens of this blueprint, i.e., the tokens an expression must contain to match
+     */
+    public Set<String> getRequiredTokens() {
+        return requiredTokens;
+    }
+
     @Override
     public boolean match(String expression) {
-        if ( expression == null || expression.isBlank() ) return false;
-        expression = preCleaning(expression);
+        PrintablePomTaggedExpression ppte = parse(expression);
+        return ppte != null && match(ppte);
+    }
+
+    public boolean match(PomTaggedExpression... expressions) {
+        PrintablePomTaggedExpression ppte = wrap(expressions);
+        return ppte != null && captureGroups(ppte) != null;
+    }
+
+    /**
+     * Matches the given limit expression and extracts the metadata of it.
+     * @param expression the limit expression
+     * @return the extracted metadata or null if the expression does not match this blueprint
+     */
+    public MathematicalEssentialOperatorMetadata matchAndExtract(String expression) {
+        PrintablePomTaggedExpression ppte = parse(expression);
+        return ppte == null ? null : matchAndExtract(ppte);
+    }
+
+    /**
+     * Matches the given limit expressions and extracts the metadata of it.
+     * @param expressions the limit expressions
+     * @return the extracted metadata or null if the expressions do not match this blueprint
+     */
+    public MathematicalEssentialOperatorMetadata matchAndExtract(PomTaggedExpression... expressions) {
+        PrintablePomTaggedExpression ppte = wrap(expressions);
+        if ( ppte == null ) return null;
+        Map<String, String> matches = captureGroups(ppte);
+        if ( matches == null ) return null;
+        boolean isOverSet = ppte.getTexString().matches(".*\\\\(in|divides)[^A-Za-z]+.*");
+        return getExtractedMEOM(matches, isOverSet);
+    }
+
+    private static PrintablePomTaggedExpression parse(String expression) {
+        if ( expression == null || expression.isBlank() ) return null;
         try {
-            PrintablePomTaggedExpression ppte = SemanticMLPWrapper.getStandardInstance().parse(expression);
-            return match(ppte);
+            return SemanticMLPWrapper.getStandardInstance().parse(preCleaning(expression));
         } catch (ParseException e) {
-            return false;
+            return null;
         }
-
     }
 
-    public boolean match(PomTaggedExpression... expressions) {
-        this.isOverSet = false;
-        if ( expressions == null || expressions.length == 0 ) return false;
-        boolean match = false;
+    private static PrintablePomTaggedExpression wrap(PomTaggedExpression... expressions) {
+        if ( expressions == null || expressions.length == 0 ) return null;
         if ( expressions.length > 1 ) {
             PrintablePomTaggedExpression ppte = FakeMLPGenerator.generateEmptySequencePPTE();
             ppte.setPrintableComponents(expressions);
-            match = matchablePom.match(ppte, matcherConfig);
-            this.isOverSet = ppte.getTexString().matches(".*\\\\(in|divides)[^A-Za-z]+.*");
-        } else {
-            PrintablePomTaggedExpression ppte = (PrintablePomTaggedExpression) FakeMLPGenerator.wrapNonSequenceInSequence(expressions[0]);
-            match = matchablePom.match(ppte, matcherConfig);
-            this.isOverSet = ppte.getTexString().matches(".*\\\\(in|divides)[^A-Za-z]+.*");
-        }
-        if ( match ) {
-            analyzeMatchedGroups();
+            return ppte;
         }
-        return match;
+        return (PrintablePomTaggedExpression) FakeMLPGenerator.wrapNonSequenceInSequence(expressions[0]);
     }
 
-    private void analyzeMatchedGroups() {
-        matches = matchablePom.getStringMatches();
+    private Map<String, String> captureGroups(PrintablePomTaggedExpression ppte) {
+        // the compiled pattern stores the captured groups of its last match
+        synchronized ( matchablePom ) {
+            if ( !matchablePom.match(ppte, matcherConfig) ) return null;
+            return matchablePom.getStringMatches();
+        }
+    }
 
+    private List<String> analyzeMatchedGroups(Map<String, String> matches) {
         Collection<Match> varsCol = new LinkedList<>();
 
         matches.forEach((key, value) -> {
@@ -134,7 +178,7 @@ public class BlueprintRuleMatcher implements IBlueprintMatcher {
             }
         });
 
-        this.vars = parseToList(varsCol);
+        return parseToList(varsCol);
     }
 
     private List<String> parseToList(Collection<Match> matches) {
@@ -144,11 +188,12 @@ public class BlueprintRuleMatcher implements IBlueprintMatcher {
                 .collect(Collectors.toList());
     }
 
-    protected MathematicalEssentialOperatorMetadata getExtractedMEOM() {
+    protected MathematicalEssentialOperatorMetadata getExtractedMEOM(Map<String, String> matches, boolean isOverSet) {
+        List<String> vars = analyzeMatchedGroups(matches);
         LinkedList<String> lowers = new LinkedList<>();
         LinkedList<String> uppers = new LinkedList<>();
 
-        for ( int i = 0; i < this.vars.size(); i++ ) {
+        for ( int i = 0; i < vars.size(); i++ ) {
             String[] lu;
             if ( i >= limitPattern.length ) {
                 lu = limitPattern[limitPattern.length-1].split(LOW_UP_SPLITTER);
@@ -158,19 +203,19 @@ public class BlueprintRuleMatcher implements IBlueprintMatcher {
 
             String t = translate(lu[0]);
             Matcher lMatcher = LIMIT_PATTERN.matcher(t); // lower limit
-            lowers.addLast(replaceAllPatterns(lMatcher));
+            lowers.addLast(replaceAllPatterns(lMatcher, matches, vars));
 
             if ( lu.length == 2 ) {
                 t = translate(lu[1]);
                 Matcher uMatcher = LIMIT_PATTERN.matcher(t); // upper limit
-                uppers.addLast(replaceAllPatterns(uMatcher));
+                uppers.addLast(replaceAllPatterns(uMatcher, matches, vars));
             } else {
                 uppers.addLast(translate(MathematicalEssentialOperatorMetadata.DEFAULT_UPPER_LIMIT));
             }
         }
 
         MathematicalEssentialOperatorMetadata l = new MathematicalEssentialOperatorMetadata(
-                this.vars,
+                vars,
                 lowers,
                 uppers
         );
@@ -179,11 +224,11 @@ public class BlueprintRuleMatcher implements IBlueprintMatcher {
     }
 
     private String translate(String str) {
-        translator.translate(str);
-        return translator.getTranslatedExpression();
+        // the translator is shared, hence take its return value rather than asking it for the last translation
+        return translator.translate(str);
     }
 
-    private String replaceAllPatterns( Matcher matcher ) {
+    private String replaceAllPatterns( Matcher matcher, Map<String, String> matches, List<String> vars ) {
         StringBuffer buffer = new StringBuffer();
         while( matcher.find() ){
             if ( matcher.group(1).matches(lowBPattern) ) {
@@ -199,7 +244,7 @@ public class BlueprintRuleMatcher implements IBlueprintMatcher {
             } else if ( matcher.group(1).matches(varPattern) ) {
                 // lower index replacement
                 int idx = Integer.parseInt(matcher.group(2));
-                String trans = this.vars.get(idx-1);
+                String trans = vars.get(idx-1);
                 matcher.appendReplacement(buffer, trans);
             }
         }
@@ -23,7 +23,15 @@ public class ForwardTranslationProcessConfig extends TranslationProcessConfig {
     private String MULTIPLY = "*";
     private String LINE_DELIMITER = "\n";
 
-    private BlueprintMaster limitParser = null;
+    /**
+     * The blueprint master is immutable once loaded. Hence, the original config and all copies share one master.
+     */
+    private final SharedLimitParser limitParser;
+
+    /**
+     * The config that is used by the blueprint translators (the original config of all copies)
+     */
+    private final ForwardTranslationProcessConfig blueprintConfig;
 
     private boolean extensiveOutput = false;
 
@@ -38,9 +46,32 @@ public class ForwardTranslationProcessConfig extends TranslationProcessConfig {
                 (to_language.length()+2) : "DLMF: ".length();
         for ( int i = 0; i <= length; i++ )
             TAB += " ";
+
+        this.limitParser = new SharedLimitParser();
+        this.blueprintConfig = this;
+    }
+
+    /**
+     * Creates a copy of the given config. The copy shares all translation information and blueprint masters
+     * with the original config but has its own settings (e.g., the inline package mode). Changing the settings
+     * of the copy does not affect the original config. Hence, a copy is a lightweight way to translate with
+     * different settings at the same time.
+     * @param orig the original config
+     */
+    public ForwardTranslationProcessConfig(ForwardTranslationProcessConfig orig) {
+        super(orig);
+        this.TAB = orig.TAB;
+        this.MULTIPLY = orig.MULTIPLY;
+        this.LINE_DELIMITER = orig.LINE_DELIMITER;
+        this.extensiveOutput = orig.extensiveOutput;
+        this.inlinePackageMode = orig.inlinePackageMode;
+        this.translateLettersAsConstantsIfPossible = orig.translateLettersAsConstantsIfPossible;
+        this.limitParser = orig.limitParser;
+        this.blueprintConfig = orig.blueprintConfig;
     }
 
     public void init() throws InitTranslatorException {
+        if ( isInit() ) return;
         super.init();
         MULTIPLY = super.getSymbolTranslator().translateFromMLPKey( Keys.MLP_KEY_MULTIPLICATION );
         LINE_DELIMITER = super.getSymbolTranslator().translateFromMLPKey( Keys.MLP_KEY_END_OF_LINE );
@@ -72,24 +103,44 @@ public class ForwardTranslationProcessConfig extends TranslationProcessConfig {
     }
 
     /**
-     * Careful, lazy initialization.
+     * Careful, lazy initialization. The master is loaded once and shared by all threads and copies of this config.
      * @return the blueprint master
      */
     public BlueprintMaster getLimitParser() throws InitTranslatorException {
-        if ( limitParser == null ) {
-            LOG.debug("Lazy init blueprint masters.");
-            SemanticLatexTranslator blueprintTranslator = new SemanticLatexTranslator(this);
-            limitParser = new BlueprintMaster(blueprintTranslator);
+        BlueprintMaster master = limitParser.master;
+        if ( master != null ) return master;
+
+        synchronized ( limitParser ) {
+            if ( limitParser.master != null ) return limitParser.master;
+            // the blueprint translator may ask for the master while it is loading
+            if ( limitParser.loading != null ) return limitParser.loading;
+
+            LOG.debug("Lazy init blueprint master.");
+            SemanticLatexTranslator blueprintTranslator = new SemanticLatexTranslator(blueprintConfig);
+            master = new BlueprintMaster(blueprintTranslator);
+            limitParser.loading = master;
             try {
-                limitParser.init();
+                master.init();
+                limitParser.master = master;
             } catch (IOException e) {
                 throw new InitTranslatorException(
                         "Unable to load blueprint translator.",
                         e
                 );
+            } finally {
+                limitParser.loading = null;
             }
         }
-        return limitParser;
+        return master;
+    }
+
+    /**
+     * A key that identifies the settings of this config that change translations, i.e., two configs
+     * to the same language with the same key translate every expression in the same way.
+     * @return the configuration key of this config
+     */
+    public String getConfigurationKey() {
+        return "inlinePackages=" + inlinePackageMode + ";lettersAsConstants=" + translateLettersAsConstantsIfPossible;
     }
 
     public boolean shortenedOutput() {
@@ -115,4 +166,11 @@ public class ForwardTranslationProcessConfig extends TranslationProcessConfig {
     public String getLineDelimiter() {
         return LINE_DELIMITER;
     }
+
+    private static final class SharedLimitParser {
+        private volatile BlueprintMaster master;
+
+        // the master that is currently loading, only visible to the loading thread (it holds the lock)
+        private BlueprintMaster loading;
+    }
 }
@@ -355,6 +355,10 @@ public abstract class AbstractTranslator implements IForwardTranslator {
         this.tolerant = tolerant;
     }
 
+    public boolean isTolerant() {
+        return tolerant;
+    }
+
     public void reset() {
         globalExp = new TranslatedExpression();
         partialTranslations = new LinkedList<>();
@@ -29,8 +29,9 @@ import java.util.LinkedList;
 /**
  * <p>
  * This class is the high-level entry point to perform translations from semantic LaTeX to CAS.
- * The translator is not thread-safe. To run translations in parallel, you must initiate multiple
- * independent instances.
+ * The translator is not thread-safe because it holds the state of the current translation process.
+ * To run translations in parallel, you should use a {@link SharedSemanticLatexTranslator} which
+ * creates a lightweight translation context for every request.
  * </p>
  *
  * <p>
@@ -0,0 +1,143 @@
+package gov.nist.drmf.interpreter.cas.translation;
+
+import gov.nist.drmf.interpreter.cas.blueprints.BlueprintMaster;
+import gov.nist.drmf.interpreter.cas.common.ForwardTranslationProcessConfig;
+import gov.nist.drmf.interpreter.cas.logging.TranslatedExpression;
+import gov.nist.drmf.interpreter.common.TranslationInformation;
+import gov.nist.drmf.interpreter.common.exceptions.InitTranslatorException;
+import gov.nist.drmf.interpreter.common.exceptions.TranslationException;
+import gov.nist.drmf.interpreter.common.interfaces.IDLMFTranslator;
+import gov.nist.drmf.interpreter.common.interfaces.TranslationFeature;
+import gov.nist.drmf.interpreter.pom.extensions.PrintablePomTaggedExpression;
+import mlp.PomTaggedExpression;
+
+/**
+ * <p>
+ * A thread-safe translator from semantic LaTeX to CAS. In contrast to the {@link SemanticLatexTranslator},
+ * a single instance of this class can serve many concurrent translation requests without locking.
+ * </p>
+ *
+ * <p>
+ * All heavy and read-only translation information, such as the loaded lexicons, live in the shared
+ * {@link ForwardTranslationProcessConfig}, including the immutable {@link BlueprintMaster} that all requests
+ * share. The per-translation state (the translated expression,
+ * the information logger, the set-mode flags, etc.) is carried by a lightweight translation context that is
+ * created for every request. A translation context is a fresh {@link SemanticLatexTranslator} on a copy of the
+ * shared config, see {@link #createContext()}. Hence, the settings of a request (e.g., the tolerant mode of the
+ * translator or the inline package mode of its config) never affect other requests. Creating a context does not
+ * load anything from disk.
+ * </p>
+ *
+ * @see SemanticLatexTranslator
+ * @author Andre Greiner-Petter
+ */
+public class SharedSemanticLatexTranslator implements IDLMFTranslator<PrintablePomTaggedExpression> {
+    private final ForwardTranslationProcessConfig config;
+
+    /**
+     * Creates a shared forward translator to the specified language.
+     * @param toLanguage the language key
+     * @throws InitTranslatorException if the translation information cannot be loaded
+     * @see gov.nist.drmf.interpreter.common.constants.Keys
+     */
+    public SharedSemanticLatexTranslator( String toLanguage ) throws InitTranslatorException {
+        this( new ForwardTranslationProcessConfig(toLanguage) );
+    }
+
+    /**
+     * Creates a shared forward translator based on the given config. The config will be initialized
+     * right away, so that the translation requests never need to load anything. The settings of the
+     * given config are the default settings of every translation request.
+     * @param config the config that is shared by all translation requests
+     * @throws InitTranslatorException if the translation information cannot be loaded
+     */
+    public SharedSemanticLatexTranslator( ForwardTranslationProcessConfig config ) throws InitTranslatorException {
+        this.config = config;
+        this.config.init();
+        this.config.getLimitParser();
+    }
+
+    /**
+     * Creates a new translation context. The context works on its own copy of the shared config and
+     * holds the state of a single translation process. Use this if you need more information than the
+     * {@link TranslationInformation} provides or if you want to translate with other settings, e.g.,
+     * via {@link SemanticLatexTranslator#setTolerant(boolean)} or on {@link SemanticLatexTranslator#getConfig()}.
+     * The returned context must not be shared among threads.
+     * @return a new translation context
+     * @throws InitTranslatorException should not happen since the config was initialized before
+     */
+    public SemanticLatexTranslator createContext() throws InitTranslatorException {
+        return new SemanticLatexTranslator(new ForwardTranslationProcessConfig(config));
+    }
+
+    private SemanticLatexTranslator context() {
+        try {
+            return createContext();
+        } catch (InitTranslatorException e) {
+            // the config was initialized before, so this should never happen
+            throw new IllegalStateException("Unable to create translation context from initialized config.", e);
+        }
+    }
+
+    @Override
+    public String translate( String expression ) throws TranslationException {
+        return context().translate(expression);
+    }
+
+    @Override
+    public String translate( String expression, String label ) throws TranslationException {
+        return context().translate(expression, label);
+    }
+
+    @Override
+    public TranslationInformation translateToObject( String expression ) throws TranslationException {
+        return context().translateToObject(expression);
+    }
+
+    @Override
+    public TranslationInformation translateToObject(
+            String expression,
+            String label,
+            TranslationFeature<PrintablePomTaggedExpression> translationFeatures
+    ) throws TranslationException {
+        return context().translateToObject(expression, label, translationFeatures);
+    }
+
+    /**
+     * Translates the given parse tree. The parse tree will not be changed, hence, it is safe to translate
+     * the same tree concurrently.
+     * @param expression the parse tree
+     * @return the translated expression
+     * @throws TranslationException if the translation failed
+     */
+    public TranslatedExpression translate( PomTaggedExpression expression ) throws TranslationException {
+        return context().translate(expression);
+    }
+
+    @Override
+    public String getSourceLanguage() {
+        return config.getFROM_LANGUAGE();
+    }
+
+    @Override
+    public String getTargetLanguage() {
+        return config.getTO_LANGUAGE();
+    }
+
+    /**
+     * The shared config. Its settings are the defaults for all requests that are created afterwards.
+     * Change the settings of a single request via the config of its context instead, see {@link #createContext()}.
+     * @return the shared config
+     */
+    public ForwardTranslationProcessConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * @return the blueprint master of the current thread
+     * @throws InitTranslatorException if the blueprints cannot be loaded
+     */
+    public BlueprintMaster getBlueprintMaster() throws InitTranslatorException {
+        return config.getLimitParser();
+    }
+}
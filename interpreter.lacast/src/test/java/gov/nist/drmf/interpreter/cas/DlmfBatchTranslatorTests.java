@@ -0,0 +1,157 @@
+package gov.nist.drmf.interpreter.cas;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gov.nist.drmf.interpreter.pom.common.meta.AssumeMLPAvailability;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Andre Greiner-Petter
+ */
+@AssumeMLPAvailability
+public class DlmfBatchTranslatorTests {
+    private static final String[] INPUTS = new String[] {
+            "\\cpi^k",
+            "\\sin@{x} + \\cos@{x}",
+            "\\EulerGamma@{z+1}",
+            "\\sum_{k=0}^n k",
+            "\\sqrt{x^2+1}"
+    };
+
+    @TempDir
+    Path tmp;
+
+    private Path inputDir;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        inputDir = tmp.resolve("input");
+        Files.createDirectories(inputDir);
+        for ( int i = 0; i < INPUTS.length; i++ ) {
+            Files.writeString(inputDir.resolve("eq" + i + ".s.tex"), INPUTS[i]);
+        }
+    }
+
+    @Test
+    public void perFileOutputTest() throws Exception {
+        Path outDir = tmp.resolve("out");
+        Files.createDirectories(outDir);
+        DlmfBatchTranslator.main(new String[]{"-i", inputDir.toString(), "-o", outDir.toString()});
+        try ( var files = Files.list(outDir) ) {
+            assertEquals(INPUTS.length, files.count());
+        }
+    }
+
+    @Test
+    public void parallelJsonlWithResumeTest() throws Exception {
+        Path jsonl = tmp.resolve("results.jsonl");
+        Path manifest = tmp.resolve("manifest.txt");
+
+        // first run only covers a part of the input
+        Files.writeString(manifest, "dummy-id\n");
+        String[] args = new String[]{
+                "-i", inputDir.toString(), "-j", jsonl.toString(), "-m", manifest.toString(), "-p", "3"
+        };
+        DlmfBatchTranslator.main(args);
+
+        List<String> lines = Files.readAllLines(jsonl, StandardCharsets.UTF_8);
+        assertEquals(INPUTS.length, lines.size());
+        assertTrue(lines.stream().anyMatch(l -> l.contains("(Pi)^(k)")), lines.toString());
+        assertEquals(INPUTS.length+1, Files.readAllLines(manifest).size());
+
+        // second run must not translate anything again
+        DlmfBatchTranslator.main(args);
+        assertEquals(INPUTS.length, Files.readAllLines(jsonl, StandardCharsets.UTF_8).size());
+        assertEquals(INPUTS.length+1, Files.readAllLines(manifest).size());
+
+        // adding a new file only translates the new file
+        Files.writeString(inputDir.resolve("new.s.tex"), "x^2");
+        DlmfBatchTranslator.main(args);
+        assertEquals(INPUTS.length+1, Files.readAllLines(jsonl, StandardCharsets.UTF_8).size());
+    }
+
+    @Test
+    public void resumeAfterCrashTest() throws Exception {
+        Path jsonl = tmp.resolve("results.jsonl");
+        Path manifest = tmp.resolve("manifest.txt");
+        String[] args = new String[]{"-i", inputDir.toString(), "-j", jsonl.toString(), "-m", manifest.toString()};
+        DlmfBatchTranslator.main(args);
+
+        // crash after the last result was written but before it was marked as finished
+        List<String> finished = Files.readAllLines(manifest);
+        Files.write(manifest, finished.subList(0, finished.size()-1));
+        // and a partially written result of another input
+        Files.writeString(jsonl, "{\"id\":\"trunc", StandardOpenOption.APPEND);
+
+        Files.writeString(inputDir.resolve("new.s.tex"), "x^2");
+        DlmfBatchTranslator.main(args);
+
+        Map<String, String> results = new HashMap<>();
+        ObjectMapper mapper = new ObjectMapper();
+        for ( String line : Files.readAllLines(jsonl, StandardCharsets.UTF_8) ) {
+            if ( line.startsWith("{\"id\":\"trunc") ) continue;
+            JsonNode node = mapper.readTree(line);
+            assertNull(results.put(node.get("id").asText(), node.get("translation").asText()), line);
+        }
+        assertEquals(INPUTS.length+1, results.size());
+        assertEquals(INPUTS.length+1, Files.readAllLines(manifest).size());
+    }
+
+    @Test
+    public void parallelEqualsSerialTest() throws Exception {
+        String[] expressions = new String[] {
+                "\\JacobiP{\\alpha}{\\beta}{n}@{\\cos@{a\\Theta}}",
+                "\\sum_{k=0}^n \\binom{n}{k} x^k",
+                "\\prod_{n=1}^\\infty (1 + x^n)",
+                "\\lim_{x \\to 0} \\frac{\\sin@{x}}{x}",
+                "\\int_0^1 \\EulerGamma@{x} \\diff{x}",
+                "\\BesselJ{\\nu}@{z} = \\left( \\frac{z}{2} \\right)^\\nu"
+        };
+        Path manyDir = tmp.resolve("many");
+        Files.createDirectories(manyDir);
+        for ( int i = 0; i < 10*expressions.length; i++ ) {
+            Files.writeString(manyDir.resolve("eq" + i + ".s.tex"), expressions[i % expressions.length]);
+        }
+
+        Path serial = tmp.resolve("serial.jsonl");
+        Path parallel = tmp.resolve("parallel.jsonl");
+        DlmfBatchTranslator.main(new String[]{"-i", manyDir.toString(), "-j", serial.toString()});
+        DlmfBatchTranslator.main(new String[]{"-i", manyDir.toString(), "-j", parallel.toString(), "-p", "4"});
+
+        Map<String, String> serialResults = readJsonl(serial);
+        Map<String, String> parallelResults = readJsonl(parallel);
+        assertEquals(10*expressions.length, serialResults.size());
+        assertEquals(serialResults, parallelResults);
+    }
+
+    private static Map<String, String> readJsonl(Path jsonl) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, String> results = new HashMap<>();
+        for ( String line : Files.readAllLines(jsonl, StandardCharsets.UTF_8) ) {
+            JsonNode node = mapper.readTree(line);
+            results.put(node.get("id").asText(), node.get("translation").asText());
+        }
+        return results;
+    }
+
+    @Test
+    public void missingOutputTest() {
+        assertThrows(
+                org.apache.commons.cli.ParseException.class,
+                () -> DlmfBatchTranslator.main(new String[]{"-i", inputDir.toString()})
+        );
+    }
+}
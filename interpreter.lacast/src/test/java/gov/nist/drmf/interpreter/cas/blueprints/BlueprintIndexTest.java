@@ -0,0 +1,88 @@
+package gov.nist.drmf.interpreter.cas.blueprints;
+
+import gov.nist.drmf.interpreter.cas.translation.SemanticLatexTranslator;
+import gov.nist.drmf.interpreter.common.constants.Keys;
+import gov.nist.drmf.interpreter.common.exceptions.InitTranslatorException;
+import gov.nist.drmf.interpreter.pom.common.meta.AssumeMLPAvailability;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Andre Greiner-Petter
+ */
+@AssumeMLPAvailability
+public class BlueprintIndexTest {
+
+    private static final String[] LIMITED = {
+            "a = 1", "\\ell = 1", "n = -\\infty", "a, b, c = 1", "a, b, c = -1", "1 \\leq n \\leq 10",
+            "1 \\le n, k \\leq 10", "1 \\le j < k \\le n", "-\\infty < n < \\infty", "m-1 \\leq n, k \\leq m+1",
+            "n_k = 1", "p^m \\leq x", "x \\in \\Omega_n", "n \\hiderel{=} 1", "\\ell = 0", "q", "a, 3, c = 1",
+            "0 < k < n", "n \\geq 1", "k > 0", "k \\geqslant 2", "p \\divides n", "x \\to 0", ""
+    };
+
+    private static final String[] LIM = {
+            "x \\to 0", "x \\to 1-", "x \\to 1^{-}", "x \\to 2+", "x \\to -m-l", "n \\to \\infty",
+            "x \\searrow 0", "x \\uparrow 1", "n = 1"
+    };
+
+    private static BlueprintMaster btmaster;
+
+    @BeforeAll
+    public static void setup() throws InitTranslatorException {
+        btmaster = new SemanticLatexTranslator(Keys.KEY_MAPLE).getBlueprintMaster();
+    }
+
+    @Test
+    public void requiredTokensTest() {
+        List<? extends BlueprintRuleMatcher> limited = btmaster.getBlueprints(BlueprintMaster.LIMITED);
+        assertEquals( Set.of("="), limited.get(0).getRequiredTokens() );
+        assertEquals( Set.of("\\leq"), limited.get(4).getRequiredTokens() );
+        assertTrue( limited.get(limited.size()-1).getRequiredTokens().isEmpty() );
+
+        List<? extends BlueprintRuleMatcher> lim = btmaster.getBlueprints(BlueprintMaster.LIM);
+        assertTrue( lim.get(lim.size()-1).getRequiredTokens().contains("\\to") );
+    }
+
+    @Test
+    public void sameAsLinearScanTest() {
+        for ( String limit : LIMITED ) assertSameAsLinearScan(BlueprintMaster.LIMITED, limit);
+        for ( String limit : LIM ) assertSameAsLinearScan(BlueprintMaster.LIM, limit);
+    }
+
+    @Test
+    public void fewerCandidatesTest() {
+        long lookups = btmaster.getNumberOfLookups();
+        long candidates = btmaster.getNumberOfCandidates();
+        for ( String limit : LIMITED ) btmaster.findMatchingLimit(BlueprintMaster.LIMITED, limit);
+
+        // the empty expression is not looked up
+        assertEquals( LIMITED.length - 1, btmaster.getNumberOfLookups() - lookups );
+        long all = (LIMITED.length - 1L) * btmaster.getNumberOfBlueprints(BlueprintMaster.LIMITED);
+        assertTrue( btmaster.getNumberOfCandidates() - candidates < all / 2 );
+    }
+
+    private static void assertSameAsLinearScan(boolean lim, String limit) {
+        MathematicalEssentialOperatorMetadata expected = null;
+        for ( BlueprintRuleMatcher t : btmaster.getBlueprints(lim) ) {
+            expected = t.matchAndExtract(limit);
+            if ( expected != null ) break;
+        }
+
+        MathematicalEssentialOperatorMetadata actual = btmaster.findMatchingLimit(lim, limit);
+        if ( expected == null ) {
+            assertNull( actual, limit );
+            return;
+        }
+        assertNotNull( actual, limit );
+        assertEquals( expected.getVars(), actual.getVars(), limit );
+        assertEquals( expected.getLower(), actual.getLower(), limit );
+        assertEquals( expected.getUpper(), actual.getUpper(), limit );
+        assertEquals( expected.getDirection(), actual.getDirection(), limit );
+        assertEquals( expected.isLimitOverSet(), actual.isLimitOverSet(), limit );
+    }
+}
@@ -0,0 +1,130 @@
+package gov.nist.drmf.interpreter.cas.translation;
+
+import gov.nist.drmf.interpreter.cas.blueprints.BlueprintMaster;
+import gov.nist.drmf.interpreter.cas.blueprints.MathematicalEssentialOperatorMetadata;
+import gov.nist.drmf.interpreter.common.TranslationInformation;
+import gov.nist.drmf.interpreter.common.constants.Keys;
+import gov.nist.drmf.interpreter.common.exceptions.InitTranslatorException;
+import gov.nist.drmf.interpreter.pom.common.meta.AssumeMLPAvailability;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Andre Greiner-Petter
+ */
+@AssumeMLPAvailability
+public class SharedSemanticLatexTranslatorTests {
+    private static final String[] EXPRESSIONS = new String[] {
+            "\\JacobiP{\\alpha}{\\beta}{n}@{\\cos@{a\\Theta\\sqrt{\\frac{1}{\\iunit}}}}",
+            "\\sum_{k=0}^n \\binom{n}{k} x^k",
+            "\\prod_{n=1}^\\infty (1 + x^n)",
+            "\\lim_{x \\to 0} \\frac{\\sin@{x}}{x}",
+            "\\int_0^1 \\EulerGamma@{x} \\diff{x}",
+            "\\{ x, y \\} \\pm \\cpi^k"
+    };
+
+    private static SharedSemanticLatexTranslator sharedMaple;
+    private static SemanticLatexTranslator sequentialMaple;
+
+    @BeforeAll
+    public static void setup() throws InitTranslatorException {
+        sharedMaple = new SharedSemanticLatexTranslator(Keys.KEY_MAPLE);
+        sequentialMaple = new SemanticLatexTranslator(Keys.KEY_MAPLE);
+    }
+
+    @Test
+    public void simpleTranslationTest() {
+        assertEquals("(Pi)^(k)", sharedMaple.translate("\\cpi^k"));
+        assertEquals(Keys.KEY_MAPLE, sharedMaple.getTargetLanguage());
+    }
+
+    @Test
+    public void independentContextsTest() throws InitTranslatorException {
+        SemanticLatexTranslator first = sharedMaple.createContext();
+        SemanticLatexTranslator second = sharedMaple.createContext();
+        assertNotSame(first, second);
+        assertNotSame(first.getConfig(), second.getConfig());
+        assertNotSame(sharedMaple.getConfig(), first.getConfig());
+
+        first.translate("\\cpi^k");
+        second.translate("\\sin@{x}");
+        assertEquals("(Pi)^(k)", first.getTranslatedExpression());
+        assertEquals("sin(x)", second.getTranslatedExpression());
+    }
+
+    @Test
+    public void independentSettingsTest() throws InitTranslatorException {
+        SemanticLatexTranslator context = sharedMaple.createContext();
+        context.getConfig().setInlinePackageMode(true);
+        context.getConfig().setLettersAsConstantsMode(true);
+        assertTrue(context.getConfig().isInlinePackageMode());
+
+        assertFalse(sharedMaple.getConfig().isInlinePackageMode());
+        assertFalse(sharedMaple.getConfig().translateLettersAsConstantsMode());
+        assertFalse(sharedMaple.createContext().getConfig().isInlinePackageMode());
+    }
+
+    @Test
+    public void sharedBlueprintsTest() throws InterruptedException, ExecutionException, InitTranslatorException {
+        BlueprintMaster master = sharedMaple.getBlueprintMaster();
+        assertSame(master, sharedMaple.createContext().getBlueprintMaster());
+
+        String[] limits = new String[] {"a = 1", "1 \\leq n \\leq 10", "x \\in \\Omega_n", "k > 0"};
+        List<List<String>> expected = new ArrayList<>();
+        for ( String limit : limits ) expected.add(master.findMatchingLimit(BlueprintMaster.LIMITED, limit).getVars());
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            assertSame(master, executor.submit(() -> sharedMaple.getBlueprintMaster()).get());
+
+            List<Future<MathematicalEssentialOperatorMetadata>> results = new ArrayList<>();
+            for ( int i = 0; i < 20*limits.length; i++ ) {
+                String limit = limits[i % limits.length];
+                results.add(executor.submit(() -> master.findMatchingLimit(BlueprintMaster.LIMITED, limit)));
+            }
+
+            for ( int i = 0; i < results.size(); i++ ) {
+                assertEquals(expected.get(i % limits.length), results.get(i).get().getVars());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void concurrentRequestsTest() throws InterruptedException, ExecutionException {
+        List<String> expected = new ArrayList<>();
+        List<Integer> expectedPartials = new ArrayList<>();
+        for ( String expr : EXPRESSIONS ) {
+            TranslationInformation ti = sequentialMaple.translateToObject(expr);
+            expected.add(ti.getTranslatedExpression());
+            expectedPartials.add(ti.getPartialTranslations().size());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<TranslationInformation>> results = new ArrayList<>();
+            for ( int i = 0; i < 10*EXPRESSIONS.length; i++ ) {
+                String expr = EXPRESSIONS[i % EXPRESSIONS.length];
+                results.add(executor.submit(() -> sharedMaple.translateToObject(expr)));
+            }
+
+            for ( int i = 0; i < results.size(); i++ ) {
+                TranslationInformation ti = results.get(i).get();
+                assertEquals(expected.get(i % EXPRESSIONS.length), ti.getTranslatedExpression());
+                assertEquals(expectedPartials.get(i % EXPRESSIONS.length), ti.getPartialTranslations().size());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
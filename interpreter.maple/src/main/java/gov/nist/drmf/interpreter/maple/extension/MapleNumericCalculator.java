@@ -4,15 +4,21 @@ import gov.nist.drmf.interpreter.common.cas.PackageWrapper;
 import gov.nist.drmf.interpreter.common.constants.Keys;
 import gov.nist.drmf.interpreter.common.cas.AbstractCasEngineNumericalEvaluator;
 import gov.nist.drmf.interpreter.common.eval.EvaluatorType;
+import gov.nist.drmf.interpreter.common.eval.NumericBatchResult;
+import gov.nist.drmf.interpreter.common.eval.NumericResult;
+import gov.nist.drmf.interpreter.common.eval.NumericalTest;
 import gov.nist.drmf.interpreter.common.eval.NumericCalculationGroup;
 import gov.nist.drmf.interpreter.common.eval.TestResultType;
 import gov.nist.drmf.interpreter.common.exceptions.ComputerAlgebraSystemEngineException;
 import gov.nist.drmf.interpreter.common.eval.NumericCalculation;
+import gov.nist.drmf.interpreter.common.numeric.NumericDialect;
+import gov.nist.drmf.interpreter.common.numeric.TestValueCombinations;
 import gov.nist.drmf.interpreter.common.symbols.BasicFunctionsTranslator;
 import gov.nist.drmf.interpreter.common.symbols.SymbolTranslator;
 import gov.nist.drmf.interpreter.maple.wrapper.openmaple.Algebraic;
 import gov.nist.drmf.interpreter.maple.wrapper.MapleException;
 import gov.nist.drmf.interpreter.maple.wrapper.openmaple.MapleList;
+import gov.nist.drmf.interpreter.maple.wrapper.openmaple.MString;
 import gov.nist.drmf.interpreter.maple.wrapper.openmaple.Numeric;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -96,6 +102,18 @@ public class MapleNumericCalculator extends AbstractCasEngineNumericalEvaluator<
     }
 
     private void clearAll() {
+        resetTestState();
+        StringBuffer clearCommands = new StringBuffer();
+        appendClearCommands(clearCommands);
+
+        try {
+            maple.evaluate(clearCommands.toString());
+        } catch (MapleException e) {
+            LOG.error("Unable to reset variables", e);
+        }
+    }
+
+    private void resetTestState() {
         // reset commandsList
         commandsList = new StringBuffer();
         timedOutBySetup = false;
@@ -108,27 +126,21 @@ public class MapleNumericCalculator extends AbstractCasEngineNumericalEvaluator<
         requiredPackages.clear();
         latestAppliedConstraints.clear();
         latestResultCheckMethod = "";
+    }
 
+    private void appendClearCommands(StringBuffer sb) {
         String varValues = AbstractCasEngineNumericalEvaluator.getValuesName(varNames);
         String conValsN = AbstractCasEngineNumericalEvaluator.getValuesName(conVarN);
         String specValsN = AbstractCasEngineNumericalEvaluator.getValuesName(specVarN);
 
-        commandsList.append("unassign('" + testExpression + "'):").append(NL);
-        commandsList.append("unassign('" + consN + "'):").append(NL);
-        commandsList.append("unassign('" + varNames + "'):").append(NL);
-        commandsList.append("unassign('" + conVarN + "'):").append(NL);
-        commandsList.append("unassign('" + specVarN + "'):").append(NL);
-        commandsList.append("unassign('").append(varValues).append("'):").append(NL);
-        commandsList.append("unassign('").append(conValsN).append("'):").append(NL);
-        commandsList.append("unassign('").append(specValsN).append("'):");
-
-        try {
-            maple.evaluate(commandsList.toString());
-        } catch (MapleException e) {
-            LOG.error("Unable to reset variables", e);
-        } finally {
-            commandsList = new StringBuffer();
-        }
+        sb.append("unassign('" + testExpression + "'):").append(NL);
+        sb.append("unassign('" + consN + "'):").append(NL);
+        sb.append("unassign('" + varNames + "'):").append(NL);
+        sb.append("unassign('" + conVarN + "'):").append(NL);
+        sb.append("unassign('" + specVarN + "'):").append(NL);
+        sb.append("unassign('").append(varValues).append("'):").append(NL);
+        sb.append("unassign('").append(conValsN).append("'):").append(NL);
+        sb.append("unassign('").append(specValsN).append("'):").append(NL);
     }
 
     @Override
@@ -160,6 +172,7 @@ public class MapleNumericCalculator extends AbstractCasEngineNumericalEvaluator<
 
     @Override
     public void setGlobalNumericAssumptions(List<String> assumptions) {
+        super.setGlobalNumericAssumptions(assumptions);
         List<String> ass = new LinkedList<>();
         List<String> con = new LinkedList<>();
         for ( String a : assumptions ){
@@ -177,7 +190,10 @@ public class MapleNumericCalculator extends AbstractCasEngineNumericalEvaluator<
     public void storeVariables(Collection<String> variables, Collection<String> testValues) {
         // reset commandsList
         clearAll();
+        appendVariables(variables, testValues);
+    }
 
+    private void appendVariables(Collection<String> variables, Collection<String> testValues) {
         String varValues = AbstractCasEngineNumericalEvaluator.getValuesName(varNames);
         setVariable(commandsList, varNames, makeMapleSet(variables));
         setVariable(commandsList, varValues, makeMapleList(testValues));
@@ -318,6 +334,186 @@ public class MapleNumericCalculator extends AbstractCasEngineNumericalEvaluator<
         return testValuesN;
     }
 
+    @Override
+    protected NumericDialect getNumericDialect() {
+        return NumericDialect.MAPLE;
+    }
+
+    @Override
+    public String storeTestCases(String constraintsName, TestValueCombinations combinations, int maxCombis)
+            throws ComputerAlgebraSystemEngineException {
+        String testValuesN = "nTestVals";
+
+        try {
+            // the setup and the active constraints in a single call
+            Algebraic a = maple.evaluate(commandsList.toString() + constraintsName + ";");
+            setActiveConstraints(a);
+            LOG.info("Active constraints: " + a.toString());
+        } catch (MapleException e) {
+            throw new ComputerAlgebraSystemEngineException(e);
+        }
+
+        commandsList = new StringBuffer();
+        appendTestCases(commandsList, testValuesN, constraintsName, combinations, maxCombis);
+        return testValuesN;
+    }
+
+    private static void appendTestCases(
+            StringBuffer sb,
+            String testValuesN,
+            String constraintsName,
+            TestValueCombinations combinations,
+            int maxCombis
+    ) {
+        List<String> combis = new LinkedList<>();
+        for ( List<String> combination : combinations.getCombinations() ) {
+            List<String> pairs = new LinkedList<>();
+            for ( int i = 0; i < combination.size(); i++ ) {
+                pairs.add(combinations.getVariables().get(i) + " = " + combination.get(i));
+            }
+            combis.add(makeMapleList(pairs));
+        }
+
+        sb.append(testValuesN).append(":= ");
+        if ( combinations.requiresFiltering() ) {
+            sb.append("filterTestValues(")
+                    .append(constraintsName).append(",").append(makeMapleList(combis)).append(",").append(maxCombis)
+                    .append("):").append(NL);
+        } else {
+            sb.append(makeMapleList(combis)).append(":").append(NL);
+        }
+    }
+
+    /**
+     * Performs all tests in a single Maple program. Every test is set up as usual, but instead of evaluating the
+     * setup, the test cases and the test itself one after another, the program collects for every test
+     * the active constraints, the number of test cases, the results and the status of each result in
+     * {@code nBatch[i]}.
+     */
+    @Override
+    protected NumericBatchResult performTestBatch(List<NumericalTest> tests, List<TestValueCombinations> combinations)
+            throws ComputerAlgebraSystemEngineException {
+        String testValuesN = "nTestVals";
+        String batchN = "nBatch";
+        StringBuilder program = new StringBuilder();
+        program.append("unassign('").append(batchN).append("'):").append(NL);
+
+        int i = 1;
+        for ( NumericalTest test : tests ) {
+            resetTestState();
+            appendClearCommands(commandsList);
+            appendVariables(test.getVariables(), test.getTestValues());
+            storeConstraintVariables(test.getConstraintVariables(), test.getConstraintVariablesValues());
+            storeExtraVariables(test.getExtraVariables(), test.getExtraVariablesValues());
+            // setConstraints extends the list by the global constraints
+            List<String> constraints = test.getConstraints() == null ? null : new LinkedList<>(test.getConstraints());
+            String constraintsName = setConstraints(constraints);
+            appendTestCases(commandsList, testValuesN, constraintsName, combinations.get(i-1), test.getMaxCombis());
+
+            if ( timeLimit > 0 ) {
+                tryTimeOutExpression(commandsList, timeLimit, test.getTestExpression());
+            } else {
+                commandsList.append(testExpression).append(" := ")
+                        .append(test.getTestExpression()).append(":").append(NL);
+            }
+
+            String checker = test.getPostProcessingMethodName();
+            if ( checker == null || checker.isBlank() ) checker = "x -> \"ERROR\"";
+
+            Set<String> packages = test.getRequiredPackages();
+            if ( !packages.isEmpty() ) program.append(packageWrapper.loadPackages(packages)).append(NL);
+            program.append("try").append(NL).append(commandsList);
+            program.append("nBatchRes := [SpecialNumericalTesterTimeLimit(")
+                    .append(timeLimit).append(", ").append(testExpression).append(", ")
+                    .append(testValuesN).append(", ").append(test.getPrecision()).append(")]:").append(NL);
+            program.append(batchN).append("[").append(i).append("] := [")
+                    .append(consN).append(", nops(").append(testValuesN).append("), ")
+                    .append("type(").append(testExpression).append(", numeric), nBatchRes, ")
+                    .append("checkBatchResults(").append(checker).append(", nBatchRes)]:").append(NL);
+            program.append("catch:").append(NL);
+            program.append(batchN).append("[").append(i)
+                    .append("] := [\"ERROR\", StringTools:-FormatMessage(lastexception[2..-1])]:").append(NL);
+            program.append("end try:").append(NL);
+            if ( !packages.isEmpty() ) program.append(packageWrapper.unloadPackages(packages)).append(NL);
+            i++;
+        }
+        program.append("[seq(").append(batchN).append("[i], i = 1..").append(tests.size()).append(")];");
+
+        try {
+            LOG.info("Start a batch of " + tests.size() + " numerical tests.");
+            Algebraic batch = maple.evaluate(program.toString());
+            if ( !(batch instanceof MapleList) || ((MapleList) batch).length() != tests.size() )
+                throw new MapleException("Unexpected result of the batch of numerical tests: " + batch);
+
+            NumericBatchResult results = new NumericBatchResult(tests.size());
+            for ( int t = 0; t < tests.size(); t++ ) {
+                try {
+                    results.setResult(t, getBatchedNumericResult(tests.get(t), ((MapleList) batch).get(t)));
+                } catch (MapleException me) {
+                    results.setError(t, new ComputerAlgebraSystemEngineException(me));
+                } catch (IllegalArgumentException iae) {
+                    results.setError(t, iae);
+                }
+            }
+            return results;
+        } catch (MapleException e) {
+            throw new ComputerAlgebraSystemEngineException(e);
+        } finally {
+            commandsList = new StringBuffer();
+        }
+    }
+
+    /**
+     * Analyzes the result of a single test of a batch, see {@link #performTestBatch(List, List)}.
+     */
+    private NumericResult getBatchedNumericResult(NumericalTest test, Algebraic record) throws MapleException {
+        if ( !(record instanceof MapleList) ) throw new MapleException("Invalid result of a batched test: " + record);
+        MapleList recordList = (MapleList) record;
+        if ( recordList.length() == 2 && recordList.get(0) instanceof MString ) {
+            throw new MapleException(((MString) recordList.get(1)).stringValue());
+        }
+        if ( recordList.length() != 5 ) throw new MapleException("Invalid result of a batched test: " + record);
+
+        resetTestState();
+        setCurrentTestCase(test.getLhs(), test.getRhs());
+        latestTestExpression = test.getTestExpression();
+        latestResultCheckMethod = test.getPostProcessingMethodName() == null ? "" : test.getPostProcessingMethodName();
+        lastPrecision = Integer.toString(test.getPrecision());
+        setActiveConstraints(recordList.get(0));
+
+        boolean numericTest = "true".equals(recordList.get(2).toString());
+        numberOfTestCases = numericTest ? 0 : Integer.parseInt(recordList.get(1).toString());
+        if ( numberOfTestCases == 0 && !numericTest )
+            throw new IllegalArgumentException("There are no valid test values.");
+
+        NumericResult nr = new NumericResult();
+        MapleList results = (MapleList) recordList.get(3);
+        if ( results.length() == 0 ) {
+            // no results at all, the same as a single test that returned NULL
+            nr.addTestCalculationsGroup(new NumericCalculationGroup());
+            return nr;
+        }
+
+        Algebraic result = results.get(0);
+        if ( wasAborted(result) ) {
+            nr.wasAborted(true);
+            return nr;
+        }
+
+        List<TestResultType> statuses = new LinkedList<>();
+        MapleList statusList = (MapleList) recordList.get(4);
+        for ( int i = 0; i < statusList.length(); i++ ) {
+            Algebraic status = statusList.get(i);
+            String statusStr = status instanceof MString ? ((MString) status).stringValue() : status.toString();
+            if ( "False".equals(statusStr) ) statuses.add(TestResultType.FAILURE);
+            else if ( "True".equals(statusStr) ) statuses.add(TestResultType.SUCCESS);
+            else statuses.add(TestResultType.ERROR);
+        }
+
+        nr.addTestCalculationsGroup(getNumericCalculationGroup(result, statuses));
+        return nr;
+    }
+
     private void setActiveConstraints(Algebraic constraintsList) throws MapleException {
         if ( constraintsList == null ) return;
 
@@ -454,6 +650,16 @@ public class MapleNumericCalculator extends AbstractCasEngineNumericalEvaluator<
 
     @Override
     public NumericCalculationGroup getNumericCalculationGroup(Algebraic results) {
+        return getNumericCalculationGroup(results, null);
+    }
+
+    /**
+     * @param results the list of results
+     * @param statuses the already computed statuses of the results or null if the status of each result
+     *                 should be computed via {@link #getStatusOfSingleResult(Algebraic)}
+     * @return the list of numerical calculations
+     */
+    private NumericCalculationGroup getNumericCalculationGroup(Algebraic results, List<TestResultType> statuses) {
         try {
             if (results instanceof MapleList) {
                 MapleList resList = (MapleList) results;
@@ -465,7 +671,8 @@ public class MapleNumericCalculator extends AbstractCasEngineNumericalEvaluator<
 
                 for ( int i = 0; i < resList.length(); i++ ) {
                     Algebraic resI = resList.get(i);
-                    NumericCalculation singleCalc = getNumericCalculation(resI);
+                    TestResultType status = statuses != null && i < statuses.size() ? statuses.get(i) : null;
+                    NumericCalculation singleCalc = getNumericCalculation(resI, status);
                     if ( singleCalc != null ) group.addTestCalculation(singleCalc);
                 }
                 return group;
@@ -477,7 +684,7 @@ public class MapleNumericCalculator extends AbstractCasEngineNumericalEvaluator<
         return new NumericCalculationGroup();
     }
 
-    private NumericCalculation getNumericCalculation(Algebraic singleResult) {
+    private NumericCalculation getNumericCalculation(Algebraic singleResult, TestResultType status) {
         if ( !(singleResult instanceof MapleList) ) return null;
         MapleList resList = (MapleList) singleResult;
 
@@ -489,7 +696,7 @@ public class MapleNumericCalculator extends AbstractCasEngineNumericalEvaluator<
 
             NumericCalculation numericCalculation = new NumericCalculation();
             LOG.trace("Get result of " + resList);
-            numericCalculation.setResult(getStatusOfSingleResult(resList));
+            numericCalculation.setResult(status != null ? status : getStatusOfSingleResult(resList));
             numericCalculation.setResultExpression(resList.get(0).toString());
 
             Map<String, String> varValMap = new HashMap<>();
@@ -2,12 +2,27 @@ package gov.nist.drmf.interpreter.maple.secure;
 
 import gov.nist.drmf.interpreter.common.process.RmiSubprocessInfo;
 
+import java.rmi.registry.Registry;
 import java.util.List;
 
 /**
  * @author Andre Greiner-Petter
  */
 public class DefaultMapleRmiServerSubprocessInfo implements RmiSubprocessInfo {
+    private final int registryPort;
+
+    public DefaultMapleRmiServerSubprocessInfo() {
+        this(Registry.REGISTRY_PORT);
+    }
+
+    /**
+     * @param registryPort the port of the RMI registry of the Maple JVM. Every Maple JVM that runs
+     *                     in parallel requires its own port.
+     */
+    public DefaultMapleRmiServerSubprocessInfo(int registryPort) {
+        this.registryPort = registryPort;
+    }
+
     @Override
     public String getClassName() {
         return MapleRmiServer.class.getName();
@@ -21,4 +36,9 @@ public class DefaultMapleRmiServerSubprocessInfo implements RmiSubprocessInfo {
                 "-Xss500M"
         );
     }
+
+    @Override
+    public int getRegistryPort() {
+        return registryPort;
+    }
 }
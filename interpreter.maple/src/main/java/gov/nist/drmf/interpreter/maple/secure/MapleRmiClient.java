@@ -33,11 +33,14 @@ public class MapleRmiClient extends RmiProcessHandler
 
     private RmiCasServer server;
 
+    private final int registryPort;
+
     private final MapleRmiClientNumericEvaluator numericEvaluator;
     private final MapleRmiClientSymbolicEvaluator symbolicEvaluator;
 
     public MapleRmiClient(RmiSubprocessInfo subprocessInfo) throws CASUnavailableException {
         super(subprocessInfo);
+        registryPort = subprocessInfo.getRegistryPort();
         numericEvaluator = new MapleRmiClientNumericEvaluator(this);
         symbolicEvaluator = new MapleRmiClientSymbolicEvaluator(this);
     }
@@ -83,7 +86,7 @@ public class MapleRmiClient extends RmiProcessHandler
     private void setupRmiConnection() throws Exception {
         super.start();
         LOG.info("Started remote Maple JVM.");
-        Registry registry = LocateRegistry.getRegistry();
+        Registry registry = LocateRegistry.getRegistry(registryPort);
         server = (RmiCasServer) registry.lookup(RmiCasServer.KEY + Keys.KEY_MAPLE);
         LOG.info("Initialize maple");
         server.init();
@@ -195,6 +198,31 @@ public class MapleRmiClient extends RmiProcessHandler
         }
     }
 
+    public synchronized NumericBatchResult performNumericTests(List<NumericalTest> tests) {
+        CompletableFuture<?> processFuture = super.getProcessFuture();
+        try {
+            return server.performNumericalTests(tests);
+        } catch (RemoteException e) {
+            LOG.fatal("Batch of " + tests.size() + " numerical tests crashed CAS JVM. Wait for it to recover " +
+                    "and perform the tests one by one.", e);
+            waitUntilRecovered(processFuture);
+            // only the test that crashed the CAS again is marked as crashed
+            NumericBatchResult results = new NumericBatchResult(tests.size());
+            for ( int i = 0; i < tests.size(); i++ ) {
+                try {
+                    results.setResult(i, performNumericTest(tests.get(i)));
+                } catch (ComputerAlgebraSystemEngineException ce) {
+                    results.setError(i, ce);
+                }
+            }
+            return results;
+        } catch (ComputerAlgebraSystemEngineException e) {
+            NumericBatchResult results = new NumericBatchResult(tests.size());
+            for ( int i = 0; i < tests.size(); i++ ) results.setError(i, e);
+            return results;
+        }
+    }
+
     public synchronized String generateNumericTestExpression(String expression) {
         return MapleNumericCalculator.generateNumericCalculationExpression(expression);
     }
@@ -2,6 +2,7 @@ package gov.nist.drmf.interpreter.maple.secure;
 
 import gov.nist.drmf.interpreter.common.cas.ICASEngineNumericalEvaluator;
 import gov.nist.drmf.interpreter.common.eval.EvaluatorType;
+import gov.nist.drmf.interpreter.common.eval.NumericBatchResult;
 import gov.nist.drmf.interpreter.common.eval.NumericResult;
 import gov.nist.drmf.interpreter.common.eval.NumericalTest;
 import gov.nist.drmf.interpreter.common.exceptions.ComputerAlgebraSystemEngineException;
@@ -23,6 +24,11 @@ public class MapleRmiClientNumericEvaluator implements ICASEngineNumericalEvalua
         return mapleClient.performNumericTest(test);
     }
 
+    @Override
+    public NumericBatchResult performNumericTests(List<NumericalTest> tests) {
+        return mapleClient.performNumericTests(tests);
+    }
+
     @Override
     public String generateNumericTestExpression(String expression) {
         return mapleClient.generateNumericTestExpression(expression);
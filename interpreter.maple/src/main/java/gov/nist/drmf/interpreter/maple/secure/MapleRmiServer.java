@@ -6,6 +6,7 @@ import gov.nist.drmf.interpreter.common.exceptions.CASUnavailableException;
 import gov.nist.drmf.interpreter.common.exceptions.ComputerAlgebraSystemEngineException;
 import gov.nist.drmf.interpreter.common.process.RmiCasServer;
 import gov.nist.drmf.interpreter.common.process.RmiProcessHandler;
+import gov.nist.drmf.interpreter.common.process.RmiSubprocessInfo;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -26,7 +27,7 @@ public class MapleRmiServer implements RmiCasServer {
 
     static {
         try {
-            registry = LocateRegistry.createRegistry(1099);
+            registry = LocateRegistry.createRegistry(RmiSubprocessInfo.getCurrentRegistryPort());
         } catch (RemoteException e) {
             LOG.fatal("Unable to setup RMI LocateRegistry", e);
             System.exit(1);
@@ -94,6 +95,11 @@ public class MapleRmiServer implements RmiCasServer {
         return this.mapleConnector.getNumericEvaluator().performNumericTest(test);
     }
 
+    @Override
+    public NumericBatchResult performNumericalTests(List<NumericalTest> tests) throws ComputerAlgebraSystemEngineException {
+        return this.mapleConnector.getNumericEvaluator().performNumericTests(tests);
+    }
+
     @Override
     public SymbolicResult performSymbolicTest(SymbolicalTest test) {
         return this.mapleConnector.getSymbolicEvaluator().performSymbolicTest(test);
@@ -11,6 +11,7 @@ public enum Commands {
     FULL_SIMPLIFY_ASSUMPTION("FullSimplify[XXX-1, And[XXX-2]]", 2),
     LENGTH_OF_LIST("Length[XXX-1]", 1),
     NUMERICAL_TEST("numericalAutoTest[Normal[XXX-1], XXX-2, XXX-3]", 3),
+    BATCH_NUMERICAL_TEST("batchNumericalTest[XXX-1, XXX-2, Normal[XXX-3], XXX-4]", 4),
     FILTER_TEST_CASES("filterTestCases[XXX-1, XXX-2, XXX-3]", 3),
     FILTER_ASSUMPTIONS("filterAssumptions[XXX-1, XXX-2]", 2),
     FILTER_GLOBAL_ASSUMPTIONS("filterGlobalAssumptions[XXX-1, XXX-2, XXX-3]", 3),
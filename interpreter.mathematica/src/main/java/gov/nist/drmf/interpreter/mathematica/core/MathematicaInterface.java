@@ -161,6 +161,11 @@ public final class MathematicaInterface implements ICASEngine {
         MathematicaInterface.mathematicaInterface = null;
     }
 
+    @Override
+    public void stop() {
+        shutdown();
+    }
+
     /**
      * The only real math kernel connection method! Apart from direct calls via {@link #getMathKernel()},
      * this is the only method that communicates with the kernel.
@@ -3,13 +3,19 @@ package gov.nist.drmf.interpreter.mathematica.extension;
 import gov.nist.drmf.interpreter.common.cas.AbstractCasEngineNumericalEvaluator;
 import gov.nist.drmf.interpreter.common.cas.GenericCommandBuilder;
 import gov.nist.drmf.interpreter.common.eval.EvaluatorType;
+import gov.nist.drmf.interpreter.common.eval.NumericBatchResult;
 import gov.nist.drmf.interpreter.common.eval.NumericCalculation;
 import gov.nist.drmf.interpreter.common.eval.NumericCalculationGroup;
+import gov.nist.drmf.interpreter.common.eval.NumericResult;
+import gov.nist.drmf.interpreter.common.eval.NumericalTest;
 import gov.nist.drmf.interpreter.common.eval.TestResultType;
 import gov.nist.drmf.interpreter.common.exceptions.ComputerAlgebraSystemEngineException;
+import gov.nist.drmf.interpreter.common.numeric.NumericDialect;
+import gov.nist.drmf.interpreter.common.numeric.TestValueCombinations;
 import gov.nist.drmf.interpreter.mathematica.common.Commands;
 import gov.nist.drmf.interpreter.mathematica.core.MathematicaInterface;
 import gov.nist.drmf.interpreter.mathematica.wrapper.jlink.Expr;
+import gov.nist.drmf.interpreter.mathematica.wrapper.ExprFormatException;
 import gov.nist.drmf.interpreter.mathematica.wrapper.MathLinkException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -118,6 +124,7 @@ public class MathematicaNumericalCalculator extends AbstractCasEngineNumericalEv
 
     @Override
     public void setGlobalNumericAssumptions(List<String> assumptions) {
+        super.setGlobalNumericAssumptions(assumptions);
         List<String> ass = new LinkedList<>();
         List<String> con = new LinkedList<>();
         for ( String a : assumptions ){
@@ -201,10 +208,164 @@ public class MathematicaNumericalCalculator extends AbstractCasEngineNumericalEv
         if ( wasAborted != null ) return null;
 
         enterSetup();
-        sb = new StringBuilder();
 
         // create test cases first
         String testCasesCmd = buildTestCasesString(constraintsName, maxCombis);
+        return enterTestCases(testCasesCmd, maxCombis);
+    }
+
+    @Override
+    protected NumericDialect getNumericDialect() {
+        return NumericDialect.MATHEMATICA;
+    }
+
+    @Override
+    public String storeTestCases(
+            String constraintsName,
+            TestValueCombinations combinations,
+            int maxCombis
+    ) throws ComputerAlgebraSystemEngineException, IllegalArgumentException {
+        if ( wasAborted != null ) return null;
+
+        enterSetup();
+
+        String testCasesCmd = buildTestCasesString(constraintsName, combinations, maxCombis);
+        return enterTestCases(testCasesCmd, maxCombis);
+    }
+
+    private static String buildTestCasesString(
+            String constraintsName,
+            TestValueCombinations combinations,
+            int maxCombis
+    ) {
+        boolean filter = constraintsName != null && combinations.requiresFiltering();
+        List<String> combis = new LinkedList<>();
+        for ( List<String> combination : combinations.getCombinations() ) {
+            // without constraints in Mathematica, there is nothing to filter
+            if ( !filter && combis.size() >= maxCombis ) break;
+            List<String> rules = new LinkedList<>();
+            for ( int i = 0; i < combination.size(); i++ ) {
+                rules.add(combinations.getVariables().get(i) + " -> " + combination.get(i));
+            }
+            combis.add(buildMathList(rules));
+        }
+
+        String testCasesCmd = buildMathList(combis);
+        if ( filter ) {
+            testCasesCmd = Commands.FILTER_TEST_CASES.build(
+                    constraintsName,
+                    testCasesCmd,
+                    Integer.toString(maxCombis)
+            );
+        }
+        return testCasesCmd;
+    }
+
+    /**
+     * Performs all tests in a single Mathematica call. The setup of each test is the same as for a single test,
+     * but instead of entering the setup, the test cases and the test one after another, each test is computed
+     * by {@code batchNumericalTest} which returns the applied constraints, the number of test cases and
+     * the results including their status in one expression.
+     */
+    @Override
+    protected NumericBatchResult performTestBatch(List<NumericalTest> tests, List<TestValueCombinations> combinations)
+            throws ComputerAlgebraSystemEngineException {
+        String batchVar = "batchResults";
+        StringBuilder program = new StringBuilder();
+        program.append("ClearAll[").append(batchVar).append("];").append(NL);
+
+        for ( int i = 0; i < tests.size(); i++ ) {
+            NumericalTest test = tests.get(i);
+            program.append(String.format(
+                    "ClearAll[%s, %s, %s, %s, %s, %s];", expr, varName, eVars, exVars, cons, testCasesVar
+            )).append(NL);
+
+            sb = new StringBuilder();
+            String valsName = generateValuesVarName(varName);
+            addVarDefinitionNL(sb, varName, buildMathList(test.getVariables()));
+            addVarDefinitionNL(sb, valsName, buildMathList(test.getTestValues()));
+            storeConstraintVariables(test.getConstraintVariables(), test.getConstraintVariablesValues());
+            storeExtraVariables(test.getExtraVariables(), test.getExtraVariablesValues());
+            String constraintsName = setConstraints(test.getConstraints());
+            addVarDefinitionNL(sb, expr, test.getTestExpression());
+            program.append(sb);
+
+            String testCasesCmd = buildTestCasesString(constraintsName, combinations.get(i), test.getMaxCombis());
+            String threshold = Double.toString(1/(double)test.getPrecision());
+            String batchTest = Commands.BATCH_NUMERICAL_TEST.build(cons, testCasesCmd, expr, threshold);
+            addVarDefinitionNL(
+                    program,
+                    batchVar + "[" + (i+1) + "]",
+                    MathematicaInterface.wrapInTimeout(batchTest, timeout)
+            );
+        }
+        program.append("Table[").append(batchVar).append("[i], {i, 1, ").append(tests.size()).append("}]");
+
+        LOG.info("Start a batch of " + tests.size() + " numerical tests.");
+        Expr batch = runWithTimeout(program.toString(), null);
+        sb = new StringBuilder();
+        if ( !batch.listQ() || batch.length() != tests.size() ) {
+            throw new ComputerAlgebraSystemEngineException(
+                    new IllegalStateException("Unexpected result of the batch of numerical tests: " + batch)
+            );
+        }
+
+        NumericBatchResult results = new NumericBatchResult(tests.size());
+        Expr[] records = batch.args();
+        for ( int i = 0; i < tests.size(); i++ ) {
+            try {
+                results.setResult(i, getBatchedNumericResult(tests.get(i), records[i]));
+            } catch (ExprFormatException | IllegalStateException e) {
+                results.setError(i, new ComputerAlgebraSystemEngineException(e));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Analyzes the result of a single test of a batch, see {@link #performTestBatch(List, List)}.
+     */
+    private NumericResult getBatchedNumericResult(NumericalTest test, Expr record) {
+        NumericResult nr = new NumericResult();
+        if ( wasAborted(record) ) {
+            nr.wasAborted(true);
+            return nr;
+        }
+
+        Expr[] recordArgs = record.args();
+        if ( !record.listQ() || recordArgs.length != 3 )
+            throw new IllegalStateException("Invalid result of a batched test: " + record);
+        testCases = (int) recordArgs[1].asDouble();
+
+        NumericCalculationGroup group = new NumericCalculationGroup();
+        group.setLhs(test.getLhs());
+        group.setRhs(test.getRhs());
+        group.setTestExpression(test.getTestExpression());
+        List<String> constraints = new LinkedList<>();
+        for ( Expr constraint : recordArgs[0].args() ) constraints.add(constraint.asString());
+        group.setConstraints(constraints);
+
+        for ( Expr res : recordArgs[2].args() ) {
+            Expr[] resArgs = res.args();
+            NumericCalculation nc = new NumericCalculation(
+                    resArgs[1].trueQ() ? TestResultType.SUCCESS : TestResultType.FAILURE
+            );
+            nc.setResultExpression(resArgs[0].asString());
+            Map<String, String> varValMap = new HashMap<>();
+            for ( Expr varValPair : resArgs[2].args() ) {
+                Expr[] varVal = varValPair.args();
+                varValMap.put(varVal[0].asString(), varVal[1].asString());
+            }
+            nc.setTestValues(varValMap);
+            group.addTestCalculation(nc);
+        }
+
+        nr.addTestCalculationsGroup(group);
+        return nr;
+    }
+
+    private String enterTestCases(String testCasesCmd, int maxCombis) throws ComputerAlgebraSystemEngineException {
+        sb = new StringBuilder();
         addVarDefinitionNL(sb, testCasesVar, testCasesCmd);
 
         // check if number of test cases is below definition
@@ -116,6 +116,14 @@ public class CSVtoLexiconConverter {
                 config.getDlmfMacroLexiconPath().toString()
         );
 
+        try {
+            // replaces the outdated snapshot of the previous lexicon file
+            Path lexiconFile = config.getDlmfMacroLexiconPath();
+            LexiconSnapshot.store(MacrosLexicon.parse(lexiconFile), lexiconFile);
+        } catch (IOException ioe) {
+            LOG.error("Unable to store a snapshot of the lexicon", ioe);
+        }
+
         Instant end = Instant.now();
         Duration elapsed = Duration.between(start, end);
         logResults(elapsed);
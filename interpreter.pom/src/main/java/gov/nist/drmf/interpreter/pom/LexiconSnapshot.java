@@ -0,0 +1,352 @@
+package gov.nist.drmf.interpreter.pom;
+
+import gov.nist.drmf.interpreter.common.constants.GlobalPaths;
+import mlp.FeatureSet;
+import mlp.Lexicon;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * <p>
+ * A compact binary snapshot of a lexicon file. Parsing the text format of a lexicon
+ * (see {@link mlp.LexiconFactory}) is comparably slow. The snapshot stores every distinct
+ * string once and refers to it by its index. It is memory-mapped when it is loaded and only the
+ * keys of the lexicon are decoded right away. The feature sets of an entry are decoded when
+ * the entry is accessed for the first time.
+ * </p>
+ *
+ * <p>
+ * Adding the lexicon to the PoM-tagger (see {@link MLPWrapper#addLexicon(Lexicon)}) keeps it lazy.
+ * {@link Lexicon#merge(Lexicon...)} takes over the entries of new keys as they are. Only the few entries
+ * whose keys are already known by the PoM-tagger are decoded right away, because they are appended
+ * to the existing entries.
+ * </p>
+ *
+ * <p>
+ * A snapshot remembers the size and the SHA-256 hash of the content of the lexicon file it was created from.
+ * If the content of the lexicon file changed, the snapshot is outdated and will not be loaded. Touching or
+ * copying the lexicon file does not outdate the snapshot.
+ * The build creates the snapshot of the DLMF macro lexicon (see {@link #main(String[])}).
+ * </p>
+ *
+ * @author Andre Greiner-Petter
+ */
+public final class LexiconSnapshot {
+    private static final Logger LOG = LogManager.getLogger(LexiconSnapshot.class.getName());
+
+    private static final int MAGIC = 0x4C584E53; // LXNS
+    private static final int VERSION = 3;
+
+    private static final String HASH_ALGORITHM = "SHA-256";
+    private static final int HASH_LENGTH = 32;
+
+    private static final String SUFFIX = ".snapshot";
+
+    private final ByteBuffer buffer;
+
+    // the positions of the strings in the buffer and the strings that were decoded already
+    private final int[] stringPositions;
+    private final String[] strings;
+
+    private LexiconSnapshot(ByteBuffer buffer, int numberOfStrings) {
+        this.buffer = buffer;
+        this.stringPositions = new int[numberOfStrings];
+        this.strings = new String[numberOfStrings];
+    }
+
+    /**
+     * @param lexiconFile the lexicon file
+     * @return the path of the snapshot of the given lexicon file (in the same directory)
+     */
+    public static Path getSnapshotPath(Path lexiconFile) {
+        return lexiconFile.resolveSibling(lexiconFile.getFileName().toString() + SUFFIX);
+    }
+
+    /**
+     * @param lexiconFile the lexicon file
+     * @return true if a snapshot of the given lexicon file exists and is up to date
+     * @throws IOException if the snapshot cannot be read
+     */
+    public static boolean isUpToDate(Path lexiconFile) throws IOException {
+        Path snapshot = getSnapshotPath(lexiconFile);
+        if ( !Files.exists(snapshot) ) return false;
+        try ( DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshot))) ) {
+            if ( in.readInt() != MAGIC || in.readInt() != VERSION || in.readLong() != Files.size(lexiconFile) )
+                return false;
+            byte[] hash = new byte[HASH_LENGTH];
+            in.readFully(hash);
+            return Arrays.equals(hash, hash(lexiconFile));
+        } catch (EOFException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Loads the snapshot of the given lexicon file.
+     * @param lexiconFile the lexicon file
+     * @return the lexicon or null if there is no snapshot or the snapshot is outdated
+     * @throws IOException if the snapshot cannot be read
+     */
+    public static Lexicon load(Path lexiconFile) throws IOException {
+        Path snapshot = getSnapshotPath(lexiconFile);
+        if ( !Files.exists(snapshot) ) return null;
+
+        try ( FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ) ) {
+            // the mapping remains valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if ( buffer.getInt() != MAGIC || buffer.getInt() != VERSION ) {
+                LOG.warn("Ignore snapshot with unknown format: " + snapshot);
+                return null;
+            }
+
+            long length = buffer.getLong();
+            byte[] hash = new byte[HASH_LENGTH];
+            buffer.get(hash);
+            if ( length != Files.size(lexiconFile) || !Arrays.equals(hash, hash(lexiconFile)) ) {
+                LOG.info("Ignore outdated lexicon snapshot: " + snapshot);
+                return null;
+            }
+
+            if ( buffer.getInt(buffer.limit() - Integer.BYTES) != MAGIC )
+                throw new IOException("Incomplete lexicon snapshot: " + snapshot);
+
+            return new LexiconSnapshot(buffer, buffer.getInt()).read();
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Corrupted lexicon snapshot: " + snapshot, e);
+        }
+    }
+
+    /**
+     * Writes a snapshot of the given lexicon next to the given lexicon file.
+     * @param lexicon the lexicon that was loaded from the given file
+     * @param lexiconFile the lexicon file
+     * @return the path of the snapshot
+     * @throws IOException if the snapshot cannot be written
+     */
+    public static Path store(Lexicon lexicon, Path lexiconFile) throws IOException {
+        Path snapshot = getSnapshotPath(lexiconFile);
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        int nameIndex = index(strings, lexicon.getName());
+        Map<String, List<FeatureSet>> map = lexicon.getLexiconMap();
+
+        // the feature sets of every entry, the offsets of the entries are relative to the start of this section
+        List<Integer> keys = new ArrayList<>(map.size());
+        List<Integer> offsets = new ArrayList<>(map.size());
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try ( DataOutputStream out = new DataOutputStream(body) ) {
+            for ( Map.Entry<String, List<FeatureSet>> entry : map.entrySet() ) {
+                keys.add(index(strings, entry.getKey()));
+                offsets.add(out.size());
+                out.writeInt(entry.getValue().size());
+                for ( FeatureSet fset : entry.getValue() ) {
+                    out.writeInt(index(strings, fset.getFeatureSetName()));
+                    Set<String> names = fset.getFeatureNames();
+                    out.writeInt(names.size());
+                    for ( String name : names ) {
+                        SortedSet<String> values = fset.getFeature(name);
+                        out.writeInt(index(strings, name));
+                        out.writeInt(values.size());
+                        for ( String value : values ) out.writeInt(index(strings, value));
+                    }
+                }
+            }
+        }
+
+        try ( DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(snapshot))) ) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(Files.size(lexiconFile));
+            out.write(hash(lexiconFile));
+            out.writeInt(strings.size());
+            for ( String str : strings.keySet() ) {
+                byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            out.writeInt(nameIndex);
+            out.writeInt(keys.size());
+            int bodyStart = out.size() + 2 * Integer.BYTES * keys.size();
+            for ( int i = 0; i < keys.size(); i++ ) {
+                out.writeInt(keys.get(i));
+                out.writeInt(bodyStart + offsets.get(i));
+            }
+            body.writeTo(out);
+            out.writeInt(MAGIC);
+        }
+        LOG.info("Stored lexicon snapshot with " + map.size() + " entries to " + snapshot);
+        return snapshot;
+    }
+
+    private Lexicon read() {
+        for ( int i = 0; i < stringPositions.length; i++ ) {
+            stringPositions[i] = buffer.position();
+            buffer.position(buffer.position() + Integer.BYTES + buffer.getInt());
+        }
+
+        String lexiconName = string(buffer.getInt());
+        // the same collections the lexicon factory creates
+        Map<String, List<FeatureSet>> map = new TreeMap<>();
+        int entries = buffer.getInt();
+        for ( int e = 0; e < entries; e++ ) {
+            String key = string(buffer.getInt());
+            map.put(key, new LazyFeatureSets(buffer.getInt()));
+        }
+        Lexicon lexicon = new Lexicon(map);
+        if ( lexiconName != null ) lexicon.setName(lexiconName);
+        return lexicon;
+    }
+
+    /**
+     * Decodes the feature sets at the given position. Uses absolute positions only, so that
+     * multiple threads can decode different entries concurrently.
+     */
+    private List<FeatureSet> readFeatureSets(int position) {
+        int numberOfSets = buffer.getInt(position);
+        position += Integer.BYTES;
+        List<FeatureSet> sets = new ArrayList<>(numberOfSets);
+        for ( int s = 0; s < numberOfSets; s++ ) {
+            String name = string(buffer.getInt(position));
+            int numberOfFeatures = buffer.getInt(position + Integer.BYTES);
+            position += 2 * Integer.BYTES;
+            Map<String, SortedSet<String>> features = new TreeMap<>();
+            for ( int f = 0; f < numberOfFeatures; f++ ) {
+                String feature = string(buffer.getInt(position));
+                int numberOfValues = buffer.getInt(position + Integer.BYTES);
+                position += 2 * Integer.BYTES;
+                SortedSet<String> values = new TreeSet<>();
+                for ( int v = 0; v < numberOfValues; v++ ) {
+                    values.add(string(buffer.getInt(position)));
+                    position += Integer.BYTES;
+                }
+                features.put(feature, values);
+            }
+            sets.add(new FeatureSet(features, name));
+        }
+        return sets;
+    }
+
+    private String string(int index) {
+        if ( index < 0 ) return null;
+        String str = strings[index];
+        if ( str == null ) {
+            // strings are immutable, so a concurrent decoding of the same string is harmless
+            ByteBuffer view = buffer.duplicate();
+            view.position(stringPositions[index]);
+            byte[] bytes = new byte[view.getInt()];
+            view.get(bytes);
+            str = new String(bytes, StandardCharsets.UTF_8);
+            strings[index] = str;
+        }
+        return str;
+    }
+
+    /**
+     * The feature sets of a single entry. They are decoded from the snapshot on first access.
+     */
+    final class LazyFeatureSets extends AbstractList<FeatureSet> {
+        private final int position;
+        private volatile List<FeatureSet> sets;
+
+        private LazyFeatureSets(int position) {
+            this.position = position;
+        }
+
+        private List<FeatureSet> sets() {
+            List<FeatureSet> decoded = sets;
+            if ( decoded == null ) {
+                synchronized (this) {
+                    if ( sets == null ) sets = readFeatureSets(position);
+                    decoded = sets;
+                }
+            }
+            return decoded;
+        }
+
+        @Override
+        public FeatureSet get(int index) {
+            return sets().get(index);
+        }
+
+        @Override
+        public int size() {
+            return sets().size();
+        }
+
+        @Override
+        public FeatureSet set(int index, FeatureSet element) {
+            return sets().set(index, element);
+        }
+
+        @Override
+        public void add(int index, FeatureSet element) {
+            sets().add(index, element);
+            modCount++;
+        }
+
+        @Override
+        public FeatureSet remove(int index) {
+            modCount++;
+            return sets().remove(index);
+        }
+
+        /**
+         * @return true if the feature sets were decoded already
+         */
+        boolean isDecoded() {
+            return sets != null;
+        }
+    }
+
+    private static int index(Map<String, Integer> strings, String str) {
+        if ( str == null ) return -1;
+        return strings.computeIfAbsent(str, k -> strings.size());
+    }
+
+    private static byte[] hash(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance(HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform supports SHA-256
+            throw new IllegalStateException(e);
+        }
+
+        try ( InputStream in = Files.newInputStream(file) ) {
+            byte[] bytes = new byte[8192];
+            int read;
+            while ( (read = in.read(bytes)) != -1 ) digest.update(bytes, 0, read);
+        }
+        return digest.digest();
+    }
+
+    /**
+     * Creates the snapshot of the DLMF macro lexicon. Called by the build of this module and should be called
+     * whenever the lexicon was regenerated (see {@link CSVtoLexiconConverter}). Up-to-date snapshots are skipped.
+     * @param args optional paths to other lexicon files
+     * @throws IOException if a lexicon cannot be read or the snapshot cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        List<Path> lexicons = new LinkedList<>();
+        if ( args == null || args.length == 0 ) lexicons.add(GlobalPaths.DLMF_MACROS_LEXICON);
+        else for ( String arg : args ) lexicons.add(Paths.get(arg));
+
+        for ( Path lexicon : lexicons ) {
+            if ( isUpToDate(lexicon) ) LOG.info("Lexicon snapshot is up to date: " + getSnapshotPath(lexicon));
+            else store(MacrosLexicon.parse(lexicon), lexicon);
+        }
+    }
+}
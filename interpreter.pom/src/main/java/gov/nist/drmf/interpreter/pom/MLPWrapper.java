@@ -1,9 +1,20 @@
 package gov.nist.drmf.interpreter.pom;
 
+import gov.nist.drmf.interpreter.common.config.ConfigDiscovery;
 import gov.nist.drmf.interpreter.common.latex.TeXPreProcessor;
 import gov.nist.drmf.interpreter.common.constants.GlobalPaths;
 import gov.nist.drmf.interpreter.pom.extensions.PrintablePomTaggedExpression;
 import mlp.*;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * A simple wrapper class to parse LaTeX expression via the PoM-Tagger.
@@ -14,6 +25,15 @@ import mlp.*;
  * general PoM-Tagger (no semantic macros). If you need support for semantic
  * macros, use {@link SemanticMLPWrapper} instead.
  *
+ * A single PoM-Tagger cannot parse multiple expressions in parallel. Hence, this wrapper
+ * keeps a pool of parsers. Note that the PoM-Tagger keeps its lexicon, thesaurus and the
+ * ignorable LaTeX commands in static fields, i.e., all parsers share this state and creating
+ * a new parser resets it. Hence, all parsers of the pool are created eagerly and additional
+ * lexicons are merged only once. Both happen under a global write lock while parsing only
+ * requires the read lock, so the parsers of the pool can work in parallel but never see the
+ * shared state in the middle of a change. The pool size is defined by
+ * {@link gov.nist.drmf.interpreter.common.config.Config#getNumberOfPomParsers()}.
+ *
  * @see SemanticMLPWrapper
  * @see PrintablePomTaggedExpression
  * @see PomTaggedExpression
@@ -21,14 +41,27 @@ import mlp.*;
  * @author Andre Greiner-Petter
  */
 public abstract class MLPWrapper {
+    private static final Logger LOG = LogManager.getLogger(MLPWrapper.class.getName());
+
+    /**
+     * Guards the static state of the PoM-Tagger. Creating a parser or merging a lexicon
+     * changes this state (write lock) and must never happen while an expression is parsed (read lock).
+     */
+    private static final ReadWriteLock STATE_LOCK = new ReentrantReadWriteLock();
+
     /**
-     * The PoM-Parser object
+     * All parsers of the pool
      */
-    private final PomParser parser;
+    private final List<PomParser> parsers;
+
+    /**
+     * The parsers that are currently not in use
+     */
+    private final BlockingQueue<PomParser> idleParsers;
 
     /**
      * Creates a non-semantic wrapper of the PomParser. The lexicon files are fetched from the
-     * standard location {@link }
+     * standard location {@link GlobalPaths#PATH_REFERENCE_DATA}
      */
     public MLPWrapper() {
         this(GlobalPaths.PATH_REFERENCE_DATA.toString());
@@ -39,15 +72,76 @@ public abstract class MLPWrapper {
      * @param referenceDirPath the path to the "ReferenceData" folder
      */
     public MLPWrapper(String referenceDirPath) {
-        this.parser = new PomParser(referenceDirPath);
+        this(referenceDirPath, ConfigDiscovery.getConfig().getNumberOfPomParsers());
     }
 
     /**
-     * Adds a lexicon to the parser.
+     * Creates a non-semantic wrapper of the PomParser with a given path to the lexicon files
+     * and the number of parsers that can work in parallel. All parsers are created right away.
+     * @param referenceDirPath the path to the "ReferenceData" folder
+     * @param numberOfParsers the number of parallel parsers (must be at least 1)
+     */
+    public MLPWrapper(String referenceDirPath, int numberOfParsers) {
+        if ( numberOfParsers < 1 ) throw new IllegalArgumentException("The number of parsers must be at least 1.");
+        List<PomParser> pool = new ArrayList<>(numberOfParsers);
+        STATE_LOCK.writeLock().lock();
+        try {
+            for ( int i = 0; i < numberOfParsers; i++ ) {
+                pool.add(new PomParser(referenceDirPath));
+            }
+        } finally {
+            STATE_LOCK.writeLock().unlock();
+        }
+        LOG.debug("Created " + numberOfParsers + " PoM-tagger instances");
+        this.parsers = Collections.unmodifiableList(pool);
+        this.idleParsers = new LinkedBlockingQueue<>(pool);
+    }
+
+    /**
+     * Adds a lexicon to the parsers. The lexicon of the PoM-tagger is shared between all
+     * parsers, hence the lexicon is merged only once. Lexicons should be added before parsing.
      * @param lexicon lexicon
      */
     protected void addLexicon( Lexicon lexicon ) {
-        parser.addLexicons(lexicon);
+        STATE_LOCK.writeLock().lock();
+        try {
+            parsers.get(0).addLexicons(lexicon);
+        } finally {
+            STATE_LOCK.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of parsers that can work in parallel
+     */
+    public int getNumberOfParsers() {
+        return parsers.size();
+    }
+
+    private PomParser borrowParser() throws InterruptedException {
+        return idleParsers.take();
+    }
+
+    private void releaseParser(PomParser parser) {
+        idleParsers.add(parser);
+    }
+
+    private PomTaggedExpression parseWithPool(String latex) throws ParseException {
+        PomParser parser;
+        try {
+            parser = borrowParser();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new ParseException("Interrupted while waiting for an idle PoM-tagger instance.");
+        }
+
+        STATE_LOCK.readLock().lock();
+        try {
+            return parser.parse(latex);
+        } finally {
+            STATE_LOCK.readLock().unlock();
+            releaseParser(parser);
+        }
     }
 
     /**
@@ -79,14 +173,14 @@ public abstract class MLPWrapper {
      * Simply parses the given latex expression. Raw means, it will not be pre-processed by
      * {@link TeXPreProcessor#preProcessingTeX(String)}. If you wish to pre-process, use one of the non-raw methods.
      *
-     * This method is synchronized because the PoM-tagger cannot run in parallel. Sorry for that.
+     * The PoM-tagger cannot run in parallel. Hence, this method blocks until a parser of the pool is idle.
      *
      * @param latex the latex expression to parse.
      * @return the parse tree
      * @throws ParseException if the expression cannot be parsed for whatever reason
      */
-    public synchronized PomTaggedExpression simpleParseRaw(String latex) throws ParseException {
-        return parser.parse(latex);
+    public PomTaggedExpression simpleParseRaw(String latex) throws ParseException {
+        return parseWithPool(latex);
     }
 
     /**
@@ -116,14 +210,14 @@ public abstract class MLPWrapper {
      * Does not pre-process the given latex expression via {@link TeXPreProcessor#preProcessingTeX(String)}. If you
      * wish to pre-process the string, use one of the non-raw methods.
      *
-     * This method is synchronized because the underlying PoM-tagger cannot run in parallel.
+     * The underlying PoM-tagger cannot run in parallel. Hence, this method blocks until a parser of the pool is idle.
      *
      * @param latex the input string
      * @return parse tree
      * @throws ParseException if the expression cannot be parsed
      */
-    public synchronized PrintablePomTaggedExpression parseRaw(String latex) throws ParseException {
-        PomTaggedExpression pte = parser.parse(latex);
+    public PrintablePomTaggedExpression parseRaw(String latex) throws ParseException {
+        PomTaggedExpression pte = parseWithPool(latex);
         return new PrintablePomTaggedExpression(pte, latex);
     }
 
@@ -134,10 +228,25 @@ public abstract class MLPWrapper {
      * @param term gets annotated with features from lexicon files
      * @return the given {@param term} object annotated with features
      */
-    public synchronized MathTerm loadFeatures(MathTerm term) {
-        Lexicon lex = parser.getLexicon();
-        term.loadFeatureSets(lex);
-        return term;
+    public MathTerm loadFeatures(MathTerm term) {
+        PomParser parser;
+        try {
+            parser = borrowParser();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            LOG.warn("Interrupted while waiting for an idle PoM-tagger instance. Unable to load features.");
+            return term;
+        }
+
+        STATE_LOCK.readLock().lock();
+        try {
+            Lexicon lex = parser.getLexicon();
+            term.loadFeatureSets(lex);
+            return term;
+        } finally {
+            STATE_LOCK.readLock().unlock();
+            releaseParser(parser);
+        }
     }
 
     /**
@@ -3,6 +3,8 @@ package gov.nist.drmf.interpreter.pom;
 import gov.nist.drmf.interpreter.common.constants.GlobalPaths;
 import mlp.Lexicon;
 import mlp.LexiconFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
 import java.nio.file.Path;
@@ -11,6 +13,7 @@ import java.nio.file.Path;
  * Created by AndreG-P on 09.03.2017.
  */
 public class MacrosLexicon {
+    private static final Logger LOG = LogManager.getLogger(MacrosLexicon.class.getName());
 
     public static final String SIGNAL_ENTRY = "Symbol: ";
 
@@ -28,18 +31,40 @@ public class MacrosLexicon {
         init(GlobalPaths.DLMF_MACROS_LEXICON);
     }
 
+    /**
+     * Loads the lexicon from the given file. If an up-to-date snapshot of the file exists
+     * (see {@link LexiconSnapshot}), the snapshot is loaded instead of parsing the file.
+     * @param lexiconPath the lexicon file
+     * @throws IOException if the lexicon cannot be loaded
+     */
     public static synchronized void init(Path lexiconPath) throws IOException {
         if ( executed ) return;
 
-        dlmf_macros_lexicon = LexiconFactory.createLexicon(
+        Lexicon lexicon = null;
+        try {
+            lexicon = LexiconSnapshot.load(lexiconPath);
+        } catch (IOException e) {
+            LOG.warn("Unable to load lexicon snapshot. Parse the lexicon file instead.", e);
+        }
+
+        dlmf_macros_lexicon = lexicon != null ? lexicon : parse(lexiconPath);
+        executed = true;
+    }
+
+    /**
+     * Parses a lexicon file in the format of the DLMF macro lexicon.
+     * @param lexiconPath the lexicon file
+     * @return the lexicon
+     * @throws IOException if the file cannot be read
+     */
+    public static Lexicon parse(Path lexiconPath) throws IOException {
+        return LexiconFactory.createLexicon(
                 lexiconPath,
                 SIGNAL_ENTRY,
                 SIGNAL_FEATURESET,
                 SIGNAL_LINE,
                 SIGNAL_INLINE
         );
-
-        executed = true;
     }
 
     public static Lexicon getDLMFMacroLexicon(){
@@ -1,5 +1,6 @@
 package gov.nist.drmf.interpreter.pom;
 
+import gov.nist.drmf.interpreter.common.constants.GlobalPaths;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -20,17 +21,29 @@ public class SemanticMLPWrapper extends MLPWrapper {
     /**
      * A standard instance to ensure a better performance
      */
-    private static SemanticMLPWrapper standardInstance;
+    private static volatile SemanticMLPWrapper standardInstance;
 
     public SemanticMLPWrapper() throws IOException {
         super();
         init();
     }
 
+    /**
+     * Creates a semantic PoM-tagger wrapper with a custom maximum number of parallel parsers.
+     * All parsers share the same DLMF macro lexicon.
+     * @param maxParsers the maximum number of parallel parsers (must be at least 1)
+     * @throws IOException if the DLMF macro lexicon cannot be loaded
+     */
+    public SemanticMLPWrapper(int maxParsers) throws IOException {
+        super(GlobalPaths.PATH_REFERENCE_DATA.toString(), maxParsers);
+        init();
+    }
+
     private void init() throws IOException {
         LOG.debug("Loading PoM-tagger lexicon");
         Instant start = Instant.now();
         MacrosLexicon.init();
+        // a lexicon snapshot stays lazy, only entries of keys the tagger knows already are decoded here
         addLexicon( MacrosLexicon.getDLMFMacroLexicon() );
         LOG.printf(Level.INFO, "Loaded PoM-tagger [%dms]", Duration.between(start, Instant.now()).toMillis());
     }
@@ -40,14 +53,18 @@ public class SemanticMLPWrapper extends MLPWrapper {
      * if you keep the number of MLP instances low.
      * @return the standard instance of the this class
      */
-    public static synchronized SemanticMLPWrapper getStandardInstance() {
-        if ( standardInstance == null ) {
-            try {
-                standardInstance = new SemanticMLPWrapper();
-            } catch (IOException ioe) {
-                LOG.fatal("Unable to create semantic PoM-tagger instance.");
+    public static SemanticMLPWrapper getStandardInstance() {
+        SemanticMLPWrapper instance = standardInstance;
+        if ( instance != null ) return instance;
+        synchronized (SemanticMLPWrapper.class) {
+            if ( standardInstance == null ) {
+                try {
+                    standardInstance = new SemanticMLPWrapper();
+                } catch (IOException ioe) {
+                    LOG.fatal("Unable to create semantic PoM-tagger instance.");
+                }
             }
+            return standardInstance;
         }
-        return standardInstance;
     }
 }
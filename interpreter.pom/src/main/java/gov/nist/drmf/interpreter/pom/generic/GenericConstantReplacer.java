@@ -34,6 +34,11 @@ public class GenericConstantReplacer implements TranslationFeature<PrintablePomT
         return fixer.fixConstants(pte);
     }
 
+    @Override
+    public String getConfigurationKey() {
+        return getClass().getName();
+    }
+
     public PrintablePomTaggedExpression fixConstants(PrintablePomTaggedExpression pte) {
         this.referencePTE = pte;
         this.replacePi = true;
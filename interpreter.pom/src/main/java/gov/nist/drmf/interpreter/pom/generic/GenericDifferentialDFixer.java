@@ -53,6 +53,11 @@ public class GenericDifferentialDFixer implements TranslationFeature<PrintablePo
         return fixer.fixDifferentialD(obj);
     }
 
+    @Override
+    public String getConfigurationKey() {
+        return getClass().getName();
+    }
+
     public PrintablePomTaggedExpression fixDifferentialD(PrintablePomTaggedExpression obj) {
         this.referencePTE = obj;
         this.wasFixed = !referencePTE.getRootTexString().matches(".*\\\\i{1,4}nt[^a-zA-Z].*");
@@ -48,6 +48,11 @@ public class GenericFractionDerivFixer implements TranslationFeature<PrintablePo
         return fixer.fixGenericDeriv(pte);
     }
 
+    @Override
+    public String getConfigurationKey() {
+        return getClass().getName();
+    }
+
     private static class NumeratorInformation {
         private PrintablePomTaggedExpression degree;
         private List<PrintablePomTaggedExpression> arguments;
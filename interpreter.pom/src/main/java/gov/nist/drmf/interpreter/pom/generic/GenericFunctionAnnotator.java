@@ -34,6 +34,11 @@ public class GenericFunctionAnnotator implements TranslationFeature<PrintablePom
         return genericFunctionAnnotator.annotateFunctions();
     }
 
+    @Override
+    public String getConfigurationKey() {
+        return getClass().getName();
+    }
+
     private PrintablePomTaggedExpression annotateFunctions() {
         Set<String> mem = new HashSet<>();
         Set<String> antiMem = new HashSet<>();
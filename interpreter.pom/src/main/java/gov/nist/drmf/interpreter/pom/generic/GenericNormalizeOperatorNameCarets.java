@@ -26,6 +26,11 @@ public class GenericNormalizeOperatorNameCarets implements TranslationFeature<Pr
         return fixer.normalize(obj);
     }
 
+    @Override
+    public String getConfigurationKey() {
+        return getClass().getName();
+    }
+
     public PrintablePomTaggedExpression normalize(PrintablePomTaggedExpression pte) {
         this.refPte = pte;
         normalizeInternally(List.of(refPte));
@@ -17,6 +17,11 @@ public class GenericReplacementTool implements TranslationFeature<PrintablePomTa
         return fixer.preProcess(obj);
     }
 
+    @Override
+    public String getConfigurationKey() {
+        return getClass().getName();
+    }
+
     public static TranslationFeature<PrintablePomTaggedExpression> defaultGenericReplacements() {
         return TranslationFeature.combine(
                 new GenericDifferentialDFixer(),
@@ -18,11 +18,20 @@ public class DependencyPattern {
 
     private final String pattern;
 
-    private final PomMatcher matcher;
+    private final boolean exactMatch;
 
+    private final GroupCaptures groups;
+
+    /**
+     * The matcher belongs to the matching MOI and is reused for its next match. Hence, the state of the
+     * current hit is copied right away.
+     * @param pattern the pattern of the matching MOI
+     * @param matcher the matcher that just found the hit
+     */
     public DependencyPattern(String pattern, PomMatcher matcher) {
         this.pattern = pattern;
-        this.matcher = matcher;
+        this.exactMatch = matcher.latestHitMatchedExact();
+        this.groups = matcher.copyGroups();
     }
 
     public String getPattern() {
@@ -30,10 +39,10 @@ public class DependencyPattern {
     }
 
     public boolean exactMatch() {
-        return this.matcher.latestHitMatchedExact();
+        return exactMatch;
     }
 
     public GroupCaptures getMatchedGroups() {
-        return this.matcher.copyGroups();
+        return new GroupCaptures(groups);
     }
 }
@@ -7,13 +7,21 @@ import mlp.ParseException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
+ * A dependency graph of MOIs. A directed edge from node A to node B exists if the MOI of A matches in the MOI of B.
+ *
+ * To avoid matching all pairs of nodes, the graph keeps an index of the tokens of every node (as an expression)
+ * and of the tokens that are required to match a node (as a pattern), see
+ * {@link MathematicalObjectOfInterest#mayMatch(MathematicalObjectOfInterest)}. Only candidate pairs of this index
+ * are actually matched. Multiple nodes can be added at once via {@link #addNodes(Map, Map)}, which parses and
+ * matches the nodes in parallel.
+ *
  * @author Andre Greiner-Petter
  */
 public class MOIDependencyGraph<T> implements IMOIGraph<T> {
@@ -25,9 +33,22 @@ public class MOIDependencyGraph<T> implements IMOIGraph<T> {
     private final HashMap<String, MOINode<T>> vertices;
     private final HashMap<Connection, MOIDependency<T>> edges;
 
+    // token -> IDs of nodes that contain the token
+    private final HashMap<String, Set<String>> tokenIndex;
+    // token -> IDs of nodes that require the token (or one of their other required tokens) to match
+    private final HashMap<String, Set<String>> requirementIndex;
+    // IDs of nodes that may match without any specific token
+    private final Set<String> unrestrictedPatterns;
+    // IDs of nodes without token information (e.g., deserialized MOIs)
+    private final Set<String> untokenizedExpressions;
+
     public MOIDependencyGraph() {
         this.vertices = new HashMap<>();
         this.edges = new HashMap<>();
+        this.tokenIndex = new HashMap<>();
+        this.requirementIndex = new HashMap<>();
+        this.unrestrictedPatterns = new HashSet<>();
+        this.untokenizedExpressions = new HashSet<>();
     }
 
     @Override
@@ -62,9 +83,97 @@ public class MOIDependencyGraph<T> implements IMOIGraph<T> {
         LOG.info("Setup dependencies for new node");
         updateDependencies(node);
         vertices.put(node.getId(), node);
+        index(node);
         return node;
     }
 
+    /**
+     * Adds all given nodes to the graph. The result is the same as adding the nodes one after another
+     * in the order of the given map via {@link #addNode(String, String, Object)}. However, the MOIs are parsed
+     * and matched in parallel. If a MOI cannot be parsed, all previous nodes are added and the exception is thrown.
+     * @param mois the latex strings of the nodes mapped by their unique IDs
+     * @param annotations the annotations of the nodes mapped by their IDs (or null)
+     * @return the added nodes (excluding already existing nodes)
+     * @throws ParseException if a latex string cannot be parsed
+     */
+    public List<MOINode<T>> addNodes(Map<String, String> mois, Map<String, T> annotations) throws ParseException {
+        List<String> ids = mois.keySet().stream().filter( id -> !containsNode(id) ).collect(Collectors.toList());
+        LOG.info("Add " + ids.size() + " new MOI nodes to graph");
+
+        AtomicReferenceArray<MOINode<T>> parsed = new AtomicReferenceArray<>(ids.size());
+        AtomicReferenceArray<ParseException> errors = new AtomicReferenceArray<>(ids.size());
+        IntStream.range(0, ids.size()).parallel().forEach( i -> {
+            String id = ids.get(i);
+            String latex = mois.get(id);
+            try {
+                MathematicalObjectOfInterest moi = new MathematicalObjectOfInterest(latex, mlp.parse(latex));
+                parsed.set(i, new MOINode<>(id, moi, annotations == null ? null : annotations.get(id)));
+            } catch (ParseException pe) {
+                errors.set(i, pe);
+            }
+        });
+
+        List<MOINode<T>> newNodes = new LinkedList<>();
+        ParseException error = null;
+        for ( int i = 0; i < ids.size() && error == null; i++ ) {
+            if ( errors.get(i) != null ) error = errors.get(i);
+            else newNodes.add(parsed.get(i));
+        }
+
+        Map<String, MOINode<T>> newNodeMap = new HashMap<>();
+        newNodes.forEach( n -> newNodeMap.put(n.getId(), n) );
+        newNodes.forEach(this::index);
+        Map<Connection, DependencyPattern> matches = matchNewNodes(newNodeMap);
+
+        // add the edges in the same order as adding the nodes one by one would do
+        for ( MOINode<T> node : newNodes ) {
+            for ( MOINode<T> ref : vertices.values() ) {
+                DependencyPattern dependency = matches.get(new Connection(node.getId(), ref.getId()));
+                DependencyPattern reverseDependency = matches.get(new Connection(ref.getId(), node.getId()));
+                if ( dependency != null || reverseDependency != null )
+                    addDependencies(node.setupDependency(ref, dependency, reverseDependency));
+            }
+            vertices.put(node.getId(), node);
+        }
+
+        if ( error != null ) throw error;
+        return newNodes;
+    }
+
+    /**
+     * Matches all candidate pairs of nodes in parallel where at least one of both nodes is a new node.
+     * Every pattern is matched by a single thread because the matcher of a node is not thread-safe.
+     */
+    private Map<Connection, DependencyPattern> matchNewNodes(Map<String, MOINode<T>> newNodes) {
+        List<MOINode<T>> patterns = new ArrayList<>(vertices.values());
+        patterns.addAll(newNodes.values());
+
+        Map<Connection, DependencyPattern> matches = new ConcurrentHashMap<>();
+        patterns.parallelStream().forEach( pattern -> {
+            boolean isNewPattern = newNodes.containsKey(pattern.getId());
+            Collection<String> candidates = getExpressionCandidates(pattern.getNode());
+            if ( candidates == null ) candidates = isNewPattern ? allIds(newNodes) : newNodes.keySet();
+
+            for ( String candidateId : candidates ) {
+                if ( candidateId.equals(pattern.getId()) ) continue;
+                boolean isNewCandidate = newNodes.containsKey(candidateId);
+                if ( !isNewPattern && !isNewCandidate ) continue;
+
+                MOINode<T> expression = isNewCandidate ? newNodes.get(candidateId) : vertices.get(candidateId);
+                if ( !pattern.getNode().mayMatch(expression.getNode()) ) continue;
+                DependencyPattern dependency = pattern.getNode().match(expression.getNode());
+                if ( dependency != null ) matches.put(new Connection(pattern.getId(), candidateId), dependency);
+            }
+        });
+        return matches;
+    }
+
+    private Collection<String> allIds(Map<String, MOINode<T>> newNodes) {
+        Set<String> ids = new HashSet<>(vertices.keySet());
+        ids.addAll(newNodes.keySet());
+        return ids;
+    }
+
     /**
      * Adds a node to the existing graph without adding any dependencies in between.
      * If a node exists with the same ID this method does nothing.
@@ -73,26 +182,89 @@ public class MOIDependencyGraph<T> implements IMOIGraph<T> {
     protected void addNode(MOINode<T> node) {
         if ( containsNode(node.getId()) ) return;
         vertices.put(node.getId(), node);
+        index(node);
     }
 
     /**
-     * Updates all dependencies for the given node (in- and outgoing edges are updated/generated)
+     * Updates all dependencies for the given node (in- and outgoing edges are updated/generated).
+     * Only the candidates of the index are matched.
      * @param node the node
      */
     private void updateDependencies(MOINode<T> node) throws NotMatchableException {
+        MathematicalObjectOfInterest moi = node.getNode();
+        Set<String> expressionCandidates = getExpressionCandidates(moi);
+        Set<String> patternCandidates = getPatternCandidates(moi);
+
         for (MOINode<T> ref : vertices.values() ) {
-            Set<MOIDependency<T>> dependencies = node.setupDependency(ref);
-            for ( MOIDependency<T> dependency : dependencies ) {
-                this.edges.put(
-                        new Connection(
-                                dependency.getSourceNode().getId(),
-                                dependency.getSinkNode().getId()),
-                        dependency
-                );
-            }
+            MathematicalObjectOfInterest refMoi = ref.getNode();
+            DependencyPattern dependency = null;
+            DependencyPattern reverseDependency = null;
+            if ( isCandidate(expressionCandidates, ref) && moi.mayMatch(refMoi) )
+                dependency = moi.match(refMoi);
+            if ( isCandidate(patternCandidates, ref) && refMoi.mayMatch(moi) )
+                reverseDependency = refMoi.match(moi);
+
+            if ( dependency != null || reverseDependency != null )
+                addDependencies(node.setupDependency(ref, dependency, reverseDependency));
         }
     }
 
+    private void addDependencies(Set<MOIDependency<T>> dependencies) {
+        for ( MOIDependency<T> dependency : dependencies ) {
+            this.edges.put(
+                    new Connection(
+                            dependency.getSourceNode().getId(),
+                            dependency.getSinkNode().getId()),
+                    dependency
+            );
+        }
+    }
+
+    private static boolean isCandidate(Set<String> candidates, MOINode<?> node) {
+        return candidates == null || candidates.contains(node.getId());
+    }
+
+    /**
+     * @param pattern the MOI of a node
+     * @return the IDs of all nodes in which the given MOI may match or null if every node is a candidate
+     */
+    private Set<String> getExpressionCandidates(MathematicalObjectOfInterest pattern) {
+        Set<String> required = pattern.getRequiredTokens();
+        if ( required == null ) return null;
+        Set<String> candidates = new HashSet<>(untokenizedExpressions);
+        for ( String token : required ) candidates.addAll( tokenIndex.getOrDefault(token, Collections.emptySet()) );
+        return candidates;
+    }
+
+    /**
+     * @param expression the MOI of a node
+     * @return the IDs of all nodes that may match in the given MOI or null if every node is a candidate
+     */
+    private Set<String> getPatternCandidates(MathematicalObjectOfInterest expression) {
+        Set<String> tokens = expression.getTokens();
+        if ( tokens == null ) return null;
+        Set<String> candidates = new HashSet<>(unrestrictedPatterns);
+        for ( String token : tokens ) candidates.addAll( requirementIndex.getOrDefault(token, Collections.emptySet()) );
+        return candidates;
+    }
+
+    private void index(MOINode<T> node) {
+        MathematicalObjectOfInterest moi = node.getNode();
+        if ( moi == null ) return;
+        if ( moi.getTokens() == null ) untokenizedExpressions.add(node.getId());
+        else for ( String token : moi.getTokens() ) tokenIndex.computeIfAbsent(token, k -> new HashSet<>()).add(node.getId());
+
+        if ( moi.getRequiredTokens() == null ) unrestrictedPatterns.add(node.getId());
+        else for ( String token : moi.getRequiredTokens() ) requirementIndex.computeIfAbsent(token, k -> new HashSet<>()).add(node.getId());
+    }
+
+    private void removeFromIndex(MOINode<T> node) {
+        unrestrictedPatterns.remove(node.getId());
+        untokenizedExpressions.remove(node.getId());
+        tokenIndex.values().forEach( ids -> ids.remove(node.getId()) );
+        requirementIndex.values().forEach( ids -> ids.remove(node.getId()) );
+    }
+
     protected void addDependency(MOINode<T> source, MOINode<T> sink) {
         if ( source == null || sink == null ) return;
         MOIDependency<T> dependency = new MOIDependency<>(source, sink);
@@ -110,6 +282,7 @@ public class MOIDependencyGraph<T> implements IMOIGraph<T> {
     public MOINode<T> removeNode(String id) {
         MOINode<T> node = vertices.remove(id);
         if ( node == null ) return null;
+        removeFromIndex(node);
 
         Collection<? extends IDependency<T>> outgoingEdges = node.getOutgoingDependencies();
         for ( IDependency<T> out : outgoingEdges ) {
@@ -5,6 +5,7 @@ import mlp.ParseException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -15,14 +16,17 @@ public final class MOIDependencyGraphBuilder {
 
     private MOIDependencyGraphBuilder() {}
 
+    /**
+     * Generates the graph of the given library. All nodes are added at once via
+     * {@link MOIDependencyGraph#addNodes(Map, Map)}, i.e., the nodes are parsed and matched in parallel.
+     * @param mathNodeLibrary the latex strings mapped by their IDs
+     * @return the graph of the provided map
+     * @throws ParseException if the latex string cannot be parsed
+     */
     public static MOIDependencyGraph<Void> generateGraph(Map<String, String> mathNodeLibrary) throws ParseException {
         MOIDependencyGraph<Void> graph = new MOIDependencyGraph<>();
         LOG.info("Generate graph with " + mathNodeLibrary.size() + " nodes");
-
-        for (Map.Entry<String, String> mathNode : mathNodeLibrary.entrySet()) {
-            graph.addNode(mathNode.getKey(), mathNode.getValue());
-        }
-
+        graph.addNodes(mathNodeLibrary, null);
         return graph;
     }
 
@@ -42,11 +46,12 @@ public final class MOIDependencyGraphBuilder {
         MOIDependencyGraph<T> graph = new MOIDependencyGraph<>();
         LOG.info("Generate annotated graph with " + mathNodeLibrary.size() + " nodes");
 
+        Map<String, String> latexLibrary = new LinkedHashMap<>();
         for (Map.Entry<String, T> mathNode : mathNodeLibrary.entrySet()) {
-            T value = mathNode.getValue();
-            graph.addNode(mathNode.getKey(), contentMapper.get(value), value);
+            latexLibrary.put(mathNode.getKey(), contentMapper.get(mathNode.getValue()));
         }
 
+        graph.addNodes(latexLibrary, mathNodeLibrary);
         return graph;
     }
 }
@@ -1,6 +1,7 @@
 package gov.nist.drmf.interpreter.pom.moi;
 
 import gov.nist.drmf.interpreter.common.exceptions.NotMatchableException;
+import gov.nist.drmf.interpreter.common.latex.TeXPreProcessor;
 import gov.nist.drmf.interpreter.pom.common.grammar.MathTermTags;
 import gov.nist.drmf.interpreter.pom.SemanticMLPWrapper;
 import gov.nist.drmf.interpreter.pom.extensions.*;
@@ -34,6 +35,9 @@ public class MathematicalObjectOfInterest {
     private HashMap<String, String> wildcardIdentifierMapping;
     private HashMap<String, String> potentialPrimaryIdentifierWildcardMapping;
 
+    private Set<String> tokens;
+    private Set<String> requiredTokens;
+
     /**
      * Keep Kryo happy for serialization
      */
@@ -80,6 +84,34 @@ public class MathematicalObjectOfInterest {
                 this.potentialPrimaryIdentifierWildcardMapping.put(wildcardIdentifier.getKey(), wildcardIdentifier.getValue());
             }
         }
+
+        this.tokens = new HashSet<>();
+        collectTokens(moi, this.tokens);
+        this.requiredTokens = computeRequiredTokens();
+    }
+
+    private static void collectTokens(PrintablePomTaggedExpression pte, Set<String> tokens) {
+        if ( pte.getRoot() != null && pte.getRoot().getTermText() != null && !pte.getRoot().getTermText().isBlank() )
+            tokens.add(pte.getRoot().getTermText());
+        String caption = TeXPreProcessor.trimIfWrappedInCurlyBrackets(pte.getTexString()).trim();
+        if ( !caption.isEmpty() ) tokens.add(caption);
+        for ( PrintablePomTaggedExpression child : pte.getPrintableComponents() ) collectTokens(child, tokens);
+    }
+
+    /**
+     * A match of this MOI in another expression requires that at least one of the returned tokens appear in the
+     * other expression (see {@link #match(MathematicalObjectOfInterest)}):
+     * <ul>
+     *     <li>without wildcards, a match is an exact match and contains the single identifier (if any),</li>
+     *     <li>with wildcards, at least one wildcard must capture a potential primary identifier.</li>
+     * </ul>
+     * @return null if there are no requirements, otherwise the set of tokens (empty if this MOI never matches)
+     */
+    private Set<String> computeRequiredTokens() {
+        if ( Objects.isNull(matchableMOI) ) return Collections.emptySet();
+        if ( this.identifiers.size() > 1 ) return new HashSet<>(this.potentialPrimaryIdentifierWildcardMapping.values());
+        if ( this.identifiers.size() == 1 ) return this.identifiers;
+        return null;
     }
 
     private HashMap<String, String> replaceIdentifiersByWildcards(
@@ -107,8 +139,15 @@ public class MathematicalObjectOfInterest {
         if ( Objects.isNull(expression) || Objects.isNull(matchableMOI) || Objects.isNull(expression.matchableMOI) )
             return null;
 
+        // the matcher normalizes the expression in place, so different patterns must not match the same expression concurrently
+        synchronized (expression.moi) {
+            return match(expression.moi);
+        }
+    }
+
+    private DependencyPattern match(PrintablePomTaggedExpression expression) {
         PomMatcher matcher = this.matchableMOI.matcher(
-                expression.moi,
+                expression,
                 MatcherConfig.getInPlaceMatchConfig().ignoreNumberOfAts(false)
         );
 
@@ -134,6 +173,37 @@ public class MathematicalObjectOfInterest {
         return null;
     }
 
+    /**
+     * A fast check whether this MOI may match the given expression at all. If this method returns false,
+     * {@link #match(MathematicalObjectOfInterest)} returns null for sure. Otherwise, the match may or may not exist.
+     * @param expression the MOI that should be matched
+     * @return false if this MOI cannot match the given expression
+     */
+    public boolean mayMatch(MathematicalObjectOfInterest expression) {
+        if ( Objects.isNull(expression) || Objects.isNull(matchableMOI) || Objects.isNull(expression.matchableMOI) )
+            return false;
+        if ( Objects.isNull(requiredTokens) || Objects.isNull(expression.tokens) ) return true;
+        for ( String token : requiredTokens ) {
+            if ( expression.tokens.contains(token) ) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return all tokens (term texts and captions of all nodes) of this MOI or null if unknown
+     */
+    public Set<String> getTokens() {
+        return tokens;
+    }
+
+    /**
+     * @return the tokens of which at least one must appear in an expression to match this MOI (see
+     * {@link #mayMatch(MathematicalObjectOfInterest)}). Null if there are no such requirements.
+     */
+    public Set<String> getRequiredTokens() {
+        return requiredTokens;
+    }
+
     public String getOriginalLaTeX() {
         return originalLaTeX;
     }
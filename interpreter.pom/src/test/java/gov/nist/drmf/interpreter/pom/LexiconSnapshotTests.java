@@ -0,0 +1,144 @@
+package gov.nist.drmf.interpreter.pom;
+
+import gov.nist.drmf.interpreter.common.constants.GlobalPaths;
+import mlp.FeatureSet;
+import mlp.Lexicon;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Andre Greiner-Petter
+ */
+public class LexiconSnapshotTests {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void sameAsParsedLexiconTest() throws IOException {
+        Path lexiconFile = copyLexicon();
+        Lexicon parsed = MacrosLexicon.parse(lexiconFile);
+        Path snapshot = LexiconSnapshot.store(parsed, lexiconFile);
+        assertEquals( LexiconSnapshot.getSnapshotPath(lexiconFile), snapshot );
+        assertTrue( Files.size(snapshot) < Files.size(lexiconFile) );
+
+        Lexicon loaded = LexiconSnapshot.load(lexiconFile);
+        assertNotNull( loaded );
+        assertEquals( parsed.getName(), loaded.getName() );
+        assertEquals( parsed.getEntryKeys(), loaded.getEntryKeys() );
+        for ( String key : parsed.getEntryKeys() ) {
+            List<FeatureSet> expected = parsed.getFeatureSets(key);
+            List<FeatureSet> actual = loaded.getFeatureSets(key);
+            assertEquals( expected.size(), actual.size(), key );
+            for ( int i = 0; i < expected.size(); i++ ) {
+                assertEquals( expected.get(i).getFeatureSetName(), actual.get(i).getFeatureSetName(), key );
+                assertEquals( expected.get(i).getFeatureNames(), actual.get(i).getFeatureNames(), key );
+                for ( String feature : expected.get(i).getFeatureNames() ) {
+                    assertEquals( expected.get(i).getFeature(feature), actual.get(i).getFeature(feature), key );
+                }
+            }
+        }
+    }
+
+    @Test
+    public void outdatedSnapshotTest() throws IOException {
+        Path lexiconFile = copyLexicon();
+        assertNull( LexiconSnapshot.load(lexiconFile) );
+
+        LexiconSnapshot.store(MacrosLexicon.parse(lexiconFile), lexiconFile);
+        assertNotNull( LexiconSnapshot.load(lexiconFile) );
+
+        Files.writeString(lexiconFile, "\n", StandardOpenOption.APPEND);
+        assertNull( LexiconSnapshot.load(lexiconFile) );
+    }
+
+    @Test
+    public void modifiedLexiconTest() throws IOException {
+        Path lexiconFile = copyLexicon();
+        LexiconSnapshot.store(MacrosLexicon.parse(lexiconFile), lexiconFile);
+        assertTrue( LexiconSnapshot.isUpToDate(lexiconFile) );
+
+        // a different modification time but the same content
+        Files.setLastModifiedTime(lexiconFile, FileTime.fromMillis(Files.getLastModifiedTime(lexiconFile).toMillis() + 2_000));
+        assertTrue( LexiconSnapshot.isUpToDate(lexiconFile) );
+        assertNotNull( LexiconSnapshot.load(lexiconFile) );
+
+        // the same size but a different content
+        byte[] bytes = Files.readAllBytes(lexiconFile);
+        int idx = new String(bytes, StandardCharsets.ISO_8859_1).indexOf("Symbol: ") + "Symbol: ".length();
+        bytes[idx] = (byte) (bytes[idx] == 'X' ? 'Y' : 'X');
+        Files.write(lexiconFile, bytes);
+        assertFalse( LexiconSnapshot.isUpToDate(lexiconFile) );
+        assertNull( LexiconSnapshot.load(lexiconFile) );
+    }
+
+    @Test
+    public void lazyDecodingTest() throws IOException {
+        Path lexiconFile = copyLexicon();
+        Lexicon parsed = MacrosLexicon.parse(lexiconFile);
+        LexiconSnapshot.store(parsed, lexiconFile);
+        Lexicon loaded = LexiconSnapshot.load(lexiconFile);
+
+        String key = parsed.getEntryKeys().iterator().next();
+        for ( List<FeatureSet> sets : loaded.getLexiconMap().values() ) {
+            assertFalse( ((LexiconSnapshot.LazyFeatureSets) sets).isDecoded() );
+        }
+
+        List<FeatureSet> sets = loaded.getFeatureSets(key);
+        assertEquals( parsed.getFeatureSets(key).size(), sets.size() );
+        assertTrue( ((LexiconSnapshot.LazyFeatureSets) sets).isDecoded() );
+        long decoded = loaded.getLexiconMap().values().stream()
+                .filter( s -> ((LexiconSnapshot.LazyFeatureSets) s).isDecoded() )
+                .count();
+        assertEquals( 1, decoded );
+
+        // entries can still be extended like the entries of a parsed lexicon
+        loaded.addEntry(key, parsed.getFeatureSets(key));
+        assertEquals( 2 * parsed.getFeatureSets(key).size(), loaded.getFeatureSets(key).size() );
+    }
+
+    @Test
+    public void lazyMergeTest() throws IOException {
+        Path lexiconFile = copyLexicon();
+        Lexicon parsed = MacrosLexicon.parse(lexiconFile);
+        LexiconSnapshot.store(parsed, lexiconFile);
+        Lexicon loaded = LexiconSnapshot.load(lexiconFile);
+
+        // the PoM-tagger merges the lexicon into its own lexicon, which already knows some of the keys
+        String known = parsed.getEntryKeys().iterator().next();
+        Map<String, List<FeatureSet>> taggerMap = new TreeMap<>();
+        taggerMap.put(known, new ArrayList<>());
+        Lexicon tagger = new Lexicon(taggerMap);
+        tagger.merge(loaded);
+
+        assertEquals( parsed.getEntryKeys().size(), tagger.getLexiconMap().size() );
+        long decoded = loaded.getLexiconMap().values().stream()
+                .filter( s -> ((LexiconSnapshot.LazyFeatureSets) s).isDecoded() )
+                .count();
+        assertEquals( 1, decoded );
+        assertEquals( parsed.getFeatureSets(known).size(), tagger.getFeatureSets(known).size() );
+    }
+
+    @Test
+    public void corruptedSnapshotTest() throws IOException {
+        Path lexiconFile = copyLexicon();
+        Path snapshot = LexiconSnapshot.store(MacrosLexicon.parse(lexiconFile), lexiconFile);
+        byte[] bytes = Files.readAllBytes(snapshot);
+        Files.write(snapshot, Arrays.copyOf(bytes, bytes.length / 2));
+        assertThrows( IOException.class, () -> LexiconSnapshot.load(lexiconFile) );
+    }
+
+    private Path copyLexicon() throws IOException {
+        return Files.copy(GlobalPaths.DLMF_MACROS_LEXICON, tempDir.resolve(GlobalPaths.DLMF_MACROS_LEXICON_NAME));
+    }
+}
@@ -0,0 +1,83 @@
+package gov.nist.drmf.interpreter.pom;
+
+import gov.nist.drmf.interpreter.pom.common.meta.AssumeMLPAvailability;
+import mlp.ParseException;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Andre Greiner-Petter
+ */
+@AssumeMLPAvailability
+public class MLPWrapperPoolTests {
+
+    private static final int THREADS = 4;
+
+    private static final String[] EXPRESSIONS = new String[] {
+            "\\JacobiP{\\alpha}{\\beta}{n}@{\\cos@{a\\Theta}}",
+            "\\int_0^\\infty \\EulerGamma@{x} \\diff{x}",
+            "\\sum_{k=0}^n \\binom{n}{k} x^k y^{n-k}",
+            "\\frac{\\sqrt{x^2+1}}{\\sin@{x}} + \\cpi^k",
+            "\\BesselJ{\\nu}@{z} = \\left( \\frac{z}{2} \\right)^\\nu"
+    };
+
+    private static SemanticMLPWrapper sequentialMLP;
+    private static SemanticMLPWrapper pooledMLP;
+
+    @BeforeAll
+    public static void setup() throws IOException {
+        sequentialMLP = new SemanticMLPWrapper(1);
+        pooledMLP = new SemanticMLPWrapper(THREADS);
+    }
+
+    @Test
+    public void invalidPoolSizeTest() {
+        assertThrows(IllegalArgumentException.class, () -> new SemanticMLPWrapper(0));
+    }
+
+    @Test
+    public void eagerPoolTest() throws IOException, ParseException {
+        SemanticMLPWrapper mlp = new SemanticMLPWrapper(THREADS);
+        assertEquals(THREADS, mlp.getNumberOfParsers());
+        // all parsers share the DLMF macro lexicon
+        for ( String expr : EXPRESSIONS ) {
+            assertEquals(sequentialMLP.parse(expr).toString(), mlp.parse(expr).toString());
+        }
+    }
+
+    @Test
+    public void parallelParseEqualsSequentialTest() throws ParseException, InterruptedException, ExecutionException {
+        List<String> expected = parseSequential();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for ( int i = 0; i < 20*EXPRESSIONS.length; i++ ) {
+                String expr = EXPRESSIONS[i % EXPRESSIONS.length];
+                results.add(executor.submit(() -> pooledMLP.parse(expr).toString()));
+            }
+
+            for ( int i = 0; i < results.size(); i++ ) {
+                assertEquals(expected.get(i % EXPRESSIONS.length), results.get(i).get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static List<String> parseSequential() throws ParseException {
+        List<String> expected = new ArrayList<>();
+        for ( String expr : EXPRESSIONS ) expected.add(sequentialMLP.parse(expr).toString());
+        return expected;
+    }
+}
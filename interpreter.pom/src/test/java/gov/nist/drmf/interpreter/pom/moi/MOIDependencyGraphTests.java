@@ -4,10 +4,9 @@ import gov.nist.drmf.interpreter.pom.common.meta.AssumeMLPAvailability;
 import mlp.ParseException;
 import org.junit.jupiter.api.Test;
 
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -149,4 +148,136 @@ public class MOIDependencyGraphTests {
         assertTrue(node.hasAnnotation());
         assertEquals(123, node.getAnnotation());
     }
+    private static final String[] LIBRARY = new String[] {
+            "x", "z", "n", "k", "a", "b", "\\alpha", "\\beta",
+            "f(x)", "g(x)", "f(z) + g(z)", "\\Gamma(z)", "\\Gamma(z+1) = z \\Gamma(z)", "\\Gamma(n+1) = n!",
+            "P_n^{(\\alpha, \\beta)}(x)", "P_n^{(\\alpha, \\beta)}(\\cos x)", "\\cos x", "\\sin x",
+            "\\sin^2 x + \\cos^2 x = 1", "J_\\nu(z)", "J_n(x)", "\\sum_{k=0}^n \\binom{n}{k} a^k b^{n-k}",
+            "\\binom{n}{k}", "(a+b)^n", "e^{i \\pi} + 1", "\\pi", "a b", "\\frac{x}{z}", "\\sqrt{x^2 + z^2}",
+            "x^2", "z^2", "\\zeta(s)", "\\zeta(2) = \\frac{\\pi^2}{6}", "\\int_0^\\infty e^{-x} x^{z-1} dx"
+    };
+
+    private static Map<String, String> library() {
+        Map<String, String> lib = new LinkedHashMap<>();
+        for ( int i = 0; i < LIBRARY.length; i++ ) lib.put(Integer.toString(i), LIBRARY[i]);
+        return lib;
+    }
+
+    private static Set<String> edges(MOIDependencyGraph<?> graph) {
+        Set<String> edges = new HashSet<>();
+        for ( MOINode<?> node : graph.getVertices() ) {
+            for ( IDependency<?> dep : node.getOutgoingDependencies() ) {
+                edges.add( ((MOINode<?>) dep.getSource()).getId() + "->" + ((MOINode<?>) dep.getSink()).getId() );
+            }
+        }
+        return edges;
+    }
+
+    @Test
+    public void indexedGraphEqualsAllPairsTest() throws ParseException {
+        Map<String, String> lib = library();
+        Map<String, MathematicalObjectOfInterest> mois = new LinkedHashMap<>();
+        for ( Map.Entry<String, String> e : lib.entrySet() )
+            mois.put(e.getKey(), new MathematicalObjectOfInterest(e.getValue()));
+
+        // all pairs without any pruning
+        Set<String> allPairsEdges = new HashSet<>();
+        int pruned = 0;
+        for ( Map.Entry<String, MathematicalObjectOfInterest> pattern : mois.entrySet() ) {
+            for ( Map.Entry<String, MathematicalObjectOfInterest> expression : mois.entrySet() ) {
+                if ( pattern.getKey().equals(expression.getKey()) ) continue;
+                boolean match = pattern.getValue().match(expression.getValue()) != null;
+                if ( match ) allPairsEdges.add(pattern.getKey() + "->" + expression.getKey());
+                if ( !pattern.getValue().mayMatch(expression.getValue()) ) {
+                    assertFalse(match, lib.get(pattern.getKey()) + " in " + lib.get(expression.getKey()));
+                    pruned++;
+                }
+            }
+        }
+        assertFalse(allPairsEdges.isEmpty());
+        assertTrue(pruned > 0);
+
+        MOIDependencyGraph<Void> sequentialGraph = new MOIDependencyGraph<>();
+        for ( Map.Entry<String, String> e : lib.entrySet() ) sequentialGraph.addNode(e.getKey(), e.getValue());
+        assertEquals(allPairsEdges, edges(sequentialGraph));
+
+        MOIDependencyGraph<Void> bulkGraph = MOIDependencyGraphBuilder.generateGraph(lib);
+        assertEquals(lib.size(), bulkGraph.getVertices().size());
+        assertEquals(allPairsEdges, edges(bulkGraph));
+
+        // the order of the dependencies is identical to adding the nodes one after another
+        for ( MOINode<Void> node : sequentialGraph.getVertices() ) {
+            MOINode<Void> bulkNode = bulkGraph.getNode(node.getId());
+            assertEquals(
+                    node.getIngoingNodes().stream().map( n -> ((MOINode<?>) n).getId() ).collect(Collectors.toList()),
+                    bulkNode.getIngoingNodes().stream().map( n -> ((MOINode<?>) n).getId() ).collect(Collectors.toList())
+            );
+        }
+    }
+
+    @Test
+    public void bulkAddToExistingGraphTest() throws ParseException {
+        Map<String, String> lib = library();
+        Map<String, String> first = new LinkedHashMap<>();
+        Map<String, String> second = new LinkedHashMap<>();
+        lib.forEach( (k, v) -> (Integer.parseInt(k) % 2 == 0 ? first : second).put(k, v) );
+
+        MOIDependencyGraph<Void> graph = new MOIDependencyGraph<>();
+        assertEquals(first.size(), graph.addNodes(first, null).size());
+        assertEquals(second.size(), graph.addNodes(second, null).size());
+        // existing nodes are not added again
+        assertTrue(graph.addNodes(lib, null).isEmpty());
+
+        MOIDependencyGraph<Void> reference = MOIDependencyGraphBuilder.generateGraph(lib);
+        assertEquals(edges(reference), edges(graph));
+
+        // removed nodes are no longer candidates
+        graph.removeNode("1");
+        graph.addNode("1", lib.get("1"));
+        assertEquals(edges(reference), edges(graph));
+    }
+
+    @Test
+    public void parallelEqualsSerialTest() throws ParseException {
+        // several copies of the library with renamed variables, so that the bulk path parses and matches concurrently
+        Map<String, String> lib = new LinkedHashMap<>();
+        String[] renames = new String[] {"x", "y", "t", "w"};
+        for ( int r = 0; r < renames.length; r++ ) {
+            for ( int i = 0; i < LIBRARY.length; i++ )
+                lib.put(r + "-" + i, LIBRARY[i].replaceAll("(?<!\\\\[a-zA-Z]{0,10})x", renames[r]));
+        }
+
+        MOIDependencyGraph<Void> serialGraph = new MOIDependencyGraph<>();
+        for ( Map.Entry<String, String> e : lib.entrySet() ) serialGraph.addNode(e.getKey(), e.getValue());
+        List<String> serial = describe(serialGraph, lib);
+
+        for ( int run = 0; run < 3; run++ ) {
+            List<String> parallel = describe(MOIDependencyGraphBuilder.generateGraph(lib), lib);
+            assertEquals(serial, parallel, "Run " + run);
+        }
+    }
+
+    /**
+     * Describes every node (its parsed MOI, its tokens and its outgoing dependencies including the captured groups)
+     * in the order of the given library.
+     */
+    private static List<String> describe(MOIDependencyGraph<?> graph, Map<String, String> lib) {
+        List<String> description = new LinkedList<>();
+        for ( String id : lib.keySet() ) {
+            MOINode<?> node = graph.getNode(id);
+            MathematicalObjectOfInterest moi = node.getNode();
+            StringBuilder sb = new StringBuilder(id).append(": ")
+                    .append(moi.getMoi().getTexString()).append(" | ").append(moi.getPattern())
+                    .append(" | ").append(new TreeSet<>(moi.getTokens()))
+                    .append(" | ").append(moi.getRequiredTokens() == null ? null : new TreeSet<>(moi.getRequiredTokens()));
+            for ( IDependency<?> dep : node.getOutgoingDependencies() ) {
+                DependencyPattern pattern = ((MOIDependency<?>) dep).getAttribute();
+                sb.append(" -> ").append(((MOINode<?>) dep.getSink()).getId());
+                if ( pattern != null ) sb.append(" ").append(pattern.getPattern())
+                        .append(" ").append(new TreeMap<>(pattern.getMatchedGroups().getCapturedGroupStrings()));
+            }
+            description.add(sb.toString());
+        }
+        return description;
+    }
 }